@@ -52,6 +52,13 @@ public interface BatchCompilationService extends AutoCloseable {
     com.ets2jsc.domain.model.compilation.CompilationResult compileProject(
             Path sourceDir, Path outputDir, boolean copyResources) throws com.ets2jsc.shared.exception.CompilationException;
 
+    /**
+     * Cancels the batches that are running. Files that have not started are
+     * reported as skipped, and parser and tsc processes working on the others
+     * are killed. Batches started afterwards are not affected.
+     */
+    void cancel();
+
     /**
      * Gets the compiler configuration.
      *
@@ -0,0 +1,81 @@
+package com.ets2jsc.application.compile;
+
+import com.ets2jsc.infrastructure.parser.ProcessMemorySampler;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Samples the memory of the compiler and its child processes while a build runs.
+ * <p>
+ * Parser workers come and go during a build, so the peak is taken from
+ * periodic samples rather than from the end state.
+ */
+final class BuildMemoryMonitor implements AutoCloseable {
+
+    private static final long SAMPLE_INTERVAL_MILLIS = 200;
+
+    private static final ScheduledExecutorService SAMPLER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "ETS-Memory-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final LongSupplier memorySampler;
+    private final AtomicLong peakBytes;
+    private final ScheduledFuture<?> sampling;
+
+    private BuildMemoryMonitor(LongSupplier memorySampler, long intervalMillis) {
+        this.memorySampler = memorySampler;
+        this.peakBytes = new AtomicLong(-1);
+        sample();
+        this.sampling = SAMPLER.scheduleAtFixedRate(this::sample, intervalMillis, intervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts sampling the JVM and its child processes.
+     *
+     * @return the running monitor
+     */
+    static BuildMemoryMonitor start() {
+        return start(ProcessMemorySampler::processTreeBytes, SAMPLE_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Starts sampling with a custom sampler.
+     *
+     * @param memorySampler returns the current total memory in bytes
+     * @param intervalMillis the time between two samples
+     * @return the running monitor
+     */
+    static BuildMemoryMonitor start(LongSupplier memorySampler, long intervalMillis) {
+        return new BuildMemoryMonitor(memorySampler, intervalMillis);
+    }
+
+    /**
+     * Stops sampling after a last sample.
+     *
+     * @return the peak in bytes
+     */
+    long stop() {
+        close();
+        return peakBytes.get();
+    }
+
+    @Override
+    public void close() {
+        if (sampling.cancel(false)) {
+            sample();
+        }
+    }
+
+    private void sample() {
+        long bytes = memorySampler.getAsLong();
+        peakBytes.accumulateAndGet(bytes, Math::max);
+    }
+}
@@ -7,8 +7,10 @@ import com.ets2jsc.domain.service.GeneratorService;
 import com.ets2jsc.domain.service.ParserService;
 import com.ets2jsc.domain.service.TransformerService;
 import com.ets2jsc.shared.exception.CompilationException;
+import com.ets2jsc.shared.process.CancellationToken;
 
 import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
 
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -76,16 +78,23 @@ public class CompilationPipeline implements AutoCloseable {
 
     /**
      * Executes the compilation pipeline for a source file.
+     * <p>
+     * The file gets the configured per-file deadline, as a child of the
+     * {@link CancellationToken} bound to the calling thread, so parser
+     * processes still running when it passes are killed and cancelling the
+     * caller's token stops the file.
      *
      * @param sourcePath  path to the source file
      * @param outputPath  path to the output file
      * @return compilation result
-     * @throws CompilationException if compilation fails
+     * @throws CompilationException if compilation fails, times out or is cancelled
      */
     public CompilationResult execute(Path sourcePath, Path outputPath) throws CompilationException {
         checkNotClosed();
         long startTime = System.currentTimeMillis();
-        try {
+        CancellationToken fileToken = CancellationToken.current()
+                .child(config.getFileTimeoutSeconds(), TimeUnit.SECONDS);
+        try (CancellationToken.Scope ignored = fileToken.bind()) {
             // Stage 1: Parse
             SourceFile sourceFile = parser.parseFile(sourcePath);
             // Stage 2: Transform
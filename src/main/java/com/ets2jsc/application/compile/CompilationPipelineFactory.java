@@ -2,6 +2,7 @@ package com.ets2jsc.application.compile;
 
 import com.ets2jsc.domain.model.ast.AstNode;
 import com.ets2jsc.domain.model.ast.SourceFile;
+import com.ets2jsc.domain.model.compilation.ConversionCacheStats;
 import com.ets2jsc.domain.model.config.CompilerConfig;
 import com.ets2jsc.domain.service.GeneratorService;
 import com.ets2jsc.domain.service.ParserService;
@@ -10,10 +11,16 @@ import com.ets2jsc.infrastructure.factory.DefaultTransformerFactory;
 import com.ets2jsc.infrastructure.factory.TransformerFactory;
 import com.ets2jsc.infrastructure.generator.CodeGenerator;
 import com.ets2jsc.infrastructure.generator.JsWriter;
+import com.ets2jsc.infrastructure.parser.NativeTypeScriptParser;
+import com.ets2jsc.infrastructure.parser.ParserPoolConfig;
 import com.ets2jsc.infrastructure.parser.TypeScriptScriptParser;
+import com.ets2jsc.infrastructure.parser.internal.ITypeScriptParser;
 import com.ets2jsc.shared.exception.CodeGenerationException;
 import com.ets2jsc.shared.exception.CompilationException;
+import com.ets2jsc.shared.util.ResourceIndex;
 import com.ets2jsc.infrastructure.transformer.AstTransformer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -26,6 +33,10 @@ import java.nio.file.Path;
  */
 public class CompilationPipelineFactory {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompilationPipelineFactory.class);
+
+    private static final long BYTES_PER_MB = 1024L * 1024;
+
     /**
      * Creates a new compilation pipeline with default configuration.
      *
@@ -42,7 +53,22 @@ public class CompilationPipelineFactory {
      * @return a new compilation pipeline
      */
     public static CompilationPipeline createPipeline(CompilerConfig config) {
-        ParserService parser = createParserService();
+        return createPipeline(config, 1);
+    }
+
+    /**
+     * Creates a new compilation pipeline whose parser can serve several threads at once.
+     * <p>
+     * With more than one parser worker, parsing is backed by a pool of warm
+     * parser processes; pass the thread pool size of the batch service that
+     * will share the pipeline.
+     *
+     * @param config the compiler configuration
+     * @param parserWorkers the maximum number of concurrent parser workers
+     * @return a new compilation pipeline
+     */
+    public static CompilationPipeline createPipeline(CompilerConfig config, int parserWorkers) {
+        ParserService parser = createParserService(config, parserWorkers);
         TransformerService transformerService = createTransformerService(config);
         GeneratorService generatorService = createGeneratorService(config);
 
@@ -52,17 +78,20 @@ public class CompilationPipelineFactory {
     /**
      * Creates a parser service.
      *
+     * @param config the compiler configuration
+     * @param parserWorkers the maximum number of concurrent parser workers
      * @return a new parser service
      */
-    private static ParserService createParserService() {
-        TypeScriptScriptParser typeScriptParser = new TypeScriptScriptParser();
+    private static ParserService createParserService(CompilerConfig config, int parserWorkers) {
+        ITypeScriptParser typeScriptParser = createTypeScriptParser(config, parserWorkers);
+        boolean incremental = config.isIncrementalParsing();
 
         return new ParserService() {
             @Override
             public SourceFile parseFile(Path sourcePath) throws com.ets2jsc.shared.exception.ParserException {
                 try {
                     String sourceCode = Files.readString(sourcePath);
-                    return typeScriptParser.parse(sourcePath.toString(), sourceCode);
+                    return parseString(sourcePath.toString(), sourceCode);
                 } catch (Exception e) {
                     throw new com.ets2jsc.shared.exception.ParserException("Failed to read file: " + sourcePath, e);
                 }
@@ -70,7 +99,9 @@ public class CompilationPipelineFactory {
 
             @Override
             public SourceFile parseString(String fileName, String sourceCode) throws com.ets2jsc.shared.exception.ParserException {
-                return typeScriptParser.parse(fileName, sourceCode);
+                return incremental
+                        ? typeScriptParser.parseIncremental(fileName, sourceCode)
+                        : typeScriptParser.parse(fileName, sourceCode);
             }
 
             @Override
@@ -84,20 +115,104 @@ public class CompilationPipelineFactory {
                         || fileName.endsWith(".tsx");
             }
 
+            @Override
+            public ConversionCacheStats getConversionCacheStats() {
+                return typeScriptParser.getConversionCacheStats();
+            }
+
+            @Override
+            public void setResourceIndex(ResourceIndex index) {
+                typeScriptParser.setResourceIndex(index);
+            }
+
             @Override
             public void close() {
-                // Cleanup if needed
+                typeScriptParser.close();
             }
         };
     }
 
+    /**
+     * Creates the TypeScript parser for the configured backend.
+     *
+     * @param config the compiler configuration
+     * @param parserWorkers the maximum number of concurrent parser workers
+     * @return a new TypeScript parser
+     */
+    private static ITypeScriptParser createTypeScriptParser(CompilerConfig config, int parserWorkers) {
+        if (config.getParserBackend() == CompilerConfig.ParserBackend.JAVA) {
+            NativeTypeScriptParser parser = new NativeTypeScriptParser(() -> createScriptParser(config, parserWorkers));
+            parser.setParallelConversionThreshold(config.getParallelConversionThreshold());
+            return parser;
+        }
+        return createScriptParser(config, parserWorkers);
+    }
+
+    /**
+     * Creates the parser that runs the TypeScript parser script.
+     *
+     * @param config the compiler configuration
+     * @param parserWorkers the maximum number of concurrent parser workers
+     * @return a new script parser
+     */
+    private static TypeScriptScriptParser createScriptParser(CompilerConfig config, int parserWorkers) {
+        TypeScriptScriptParser parser = createScriptParserBackend(config, parserWorkers);
+        parser.setParallelConversionThreshold(config.getParallelConversionThreshold());
+        return parser;
+    }
+
+    /**
+     * Creates the script parser on the configured backend.
+     *
+     * @param config the compiler configuration
+     * @param parserWorkers the maximum number of concurrent parser workers
+     * @return a new script parser
+     */
+    private static TypeScriptScriptParser createScriptParserBackend(CompilerConfig config, int parserWorkers) {
+        if (config.getParserBackend() == CompilerConfig.ParserBackend.GRAAL_JS) {
+            return TypeScriptScriptParser.inProcess(parserWorkers);
+        }
+        if (config.getParserAstFormat() == CompilerConfig.AstFormat.BINARY) {
+            // The binary reader needs the whole message, so these ASTs are not converted as they arrive
+            LOGGER.warn("Binary parser ASTs are decoded whole before conversion and do not stream; "
+                    + "peak memory follows the largest file. Use the JSON AST format to stream large files.");
+        }
+        if (config.getParserBackend() == CompilerConfig.ParserBackend.NODE_THREADS) {
+            return TypeScriptScriptParser.threadHost(parserWorkers,
+                    config.getParserAstFormat(), config.getParserAstEmission());
+        }
+        // Memory limits are enforced by the worker pool, so they need one even for a single worker
+        boolean memoryLimited = config.getMemoryBudgetMb() > 0 || config.getParserMaxOldSpaceMb() > 0;
+        return parserWorkers > 1 || memoryLimited
+                ? new TypeScriptScriptParser(createPoolConfig(config, parserWorkers),
+                        config.getParserAstFormat(), config.getParserAstEmission())
+                : new TypeScriptScriptParser(config.getParserAstFormat(), config.getParserAstEmission());
+    }
+
+    /**
+     * Creates the parser worker pool configuration.
+     *
+     * @param config the compiler configuration
+     * @param parserWorkers the maximum number of concurrent parser workers
+     * @return the pool configuration
+     */
+    private static ParserPoolConfig createPoolConfig(CompilerConfig config, int parserWorkers) {
+        return ParserPoolConfig.builder()
+                .maxWorkers(parserWorkers)
+                .maxFilesPerWorker(config.getParserWorkerMaxFiles())
+                .maxRssGrowthBytes(config.getParserWorkerMaxRssGrowthMb() * BYTES_PER_MB)
+                .memoryBudgetBytes(config.getMemoryBudgetMb() * BYTES_PER_MB)
+                .maxOldSpaceMb(config.getParserMaxOldSpaceMb())
+                .build();
+    }
+
     /**
      * Creates a transformer service.
      *
      * @param config the compiler configuration
      * @return a new transformer service
      */
-    private static TransformerService createTransformerService(CompilerConfig config) {
+    static TransformerService createTransformerService(CompilerConfig config) {
         TransformerFactory transformerFactory = new DefaultTransformerFactory();
         var transformers = transformerFactory.createTransformers(config);
         var currentConfig = config; // Capture for closure
@@ -151,7 +266,7 @@ public class CompilationPipelineFactory {
      * @param config the compiler configuration
      * @return a new generator service
      */
-    private static GeneratorService createGeneratorService(CompilerConfig config) {
+    static GeneratorService createGeneratorService(CompilerConfig config) {
         CodeGenerator codeGenerator = new CodeGenerator(config);
         JsWriter jsWriter = new JsWriter();
 
@@ -2,10 +2,14 @@ package com.ets2jsc.application.compile;
 
 import com.ets2jsc.domain.model.compilation.CompilationResult;
 import com.ets2jsc.domain.model.compilation.CompilationResult.FileResult;
+import com.ets2jsc.domain.model.compilation.ConversionCacheStats;
 import com.ets2jsc.domain.model.config.CompilerConfig;
+import com.ets2jsc.domain.service.ParserService;
 import com.ets2jsc.shared.constant.Symbols;
 import com.ets2jsc.shared.exception.CompilationException;
+import com.ets2jsc.shared.process.CancellationToken;
 import com.ets2jsc.shared.util.ResourceFileCopier;
+import com.ets2jsc.shared.util.ResourceIndex;
 import com.ets2jsc.shared.util.SourceFileFinder;
 import java.io.IOException;
 import java.nio.file.Files;
@@ -14,6 +18,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -34,11 +39,13 @@ public class ParallelBatchCompilationService implements BatchCompilationService
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ParallelBatchCompilationService.class);
     private static final int DEFAULT_THREAD_MULTIPLIER = 1;
+    private static final String CANCELLED_REASON = "Compilation cancelled";
 
     private final CompilationPipeline pipeline;
     private final ExecutorService executorService;
     private final int threadPoolSize;
     private final CompilerConfig config;
+    private final AtomicReference<CancellationToken> batchToken = new AtomicReference<>(CancellationToken.create());
     private volatile boolean closed;
 
     /**
@@ -62,13 +69,7 @@ public class ParallelBatchCompilationService implements BatchCompilationService
         }
         this.pipeline = pipeline;
         this.config = pipeline.getConfig();
-        // Determine actual thread pool size
-        int cpuCores = Runtime.getRuntime().availableProcessors();
-        if (threadPoolSize > 0) {
-            this.threadPoolSize = Math.min(threadPoolSize, cpuCores * DEFAULT_THREAD_MULTIPLIER);
-        } else {
-            this.threadPoolSize = cpuCores;
-        }
+        this.threadPoolSize = resolveThreadPoolSize(threadPoolSize);
         // Create thread pool with custom thread factory
         this.executorService = Executors.newFixedThreadPool(this.threadPoolSize,
                 new ThreadFactory() {
@@ -85,8 +86,44 @@ public class ParallelBatchCompilationService implements BatchCompilationService
         LOGGER.info("Parallel batch compilation service initialized with {} threads", this.threadPoolSize);
     }
 
+    /**
+     * Determines the actual thread pool size for a requested size.
+     * Use it to size resources shared by the pool's threads, such as parser workers.
+     *
+     * @param requested requested number of threads (0 or negative uses CPU core count)
+     * @return the number of threads the service will use
+     */
+    public static int resolveThreadPoolSize(int requested) {
+        int cpuCores = Runtime.getRuntime().availableProcessors();
+        if (requested > 0) {
+            return Math.min(requested, cpuCores * DEFAULT_THREAD_MULTIPLIER);
+        }
+        return cpuCores;
+    }
+
     @Override
     public CompilationResult compileBatch(List<Path> sourceFiles, Path outputDir) throws CompilationException {
+        ConversionCacheStats cacheBefore = conversionCacheStats();
+        try (BuildMemoryMonitor monitor = BuildMemoryMonitor.start()) {
+            CompilationResult result = compileFiles(sourceFiles, outputDir);
+            result.recordPeakMemory(monitor.stop());
+            result.recordConversionCache(conversionCacheStats().minus(cacheBefore));
+            return result;
+        }
+    }
+
+    @Override
+    public CompilationResult compileBatchWithStructure(List<Path> sourceFiles, Path baseDir, Path outputDir) {
+        ConversionCacheStats cacheBefore = conversionCacheStats();
+        try (BuildMemoryMonitor monitor = BuildMemoryMonitor.start()) {
+            CompilationResult result = compileFilesWithStructure(sourceFiles, baseDir, outputDir);
+            result.recordPeakMemory(monitor.stop());
+            result.recordConversionCache(conversionCacheStats().minus(cacheBefore));
+            return result;
+        }
+    }
+
+    private CompilationResult compileFiles(List<Path> sourceFiles, Path outputDir) {
         LOGGER.info("Compiling {} files in parallel mode, threads: {}", sourceFiles.size(), threadPoolSize);
         CompilationResult result = new CompilationResult();
         try {
@@ -100,10 +137,11 @@ public class ParallelBatchCompilationService implements BatchCompilationService
             return result;
         }
         // Submit compilation tasks
+        CancellationToken token = batchToken.get();
         List<Future<FileResult>> futures = new ArrayList<>();
         for (Path sourceFile : sourceFiles) {
             Future<FileResult> future = executorService.submit(
-                    new CompilationTask(sourceFile, outputDir));
+                    new CompilationTask(sourceFile, outputDir, token));
             futures.add(future);
         }
         // Collect results
@@ -121,15 +159,21 @@ public class ParallelBatchCompilationService implements BatchCompilationService
         return result;
     }
 
-    @Override
-    public CompilationResult compileBatchWithStructure(List<Path> sourceFiles, Path baseDir, Path outputDir) {
+    private CompilationResult compileFilesWithStructure(List<Path> sourceFiles, Path baseDir, Path outputDir) {
         CompilationResult result = new CompilationResult();
 
         TypeScriptCompilerService tsCompiler = new TypeScriptCompilerService();
         boolean tscAvailable = tsCompiler.isTscAvailable();
 
+        CancellationToken token = batchToken.get();
         for (Path sourceFile : sourceFiles) {
-            try {
+            if (token.isCancelled()) {
+                result.addFileResult(sourceFile, FileResult.skipped(sourceFile, CANCELLED_REASON));
+                continue;
+            }
+            // The per-file deadline also covers tsc, which does not run through the pipeline
+            try (CancellationToken.Scope ignored = token
+                    .child(config.getFileTimeoutSeconds(), TimeUnit.SECONDS).bind()) {
                 // Calculate relative path from base directory
                 Path relativePath = baseDir.relativize(sourceFile);
                 // Transform source file extension to .js
@@ -170,8 +214,9 @@ public class ParallelBatchCompilationService implements BatchCompilationService
                     result.addFileResult(sourceFile, FileResult.success(sourceFile, outputPath, 0));
                 }
             } catch (Exception e) {
-                result.addFileResult(sourceFile, FileResult.failure(sourceFile, null,
-                        "Compilation failed: " + e.getMessage(), e, 0));
+                result.addFileResult(sourceFile, token.isCancelled()
+                        ? FileResult.skipped(sourceFile, CANCELLED_REASON)
+                        : FileResult.failure(sourceFile, null, "Compilation failed: " + e.getMessage(), e, 0));
             }
         }
         result.markCompleted();
@@ -202,10 +247,16 @@ public class ParallelBatchCompilationService implements BatchCompilationService
             // Find all source files in the project
             List<Path> sourceFiles = SourceFileFinder.findSourceFiles(sourceDir);
 
-            // Compile source files while preserving directory structure
+            // Compile source files while preserving directory structure,
+            // resolving resource references against the project's resources
             CompilationResult compileResult;
             if (!sourceFiles.isEmpty()) {
-                compileResult = compileBatchWithStructure(sourceFiles, sourceDir, outputDir);
+                useResourceIndex(ResourceIndex.loadForBuild(sourceDir));
+                try {
+                    compileResult = compileBatchWithStructure(sourceFiles, sourceDir, outputDir);
+                } finally {
+                    useResourceIndex(null);
+                }
             } else {
                 compileResult = new CompilationResult();
             }
@@ -216,23 +267,49 @@ public class ParallelBatchCompilationService implements BatchCompilationService
                 copiedResourceCount = ResourceFileCopier.copyResourceFiles(sourceDir, outputDir);
             }
 
-            return new CompilationResult(
+            CompilationResult projectResult = new CompilationResult(
                     compileResult.getFileResults(),
                     compileResult.getTotalCount(),
                     compileResult.getSuccessCount(),
                     compileResult.getFailureCount(),
                     copiedResourceCount);
+            projectResult.recordPeakMemory(compileResult.getPeakMemoryBytes());
+            projectResult.recordConversionCache(compileResult.getConversionCacheStats());
+            return projectResult;
 
         } catch (IOException e) {
             throw new CompilationException("Failed to compile project: " + sourceDir, e);
         }
     }
 
+    /**
+     * Sets the resource index of the pipeline's parser.
+     */
+    private void useResourceIndex(ResourceIndex index) {
+        ParserService parser = pipeline.getParser();
+        if (parser != null) {
+            parser.setResourceIndex(index);
+        }
+    }
+
+    /**
+     * Gets the subtree cache counts of the pipeline's parser so far.
+     */
+    private ConversionCacheStats conversionCacheStats() {
+        ParserService parser = pipeline.getParser();
+        return parser != null ? parser.getConversionCacheStats() : ConversionCacheStats.EMPTY;
+    }
+
     @Override
     public CompilationMode getMode() {
         return CompilationMode.PARALLEL;
     }
 
+    @Override
+    public void cancel() {
+        batchToken.getAndSet(CancellationToken.create()).cancel();
+    }
+
     @Override
     public void close() {
         if (closed) {
@@ -276,23 +353,31 @@ public class ParallelBatchCompilationService implements BatchCompilationService
 
         private final Path sourceFile;
         private final Path outputDir;
+        private final CancellationToken token;
 
-        public CompilationTask(Path sourceFile, Path outputDir) {
+        public CompilationTask(Path sourceFile, Path outputDir, CancellationToken token) {
             this.sourceFile = sourceFile;
             this.outputDir = outputDir;
+            this.token = token;
         }
 
         @Override
         public FileResult call() {
+            if (token.isCancelled()) {
+                return FileResult.skipped(sourceFile, CANCELLED_REASON);
+            }
             long startTime = System.currentTimeMillis();
             String fileName = sourceFile.getFileName().toString();
             String outputName = fileName.replace(".ets", ".js").replace(".ts", ".js");
             Path outputPath = outputDir.resolve(outputName);
-            try {
+            try (CancellationToken.Scope ignored = token.bind()) {
                 pipeline.execute(sourceFile, outputPath);
                 long duration = System.currentTimeMillis() - startTime;
                 return FileResult.success(sourceFile, outputPath, duration);
             } catch (Exception e) {
+                if (token.isCancelled()) {
+                    return FileResult.skipped(sourceFile, CANCELLED_REASON);
+                }
                 long duration = System.currentTimeMillis() - startTime;
                 return FileResult.failure(sourceFile, outputPath,
                         "Compilation failed: " + e.getMessage(), e, duration);
@@ -0,0 +1,150 @@
+package com.ets2jsc.application.compile;
+
+import com.ets2jsc.domain.model.ast.SourceFile;
+import com.ets2jsc.domain.model.config.CompilerConfig;
+import com.ets2jsc.domain.service.GeneratorService;
+import com.ets2jsc.domain.service.TransformerService;
+import com.ets2jsc.shared.exception.CompilationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Warms up a compilation pipeline in the background.
+ * <p>
+ * A small built-in ArkTS component is parsed in memory once per parser
+ * worker and concurrently, so the parser processes are started, and then
+ * transformed and generated once, so the transformer and generator classes
+ * are loaded and compiled by the JIT before the first real file arrives.
+ * Nothing is written to disk.
+ */
+public final class PipelineWarmer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PipelineWarmer.class);
+
+    /** File name reported for the sample; it never exists on disk. */
+    static final String SAMPLE_FILE_NAME = "__warmup__.ets";
+
+    static final String SAMPLE_SOURCE = """
+            import router from '@ohos.router';
+
+            @Entry
+            @Component
+            struct WarmUp {
+                @State count: number = 0;
+                @Prop title: string = 'warm-up';
+                private items: string[] = ['a', 'b'];
+
+                aboutToAppear(): void {
+                    this.count = this.items.length > 1 ? this.count + 1 : 0;
+                }
+
+                build() {
+                    Column() {
+                        Text(`${this.title}: ${this.count}`)
+                            .fontSize(16)
+                        ForEach(this.items, (item: string) => {
+                            Button(item).onClick(() => {
+                                this.count++;
+                                router.back();
+                            })
+                        })
+                    }
+                    .width('100%')
+                }
+            }
+            """;
+
+    private static final ExecutorService WARM_UP_EXECUTOR = Executors.newCachedThreadPool(new ThreadFactory() {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "ETS-Warmup-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private PipelineWarmer() {
+        // Utility class
+    }
+
+    /**
+     * Starts warming up a pipeline and returns immediately.
+     * <p>
+     * The sample is parsed once per parser worker, concurrently, to start the
+     * workers. It is transformed and generated once, on a transformer and a
+     * generator of its own: those of the pipeline keep per-file state and
+     * may already be compiling real files.
+     *
+     * @param pipeline the pipeline to warm up
+     * @param parserWorkers the number of parser workers to start
+     * @return a future completed when every sample has been compiled, or
+     *         completed exceptionally with the first failure
+     */
+    public static CompletableFuture<Void> start(CompilationPipeline pipeline, int parserWorkers) {
+        CompilerConfig config = pipeline.getConfig();
+        return start(pipeline, parserWorkers,
+                () -> CompilationPipelineFactory.createTransformerService(config),
+                () -> CompilationPipelineFactory.createGeneratorService(config));
+    }
+
+    /**
+     * Starts warming up a pipeline with the given transformer and generator factories.
+     *
+     * @param pipeline the pipeline whose parser is warmed up
+     * @param parserWorkers the number of parser workers to start
+     * @param transformerFactory creates the transformer of the sample
+     * @param generatorFactory creates the generator of the sample
+     * @return a future completed when the sample has been compiled
+     */
+    static CompletableFuture<Void> start(CompilationPipeline pipeline, int parserWorkers,
+                                         Supplier<TransformerService> transformerFactory,
+                                         Supplier<GeneratorService> generatorFactory) {
+        long startTime = System.currentTimeMillis();
+        int runs = Math.max(1, parserWorkers);
+        CompletableFuture<?>[] tasks = new CompletableFuture<?>[runs + 1];
+        CompletableFuture<SourceFile> firstParse = null;
+        for (int i = 0; i < runs; i++) {
+            CompletableFuture<SourceFile> parse = CompletableFuture.supplyAsync(
+                    () -> pipeline.getParser().parseString(SAMPLE_FILE_NAME, SAMPLE_SOURCE), WARM_UP_EXECUTOR);
+            if (firstParse == null) {
+                firstParse = parse;
+            }
+            tasks[i] = parse;
+        }
+        tasks[runs] = firstParse.thenAcceptAsync(
+                sourceFile -> compileSample(sourceFile, transformerFactory, generatorFactory), WARM_UP_EXECUTOR);
+        return CompletableFuture.allOf(tasks).whenComplete((ignored, error) -> {
+            if (error == null) {
+                LOGGER.debug("Pipeline warmed up with {} parser workers in {}ms",
+                        runs, System.currentTimeMillis() - startTime);
+            } else if (pipeline.isClosed()) {
+                LOGGER.debug("Pipeline warm-up stopped because the pipeline was closed");
+            } else {
+                LOGGER.warn("Pipeline warm-up failed: {}", error.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Runs the parsed sample through transform and generate.
+     */
+    private static void compileSample(SourceFile sourceFile, Supplier<TransformerService> transformerFactory,
+                                      Supplier<GeneratorService> generatorFactory) {
+        try (TransformerService transformer = transformerFactory.get();
+             GeneratorService generator = generatorFactory.get()) {
+            generator.generate(transformer.transform(sourceFile));
+        } catch (CompilationException e) {
+            throw new CompletionException(e);
+        }
+    }
+}
@@ -2,9 +2,13 @@ package com.ets2jsc.application.compile;
 
 import lombok.Getter;
 
+import com.ets2jsc.domain.model.compilation.ConversionCacheStats;
 import com.ets2jsc.domain.model.config.CompilerConfig;
+import com.ets2jsc.domain.service.ParserService;
 import com.ets2jsc.shared.exception.CompilationException;
+import com.ets2jsc.shared.process.CancellationToken;
 import com.ets2jsc.shared.util.ResourceFileCopier;
+import com.ets2jsc.shared.util.ResourceIndex;
 import com.ets2jsc.shared.util.SourceFileFinder;
 
 import org.slf4j.Logger;
@@ -14,6 +18,8 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Sequential batch compilation service implementation.
@@ -23,9 +29,11 @@ import java.util.List;
 public class SequentialBatchCompilationService implements BatchCompilationService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SequentialBatchCompilationService.class);
+    private static final String CANCELLED_REASON = "Compilation cancelled";
 
     private final CompilationPipeline pipeline;
     private final CompilerConfig config;
+    private final AtomicReference<CancellationToken> batchToken = new AtomicReference<>(CancellationToken.create());
     private volatile boolean closed;
 
     /**
@@ -45,6 +53,29 @@ public class SequentialBatchCompilationService implements BatchCompilationServic
     @Override
     public com.ets2jsc.domain.model.compilation.CompilationResult compileBatch(
             List<Path> sourceFiles, Path outputDir) throws CompilationException {
+        ConversionCacheStats cacheBefore = conversionCacheStats();
+        try (BuildMemoryMonitor monitor = BuildMemoryMonitor.start()) {
+            com.ets2jsc.domain.model.compilation.CompilationResult result = compileFiles(sourceFiles, outputDir);
+            result.recordPeakMemory(monitor.stop());
+            result.recordConversionCache(conversionCacheStats().minus(cacheBefore));
+            return result;
+        }
+    }
+
+    @Override
+    public com.ets2jsc.domain.model.compilation.CompilationResult compileBatchWithStructure(
+            List<Path> sourceFiles, Path baseDir, Path outputDir) {
+        ConversionCacheStats cacheBefore = conversionCacheStats();
+        try (BuildMemoryMonitor monitor = BuildMemoryMonitor.start()) {
+            com.ets2jsc.domain.model.compilation.CompilationResult result = compileFilesWithStructure(sourceFiles, baseDir, outputDir);
+            result.recordPeakMemory(monitor.stop());
+            result.recordConversionCache(conversionCacheStats().minus(cacheBefore));
+            return result;
+        }
+    }
+
+    private com.ets2jsc.domain.model.compilation.CompilationResult compileFiles(
+            List<Path> sourceFiles, Path outputDir) throws CompilationException {
         com.ets2jsc.domain.model.compilation.CompilationResult result =
                 new com.ets2jsc.domain.model.compilation.CompilationResult();
 
@@ -55,18 +86,25 @@ public class SequentialBatchCompilationService implements BatchCompilationServic
             throw new CompilationException("Failed to create output directory: " + outputDir, e);
         }
 
+        CancellationToken token = batchToken.get();
         for (Path sourceFile : sourceFiles) {
             String fileName = sourceFile.getFileName().toString();
             String outputName = fileName.replace(".ets", ".js").replace(".ts", ".js");
             Path outputPath = outputDir.resolve(outputName);
 
-            try {
+            if (token.isCancelled()) {
+                result.addFileResult(sourceFile, com.ets2jsc.domain.model.compilation.CompilationResult.FileResult.skipped(sourceFile, CANCELLED_REASON));
+                continue;
+            }
+            try (CancellationToken.Scope ignored = token.bind()) {
                 pipeline.execute(sourceFile, outputPath);
                 result.addFileResult(sourceFile, com.ets2jsc.domain.model.compilation.CompilationResult.FileResult.success(
                         sourceFile, outputPath, 0));
             } catch (Exception e) {
-                result.addFileResult(sourceFile, com.ets2jsc.domain.model.compilation.CompilationResult.FileResult.failure(
-                        sourceFile, outputPath, "Compilation failed: " + e.getMessage(), e, 0));
+                result.addFileResult(sourceFile, token.isCancelled()
+                        ? com.ets2jsc.domain.model.compilation.CompilationResult.FileResult.skipped(sourceFile, CANCELLED_REASON)
+                        : com.ets2jsc.domain.model.compilation.CompilationResult.FileResult.failure(
+                                sourceFile, outputPath, "Compilation failed: " + e.getMessage(), e, 0));
             }
         }
 
@@ -74,8 +112,7 @@ public class SequentialBatchCompilationService implements BatchCompilationServic
         return result;
     }
 
-    @Override
-    public com.ets2jsc.domain.model.compilation.CompilationResult compileBatchWithStructure(
+    private com.ets2jsc.domain.model.compilation.CompilationResult compileFilesWithStructure(
             List<Path> sourceFiles, Path baseDir, Path outputDir) {
         com.ets2jsc.domain.model.compilation.CompilationResult result =
                 new com.ets2jsc.domain.model.compilation.CompilationResult();
@@ -83,6 +120,7 @@ public class SequentialBatchCompilationService implements BatchCompilationServic
         TypeScriptCompilerService tsCompiler = new TypeScriptCompilerService();
         boolean tscAvailable = tsCompiler.isTscAvailable();
 
+        CancellationToken token = batchToken.get();
         for (Path sourceFile : sourceFiles) {
             String relativePathStr = baseDir.relativize(sourceFile).toString();
             String outputPathStr = relativePathStr
@@ -92,7 +130,13 @@ public class SequentialBatchCompilationService implements BatchCompilationServic
                     .replace(".jsx", ".js");
             Path outputPath = outputDir.resolve(outputPathStr);
 
-            try {
+            if (token.isCancelled()) {
+                result.addFileResult(sourceFile, com.ets2jsc.domain.model.compilation.CompilationResult.FileResult.skipped(sourceFile, CANCELLED_REASON));
+                continue;
+            }
+            // The per-file deadline also covers tsc, which does not run through the pipeline
+            try (CancellationToken.Scope ignored = token
+                    .child(config.getFileTimeoutSeconds(), TimeUnit.SECONDS).bind()) {
                 // Create parent directories if needed
                 Path parentDir = outputPath.getParent();
                 if (parentDir != null && !Files.exists(parentDir)) {
@@ -131,8 +175,9 @@ public class SequentialBatchCompilationService implements BatchCompilationServic
                             sourceFile, outputPath, 0));
                 }
             } catch (Exception e) {
-                result.addFileResult(sourceFile,
-                    com.ets2jsc.domain.model.compilation.CompilationResult.FileResult.failure(
+                result.addFileResult(sourceFile, token.isCancelled()
+                    ? com.ets2jsc.domain.model.compilation.CompilationResult.FileResult.skipped(sourceFile, CANCELLED_REASON)
+                    : com.ets2jsc.domain.model.compilation.CompilationResult.FileResult.failure(
                         sourceFile, outputPath, "Compilation failed: " + e.getMessage(), e, 0));
             }
         }
@@ -161,10 +206,16 @@ public class SequentialBatchCompilationService implements BatchCompilationServic
             // Find all source files in the project
             List<Path> sourceFiles = com.ets2jsc.shared.util.SourceFileFinder.findSourceFiles(sourceDir);
 
-            // Compile source files while preserving directory structure
+            // Compile source files while preserving directory structure,
+            // resolving resource references against the project's resources
             com.ets2jsc.domain.model.compilation.CompilationResult compileResult;
             if (!sourceFiles.isEmpty()) {
-                compileResult = compileBatchWithStructure(sourceFiles, sourceDir, outputDir);
+                useResourceIndex(ResourceIndex.loadForBuild(sourceDir));
+                try {
+                    compileResult = compileBatchWithStructure(sourceFiles, sourceDir, outputDir);
+                } finally {
+                    useResourceIndex(null);
+                }
             } else {
                 compileResult = new com.ets2jsc.domain.model.compilation.CompilationResult();
             }
@@ -175,23 +226,49 @@ public class SequentialBatchCompilationService implements BatchCompilationServic
                 copiedResourceCount = com.ets2jsc.shared.util.ResourceFileCopier.copyResourceFiles(sourceDir, outputDir);
             }
 
-            return new com.ets2jsc.domain.model.compilation.CompilationResult(
+            com.ets2jsc.domain.model.compilation.CompilationResult projectResult = new com.ets2jsc.domain.model.compilation.CompilationResult(
                     compileResult.getFileResults(),
                     compileResult.getTotalCount(),
                     compileResult.getSuccessCount(),
                     compileResult.getFailureCount(),
                     copiedResourceCount);
+            projectResult.recordPeakMemory(compileResult.getPeakMemoryBytes());
+            projectResult.recordConversionCache(compileResult.getConversionCacheStats());
+            return projectResult;
 
         } catch (IOException e) {
             throw new CompilationException("Failed to compile project: " + sourceDir, e);
         }
     }
 
+    /**
+     * Sets the resource index of the pipeline's parser.
+     */
+    private void useResourceIndex(ResourceIndex index) {
+        ParserService parser = pipeline.getParser();
+        if (parser != null) {
+            parser.setResourceIndex(index);
+        }
+    }
+
+    /**
+     * Gets the subtree cache counts of the pipeline's parser so far.
+     */
+    private ConversionCacheStats conversionCacheStats() {
+        ParserService parser = pipeline.getParser();
+        return parser != null ? parser.getConversionCacheStats() : ConversionCacheStats.EMPTY;
+    }
+
     @Override
     public CompilationMode getMode() {
         return CompilationMode.SEQUENTIAL;
     }
 
+    @Override
+    public void cancel() {
+        batchToken.getAndSet(CancellationToken.create()).cancel();
+    }
+
     @Override
     public void close() {
         closed = true;
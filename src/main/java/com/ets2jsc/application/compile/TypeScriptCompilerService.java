@@ -2,12 +2,11 @@ package com.ets2jsc.application.compile;
 
 import com.ets2jsc.shared.constant.Symbols;
 import com.ets2jsc.shared.exception.CompilationException;
+import com.ets2jsc.shared.process.SubprocessRunner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
@@ -27,6 +26,13 @@ public class TypeScriptCompilerService {
 
     private static final long TSC_TIMEOUT_SECONDS = 60;
 
+    private static final SubprocessRunner TSC_RUNNER = SubprocessRunner.builder()
+            .timeout(TSC_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+            .build();
+    private static final SubprocessRunner COMMAND_TEST_RUNNER = SubprocessRunner.builder()
+            .timeout(Symbols.TSC_COMMAND_TEST_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+            .build();
+
     // Command to use - will try npx tsc first, then fallback to tsc
     private String tscCommand = null;
 
@@ -81,11 +87,7 @@ public class TypeScriptCompilerService {
 
             ProcessBuilder pb = new ProcessBuilder(cmd);
             pb.redirectErrorStream(true);
-            Process process = pb.start();
-            boolean finished = process.waitFor(Symbols.TSC_COMMAND_TEST_TIMEOUT_SECONDS, TimeUnit.SECONDS);
-            if (finished && process.exitValue() == 0) {
-                return true;
-            }
+            return COMMAND_TEST_RUNNER.run(pb, null).isSuccess();
         } catch (IOException | InterruptedException e) {
             // Command not available, try next
         }
@@ -122,11 +124,15 @@ public class TypeScriptCompilerService {
 
         // Execute tsc
         try {
-            ProcessResult result = executeProcess(command, sourceFile.getParent());
+            SubprocessRunner.Result result = executeProcess(command, sourceFile.getParent());
 
-            if (result.exitCode != 0) {
+            if (result.isTimedOut()) {
                 throw new CompilationException(
-                    "TypeScript compilation failed for: " + sourceFile + "\n" + result.stderr);
+                    "TypeScript compilation timed out after " + result.getElapsedMillis() + " ms: " + sourceFile);
+            }
+            if (result.getExitCode() != 0) {
+                throw new CompilationException(
+                    "TypeScript compilation failed for: " + sourceFile + "\n" + result.getStderr());
             }
 
             // Check if output file was created
@@ -228,7 +234,9 @@ public class TypeScriptCompilerService {
     }
 
     /**
-     * Executes a process and captures its output.
+     * Executes a process and captures its output. Both streams are drained
+     * concurrently, and the process tree is killed when the tsc timeout or the
+     * deadline of the token bound to this thread passes.
      *
      * @param command      the command to execute
      * @param workingDir   the working directory
@@ -236,45 +244,12 @@ public class TypeScriptCompilerService {
      * @throws IOException          if process execution fails
      * @throws InterruptedException if process is interrupted
      */
-    private ProcessResult executeProcess(List<String> command, Path workingDir)
+    private SubprocessRunner.Result executeProcess(List<String> command, Path workingDir)
             throws IOException, InterruptedException {
         ProcessBuilder pb = new ProcessBuilder(command);
         if (workingDir != null) {
             pb.directory(workingDir.toFile());
         }
-
-        Process process = pb.start();
-
-        StringBuilder stdout = new StringBuilder();
-        StringBuilder stderr = new StringBuilder();
-
-        // Read stdout
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(process.getInputStream()))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                stdout.append(line).append("\n");
-            }
-        }
-
-        // Read stderr
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(process.getErrorStream()))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                stderr.append(line).append("\n");
-            }
-        }
-
-        boolean completed = process.waitFor(TSC_TIMEOUT_SECONDS, TimeUnit.SECONDS);
-        int exitCode = completed ? process.exitValue() : -1;
-
-        return new ProcessResult(exitCode, stdout.toString(), stderr.toString());
-    }
-
-    /**
-     * Represents the result of a process execution.
-     */
-    private record ProcessResult(int exitCode, String stdout, String stderr) {
+        return TSC_RUNNER.run(pb, null);
     }
 }
@@ -0,0 +1,19 @@
+package com.ets2jsc.domain.model.ast;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Arrow function expression, e.g. {@code () => this.count++}.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class ArrowFunctionExpression implements Expression {
+    private final String text;
+
+    public ArrowFunctionExpression(String text) {
+        this.text = text;
+    }
+}
@@ -0,0 +1,17 @@
+package com.ets2jsc.domain.model.ast;
+
+/**
+ * Structured expression.
+ * <p>
+ * Expressions are built by the parser with their JavaScript text rendered
+ * once, so transformers can match on their structure and the generator
+ * emits {@link #getText()} without scanning the text again. Expressions
+ * without a structured form are {@link RawExpression}s.
+ */
+public interface Expression {
+
+    /**
+     * Gets the JavaScript text of the expression.
+     */
+    String getText();
+}
@@ -4,13 +4,27 @@ import lombok.Getter;
 
 /**
  * Expression statement node.
+ * Holds the expression text and, for parsed statements, the structured expression.
  */
 @Getter
 public class ExpressionStatement implements AstNode {
     private final String expression;
+    private final Expression expressionNode;
 
     public ExpressionStatement(String expression) {
+        this(expression, new RawExpression(expression));
+    }
+
+    private ExpressionStatement(String expression, Expression expressionNode) {
         this.expression = expression;
+        this.expressionNode = expressionNode;
+    }
+
+    /**
+     * Creates an expression statement of a structured expression.
+     */
+    public static ExpressionStatement of(Expression expressionNode) {
+        return new ExpressionStatement(expressionNode.getText(), expressionNode);
     }
 
     @Override
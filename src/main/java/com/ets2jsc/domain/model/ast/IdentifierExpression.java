@@ -0,0 +1,24 @@
+package com.ets2jsc.domain.model.ast;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Identifier expression, e.g. {@code Text} or {@code count}.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class IdentifierExpression implements Expression {
+    private final String name;
+
+    public IdentifierExpression(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getText() {
+        return name;
+    }
+}
@@ -0,0 +1,50 @@
+package com.ets2jsc.domain.model.ast;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Function or method call expression, e.g. {@code Text('a')} or
+ * {@code Text('a').fontSize(16)}, whose callee is the member
+ * {@code fontSize} of the call {@code Text('a')}.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class InvocationExpression implements Expression {
+    private final Expression callee;
+    private final List<Expression> arguments;
+    private final String text;
+
+    public InvocationExpression(Expression callee, List<Expression> arguments, String text) {
+        this.callee = callee;
+        this.arguments = List.copyOf(arguments);
+        this.text = text;
+    }
+
+    /**
+     * Gets the name of the called function if the callee is an identifier.
+     *
+     * @return the function name, or null for other callees
+     */
+    public String getFunctionName() {
+        return callee instanceof IdentifierExpression ? ((IdentifierExpression) callee).getName() : null;
+    }
+
+    /**
+     * Gets the text of the arguments, separated by commas.
+     */
+    public String getArgumentsText() {
+        StringBuilder sb = new StringBuilder();
+        for (Expression argument : arguments) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(argument.getText());
+        }
+        return sb.toString();
+    }
+}
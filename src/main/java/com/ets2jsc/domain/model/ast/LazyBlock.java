@@ -0,0 +1,100 @@
+package com.ets2jsc.domain.model.ast;
+
+import com.ets2jsc.shared.exception.ParserException;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Method or constructor body whose conversion is deferred.
+ * <p>
+ * The body is converted when a transformer first asks for it with
+ * {@link #materialize()}, or when it is first rendered, and the converted
+ * node is kept from then on. The converter, which holds the JSON subtree of
+ * the body and the context of its file, is dropped after that first
+ * conversion. Conversion failures are reported as a {@link ParserException}
+ * naming the file, as they would have been at parse time.
+ */
+public final class LazyBlock implements AstNode {
+
+    private final String fileName;
+    private Supplier<AstNode> converter;
+    private final Runnable onMaterialize;
+    private AstNode converted;
+    private boolean materialized;
+
+    /**
+     * Creates a deferred body.
+     *
+     * @param fileName the file of the body, for error reporting
+     * @param converter converts the body
+     * @param onMaterialize called once when the body is materialized
+     */
+    public LazyBlock(String fileName, Supplier<AstNode> converter, Runnable onMaterialize) {
+        this.fileName = fileName;
+        this.converter = converter;
+        this.onMaterialize = onMaterialize;
+    }
+
+    /**
+     * Converts the body, if not done yet, and marks it as inspected by a transformer.
+     *
+     * @return the converted body
+     * @throws ParserException if the body cannot be converted
+     */
+    public AstNode materialize() {
+        AstNode node = convert();
+        if (!materialized) {
+            materialized = true;
+            onMaterialize.run();
+        }
+        return node;
+    }
+
+    /**
+     * Checks whether the body has been materialized.
+     */
+    public boolean isMaterialized() {
+        return materialized;
+    }
+
+    /**
+     * Renders the body without materializing it.
+     *
+     * @param renderer renders the converted body
+     * @param <T> the rendered type
+     * @return the rendered body
+     * @throws ParserException if the body cannot be converted
+     */
+    public <T> T render(Function<AstNode, T> renderer) {
+        AstNode node = convert();
+        return node != null ? renderer.apply(node) : null;
+    }
+
+    private AstNode convert() {
+        if (converter != null) {
+            try {
+                converted = converter.get();
+            } catch (RuntimeException e) {
+                throw new ParserException("Failed to convert a method body of TypeScript file: " + fileName, e);
+            }
+            converter = null;
+        }
+        return converted;
+    }
+
+    @Override
+    public String getType() {
+        return "Block";
+    }
+
+    @Override
+    public <T> T accept(AstVisitor<T> visitor) {
+        return render(node -> node.accept(visitor));
+    }
+
+    @Override
+    public String toString() {
+        return "LazyBlock(materialized=" + isMaterialized() + ")";
+    }
+}
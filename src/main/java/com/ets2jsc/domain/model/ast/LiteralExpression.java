@@ -0,0 +1,25 @@
+package com.ets2jsc.domain.model.ast;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Literal expression: a string, number, boolean or null.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class LiteralExpression implements Expression {
+    private final LiteralKind literalKind;
+    private final String text;
+
+    public enum LiteralKind {
+        STRING, NUMBER, BOOLEAN, NULL
+    }
+
+    public LiteralExpression(LiteralKind literalKind, String text) {
+        this.literalKind = literalKind;
+        this.text = text;
+    }
+}
@@ -0,0 +1,23 @@
+package com.ets2jsc.domain.model.ast;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Property access expression, e.g. {@code this.count} or {@code Text('a').fontSize}.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class MemberExpression implements Expression {
+    private final Expression object;
+    private final String name;
+    private final String text;
+
+    public MemberExpression(Expression object, String name, String text) {
+        this.object = object;
+        this.name = name;
+        this.text = text;
+    }
+}
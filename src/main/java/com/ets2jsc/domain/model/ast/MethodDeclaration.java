@@ -70,6 +70,21 @@ public class MethodDeclaration implements AstNode {
         return visitor.visit(this);
     }
 
+    /**
+     * Gets the body, converting it first if its conversion was deferred.
+     */
+    public AstNode getBody() {
+        return body instanceof LazyBlock ? ((LazyBlock) body).materialize() : body;
+    }
+
+    /**
+     * Gets the body as set, without converting a deferred body.
+     * Used to render bodies that no transformer inspected.
+     */
+    public AstNode getDeclaredBody() {
+        return body;
+    }
+
     public void addParameter(Parameter parameter) {
         this.parameters.add(parameter);
     }
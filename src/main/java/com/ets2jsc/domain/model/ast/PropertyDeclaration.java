@@ -25,6 +25,9 @@ public class PropertyDeclaration implements AstNode {
     private String typeAnnotation;
     @Setter
     private String initializer;
+    // Structured initializer of parsed properties, null if only the text is known
+    @Setter
+    private Expression initializerExpression;
     private final List<Decorator> decorators;
     @Setter
     private Visibility visibility;
@@ -0,0 +1,21 @@
+package com.ets2jsc.domain.model.ast;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Expression known only by its text.
+ * Used for the kinds of expressions without a structured form, and for
+ * expressions given as text.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class RawExpression implements Expression {
+    private final String text;
+
+    public RawExpression(String text) {
+        this.text = text;
+    }
+}
@@ -0,0 +1,28 @@
+package com.ets2jsc.domain.model.ast;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Template literal, with or without substitutions.
+ */
+@EqualsAndHashCode
+@ToString
+public final class TemplateExpression implements Expression {
+    @Getter
+    private final String text;
+    private final boolean hasSubstitutions;
+
+    public TemplateExpression(String text, boolean hasSubstitutions) {
+        this.text = text;
+        this.hasSubstitutions = hasSubstitutions;
+    }
+
+    /**
+     * Checks whether the template has {@code ${...}} substitutions.
+     */
+    public boolean hasSubstitutions() {
+        return hasSubstitutions;
+    }
+}
@@ -0,0 +1,22 @@
+package com.ets2jsc.domain.model.ast;
+
+/**
+ * The {@code this} keyword.
+ */
+public final class ThisExpression implements Expression {
+
+    public static final ThisExpression INSTANCE = new ThisExpression();
+
+    private ThisExpression() {
+    }
+
+    @Override
+    public String getText() {
+        return "this";
+    }
+
+    @Override
+    public String toString() {
+        return "ThisExpression()";
+    }
+}
@@ -22,6 +22,8 @@ public class CompilationResult {
     protected final AtomicInteger failureCount;
     protected final AtomicInteger skippedCount;
     private final int copiedResourceCount;
+    private volatile long peakMemoryBytes = -1;
+    private volatile ConversionCacheStats conversionCacheStats = ConversionCacheStats.EMPTY;
 
     /**
      * Creates a new empty compilation result.
@@ -142,6 +144,43 @@ public class CompilationResult {
         return copiedResourceCount;
     }
 
+    /**
+     * Records a memory sample of the build; the highest one is kept.
+     *
+     * @param bytes memory used by the compiler and its child processes, or -1 if unknown
+     */
+    public synchronized void recordPeakMemory(long bytes) {
+        peakMemoryBytes = Math.max(peakMemoryBytes, bytes);
+    }
+
+    /**
+     * Get the peak memory used by the compiler and its child processes during the build.
+     *
+     * @return peak memory in bytes, or -1 if not sampled
+     */
+    public long getPeakMemoryBytes() {
+        return peakMemoryBytes;
+    }
+
+    /**
+     * Records the subtree cache counts of the parsers of the build; the
+     * counts of several records are added.
+     *
+     * @param stats the cache counts of the build
+     */
+    public synchronized void recordConversionCache(ConversionCacheStats stats) {
+        conversionCacheStats = conversionCacheStats.plus(stats);
+    }
+
+    /**
+     * Get the subtree cache counts of the build.
+     *
+     * @return the cache counts, empty if not recorded
+     */
+    public ConversionCacheStats getConversionCacheStats() {
+        return conversionCacheStats;
+    }
+
     /**
      * Get all failed files.
      *
@@ -187,6 +226,12 @@ public class CompilationResult {
         if (copiedResourceCount > 0) {
             sb.append(String.format(" | Resources copied: %d", copiedResourceCount));
         }
+        if (peakMemoryBytes > 0) {
+            sb.append(String.format(" | Peak memory: %dMB", peakMemoryBytes >> 20));
+        }
+        if (conversionCacheStats.lookups() > 0) {
+            sb.append(String.format(" | Conversion cache hits: %.0f%%", conversionCacheStats.hitRate() * 100));
+        }
         return sb.toString();
     }
 
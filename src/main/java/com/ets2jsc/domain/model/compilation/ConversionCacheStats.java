@@ -0,0 +1,47 @@
+package com.ets2jsc.domain.model.compilation;
+
+/**
+ * Hit and miss counts of the cache of converted subtrees.
+ * <p>
+ * Parsers keep counting over their lifetime, so the counts of one build are
+ * the difference between two snapshots, see {@link #minus(ConversionCacheStats)}.
+ *
+ * @param hits the subtrees found in the cache
+ * @param misses the subtrees converted and added to the cache
+ */
+public record ConversionCacheStats(long hits, long misses) {
+
+    /** No lookups. */
+    public static final ConversionCacheStats EMPTY = new ConversionCacheStats(0, 0);
+
+    /**
+     * Gets the number of lookups.
+     */
+    public long lookups() {
+        return hits + misses;
+    }
+
+    /**
+     * Gets the share of lookups that were hits.
+     *
+     * @return the hit rate between 0 and 1, or 0 without lookups
+     */
+    public double hitRate() {
+        long lookups = lookups();
+        return lookups > 0 ? (double) hits / lookups : 0;
+    }
+
+    /**
+     * Adds the counts of other stats.
+     */
+    public ConversionCacheStats plus(ConversionCacheStats other) {
+        return new ConversionCacheStats(hits + other.hits, misses + other.misses);
+    }
+
+    /**
+     * Subtracts the counts of an earlier snapshot.
+     */
+    public ConversionCacheStats minus(ConversionCacheStats earlier) {
+        return new ConversionCacheStats(hits - earlier.hits, misses - earlier.misses);
+    }
+}
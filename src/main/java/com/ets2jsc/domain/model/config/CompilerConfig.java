@@ -41,6 +41,27 @@ public class CompilerConfig {
     private boolean validateApi = true;
     private boolean pureJavaScript; // Generate pure JS without ArkUI runtime dependencies
 
+    // Parser backend
+    private ParserBackend parserBackend = ParserBackend.NODE;
+    private AstFormat parserAstFormat = AstFormat.JSON;
+    private AstEmission parserAstEmission = AstEmission.FULL;
+    private boolean incrementalParsing = false; // Reparse edited files against their previous parse
+    private int parallelConversionThreshold = 0; // Top-level statements from which a file converts in parallel (0 disables it)
+
+    // Parser worker recycling (0 disables the rule)
+    private int parserWorkerMaxFiles = 500;
+    private int parserWorkerMaxRssGrowthMb = 512;
+
+    // Parser memory governor (0 disables the limit)
+    private int parserMaxOldSpaceMb = 0; // V8 heap limit of each parser worker
+    private int memoryBudgetMb = 0;      // Total for the JVM and all parser and tsc processes
+
+    // Deadline for compiling one file, including its parser and tsc processes (0 disables it)
+    private int fileTimeoutSeconds = 120;
+
+    // Compile a built-in sample in the background when the compiler is built
+    private boolean parserWarmUp = false;
+
     // Entry points
     private Map<String, String> entryObj = new HashMap<>();
 
@@ -97,4 +118,31 @@ public class CompilerConfig {
         MODULE_JSON, // Stage model - module.json based
         ES_MODULE    // ES Module mode
     }
+
+    /**
+     * Runtime used to execute the TypeScript parser script.
+     */
+    public enum ParserBackend {
+        NODE,         // External Node.js processes
+        NODE_THREADS, // One Node.js process running parser worker threads
+        GRAAL_JS,     // In-process GraalJS engine
+        JAVA          // In-process Java parser, Node.js for files it does not cover
+    }
+
+    /**
+     * Wire format of the AST sent from the parser process to the compiler.
+     */
+    public enum AstFormat {
+        JSON,   // JSON text
+        BINARY  // Compact binary: numeric kinds, string table, varints; decoded whole, so it does not stream
+    }
+
+    /**
+     * How the parser emits nodes for which it synthesizes JavaScript text.
+     */
+    public enum AstEmission {
+        FULL,    // Text next to the full structure
+        COMPACT, // Text or structure per node, never both
+        LEAN     // No parent pointers in the parser; positions instead of source text
+    }
 }
@@ -1,7 +1,9 @@
 package com.ets2jsc.domain.service;
 
 import com.ets2jsc.domain.model.ast.SourceFile;
+import com.ets2jsc.domain.model.compilation.ConversionCacheStats;
 import com.ets2jsc.shared.exception.ParserException;
+import com.ets2jsc.shared.util.ResourceIndex;
 
 import java.nio.file.Path;
 
@@ -40,6 +42,30 @@ public interface ParserService extends AutoCloseable {
      */
     boolean canParse(Path sourcePath);
 
+    /**
+     * Gets the hit and miss counts of the cache of converted subtrees,
+     * counted since the parser was created.
+     * <p>
+     * The default implementation reports no lookups.
+     *
+     * @return the cache counts
+     */
+    default ConversionCacheStats getConversionCacheStats() {
+        return ConversionCacheStats.EMPTY;
+    }
+
+    /**
+     * Sets the resource index that {@code $r()} and {@code $rawfile()}
+     * references are resolved against, for the files parsed from now on.
+     * <p>
+     * The default implementation ignores the index.
+     *
+     * @param index the index of the project, or null to resolve no resources
+     */
+    default void setResourceIndex(ResourceIndex index) {
+        // Resources are resolved at runtime
+    }
+
     /**
      * Closes the parser and releases any resources.
      */
@@ -1,5 +1,11 @@
 package com.ets2jsc.infrastructure.generator;
 
+import com.ets2jsc.domain.model.ast.Expression;
+import com.ets2jsc.domain.model.ast.InvocationExpression;
+import com.ets2jsc.domain.model.ast.MemberExpression;
+import com.ets2jsc.domain.model.ast.RawExpression;
+import com.ets2jsc.domain.model.ast.ThisExpression;
+
 import java.util.List;
 import java.util.regex.Pattern;
 
@@ -36,6 +42,42 @@ public final class BuilderMethodTransformer {
         return expr;
     }
 
+    /**
+     * Transforms @Builder method call of a structured expression to BuilderParam pattern.
+     * Expressions known only by their text are transformed as text.
+     *
+     * @return the transformed code, or the expression text if it is not a builder method call
+     */
+    public static String transform(Expression expr, List<String> builderMethods) {
+        if (expr instanceof RawExpression) {
+            return transform(expr.getText(), builderMethods);
+        }
+
+        String methodName = getThisMethodName(expr);
+        if (methodName != null && builderMethods.contains(methodName)) {
+            return buildTransformedCode(methodName, ((InvocationExpression) expr).getArgumentsText());
+        }
+
+        return expr.getText();
+    }
+
+    /**
+     * Gets the method name of a call on this, e.g. customText for this.customText("Hello").
+     *
+     * @return the method name, or null if the expression is not a call on this
+     */
+    private static String getThisMethodName(Expression expr) {
+        if (!(expr instanceof InvocationExpression)) {
+            return null;
+        }
+        Expression callee = ((InvocationExpression) expr).getCallee();
+        if (!(callee instanceof MemberExpression)) {
+            return null;
+        }
+        MemberExpression member = (MemberExpression) callee;
+        return member.getObject() instanceof ThisExpression ? member.getName() : null;
+    }
+
     /**
      * Checks if expression is a builder method call.
      * CC: 1 (regex match)
@@ -270,13 +270,14 @@ public class CodeGenerator implements AstVisitor<String> {
         }
 
         // Check for @Builder method call
-        String transformed = BuilderMethodTransformer.transform(expr, currentBuilderMethods);
+        Expression exprNode = node.getExpressionNode();
+        String transformed = BuilderMethodTransformer.transform(exprNode, currentBuilderMethods);
         if (!transformed.equals(expr)) {
             return transformed;
         }
 
         // Try to transform to component statement
-        return ComponentExpressionTransformer.transform(expr)
+        return ComponentExpressionTransformer.transform(exprNode)
                 .filter(transformedNode -> transformedNode instanceof ComponentStatement)
                 .map(transformedNode -> transformedNode.accept(this))
                 .orElseGet(() -> formatExpressionStatement(expr));
@@ -94,11 +94,12 @@ public class MethodGenerator {
      * CC: 2 (null check + line iteration)
      */
     private void generateBody(StringBuilder sb) {
-        if (method.getBody() == null) {
+        AstNode body = method.getDeclaredBody();
+        if (body == null) {
             return;
         }
 
-        String bodyCode = generateBodyCode(method.getBody());
+        String bodyCode = generateBodyCode(body);
 
         // Split into lines and format with proper indentation
         String[] lines = bodyCode.split("\n");
@@ -110,6 +111,10 @@ public class MethodGenerator {
     }
 
     private String generateBodyCode(AstNode body) {
+        // Bodies no transformer inspected are converted for rendering only
+        if (body instanceof LazyBlock) {
+            return ((LazyBlock) body).render(this::generateBodyCode);
+        }
         // Use the codeGenerator to properly visit AST nodes
         if (body instanceof ExpressionStatement) {
             return ((ExpressionStatement) body).getExpression();
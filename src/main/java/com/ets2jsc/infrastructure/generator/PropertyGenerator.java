@@ -31,7 +31,8 @@ public class PropertyGenerator {
     private String generateInitializer() {
         String initializer = property.getInitializer();
 
-        if (StringLiteralHelper.needsQuoting(initializer)) {
+        // Parsed initializers are expressions already; only bare text may need quotes
+        if (property.getInitializerExpression() == null && StringLiteralHelper.needsQuoting(initializer)) {
             return " = \"" + StringLiteralHelper.escapeJsString(initializer) + "\"";
         }
 
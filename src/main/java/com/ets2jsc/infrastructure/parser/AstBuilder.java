@@ -13,8 +13,9 @@ public class AstBuilder {
      * Creates an AST from source code.
      */
     public SourceFile build(String fileName, String sourceCode) {
-        TypeScriptScriptParser parser = new TypeScriptScriptParser();
-        return parser.parse(fileName, sourceCode);
+        try (TypeScriptScriptParser parser = new TypeScriptScriptParser()) {
+            return parser.parse(fileName, sourceCode);
+        }
     }
 
     /**
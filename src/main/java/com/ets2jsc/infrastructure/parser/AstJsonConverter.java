@@ -0,0 +1,280 @@
+package com.ets2jsc.infrastructure.parser;
+
+import com.ets2jsc.domain.model.ast.AstNode;
+import com.ets2jsc.domain.model.ast.Decorator;
+import com.ets2jsc.domain.model.ast.ExpressionStatement;
+import com.ets2jsc.domain.model.ast.SourceFile;
+import com.ets2jsc.domain.model.compilation.ConversionCacheStats;
+import com.ets2jsc.shared.exception.ParserException;
+import com.ets2jsc.shared.process.CancellationToken;
+import com.ets2jsc.shared.util.ResourceIndex;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Converts the JSON AST of the parser script to our AST model.
+ * <p>
+ * Shared by the parsers that produce the JSON AST: the Node.js based
+ * {@link TypeScriptScriptParser} and the in-process {@link NativeTypeScriptParser}.
+ */
+class AstJsonConverter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AstJsonConverter.class);
+    private static final AtomicBoolean KIND_MISMATCH_LOGGED = new AtomicBoolean();
+
+    private final ConversionContext conversionContext;
+    private volatile int parallelThreshold;
+
+    AstJsonConverter(ObjectMapper objectMapper) {
+        this.conversionContext = new ConversionContext(objectMapper);
+    }
+
+    /**
+     * Creates the conversion context for one source file.
+     */
+    ConversionContext forSource(String fileName, String sourceCode) {
+        return conversionContext.forSource(fileName, sourceCode);
+    }
+
+    /**
+     * Convert JSON AST to our AST model.
+     */
+    SourceFile convert(String fileName, String sourceCode, JsonNode astJson) {
+        SourceFile sourceFile = new SourceFile(fileName, sourceCode);
+        StatementConversion conversion = startStatements(sourceFile,
+                forSource(fileName, sourceCode, hasBundledKindIds(astJson)));
+
+        JsonNode statements = astJson.get("statements");
+        if (statements != null && statements.isArray()) {
+            for (JsonNode stmtElement : statements) {
+                conversion.add(stmtElement);
+            }
+        }
+
+        return conversion.finish();
+    }
+
+    /**
+     * Gets the number of lazily converted bodies that were never materialized.
+     */
+    long getUnmaterializedBodyCount() {
+        return conversionContext.getUnmaterializedBodyCount();
+    }
+
+    /**
+     * Gets the hit and miss counts of the subtree caches of all files.
+     */
+    ConversionCacheStats getConversionCacheStats() {
+        return conversionContext.getConversionCacheStats();
+    }
+
+    /**
+     * Sets the resource index that resource references are resolved against.
+     */
+    void setResourceIndex(ResourceIndex index) {
+        conversionContext.setResourceIndex(index);
+    }
+
+    /**
+     * Sets the number of top-level statements from which the statements of
+     * a file are converted in parallel. A value of 0 converts them on the
+     * calling thread.
+     */
+    void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Starts converting the top-level statements of a file.
+     *
+     * @param sourceFile the file that receives the statements
+     * @param fileContext the conversion context of the file
+     * @return the conversion, which takes the statements in source order
+     */
+    StatementConversion startStatements(SourceFile sourceFile, ConversionContext fileContext) {
+        return new StatementConversion(sourceFile, fileContext, parallelThreshold);
+    }
+
+    /**
+     * Creates the conversion context for one source file.
+     *
+     * @param numericKinds whether the kind ids of the file can be trusted
+     */
+    ConversionContext forSource(String fileName, String sourceCode, boolean numericKinds) {
+        return conversionContext.forSource(fileName, sourceCode, numericKinds);
+    }
+
+    /**
+     * Checks that the kind ids of a file belong to the bundled TypeScript
+     * version, by the id of its root. A parser script running another
+     * version has its kinds read by name.
+     */
+    static boolean hasBundledKindIds(JsonNode astJson) {
+        JsonNode kind = astJson.get("kind");
+        return hasBundledKindIds(kind != null && kind.isInt() ? kind.intValue() : StreamingAstReader.UNKNOWN_KIND);
+    }
+
+    /**
+     * Checks the kind ids of a file by the numeric kind of its root, as
+     * reported by {@link StreamingAstReader}.
+     *
+     * @param rootKind the kind of the root, or {@link StreamingAstReader#UNKNOWN_KIND}
+     */
+    static boolean hasBundledKindIds(int rootKind) {
+        if (rootKind == StreamingAstReader.UNKNOWN_KIND || rootKind == SyntaxKind.SOURCE_FILE.getId()) {
+            return true;
+        }
+        if (!KIND_MISMATCH_LOGGED.getAndSet(true)) {
+            LOGGER.warn("Parser kind ids do not match TypeScript {}, reading kinds by name",
+                    SyntaxKind.TYPESCRIPT_VERSION);
+        }
+        return false;
+    }
+
+    /**
+     * Convert JSON node to AST node using the new converter architecture.
+     * CC: 2 (switch + try-catch)
+     */
+    private AstNode convertJsonNode(JsonNode json, ConversionContext fileContext) {
+        SyntaxKind kind = fileContext.kindOf(json);
+        if (kind == null) {
+            // Guard Clause: validate kindName exists
+            JsonNode kindNameNode = json.get("kindName");
+            if (kindNameNode == null || kindNameNode.isNull()) {
+                throw new ParserException("JSON node missing required 'kindName' field");
+            }
+            return fileContext.convertStatement(json);
+        }
+
+        // Special cases that don't go through converters
+        switch (kind) {
+            case SOURCE_FILE:
+                return convertSourceFile(json);
+            case DECORATOR:
+                return convertDecorator(json);
+            case BREAK_STATEMENT:
+                return new ExpressionStatement("break;");
+            case CONTINUE_STATEMENT:
+                return new ExpressionStatement("continue;");
+            case EMPTY_STATEMENT:
+                // Empty statement - just a semicolon
+                return new ExpressionStatement(";");
+            case INTERFACE_DECLARATION:
+                // Interface declarations don't generate runtime code
+                return null;
+            case STRING_LITERAL:
+            case NUMERIC_LITERAL:
+            case TRUE_KEYWORD:
+            case FALSE_KEYWORD:
+            case NULL_KEYWORD:
+            case THIS_KEYWORD:
+            case SUPER_KEYWORD:
+                // These are expression literals - convert to expression statement
+                return new ExpressionStatement(convertExpressionToString(json, fileContext));
+            default:
+                // Use the new converter architecture for all other cases
+                return fileContext.convertStatement(json);
+        }
+    }
+
+    private SourceFile convertSourceFile(JsonNode json) {
+        return new SourceFile(json.get("fileName").asText());
+    }
+
+    private Decorator convertDecorator(JsonNode json) {
+        String name = json.get("name").asText();
+        return new Decorator(name);
+    }
+
+    /**
+     * Converts a JSON expression to a JavaScript string representation.
+     * Now delegates to the new converter architecture.
+     */
+    private String convertExpressionToString(JsonNode exprJson, ConversionContext fileContext) {
+        // Use the new converter architecture
+        try {
+            return fileContext.convertExpression(exprJson);
+        } catch (Exception e) {
+            // Fallback: return the text if available
+            String fallbackText = fileContext.getText(exprJson);
+            if (!fallbackText.isEmpty()) {
+                return fallbackText.trim();
+            }
+            // Last resort: return the JSON as string
+            return exprJson.toString();
+        }
+    }
+
+    /**
+     * Converts the top-level statements of one file. Top-level statements
+     * do not depend on each other, so once a file reaches the parallel
+     * threshold, its following statements are converted on the common
+     * fork-join pool while the rest of the AST is read. {@link #finish()}
+     * adds them to the file in source order. Each of them runs under the
+     * cancellation token of the thread that read it.
+     */
+    final class StatementConversion {
+        private final SourceFile sourceFile;
+        private final ConversionContext fileContext;
+        private final int threshold;
+        private final List<ForkJoinTask<AstNode>> pending = new ArrayList<>();
+        private int count;
+
+        private StatementConversion(SourceFile sourceFile, ConversionContext fileContext, int threshold) {
+            this.sourceFile = sourceFile;
+            this.fileContext = fileContext;
+            this.threshold = threshold;
+        }
+
+        /**
+         * Converts the next top-level statement.
+         */
+        void add(JsonNode stmtElement) {
+            count++;
+            if (threshold <= 0 || count < threshold) {
+                addNode(convertJsonNode(stmtElement, fileContext));
+                return;
+            }
+            CancellationToken token = CancellationToken.current();
+            pending.add(ForkJoinPool.commonPool().submit(() -> {
+                try (CancellationToken.Scope ignored = token.bind()) {
+                    token.throwIfCancelled();
+                    return convertJsonNode(stmtElement, fileContext);
+                }
+            }));
+        }
+
+        /**
+         * Waits for the statements converted in parallel.
+         *
+         * @return the file with all its statements
+         * @throws ParserException if a statement could not be converted
+         */
+        SourceFile finish() {
+            try {
+                for (ForkJoinTask<AstNode> task : pending) {
+                    addNode(task.join());
+                }
+            } finally {
+                // Stops the remaining statements if one failed
+                pending.forEach(task -> task.cancel(false));
+                pending.clear();
+            }
+            return sourceFile;
+        }
+
+        private void addNode(AstNode node) {
+            if (node != null) {
+                sourceFile.addStatement(node);
+            }
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.ets2jsc.infrastructure.parser;
+
+import com.ets2jsc.shared.exception.ParserException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reader for the compact binary AST format produced by the parser script
+ * with {@code --ast-format binary}.
+ * <p>
+ * The message starts with the magic {@code EAB1}, a message id, a string
+ * table and a table of syntax kind names; all counts and indexes are
+ * unsigned LEB128 varints. The AST is decoded into the same Jackson tree
+ * the JSON format yields, so the node converters work on it unchanged.
+ * Every string is decoded once and its node is shared by all occurrences,
+ * and each node's {@code kindName} is restored from its numeric kind.
+ */
+public final class BinaryAstReader {
+
+    private static final byte[] MAGIC = {'E', 'A', 'B', '1'};
+
+    /** Number of bytes {@link #isBinaryAst(byte[])} looks at. */
+    static final int MAGIC_LENGTH = MAGIC.length;
+
+    private static final int TAG_NULL = 0;
+    private static final int TAG_FALSE = 1;
+    private static final int TAG_TRUE = 2;
+    private static final int TAG_INT = 3;
+    private static final int TAG_DOUBLE = 4;
+    private static final int TAG_STRING = 5;
+    private static final int TAG_ARRAY = 6;
+    private static final int TAG_OBJECT = 7;
+    private static final int TAG_NODE = 8;
+
+    private static final int MAX_VARINT_SHIFT = 63;
+    private static final double MAX_EXACT_DOUBLE = 0x1p53;
+
+    private final ByteBuffer buffer;
+    private final JsonNodeFactory nodeFactory;
+    private final long messageId;
+    private final TextNode[] strings;
+    private final Map<Integer, TextNode> kindNames;
+
+    /**
+     * Reads the header of a binary AST message.
+     *
+     * @param data the encoded message
+     * @throws ParserException if the data is not a valid binary AST message
+     */
+    public BinaryAstReader(byte[] data) {
+        if (!isBinaryAst(data)) {
+            throw new ParserException("Data is not a binary AST message");
+        }
+        this.buffer = ByteBuffer.wrap(data, MAGIC.length, data.length - MAGIC.length);
+        this.nodeFactory = JsonNodeFactory.instance;
+        try {
+            this.messageId = readVarint();
+            this.strings = readStringTable();
+            this.kindNames = readKindTable();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new ParserException("Truncated binary AST header", e);
+        }
+    }
+
+    /**
+     * Checks whether data starts with the binary AST magic.
+     *
+     * @param data the data to check
+     * @return true if the data is a binary AST message
+     */
+    public static boolean isBinaryAst(byte[] data) {
+        if (data == null || data.length < MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (data[i] != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the message id; the daemon request id, or 0 outside daemon mode.
+     *
+     * @return the message id
+     */
+    public long getMessageId() {
+        return messageId;
+    }
+
+    /**
+     * Decodes the AST.
+     *
+     * @return the AST as a Jackson tree
+     * @throws ParserException if the message is malformed
+     */
+    public JsonNode readAst() {
+        try {
+            return readValue();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new ParserException("Malformed binary AST", e);
+        }
+    }
+
+    private TextNode[] readStringTable() {
+        TextNode[] table = new TextNode[readCount()];
+        for (int i = 0; i < table.length; i++) {
+            int length = readCount();
+            String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(),
+                    length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            table[i] = nodeFactory.textNode(value);
+        }
+        return table;
+    }
+
+    private Map<Integer, TextNode> readKindTable() {
+        int count = readCount();
+        Map<Integer, TextNode> table = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            int kind = readCount();
+            table.put(kind, strings[readCount()]);
+        }
+        return table;
+    }
+
+    private JsonNode readValue() {
+        int tag = buffer.get();
+        switch (tag) {
+            case TAG_NULL:
+                return nodeFactory.nullNode();
+            case TAG_FALSE:
+                return nodeFactory.booleanNode(false);
+            case TAG_TRUE:
+                return nodeFactory.booleanNode(true);
+            case TAG_INT:
+                return readInteger();
+            case TAG_DOUBLE:
+                return readDouble();
+            case TAG_STRING:
+                return strings[readCount()];
+            case TAG_ARRAY:
+                return readArray();
+            case TAG_OBJECT:
+                return readFields(nodeFactory.objectNode());
+            case TAG_NODE:
+                return readNode();
+            default:
+                throw new IllegalArgumentException("Unknown binary AST tag: " + tag);
+        }
+    }
+
+    /**
+     * Decodes a zigzag varint into the same node type JSON parsing would produce.
+     */
+    private JsonNode readInteger() {
+        long encoded = readVarint();
+        long value = (encoded >>> 1) ^ -(encoded & 1);
+        if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            return nodeFactory.numberNode((int) value);
+        }
+        return nodeFactory.numberNode(value);
+    }
+
+    /**
+     * Decodes a double; integral values within the exact double range become longs,
+     * as JSON parsing would read them.
+     */
+    private JsonNode readDouble() {
+        double value = buffer.getDouble();
+        if (value == Math.rint(value) && Math.abs(value) <= MAX_EXACT_DOUBLE) {
+            return nodeFactory.numberNode((long) value);
+        }
+        return nodeFactory.numberNode(value);
+    }
+
+    private ArrayNode readArray() {
+        int size = readCount();
+        ArrayNode array = nodeFactory.arrayNode(size);
+        for (int i = 0; i < size; i++) {
+            array.add(readValue());
+        }
+        return array;
+    }
+
+    private ObjectNode readNode() {
+        int kind = readCount();
+        TextNode kindName = kindNames.get(kind);
+        if (kindName == null) {
+            throw new IllegalArgumentException("Unknown syntax kind id: " + kind);
+        }
+        ObjectNode node = nodeFactory.objectNode();
+        node.put("kind", kind);
+        node.set("kindName", kindName);
+        return readFields(node);
+    }
+
+    private ObjectNode readFields(ObjectNode object) {
+        int count = readCount();
+        for (int i = 0; i < count; i++) {
+            String key = strings[readCount()].textValue();
+            object.set(key, readValue());
+        }
+        return object;
+    }
+
+    private int readCount() {
+        long value = readVarint();
+        if (value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Binary AST count out of range: " + value);
+        }
+        return (int) value;
+    }
+
+    private long readVarint() {
+        long result = 0;
+        int shift = 0;
+        while (true) {
+            byte current = buffer.get();
+            result |= (long) (current & 0x7F) << shift;
+            if ((current & 0x80) == 0) {
+                return result;
+            }
+            shift += 7;
+            if (shift > MAX_VARINT_SHIFT) {
+                throw new IllegalArgumentException("Binary AST varint too long");
+            }
+        }
+    }
+}
@@ -1,42 +1,250 @@
 package com.ets2jsc.infrastructure.parser;
 
 import com.ets2jsc.domain.model.ast.AstNode;
+import com.ets2jsc.domain.model.ast.Expression;
+import com.ets2jsc.domain.model.ast.LazyBlock;
+import com.ets2jsc.domain.model.compilation.ConversionCacheStats;
+import com.ets2jsc.shared.util.ResourceIndex;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
-import java.util.HashMap;
+import java.util.EnumSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Context for AST conversion operations.
  * Provides shared state, conversion utilities, and converter registries.
+ * <p>
+ * A context created with {@link #forSource(String, String)} also holds the
+ * name and source of the file being converted. Parsers in lean emission mode send source
+ * positions instead of the text of nodes that are verbatim source, and
+ * {@link #getText(JsonNode)} slices that text from the source on demand.
+ * <p>
+ * Node kinds are read with {@link #kindOf(JsonNode)}, from the numeric
+ * {@code kind} of a node when the parser sends kind ids of the bundled
+ * TypeScript version, and identifier names are interned in a pool shared
+ * by this context and its file contexts, so repeated names are stored once.
+ * The pool is cleared whenever the resource index is set, which the batch
+ * services do at the start and end of each build, and it stops growing at
+ * {@link #MAX_POOLED_NAMES} names in between.
+ * <p>
+ * The cache, name pool and registries are safe for concurrent use, so
+ * contexts can convert several files, or the statements of one file,
+ * on different threads.
+ * <p>
+ * Method and constructor bodies are converted lazily, see
+ * {@link #convertStatementLazily(JsonNode)}.
+ * <p>
+ * Repeated call, arrow function and object literal subtrees are converted
+ * once per file: each file context has its own bounded {@link SubtreeCache},
+ * and the hit and miss counts of all of them are summed in
+ * {@link #getConversionCacheStats()}.
+ * <p>
+ * Resource references are resolved against the {@link ResourceIndex} of
+ * the build, see {@link #setResourceIndex(ResourceIndex)}.
  */
 public class ConversionContext {
 
+    /** Kinds whose text is a verbatim slice of the source. */
+    private static final Set<SyntaxKind> SOURCE_TEXT_KINDS = EnumSet.of(SyntaxKind.IDENTIFIER);
+
+    /** Names past this many are returned without being pooled. */
+    static final int MAX_POOLED_NAMES = 1 << 16;
+
     private final ObjectMapper objectMapper;
     private final Map<String, Object> cache;
+    private final Map<String, String> namePool;
+    private final LongAdder deferredBodies;
+    private final LongAdder materializedBodies;
+    private final LongAdder subtreeHits;
+    private final LongAdder subtreeMisses;
+    private final SubtreeCache subtreeCache;
+    private final AtomicReference<ResourceIndex> resourceIndex;
     private final ExpressionConverterRegistry expressionConverter;
     private final StatementConverterRegistry statementConverter;
+    private final String fileName;
+    private final String sourceText;
+    private final boolean numericKinds;
 
     public ConversionContext() {
         this.objectMapper = new ObjectMapper();
-        this.cache = new HashMap<>();
+        this.cache = new ConcurrentHashMap<>();
+        this.namePool = new ConcurrentHashMap<>();
+        this.deferredBodies = new LongAdder();
+        this.materializedBodies = new LongAdder();
+        this.subtreeHits = new LongAdder();
+        this.subtreeMisses = new LongAdder();
+        this.subtreeCache = new SubtreeCache(SubtreeCache.DEFAULT_CAPACITY, subtreeHits, subtreeMisses);
+        this.resourceIndex = new AtomicReference<>(ResourceIndex.EMPTY);
         this.expressionConverter = new ExpressionConverterRegistry();
         this.statementConverter = new StatementConverterRegistry();
+        this.fileName = null;
+        this.sourceText = null;
+        this.numericKinds = true;
     }
 
     public ConversionContext(ObjectMapper objectMapper) {
         this.objectMapper = objectMapper;
-        this.cache = new HashMap<>();
+        this.cache = new ConcurrentHashMap<>();
+        this.namePool = new ConcurrentHashMap<>();
+        this.deferredBodies = new LongAdder();
+        this.materializedBodies = new LongAdder();
+        this.subtreeHits = new LongAdder();
+        this.subtreeMisses = new LongAdder();
+        this.subtreeCache = new SubtreeCache(SubtreeCache.DEFAULT_CAPACITY, subtreeHits, subtreeMisses);
+        this.resourceIndex = new AtomicReference<>(ResourceIndex.EMPTY);
         this.expressionConverter = new ExpressionConverterRegistry();
         this.statementConverter = new StatementConverterRegistry();
+        this.fileName = null;
+        this.sourceText = null;
+        this.numericKinds = true;
+    }
+
+    private ConversionContext(ConversionContext shared, String fileName, String sourceText, boolean numericKinds) {
+        this.objectMapper = shared.objectMapper;
+        this.cache = shared.cache;
+        this.namePool = shared.namePool;
+        this.deferredBodies = shared.deferredBodies;
+        this.materializedBodies = shared.materializedBodies;
+        this.subtreeHits = shared.subtreeHits;
+        this.subtreeMisses = shared.subtreeMisses;
+        this.subtreeCache = new SubtreeCache(SubtreeCache.DEFAULT_CAPACITY, subtreeHits, subtreeMisses);
+        this.resourceIndex = shared.resourceIndex;
+        this.expressionConverter = shared.expressionConverter;
+        this.statementConverter = shared.statementConverter;
+        this.fileName = fileName;
+        this.sourceText = sourceText;
+        this.numericKinds = numericKinds;
+    }
+
+    /**
+     * Creates a context for converting one file. It shares the registries,
+     * mapper, cache and name pool of this context, and has its own cache
+     * of converted subtrees.
+     *
+     * @param fileName the name of the file, for error reporting
+     * @param sourceText the source of the file, as sent to the parser
+     * @return the file context
+     */
+    public ConversionContext forSource(String fileName, String sourceText) {
+        return forSource(fileName, sourceText, true);
+    }
+
+    /**
+     * Creates a context for converting one file.
+     *
+     * @param fileName the name of the file, for error reporting
+     * @param sourceText the source of the file, as sent to the parser
+     * @param numericKinds whether the kind ids of the file belong to the
+     *        bundled TypeScript version; if not, kinds are read by name
+     * @return the file context
+     */
+    public ConversionContext forSource(String fileName, String sourceText, boolean numericKinds) {
+        return new ConversionContext(this, fileName, sourceText, numericKinds);
+    }
+
+    /**
+     * Gets the syntax kind of a node, from its {@code kind} id if it has
+     * one, otherwise from its {@code kindName}.
+     *
+     * @param json the node
+     * @return the kind, or null if the node has no kind known to
+     *         the bundled TypeScript version
+     */
+    public SyntaxKind kindOf(JsonNode json) {
+        if (json == null) {
+            return null;
+        }
+        if (numericKinds) {
+            JsonNode kind = json.get("kind");
+            if (kind != null && kind.isInt()) {
+                SyntaxKind syntaxKind = SyntaxKind.fromId(kind.intValue());
+                if (syntaxKind != null) {
+                    return syntaxKind;
+                }
+            }
+        }
+        JsonNode kindName = json.get("kindName");
+        return kindName != null ? SyntaxKind.fromKindName(kindName.asText()) : null;
+    }
+
+    /**
+     * Checks whether a node is of the given kind.
+     */
+    public boolean isKind(JsonNode json, SyntaxKind kind) {
+        return kindOf(json) == kind;
+    }
+
+    /**
+     * Interns a name in the name pool of the build. Once the pool is full,
+     * new names are returned as they are.
+     *
+     * @param name the name
+     * @return the pooled instance of the name
+     */
+    public String intern(String name) {
+        if (name == null) {
+            return null;
+        }
+        String pooled = namePool.get(name);
+        if (pooled != null) {
+            return pooled;
+        }
+        if (namePool.size() >= MAX_POOLED_NAMES) {
+            return name;
+        }
+        pooled = namePool.putIfAbsent(name, name);
+        return pooled != null ? pooled : name;
+    }
+
+    /**
+     * Gets the text of a node: its {@code text} field, or for nodes that
+     * are verbatim source, the source between its {@code pos} and {@code end}.
+     * The slice is taken only when asked for, so text that is never read is
+     * never copied.
+     *
+     * @param json the node
+     * @return the node text, or an empty string if it has none
+     */
+    public String getText(JsonNode json) {
+        JsonNode text = json.get("text");
+        if (text != null) {
+            return text.asText();
+        }
+        if (sourceText == null || !SOURCE_TEXT_KINDS.contains(kindOf(json))) {
+            return "";
+        }
+        JsonNode pos = json.get("pos");
+        JsonNode end = json.get("end");
+        if (pos == null || end == null || !pos.canConvertToInt() || !end.canConvertToInt()) {
+            return "";
+        }
+        int start = pos.intValue();
+        int stop = end.intValue();
+        if (start < 0 || start > stop || stop > sourceText.length()) {
+            return "";
+        }
+        return sourceText.substring(start, stop);
     }
 
     /**
-     * Converts a JSON expression to a JavaScript string.
+     * Converts a JSON expression to a JavaScript string. Subtrees equal to
+     * one converted before in the same file share its text.
      */
     public String convertExpression(JsonNode expr) {
-        return expressionConverter.convert(expr, this);
+        return subtreeCache.convert(expr, this, json -> expressionConverter.convert(json, this));
+    }
+
+    /**
+     * Converts a JSON expression to a structured expression, with the
+     * same text as {@link #convertExpression(JsonNode)}.
+     */
+    public Expression convertExpressionNode(JsonNode expr) {
+        return ExpressionNodeBuilder.build(expr, this);
     }
 
     /**
@@ -46,6 +254,57 @@ public class ConversionContext {
         return statementConverter.convert(stmt, this);
     }
 
+    /**
+     * Defers the conversion of a method or constructor body until a
+     * transformer or the generator first needs it. The body keeps its
+     * JSON subtree and this context until then.
+     *
+     * @param body the JSON body
+     * @return the deferred body
+     */
+    public LazyBlock convertStatementLazily(JsonNode body) {
+        deferredBodies.increment();
+        return new LazyBlock(fileName, () -> convertStatement(body), materializedBodies::increment);
+    }
+
+    /**
+     * Gets the number of deferred bodies that were never materialized:
+     * no transformer inspected them, so they are converted only to be
+     * rendered.
+     */
+    public long getUnmaterializedBodyCount() {
+        return deferredBodies.sum() - materializedBodies.sum();
+    }
+
+    /**
+     * Gets the hit and miss counts of the subtree caches of this context
+     * and of the file contexts created from it.
+     */
+    public ConversionCacheStats getConversionCacheStats() {
+        return new ConversionCacheStats(subtreeHits.sum(), subtreeMisses.sum());
+    }
+
+    /**
+     * Sets the resource index of the build, shared by this context and the
+     * file contexts created from it. The index is set when a build starts
+     * and reset when it ends, so the name pool is cleared as well.
+     *
+     * @param index the index, or null to resolve no resources
+     */
+    public void setResourceIndex(ResourceIndex index) {
+        resourceIndex.set(index != null ? index : ResourceIndex.EMPTY);
+        namePool.clear();
+    }
+
+    /**
+     * Gets the resource index of the build.
+     *
+     * @return the index, empty if none was set
+     */
+    public ResourceIndex getResourceIndex() {
+        return resourceIndex.get();
+    }
+
     /**
      * Gets the ObjectMapper instance for JSON parsing.
      */
@@ -63,17 +322,22 @@ public class ConversionContext {
     }
 
     /**
-     * Puts a value in the cache.
+     * Puts a value in the cache. A null value removes the key.
      */
     public void putCache(String key, Object value) {
-        cache.put(key, value);
+        if (value == null) {
+            cache.remove(key);
+        } else {
+            cache.put(key, value);
+        }
     }
 
     /**
-     * Clears the cache.
+     * Clears the cache and the converted subtrees of this context.
      */
     public void clearCache() {
         cache.clear();
+        subtreeCache.clear();
     }
 
     /**
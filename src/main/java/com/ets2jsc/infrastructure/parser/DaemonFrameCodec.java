@@ -0,0 +1,183 @@
+package com.ets2jsc.infrastructure.parser;
+
+import com.ets2jsc.shared.exception.ParserException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+
+/**
+ * Encodes request frames and decodes response frames of the parser daemon
+ * protocol, shared by every backend that talks to a daemon channel.
+ * <p>
+ * A response is a JSON object whose first field is the request id, or a
+ * binary AST (see {@link BinaryAstReader}) carrying the id in its header.
+ */
+final class DaemonFrameCodec {
+
+    private static final String ID_FIELD = "id";
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Kinds of parse request.
+     */
+    enum RequestMode {
+        PARSE,
+        INCREMENTAL,
+        INCREMENTAL_FULL_OUTPUT
+    }
+
+    DaemonFrameCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Encodes a request frame body.
+     */
+    byte[] encodeRequest(long requestId, String fileName, String sourceCode, RequestMode mode) throws IOException {
+        ObjectNode request = objectMapper.createObjectNode();
+        request.put(ID_FIELD, requestId);
+        request.put("fileName", fileName);
+        request.put("source", sourceCode);
+        if (mode != RequestMode.PARSE) {
+            request.put("incremental", true);
+            request.put("fullOutput", mode == RequestMode.INCREMENTAL_FULL_OUTPUT);
+        }
+        return objectMapper.writeValueAsBytes(request);
+    }
+
+    /**
+     * Encodes a frame body that withdraws a request the caller stopped waiting for.
+     */
+    byte[] encodeCancel(long requestId) throws IOException {
+        ObjectNode request = objectMapper.createObjectNode();
+        request.put(ID_FIELD, requestId);
+        request.put("cancel", true);
+        return objectMapper.writeValueAsBytes(request);
+    }
+
+    /**
+     * Reads the request id of a response frame without decoding its AST.
+     */
+    long responseId(byte[] frame) throws IOException {
+        if (BinaryAstReader.isBinaryAst(frame)) {
+            return new BinaryAstReader(frame).getMessageId();
+        }
+        try (JsonParser parser = objectMapper.getFactory().createParser(frame)) {
+            if (parser.nextToken() == JsonToken.START_OBJECT
+                    && parser.nextToken() == JsonToken.FIELD_NAME
+                    && ID_FIELD.equals(parser.currentName())) {
+                parser.nextToken();
+                return parser.getValueAsLong();
+            }
+        }
+        throw new IOException("Parser daemon response has no leading id");
+    }
+
+    /**
+     * Decodes a response frame into the AST tree.
+     */
+    JsonNode decodeTree(long requestId, byte[] frame) throws IOException {
+        if (BinaryAstReader.isBinaryAst(frame)) {
+            return readBinaryAst(requestId, frame);
+        }
+
+        JsonNode response = objectMapper.readTree(frame);
+        if (response.path(ID_FIELD).asLong() != requestId) {
+            throw new IOException("Parser daemon response out of sequence");
+        }
+        if (!response.path("ok").asBoolean()) {
+            throw new ParserException(response.path("error").asText());
+        }
+        return response.get("ast");
+    }
+
+    /**
+     * Decodes a response frame into a parser positioned on the AST root.
+     * The envelope fields ahead of the AST are checked token by token.
+     */
+    JsonParser decodeStream(long requestId, byte[] frame) throws IOException {
+        if (BinaryAstReader.isBinaryAst(frame)) {
+            return readBinaryAst(requestId, frame).traverse();
+        }
+
+        return decodeStream(requestId, objectMapper.getFactory().createParser(frame));
+    }
+
+    /**
+     * Checks the envelope of a JSON response and positions the parser on its AST.
+     */
+    private JsonParser decodeStream(long requestId, JsonParser parser) throws IOException {
+        try {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Malformed parser daemon response");
+            }
+            boolean inSequence = false;
+            String error = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if (ID_FIELD.equals(field)) {
+                    inSequence = parser.getValueAsLong() == requestId;
+                } else if ("ast".equals(field) && inSequence) {
+                    return parser;
+                } else if ("error".equals(field)) {
+                    error = parser.getValueAsString();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (!inSequence) {
+                throw new IOException("Parser daemon response out of sequence");
+            }
+            throw new ParserException(error != null ? error : "Parser daemon response has no AST");
+        } catch (IOException | RuntimeException e) {
+            parser.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Decodes a response frame read from a stream into a parser positioned
+     * on the AST root. A JSON frame is decoded as it arrives; a binary AST is
+     * read whole, because its reader needs the complete message. The frame
+     * is closed with the returned parser, or before an exception is thrown.
+     */
+    JsonParser decodeStream(long requestId, InputStream frame) throws IOException {
+        PushbackInputStream input = new PushbackInputStream(frame, BinaryAstReader.MAGIC_LENGTH);
+        try {
+            byte[] head = input.readNBytes(BinaryAstReader.MAGIC_LENGTH);
+            if (BinaryAstReader.isBinaryAst(head)) {
+                try (input) {
+                    return readBinaryAst(requestId, concat(head, input.readAllBytes())).traverse();
+                }
+            }
+            input.unread(head);
+        } catch (IOException | RuntimeException e) {
+            input.close();
+            throw e;
+        }
+        return decodeStream(requestId, objectMapper.getFactory().createParser(input));
+    }
+
+    private static byte[] concat(byte[] head, byte[] tail) {
+        byte[] message = new byte[head.length + tail.length];
+        System.arraycopy(head, 0, message, 0, head.length);
+        System.arraycopy(tail, 0, message, head.length, tail.length);
+        return message;
+    }
+
+    private static JsonNode readBinaryAst(long requestId, byte[] frame) throws IOException {
+        BinaryAstReader reader = new BinaryAstReader(frame);
+        if (reader.getMessageId() != requestId) {
+            throw new IOException("Parser daemon response out of sequence");
+        }
+        return reader.readAst();
+    }
+}
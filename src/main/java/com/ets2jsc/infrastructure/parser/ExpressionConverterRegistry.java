@@ -51,17 +51,15 @@ public class ExpressionConverterRegistry extends NodeConverterRegistry {
      * Converts a JSON expression to a JavaScript string.
      */
     public String convert(JsonNode json, ConversionContext context) {
-        String kindName = json.has("kindName") ? json.get("kindName").asText() : "";
-
         // Check for pre-generated text first (optimization)
         if (json.has("text")) {
             String text = json.get("text").asText();
             if (!text.isEmpty()) {
-                return text.trim();
+                return context.isKind(json, SyntaxKind.IDENTIFIER) ? context.intern(text.trim()) : text.trim();
             }
         }
 
-        NodeConverter converter = findConverter(kindName);
+        NodeConverter converter = findConverter(json, context);
         Object result = converter.convert(json, context);
 
         if (result instanceof String) {
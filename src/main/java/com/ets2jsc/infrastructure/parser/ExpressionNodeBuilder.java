@@ -0,0 +1,130 @@
+package com.ets2jsc.infrastructure.parser;
+
+import com.ets2jsc.domain.model.ast.ArrowFunctionExpression;
+import com.ets2jsc.domain.model.ast.Expression;
+import com.ets2jsc.domain.model.ast.IdentifierExpression;
+import com.ets2jsc.domain.model.ast.InvocationExpression;
+import com.ets2jsc.domain.model.ast.LiteralExpression;
+import com.ets2jsc.domain.model.ast.LiteralExpression.LiteralKind;
+import com.ets2jsc.domain.model.ast.MemberExpression;
+import com.ets2jsc.domain.model.ast.RawExpression;
+import com.ets2jsc.domain.model.ast.TemplateExpression;
+import com.ets2jsc.domain.model.ast.ThisExpression;
+import com.ets2jsc.infrastructure.parser.converters.expr.CallExpressionConverter;
+import com.ets2jsc.infrastructure.parser.converters.expr.PropertyAccessConverter;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds structured expressions from JSON expressions.
+ * The text of each expression is the same as the text of
+ * {@link ConversionContext#convertExpression(JsonNode)}. Calls and property
+ * accesses compose their text from the text of their children, as their
+ * converters do, so a chain is rendered once rather than once per link.
+ */
+final class ExpressionNodeBuilder {
+
+    private ExpressionNodeBuilder() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Builds the structured expression of a JSON expression.
+     */
+    static Expression build(JsonNode json, ConversionContext context) {
+        SyntaxKind kind = context.kindOf(json);
+        if (kind == null) {
+            return new RawExpression(context.convertExpression(json));
+        }
+        switch (kind) {
+            case IDENTIFIER:
+                return new IdentifierExpression(context.convertExpression(json));
+            case THIS_KEYWORD:
+                return ThisExpression.INSTANCE;
+            case STRING_LITERAL:
+                return literal(LiteralKind.STRING, json, context);
+            case NUMERIC_LITERAL:
+                return literal(LiteralKind.NUMBER, json, context);
+            case TRUE_KEYWORD:
+            case FALSE_KEYWORD:
+                return literal(LiteralKind.BOOLEAN, json, context);
+            case NULL_KEYWORD:
+                return literal(LiteralKind.NULL, json, context);
+            case PROPERTY_ACCESS_EXPRESSION:
+                return member(json, context);
+            case CALL_EXPRESSION:
+                return invocation(json, context);
+            case ARROW_FUNCTION:
+                return new ArrowFunctionExpression(context.convertExpression(json));
+            case TEMPLATE_EXPRESSION:
+                return new TemplateExpression(context.convertExpression(json), true);
+            case NO_SUBSTITUTION_TEMPLATE_LITERAL:
+                return new TemplateExpression(context.convertExpression(json), false);
+            default:
+                return new RawExpression(context.convertExpression(json));
+        }
+    }
+
+    private static Expression literal(LiteralKind literalKind, JsonNode json, ConversionContext context) {
+        return new LiteralExpression(literalKind, context.convertExpression(json));
+    }
+
+    private static Expression member(JsonNode json, ConversionContext context) {
+        JsonNode object = json.get("expression");
+        if (object == null || !object.isObject() || !json.has("name")) {
+            return new RawExpression(context.convertExpression(json));
+        }
+        Expression base = build(object, context);
+        String text = hasText(json)
+                ? context.convertExpression(json)
+                : PropertyAccessConverter.render(base.getText(), json).trim();
+        return new MemberExpression(base, context.intern(json.get("name").asText()), text);
+    }
+
+    private static Expression invocation(JsonNode json, ConversionContext context) {
+        JsonNode callee = json.get("expression");
+        if (callee == null || !callee.isObject()) {
+            return new RawExpression(context.convertExpression(json));
+        }
+        Expression function = build(callee, context);
+        List<Expression> arguments = new ArrayList<>();
+        List<String> argumentTexts = new ArrayList<>();
+        JsonNode argumentsNode = json.get("arguments");
+        if (argumentsNode != null && argumentsNode.isArray()) {
+            for (JsonNode argument : argumentsNode) {
+                Expression expression = argument(argument, context);
+                arguments.add(expression);
+                argumentTexts.add(expression.getText());
+            }
+        }
+        String text = hasText(json) || CallExpressionConverter.isDynamicImport(function.getText())
+                ? context.convertExpression(json)
+                : CallExpressionConverter.render(function.getText(), argumentTexts).trim();
+        return new InvocationExpression(function, arguments, text);
+    }
+
+    /**
+     * Checks if the parser script sent the text of an expression, which the
+     * converters then return as is.
+     */
+    private static boolean hasText(JsonNode json) {
+        JsonNode text = json.get("text");
+        return text != null && !text.asText().isEmpty();
+    }
+
+    /**
+     * Builds a call argument. The parser script sends most arguments as
+     * their source text, which stays a raw expression.
+     */
+    private static Expression argument(JsonNode argument, ConversionContext context) {
+        if (argument.isObject()) {
+            return build(argument, context);
+        }
+        if (argument.isNull()) {
+            return new LiteralExpression(LiteralKind.NULL, "null");
+        }
+        return new RawExpression(argument.isTextual() ? argument.asText().trim() : "");
+    }
+}
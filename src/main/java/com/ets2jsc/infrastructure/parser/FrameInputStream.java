@@ -0,0 +1,114 @@
+package com.ets2jsc.infrastructure.parser;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Body of one length-prefixed frame, read directly from the stream of a
+ * parser process.
+ * <p>
+ * Reads end at the frame boundary, so a decoder can consume the body as it
+ * arrives without buffering it. Closing the stream skips whatever the decoder
+ * left unread, so the next frame starts at its length prefix, and then runs
+ * the close action once.
+ */
+final class FrameInputStream extends InputStream {
+
+    private final InputStream source;
+    private final Consumer<FrameInputStream> onClose;
+    private long remaining;
+    private boolean closed;
+
+    /**
+     * Creates a frame stream.
+     *
+     * @param source the stream of the process, positioned on the frame body
+     * @param length the length of the frame body
+     * @param onClose runs once with the frame when it is closed
+     */
+    FrameInputStream(InputStream source, long length, Consumer<FrameInputStream> onClose) {
+        this.source = source;
+        this.remaining = length;
+        this.onClose = onClose;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (closed || remaining == 0) {
+            return -1;
+        }
+        int value = source.read();
+        if (value < 0) {
+            throw new EOFException("Parser process closed its output inside a frame");
+        }
+        remaining--;
+        return value;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (closed || remaining == 0) {
+            return -1;
+        }
+        if (length == 0) {
+            return 0;
+        }
+        int read = source.read(buffer, offset, (int) Math.min(length, remaining));
+        if (read < 0) {
+            throw new EOFException("Parser process closed its output inside a frame");
+        }
+        remaining -= read;
+        return read;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return closed ? 0 : (int) Math.min(source.available(), remaining);
+    }
+
+    /**
+     * Checks whether the whole frame body has been read or skipped.
+     */
+    boolean isComplete() {
+        return remaining == 0;
+    }
+
+    /**
+     * Skips the rest of the frame and runs the close action. The stream of
+     * the process itself stays open.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            while (remaining > 0) {
+                long skipped = source.skip(remaining);
+                if (skipped <= 0) {
+                    if (source.read() < 0) {
+                        throw new EOFException("Parser process closed its output inside a frame");
+                    }
+                    skipped = 1;
+                }
+                remaining -= skipped;
+            }
+        } finally {
+            onClose.accept(this);
+        }
+    }
+
+    /**
+     * Runs the close action without skipping the rest of the frame, after
+     * the stream of the process failed.
+     */
+    void abandon() {
+        if (!closed) {
+            closed = true;
+            onClose.accept(this);
+        }
+    }
+}
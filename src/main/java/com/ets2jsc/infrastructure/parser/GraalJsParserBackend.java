@@ -0,0 +1,280 @@
+package com.ets2jsc.infrastructure.parser;
+
+import com.ets2jsc.infrastructure.parser.internal.IParserBackend;
+import com.ets2jsc.shared.exception.ParserException;
+import com.ets2jsc.shared.exception.ParserInitializationException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+import org.graalvm.polyglot.io.IOAccess;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+
+/**
+ * In-process parser backend running the parser script on GraalJS.
+ * <p>
+ * All contexts share one polyglot {@link Engine}, so the parser script and
+ * the TypeScript compiler are parsed once and their compiled code is reused
+ * by every context through the engine's source cache. A context can only be
+ * entered by one thread at a time, so contexts are pooled and each parse
+ * borrows one. The AST is copied straight from the guest objects into a
+ * Jackson tree without a JSON text round-trip, and no {@code node} binary,
+ * child process or temp file is involved.
+ */
+public class GraalJsParserBackend implements IParserBackend {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GraalJsParserBackend.class);
+
+    private static final String LANGUAGE_ID = "js";
+    private static final String UNDEFINED = "undefined";
+    private static final String PARSE_FUNCTION = "parse";
+    private static final String FS_SHIM = "src/javascript/graal/fs-shim.js";
+    private static final String SHEBANG = "#!";
+    private static final String MODULE_PREFIX =
+            "(function (require, __filename, __dirname) { const module = { exports: {} }; const exports = module.exports;\n";
+    private static final String MODULE_SUFFIX = "\nreturn module.exports; })";
+
+    private final Path scriptPath;
+    private final Engine engine;
+    private final Source entrySource;
+    private final Semaphore permits;
+    private final Deque<ParserContext> idleContexts;
+    private final List<ParserContext> allContexts;
+    private final JsonNodeFactory nodeFactory;
+    private volatile boolean closed;
+
+    /**
+     * Creates a backend for the given parser script. Contexts are created on demand.
+     *
+     * @param scriptPath path to the parser entry script ({@code index.js})
+     * @param maxContexts the maximum number of contexts parsing at the same time
+     * @throws ParserInitializationException if the JavaScript engine is not available
+     */
+    public GraalJsParserBackend(String scriptPath, int maxContexts) {
+        this.scriptPath = Path.of(scriptPath).toAbsolutePath();
+        this.permits = new Semaphore(Math.max(1, maxContexts), true);
+        this.idleContexts = new ConcurrentLinkedDeque<>();
+        this.allContexts = new CopyOnWriteArrayList<>();
+        this.nodeFactory = JsonNodeFactory.instance;
+        try {
+            this.engine = Engine.newBuilder(LANGUAGE_ID)
+                    .option("engine.WarnInterpreterOnly", "false")
+                    .build();
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw new ParserInitializationException("GraalJS engine is not available", e);
+        }
+        this.entrySource = loadEntrySource(this.scriptPath);
+        LOGGER.debug("GraalJS parser backend initialized with up to {} contexts", maxContexts);
+    }
+
+    @Override
+    public JsonNode parseToJson(String fileName, String sourceCode) {
+        ParserContext parserContext = borrow();
+        try {
+            Value ast = parserContext.parseFunction.execute(sourceCode, fileName);
+            return toJson(ast);
+        } catch (PolyglotException e) {
+            if (e.isGuestException()) {
+                throw new ParserException(e.getMessage());
+            }
+            throw new ParserException("GraalJS parser failed for: " + fileName, e);
+        } finally {
+            giveBack(parserContext);
+        }
+    }
+
+    /**
+     * Gets the number of contexts created over the lifetime of the backend.
+     *
+     * @return the created context count
+     */
+    public int getCreatedContexts() {
+        return allContexts.size();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        ParserContext parserContext;
+        while ((parserContext = idleContexts.pollFirst()) != null) {
+            parserContext.context.close();
+        }
+        // Cancels parses still running on borrowed contexts
+        engine.close(true);
+    }
+
+    /**
+     * Takes an idle context, or creates one while below the context limit.
+     */
+    private ParserContext borrow() {
+        if (closed) {
+            throw new IllegalStateException("GraalJS parser backend is closed");
+        }
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ParserException("Interrupted while waiting for a parser context", e);
+        }
+
+        ParserContext parserContext = idleContexts.pollFirst();
+        if (parserContext == null) {
+            try {
+                parserContext = createContext();
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+        return parserContext;
+    }
+
+    private void giveBack(ParserContext parserContext) {
+        try {
+            if (closed) {
+                parserContext.context.close();
+            } else {
+                idleContexts.offerFirst(parserContext);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Creates a context on the shared engine and loads the parser script into it.
+     */
+    private ParserContext createContext() {
+        String scriptDir = scriptPath.getParent().toString();
+        Context context = Context.newBuilder(LANGUAGE_ID)
+                .engine(engine)
+                .allowIO(IOAccess.newBuilder().allowHostFileAccess(true).build())
+                .allowExperimentalOptions(true)
+                .option("js.commonjs-require", "true")
+                .option("js.commonjs-require-cwd", scriptDir)
+                .option("js.commonjs-core-modules-replacements",
+                        "fs:" + scriptPath.resolveSibling(FS_SHIM.replace('/', File.separatorChar)))
+                .build();
+        try {
+            Value require = context.getBindings(LANGUAGE_ID).getMember("require");
+            Value parseFunction = context.eval(entrySource)
+                    .execute(require, scriptPath.toString(), scriptPath.getParent().toString())
+                    .getMember(PARSE_FUNCTION);
+            if (parseFunction == null || !parseFunction.canExecute()) {
+                throw new ParserInitializationException("Parser script does not export a parse function: " + scriptPath);
+            }
+            ParserContext parserContext = new ParserContext(context, parseFunction);
+            allContexts.add(parserContext);
+            LOGGER.debug("Created GraalJS parser context {}", allContexts.size());
+            return parserContext;
+        } catch (PolyglotException e) {
+            context.close();
+            throw new ParserInitializationException("Failed to load parser script into GraalJS: " + scriptPath, e);
+        } catch (ParserInitializationException e) {
+            context.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the parser entry script and wraps it as a CommonJS module function.
+     * The entry script is loaded here rather than through {@code require} so its
+     * shebang line, which the GraalJS module loader rejects, can be blanked out.
+     */
+    private static Source loadEntrySource(Path scriptPath) {
+        try {
+            String code = Files.readString(scriptPath);
+            if (code.startsWith(SHEBANG)) {
+                // Keep line numbers intact by commenting the line out
+                code = "//" + code.substring(SHEBANG.length());
+            }
+            return Source.newBuilder(LANGUAGE_ID, MODULE_PREFIX + code + MODULE_SUFFIX, scriptPath.toString())
+                    .cached(true)
+                    .buildLiteral();
+        } catch (IOException e) {
+            throw new ParserInitializationException("Failed to read parser script: " + scriptPath, e);
+        }
+    }
+
+    /**
+     * Copies a guest value into a Jackson tree, following JSON.stringify rules:
+     * undefined and function members are dropped and non-finite numbers become null.
+     */
+    private JsonNode toJson(Value value) {
+        if (value.isNull()) {
+            return nodeFactory.nullNode();
+        }
+        if (value.isBoolean()) {
+            return nodeFactory.booleanNode(value.asBoolean());
+        }
+        if (value.isString()) {
+            return nodeFactory.textNode(value.asString());
+        }
+        if (value.isNumber()) {
+            return toJsonNumber(value);
+        }
+        if (value.hasArrayElements()) {
+            ArrayNode array = nodeFactory.arrayNode();
+            long size = value.getArraySize();
+            for (long i = 0; i < size; i++) {
+                Value element = value.getArrayElement(i);
+                array.add(isSkipped(element) ? nodeFactory.nullNode() : toJson(element));
+            }
+            return array;
+        }
+        ObjectNode object = nodeFactory.objectNode();
+        for (String key : value.getMemberKeys()) {
+            Value member = value.getMember(key);
+            if (!isSkipped(member)) {
+                object.set(key, toJson(member));
+            }
+        }
+        return object;
+    }
+
+    private JsonNode toJsonNumber(Value value) {
+        if (value.fitsInInt()) {
+            return nodeFactory.numberNode(value.asInt());
+        }
+        if (value.fitsInLong()) {
+            return nodeFactory.numberNode(value.asLong());
+        }
+        double number = value.asDouble();
+        return Double.isFinite(number) ? nodeFactory.numberNode(number) : nodeFactory.nullNode();
+    }
+
+    private static boolean isSkipped(Value value) {
+        return value == null
+                || value.canExecute()
+                || (value.isNull() && UNDEFINED.equals(value.toString()));
+    }
+
+    /**
+     * A context with the parser's {@code parse} function already resolved.
+     */
+    private static final class ParserContext {
+        private final Context context;
+        private final Value parseFunction;
+
+        private ParserContext(Context context, Value parseFunction) {
+            this.context = context;
+            this.parseFunction = parseFunction;
+        }
+    }
+}
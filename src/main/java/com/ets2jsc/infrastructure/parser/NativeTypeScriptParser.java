@@ -0,0 +1,173 @@
+package com.ets2jsc.infrastructure.parser;
+
+import com.ets2jsc.domain.model.ast.SourceFile;
+import com.ets2jsc.domain.model.compilation.ConversionCacheStats;
+import com.ets2jsc.infrastructure.parser.ets.EtsSyntaxParser;
+import com.ets2jsc.infrastructure.parser.internal.ITypeScriptParser;
+import com.ets2jsc.shared.exception.ParserException;
+import com.ets2jsc.shared.exception.UnsupportedSyntaxException;
+import com.ets2jsc.shared.util.ResourceIndex;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * ETS parser running in the JVM, without a JavaScript runtime.
+ * <p>
+ * Files are parsed by the {@link EtsSyntaxParser} into the JSON AST of the
+ * parser script and converted by the same converters, so the output is the
+ * same as with the Node.js parser. Files using syntax the Java parser does
+ * not cover are parsed by a fallback parser, which is only created when
+ * the first such file is seen.
+ */
+public class NativeTypeScriptParser implements ITypeScriptParser {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NativeTypeScriptParser.class);
+
+    private final AstJsonConverter astConverter;
+    private final Supplier<ITypeScriptParser> fallbackFactory;
+    private final AtomicLong fallbackCount;
+    private volatile ITypeScriptParser fallback;
+    private volatile ResourceIndex resourceIndex;
+
+    /**
+     * Creates a parser that falls back to a Node.js parser daemon.
+     */
+    public NativeTypeScriptParser() {
+        this(TypeScriptScriptParser::new);
+    }
+
+    /**
+     * Creates a parser with the given fallback parser.
+     *
+     * @param fallbackFactory creates the parser for files the Java parser does not cover
+     */
+    public NativeTypeScriptParser(Supplier<ITypeScriptParser> fallbackFactory) {
+        if (fallbackFactory == null) {
+            throw new IllegalArgumentException("Fallback parser factory cannot be null");
+        }
+        this.astConverter = new AstJsonConverter(new ObjectMapper());
+        this.fallbackFactory = fallbackFactory;
+        this.fallbackCount = new AtomicLong();
+    }
+
+    @Override
+    public SourceFile parse(String fileName, String sourceCode) {
+        JsonNode ast = parseNative(fileName, sourceCode);
+        return ast != null ? astConverter.convert(fileName, sourceCode, ast) : fallback().parse(fileName, sourceCode);
+    }
+
+    @Override
+    public SourceFile parseIncremental(String fileName, String sourceCode) {
+        JsonNode ast = parseNative(fileName, sourceCode);
+        return ast != null
+                ? astConverter.convert(fileName, sourceCode, ast)
+                : fallback().parseIncremental(fileName, sourceCode);
+    }
+
+    /**
+     * Sets the number of top-level statements from which the statements of a
+     * file are converted in parallel.
+     *
+     * @param threshold the statement count, or 0 to convert on the calling thread
+     * @see TypeScriptScriptParser#setParallelConversionThreshold(int)
+     */
+    public void setParallelConversionThreshold(int threshold) {
+        astConverter.setParallelThreshold(threshold);
+    }
+
+    /**
+     * Gets the number of files handed to the fallback parser.
+     *
+     * @return the fallback count
+     */
+    public long getFallbackCount() {
+        return fallbackCount.get();
+    }
+
+    /**
+     * Gets the number of lazily converted bodies of natively parsed files
+     * that no transformer has materialized.
+     *
+     * @return the unmaterialized body count
+     * @see TypeScriptScriptParser#getUnmaterializedBodyCount()
+     */
+    public long getUnmaterializedBodyCount() {
+        return astConverter.getUnmaterializedBodyCount();
+    }
+
+    /**
+     * Gets the subtree cache counts of natively parsed files, plus those of
+     * the fallback parser once it has been created.
+     */
+    @Override
+    public ConversionCacheStats getConversionCacheStats() {
+        ConversionCacheStats stats = astConverter.getConversionCacheStats();
+        ITypeScriptParser created = fallback;
+        return created != null ? stats.plus(created.getConversionCacheStats()) : stats;
+    }
+
+    /**
+     * Sets the resource index of natively parsed files and of the fallback parser.
+     */
+    @Override
+    public void setResourceIndex(ResourceIndex index) {
+        synchronized (this) {
+            resourceIndex = index;
+            astConverter.setResourceIndex(index);
+            if (fallback != null) {
+                fallback.setResourceIndex(index);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        ITypeScriptParser created = fallback;
+        if (created != null) {
+            created.close();
+        }
+    }
+
+    /**
+     * Parses a file with the Java parser.
+     *
+     * Only syntax the Java parser does not cover goes to the fallback; any
+     * other failure is a bug of the Java parser and is not hidden by it.
+     *
+     * @return the JSON AST, or null if the file needs the fallback parser
+     */
+    private JsonNode parseNative(String fileName, String sourceCode) {
+        if (fileName == null || sourceCode == null) {
+            throw new ParserException("File name and source code cannot be null");
+        }
+        try {
+            return EtsSyntaxParser.parse(fileName, sourceCode);
+        } catch (UnsupportedSyntaxException e) {
+            fallbackCount.incrementAndGet();
+            LOGGER.debug("Parsing {} with the fallback parser: {}", fileName, e.getMessage());
+            return null;
+        }
+    }
+
+    private ITypeScriptParser fallback() {
+        ITypeScriptParser created = fallback;
+        if (created == null) {
+            synchronized (this) {
+                created = fallback;
+                if (created == null) {
+                    created = fallbackFactory.get();
+                    if (resourceIndex != null) {
+                        created.setResourceIndex(resourceIndex);
+                    }
+                    fallback = created;
+                }
+            }
+        }
+        return created;
+    }
+}
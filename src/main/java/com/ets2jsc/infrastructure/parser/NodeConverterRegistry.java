@@ -1,19 +1,40 @@
 package com.ets2jsc.infrastructure.parser;
 
-import java.util.ArrayList;
+import com.fasterxml.jackson.databind.JsonNode;
+
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Base registry for node converters.
  * Manages a collection of converters and dispatches to the appropriate one.
+ * <p>
+ * Converters match kind names with arbitrary predicates, so the dispatch
+ * table is filled as kinds are seen: the first lookup of a kind walks the
+ * converters in priority order, and later lookups of that kind are a single
+ * map access. Nodes of a {@link SyntaxKind} are looked up in an array
+ * indexed by the kind instead. Registering or clearing converters resets
+ * the tables.
+ * <p>
+ * Lookups are safe from several threads at once, so the statements of a
+ * file can be converted in parallel.
  */
 public abstract class NodeConverterRegistry {
 
     protected final List<NodeConverter> converters;
+    private final Map<String, Optional<NodeConverter>> dispatchTable = new ConcurrentHashMap<>();
+    private volatile AtomicReferenceArray<Optional<NodeConverter>> kindTable = newKindTable();
+    private final LongAdder dispatchHits = new LongAdder();
+    private final LongAdder dispatchMisses = new LongAdder();
 
     protected NodeConverterRegistry() {
-        this.converters = new ArrayList<>();
+        this.converters = new CopyOnWriteArrayList<>();
         initializeConverters();
         // Sort by priority (highest first)
         converters.sort(Comparator.comparingInt(NodeConverter::getPriority).reversed());
@@ -28,34 +49,109 @@ public abstract class NodeConverterRegistry {
     /**
      * Registers a converter.
      */
-    public void register(NodeConverter converter) {
+    public synchronized void register(NodeConverter converter) {
         converters.add(converter);
         // Re-sort after adding
         converters.sort(Comparator.comparingInt(NodeConverter::getPriority).reversed());
+        resetDispatchTables();
     }
 
     /**
      * Finds a converter for the given kind name.
      */
     protected NodeConverter findConverter(String kindName) {
-        for (NodeConverter converter : converters) {
-            if (converter.canConvert(kindName)) {
-                return converter;
+        return lookup(kindName)
+                .orElseThrow(() -> new UnsupportedOperationException("No converter found for: " + kindName));
+    }
+
+    /**
+     * Finds a converter for the given syntax kind, by its kind name or,
+     * if no converter matches that, by its TypeScript name.
+     */
+    protected NodeConverter findConverter(SyntaxKind kind) {
+        AtomicReferenceArray<Optional<NodeConverter>> table = kindTable;
+        Optional<NodeConverter> converter = table.get(kind.ordinal());
+        if (converter != null) {
+            dispatchHits.increment();
+        } else {
+            dispatchMisses.increment();
+            converter = resolve(kind.getKindName());
+            if (converter.isEmpty() && !kind.getTypeScriptName().equals(kind.getKindName())) {
+                converter = resolve(kind.getTypeScriptName());
             }
+            table.set(kind.ordinal(), converter);
+        }
+        return converter
+                .orElseThrow(() -> new UnsupportedOperationException("No converter found for: " + kind.getKindName()));
+    }
+
+    /**
+     * Finds the converter for a node: by its syntax kind if it is known,
+     * otherwise by its kind name.
+     */
+    protected NodeConverter findConverter(JsonNode json, ConversionContext context) {
+        SyntaxKind kind = context.kindOf(json);
+        if (kind != null) {
+            return findConverter(kind);
         }
-        throw new UnsupportedOperationException("No converter found for: " + kindName);
+        return findConverter(json.has("kindName") ? json.get("kindName").asText() : "");
     }
 
     /**
      * Checks if a converter is available for the given kind name.
      */
     public boolean hasConverter(String kindName) {
+        return lookup(kindName).isPresent();
+    }
+
+    /**
+     * Gets the number of lookups answered by the dispatch table.
+     */
+    public long getDispatchHits() {
+        return dispatchHits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that had to walk the converters.
+     */
+    public long getDispatchMisses() {
+        return dispatchMisses.sum();
+    }
+
+    private Optional<NodeConverter> lookup(String kindName) {
+        if (kindName == null) {
+            return Optional.empty();
+        }
+        Optional<NodeConverter> converter = dispatchTable.get(kindName);
+        if (converter != null) {
+            dispatchHits.increment();
+            return converter;
+        }
+        dispatchMisses.increment();
+        converter = resolve(kindName);
+        dispatchTable.put(kindName, converter);
+        return converter;
+    }
+
+    /**
+     * Walks the converters in priority order.
+     */
+    private Optional<NodeConverter> resolve(String kindName) {
         for (NodeConverter converter : converters) {
             if (converter.canConvert(kindName)) {
-                return true;
+                return Optional.of(converter);
             }
         }
-        return false;
+        return Optional.empty();
+    }
+
+    private void resetDispatchTables() {
+        dispatchTable.clear();
+        kindTable = newKindTable();
+    }
+
+    private static AtomicReferenceArray<Optional<NodeConverter>> newKindTable() {
+        return new AtomicReferenceArray<>(SyntaxKind.values().length);
     }
 
     /**
@@ -68,7 +164,8 @@ public abstract class NodeConverterRegistry {
     /**
      * Clears all converters.
      */
-    public void clear() {
+    public synchronized void clear() {
         converters.clear();
+        resetDispatchTables();
     }
 }
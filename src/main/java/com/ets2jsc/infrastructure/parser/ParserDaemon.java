@@ -0,0 +1,384 @@
+package com.ets2jsc.infrastructure.parser;
+
+import com.ets2jsc.infrastructure.parser.DaemonFrameCodec.RequestMode;
+import com.ets2jsc.infrastructure.parser.internal.IParserBackend;
+import com.ets2jsc.shared.exception.ParserException;
+import com.ets2jsc.shared.exception.ParserInitializationException;
+import com.ets2jsc.shared.exception.ParserUnavailableException;
+import com.ets2jsc.shared.process.CancellationToken;
+import com.ets2jsc.shared.process.SubprocessRunner;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Long-lived Node.js parser process shared by many parse requests.
+ * <p>
+ * Requests and responses are exchanged over stdin/stdout as length-prefixed
+ * frames: a 4-byte big-endian length followed by a UTF-8 JSON body, or by
+ * a binary AST for successful responses of a daemon started with the
+ * binary AST format.
+ * The process is started lazily on the first request and respawned
+ * transparently if it dies between or during requests. If the process
+ * cannot be started at all, for example because Node.js is missing, the
+ * daemon is marked unavailable and later requests fail without trying again.
+ * <p>
+ * Requests are serialized; one daemon handles one file at a time. A
+ * streamed response is read from the process as the caller consumes it, so
+ * the next request waits until the caller closes the returned parser.
+ */
+public class ParserDaemon implements IParserBackend {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParserDaemon.class);
+
+    private static final int MAX_ATTEMPTS = 2;
+    private static final int MAX_FRAME_BYTES = Integer.MAX_VALUE - 8;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 2000;
+
+    private final ProcessExecutor executor;
+    private final DaemonFrameCodec codec;
+
+    private Process process;
+    private DataOutputStream requestStream;
+    private DataInputStream responseStream;
+    private FrameInputStream openFrame;
+    private long nextRequestId;
+    private int spawnCount;
+    private boolean closed;
+    private IOException startFailure;
+
+    /**
+     * Creates a new daemon handle. No process is started until the first request.
+     *
+     * @param executor the executor used to launch the parser script
+     * @param objectMapper the mapper used to encode requests and decode responses
+     */
+    public ParserDaemon(ProcessExecutor executor, ObjectMapper objectMapper) {
+        this.executor = executor;
+        this.codec = new DaemonFrameCodec(objectMapper);
+    }
+
+    /**
+     * Parses source code in the daemon and returns the raw JSON AST.
+     *
+     * @param fileName the file name for error reporting
+     * @param sourceCode the source code to parse
+     * @return the JSON AST produced by the parser script
+     * @throws ParserException if the script reports a parse failure
+     * @throws ParserInitializationException if the daemon cannot be (re)started
+     */
+    @Override
+    public JsonNode parseToJson(String fileName, String sourceCode) {
+        return request(fileName, sourceCode, RequestMode.PARSE, this::decodeTree);
+    }
+
+    /**
+     * Parses source code incrementally against the daemon's previous parse of
+     * the same file name. The AST carries a {@code statementIds} array with one
+     * id per top-level statement; statements unchanged since the previous parse
+     * are {@code null} and keep their id.
+     *
+     * @param fileName the file name, which identifies the previous parse
+     * @param sourceCode the source code to parse
+     * @param fullOutput whether unchanged statements are converted as well
+     * @return the JSON AST produced by the parser script
+     * @throws ParserException if the script reports a parse failure
+     * @throws ParserInitializationException if the daemon cannot be (re)started
+     */
+    @Override
+    public JsonNode parseIncrementalToJson(String fileName, String sourceCode, boolean fullOutput) {
+        RequestMode mode = fullOutput ? RequestMode.INCREMENTAL_FULL_OUTPUT : RequestMode.INCREMENTAL;
+        return request(fileName, sourceCode, mode, this::decodeTree);
+    }
+
+    /**
+     * Parses source code in the daemon and returns a token stream over the
+     * AST. A JSON response is not built into a tree, nor buffered: the
+     * returned parser is positioned on the AST root object and reads the rest
+     * of the frame from the process. It must be closed before the daemon
+     * takes the next request.
+     *
+     * @param fileName the file name for error reporting
+     * @param sourceCode the source code to parse
+     * @return a parser positioned on the AST root object
+     * @throws ParserException if the script reports a parse failure
+     * @throws ParserInitializationException if the daemon cannot be (re)started
+     */
+    @Override
+    public JsonParser parseToStream(String fileName, String sourceCode) {
+        return request(fileName, sourceCode, RequestMode.PARSE, codec::decodeStream);
+    }
+
+    /**
+     * Decodes a response frame for a request id.
+     */
+    @FunctionalInterface
+    private interface ResponseDecoder<T> {
+        T decode(long requestId, FrameInputStream frame) throws IOException;
+    }
+
+    /**
+     * Reads a whole response frame and decodes it into the AST tree.
+     */
+    private JsonNode decodeTree(long requestId, FrameInputStream frame) throws IOException {
+        byte[] body;
+        try (frame) {
+            body = frame.readAllBytes();
+        }
+        return codec.decodeTree(requestId, body);
+    }
+
+    /**
+     * Sends a request, respawning the daemon once if the exchange fails.
+     * The exchange is watched: if the deadline of the token bound to this
+     * thread passes or the token is cancelled, the daemon is killed and the
+     * request fails without a retry.
+     */
+    private synchronized <T> T request(String fileName, String sourceCode, RequestMode mode,
+                                       ResponseDecoder<T> decoder) {
+        awaitOpenFrame();
+        if (closed) {
+            throw new IllegalStateException("Parser daemon is closed");
+        }
+        CancellationToken.current().throwIfCancelled();
+
+        IOException lastFailure = null;
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            try {
+                ensureRunning();
+                return exchange(fileName, sourceCode, mode, decoder);
+            } catch (IOException e) {
+                lastFailure = e;
+                LOGGER.warn("Parser daemon failed while parsing {}, respawning: {}", fileName, e.getMessage());
+                terminate();
+            }
+        }
+        throw new ParserInitializationException("Parser daemon unavailable for: " + fileName, lastFailure);
+    }
+
+    /**
+     * Waits until the caller of a streamed response has closed it.
+     */
+    private void awaitOpenFrame() {
+        while (openFrame != null) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ParserException("Interrupted while waiting for the parser daemon", e);
+            }
+        }
+    }
+
+    /**
+     * Sends one request and reads its response under a watch of the daemon
+     * process. The watch ends when the response frame is closed, so a
+     * streamed response stays bounded by the deadline while it is read.
+     */
+    private <T> T exchange(String fileName, String sourceCode, RequestMode mode,
+                           ResponseDecoder<T> decoder) throws IOException {
+        SubprocessRunner.Watch watch = executor.getSubprocessRunner().watch(process);
+        FrameInputStream frame = null;
+        try {
+            long requestId = send(fileName, sourceCode, mode);
+            frame = readFrame(watch);
+            return decoder.decode(requestId, frame);
+        } catch (IOException e) {
+            release(frame, watch);
+            if (watch.isCancelled()) {
+                terminate();
+                throw new CancellationException("Parsing cancelled: " + fileName);
+            }
+            if (watch.isExpired()) {
+                terminate();
+                throw new ParserException("Parser daemon timed out while parsing: " + fileName, e);
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            release(frame, watch);
+            throw e;
+        }
+    }
+
+    /**
+     * Ends the watch of a failed exchange, with its frame if one was read.
+     */
+    private static void release(FrameInputStream frame, SubprocessRunner.Watch watch) {
+        if (frame != null) {
+            frame.abandon();
+        } else {
+            watch.close();
+        }
+    }
+
+    /**
+     * Checks whether the daemon process is currently running.
+     *
+     * @return true if a live process is attached
+     */
+    public synchronized boolean isAlive() {
+        return process != null && process.isAlive();
+    }
+
+    /**
+     * Gets the process id of the running daemon.
+     *
+     * @return the pid, or -1 if no process is running
+     */
+    public synchronized long getPid() {
+        return process != null && process.isAlive() ? process.pid() : -1;
+    }
+
+    /**
+     * Gets the number of times a daemon process has been started.
+     *
+     * @return the spawn count
+     */
+    public synchronized int getSpawnCount() {
+        return spawnCount;
+    }
+
+    /**
+     * Stops the daemon. Closing stdin lets the script exit on its own;
+     * the process is killed if it does not exit in time.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        terminate();
+    }
+
+    /**
+     * Starts the daemon process if none is running.
+     */
+    private void ensureRunning() throws IOException {
+        if (process != null && process.isAlive()) {
+            return;
+        }
+        terminate();
+
+        if (startFailure != null) {
+            throw new ParserUnavailableException("Parser daemon cannot be started", startFailure);
+        }
+        try {
+            process = executor.startDaemon();
+        } catch (SecurityException e) {
+            throw new ParserInitializationException("Invalid TypeScript parser script", e);
+        } catch (IOException e) {
+            // Starting again would fail the same way; only a dead process is respawned
+            startFailure = e;
+            throw new ParserUnavailableException("Parser daemon cannot be started", e);
+        }
+        spawnCount++;
+        requestStream = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+        responseStream = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+        startStderrDrain(process);
+        LOGGER.debug("Started parser daemon (pid {})", process.pid());
+    }
+
+    /**
+     * Sends one request frame.
+     *
+     * @return the request id
+     */
+    private long send(String fileName, String sourceCode, RequestMode mode) throws IOException {
+        long requestId = ++nextRequestId;
+        byte[] body = codec.encodeRequest(requestId, fileName, sourceCode, mode);
+        requestStream.writeInt(body.length);
+        requestStream.write(body);
+        requestStream.flush();
+        return requestId;
+    }
+
+    /**
+     * Reads the length prefix of a frame and opens its body as a stream.
+     */
+    private FrameInputStream readFrame(SubprocessRunner.Watch watch) throws IOException {
+        int length = responseStream.readInt();
+        if (length < 0 || length > MAX_FRAME_BYTES) {
+            throw new IOException("Invalid parser daemon frame length: " + length);
+        }
+        openFrame = new FrameInputStream(responseStream, length, frame -> frameClosed(frame, watch));
+        return openFrame;
+    }
+
+    /**
+     * Ends the watch of a closed frame and lets the next request in. A frame
+     * left incomplete means the next one cannot be found, so the process is
+     * replaced.
+     */
+    private synchronized void frameClosed(FrameInputStream frame, SubprocessRunner.Watch watch) {
+        watch.close();
+        if (frame != openFrame) {
+            return;
+        }
+        openFrame = null;
+        if (!frame.isComplete()) {
+            terminate();
+        }
+        notifyAll();
+    }
+
+    /**
+     * Drains stderr on a background thread so the daemon never blocks on a full pipe.
+     */
+    private void startStderrDrain(Process daemonProcess) {
+        Thread drain = new Thread(() -> {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(daemonProcess.getErrorStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    LOGGER.debug("[parser daemon] {}", line);
+                }
+            } catch (IOException e) {
+                // Stream closed with the process
+            }
+        }, "ETS-Parser-Daemon-stderr");
+        drain.setDaemon(true);
+        drain.start();
+    }
+
+    /**
+     * Shuts down the current process, if any, and detaches its streams.
+     * A response still being streamed fails on its next read.
+     */
+    private void terminate() {
+        openFrame = null;
+        notifyAll();
+        if (process == null) {
+            return;
+        }
+        try {
+            requestStream.close();
+        } catch (IOException e) {
+            // Process already gone
+        }
+        try {
+            if (!process.waitFor(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+        process = null;
+        requestStream = null;
+        responseStream = null;
+    }
+}
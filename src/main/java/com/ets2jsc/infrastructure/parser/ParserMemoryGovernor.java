@@ -0,0 +1,173 @@
+package com.ets2jsc.infrastructure.parser;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps the parser workers of a build within a total memory budget.
+ * <p>
+ * The budget covers the JVM and all of its child processes, sampled with
+ * {@link ProcessMemorySampler#processTreeBytes()} at most once per sample
+ * interval. While the budget is exceeded, new parse jobs wait until a
+ * running job finishes and memory drops again. One job is always admitted
+ * when none is running, so a JVM that exceeds the budget on its own slows
+ * the build down to one parse at a time instead of stalling it.
+ */
+public final class ParserMemoryGovernor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParserMemoryGovernor.class);
+
+    private static final long DEFAULT_SAMPLE_INTERVAL_MILLIS = 100;
+
+    private final long budgetBytes;
+    private final LongSupplier memorySampler;
+    private final long sampleIntervalNanos;
+    private final ReentrantLock lock;
+    private final Condition released;
+    private int inFlight;
+    private long lastSampleNanos;
+    private long lastSampleBytes = -1;
+    private long peakBytes = -1;
+    private int deferredAdmissions;
+    private volatile boolean overBudgetReported;
+
+    /**
+     * Creates a governor that samples the JVM and its child processes.
+     *
+     * @param budgetBytes the total memory budget in bytes, or 0 to only track usage
+     */
+    public ParserMemoryGovernor(long budgetBytes) {
+        this(budgetBytes, ProcessMemorySampler::processTreeBytes, DEFAULT_SAMPLE_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Creates a governor with a custom memory sampler.
+     *
+     * @param budgetBytes the total memory budget in bytes, or 0 to only track usage
+     * @param memorySampler returns the current total memory in bytes
+     * @param sampleIntervalMillis the minimum time between two samples
+     */
+    ParserMemoryGovernor(long budgetBytes, LongSupplier memorySampler, long sampleIntervalMillis) {
+        this.budgetBytes = Math.max(0, budgetBytes);
+        this.memorySampler = memorySampler;
+        this.sampleIntervalNanos = TimeUnit.MILLISECONDS.toNanos(sampleIntervalMillis);
+        this.lock = new ReentrantLock();
+        this.released = lock.newCondition();
+    }
+
+    /**
+     * Waits until a parse job may start and counts it as running.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void admit() throws InterruptedException {
+        lock.lock();
+        try {
+            boolean deferred = false;
+            while (inFlight > 0 && isOverBudget()) {
+                if (!deferred) {
+                    deferred = true;
+                    deferredAdmissions++;
+                }
+                // Memory drops without a signal as well, for example when a worker exits
+                released.await(sampleIntervalNanos, TimeUnit.NANOSECONDS);
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Counts a parse job admitted by {@link #admit()} as finished.
+     */
+    public void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Checks whether the budget is exceeded, sampling memory if the last sample is too old.
+     *
+     * @return true if a budget is set and the sampled total exceeds it
+     */
+    public boolean isOverBudget() {
+        if (budgetBytes == 0) {
+            sample();
+            return false;
+        }
+        long used = sample();
+        boolean over = used > budgetBytes;
+        if (over && !overBudgetReported) {
+            overBudgetReported = true;
+            LOGGER.warn("Memory budget of {} MB exceeded ({} MB in use); throttling parser workers",
+                    budgetBytes >> 20, used >> 20);
+        }
+        return over;
+    }
+
+    /**
+     * Gets the highest total memory sampled so far.
+     *
+     * @return the peak in bytes, or -1 if nothing was sampled
+     */
+    public long getPeakBytes() {
+        lock.lock();
+        try {
+            return peakBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of parse jobs that had to wait for memory.
+     *
+     * @return the deferred admission count
+     */
+    public int getDeferredAdmissions() {
+        lock.lock();
+        try {
+            return deferredAdmissions;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the configured budget.
+     *
+     * @return the budget in bytes, or 0 if unlimited
+     */
+    public long getBudgetBytes() {
+        return budgetBytes;
+    }
+
+    /**
+     * Returns the current total, sampling it unless the last sample is recent enough.
+     */
+    private long sample() {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            if (lastSampleBytes < 0 || now - lastSampleNanos >= sampleIntervalNanos) {
+                lastSampleBytes = memorySampler.getAsLong();
+                lastSampleNanos = now;
+                peakBytes = Math.max(peakBytes, lastSampleBytes);
+            }
+            return lastSampleBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
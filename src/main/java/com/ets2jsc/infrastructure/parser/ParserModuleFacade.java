@@ -2,7 +2,9 @@ package com.ets2jsc.infrastructure.parser;
 
 import com.ets2jsc.domain.service.ParserService;
 import com.ets2jsc.domain.model.ast.SourceFile;
+import com.ets2jsc.domain.model.compilation.ConversionCacheStats;
 import com.ets2jsc.shared.exception.ParserException;
+import com.ets2jsc.shared.util.ResourceIndex;
 import com.ets2jsc.infrastructure.parser.AstBuilder;
 import com.ets2jsc.infrastructure.parser.TypeScriptScriptParser;
 import com.ets2jsc.infrastructure.parser.internal.IAstBuilder;
@@ -91,6 +93,16 @@ public class ParserModuleFacade implements ParserService {
                 || fileName.endsWith(EXT_JSX);
     }
 
+    @Override
+    public ConversionCacheStats getConversionCacheStats() {
+        return scriptParser.getConversionCacheStats();
+    }
+
+    @Override
+    public void setResourceIndex(ResourceIndex index) {
+        scriptParser.setResourceIndex(index);
+    }
+
     @Override
     public void close() {
         // Clean up resources if needed
@@ -140,18 +152,7 @@ public class ParserModuleFacade implements ParserService {
      * @return a new TypeScriptScriptParser instance
      */
     private ITypeScriptParser createTypeScriptParser() {
-        TypeScriptScriptParser parser = new TypeScriptScriptParser();
-        return new ITypeScriptParser() {
-            @Override
-            public SourceFile parse(String fileName, String sourceCode) throws ParserException {
-                return parser.parse(fileName, sourceCode);
-            }
-
-            @Override
-            public void close() {
-                // TypeScriptScriptParser doesn't need explicit cleanup
-            }
-        };
+        return new TypeScriptScriptParser();
     }
 
     /**
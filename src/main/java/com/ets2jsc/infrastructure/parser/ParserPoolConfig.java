@@ -0,0 +1,175 @@
+package com.ets2jsc.infrastructure.parser;
+
+/**
+ * Settings for a {@link ParserWorkerPool}.
+ * <p>
+ * Workers are started on demand up to {@code maxWorkers} and recycled once
+ * they have parsed {@code maxFilesPerWorker} files or their resident memory
+ * has grown by more than {@code maxRssGrowthBytes} since their first parse.
+ * A limit of zero disables the corresponding recycling rule. With a
+ * {@code memoryBudgetBytes} for the JVM and all of its child processes,
+ * parse jobs are throttled and grown workers recycled while the budget is
+ * exceeded (see {@link ParserMemoryGovernor}). {@code maxOldSpaceMb} caps
+ * the V8 heap of each worker.
+ */
+public final class ParserPoolConfig {
+
+    private static final int DEFAULT_MAX_FILES_PER_WORKER = 500;
+    private static final long DEFAULT_MAX_RSS_GROWTH_BYTES = 512L * 1024 * 1024;
+
+    private final int maxWorkers;
+    private final int maxFilesPerWorker;
+    private final long maxRssGrowthBytes;
+    private final long memoryBudgetBytes;
+    private final int maxOldSpaceMb;
+
+    private ParserPoolConfig(Builder builder) {
+        this.maxWorkers = builder.maxWorkers;
+        this.maxFilesPerWorker = builder.maxFilesPerWorker;
+        this.maxRssGrowthBytes = builder.maxRssGrowthBytes;
+        this.memoryBudgetBytes = builder.memoryBudgetBytes;
+        this.maxOldSpaceMb = builder.maxOldSpaceMb;
+    }
+
+    /**
+     * Returns a new builder for creating pool configuration instances.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the default pool configuration sized for the given worker count.
+     *
+     * @param maxWorkers the maximum number of parser workers
+     * @return the default configuration
+     */
+    public static ParserPoolConfig forWorkers(int maxWorkers) {
+        return builder().maxWorkers(maxWorkers).build();
+    }
+
+    /**
+     * Returns the maximum number of concurrently running workers.
+     *
+     * @return the worker limit
+     */
+    public int getMaxWorkers() {
+        return maxWorkers;
+    }
+
+    /**
+     * Returns the number of files after which a worker is recycled.
+     *
+     * @return the file limit, or 0 if unlimited
+     */
+    public int getMaxFilesPerWorker() {
+        return maxFilesPerWorker;
+    }
+
+    /**
+     * Returns the resident memory growth after which a worker is recycled.
+     *
+     * @return the growth limit in bytes, or 0 if unlimited
+     */
+    public long getMaxRssGrowthBytes() {
+        return maxRssGrowthBytes;
+    }
+
+    /**
+     * Returns the total memory budget for the JVM and its child processes.
+     *
+     * @return the budget in bytes, or 0 if unlimited
+     */
+    public long getMemoryBudgetBytes() {
+        return memoryBudgetBytes;
+    }
+
+    /**
+     * Returns the V8 old-space limit of each worker process.
+     *
+     * @return the limit in megabytes, or 0 for Node's default
+     */
+    public int getMaxOldSpaceMb() {
+        return maxOldSpaceMb;
+    }
+
+    /**
+     * Builder for creating ParserPoolConfig instances.
+     */
+    public static final class Builder {
+        private int maxWorkers = Runtime.getRuntime().availableProcessors();
+        private int maxFilesPerWorker = DEFAULT_MAX_FILES_PER_WORKER;
+        private long maxRssGrowthBytes = DEFAULT_MAX_RSS_GROWTH_BYTES;
+        private long memoryBudgetBytes;
+        private int maxOldSpaceMb;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the maximum number of workers.
+         *
+         * @param maxWorkers the worker limit (values below 1 are raised to 1)
+         * @return this builder
+         */
+        public Builder maxWorkers(int maxWorkers) {
+            this.maxWorkers = Math.max(1, maxWorkers);
+            return this;
+        }
+
+        /**
+         * Sets the number of files after which a worker is recycled.
+         *
+         * @param maxFilesPerWorker the file limit, or 0 for unlimited
+         * @return this builder
+         */
+        public Builder maxFilesPerWorker(int maxFilesPerWorker) {
+            this.maxFilesPerWorker = Math.max(0, maxFilesPerWorker);
+            return this;
+        }
+
+        /**
+         * Sets the resident memory growth after which a worker is recycled.
+         *
+         * @param maxRssGrowthBytes the growth limit in bytes, or 0 for unlimited
+         * @return this builder
+         */
+        public Builder maxRssGrowthBytes(long maxRssGrowthBytes) {
+            this.maxRssGrowthBytes = Math.max(0, maxRssGrowthBytes);
+            return this;
+        }
+
+        /**
+         * Sets the total memory budget for the JVM and its child processes.
+         *
+         * @param memoryBudgetBytes the budget in bytes, or 0 for unlimited
+         * @return this builder
+         */
+        public Builder memoryBudgetBytes(long memoryBudgetBytes) {
+            this.memoryBudgetBytes = Math.max(0, memoryBudgetBytes);
+            return this;
+        }
+
+        /**
+         * Sets the V8 old-space limit of each worker process.
+         *
+         * @param maxOldSpaceMb the limit in megabytes, or 0 for Node's default
+         * @return this builder
+         */
+        public Builder maxOldSpaceMb(int maxOldSpaceMb) {
+            this.maxOldSpaceMb = Math.max(0, maxOldSpaceMb);
+            return this;
+        }
+
+        /**
+         * Builds the pool configuration.
+         *
+         * @return a new ParserPoolConfig
+         */
+        public ParserPoolConfig build() {
+            return new ParserPoolConfig(this);
+        }
+    }
+}
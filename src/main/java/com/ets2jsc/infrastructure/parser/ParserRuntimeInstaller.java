@@ -0,0 +1,281 @@
+package com.ets2jsc.infrastructure.parser;
+
+import com.ets2jsc.shared.exception.ParserInitializationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Installs the bundled parser runtime ({@code typescript-parser/}) once per
+ * JAR version and shares it between all parser instances and JVMs.
+ * <p>
+ * When the classes run from the file system the resources are used in place.
+ * When they run from a JAR, the runtime is extracted into a cache directory
+ * named after the SHA-256 of the JAR, so a rebuilt JAR gets a fresh directory
+ * and an unchanged one is reused across runs. Extraction goes to a staging
+ * directory that is moved into place once complete, under an exclusive file
+ * lock so JVMs starting at the same time extract only once. A manifest of
+ * file sizes is written last and checked on reuse; an incomplete or damaged
+ * installation is extracted again.
+ * <p>
+ * The cache root also holds the V8 compile cache that parser processes
+ * use to skip recompiling {@code typescript.js} on startup.
+ */
+public final class ParserRuntimeInstaller {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParserRuntimeInstaller.class);
+
+    /** System property overriding the cache root directory. */
+    public static final String CACHE_DIR_PROPERTY = "ets2jsc.parser.cacheDir";
+
+    /** System property that disables the V8 compile cache when set to {@code false}. */
+    public static final String COMPILE_CACHE_PROPERTY = "ets2jsc.parser.compileCache";
+
+    private static final String RESOURCE_PATH_PREFIX = "typescript-parser/";
+    private static final String SCRIPT_NAME = "index.js";
+    private static final String PROTOCOL_FILE = "file";
+    private static final String DEFAULT_CACHE_DIR = "ets2jsc-parser-runtime";
+    private static final String COMPILE_CACHE_DIR = "compile-cache";
+    private static final String LAYOUT_VERSION = "v1-";
+    private static final String MANIFEST_NAME = ".installed";
+    private static final String LOCK_SUFFIX = ".lock";
+    private static final String STAGING_SUFFIX = ".staging-";
+    private static final int HASH_PREFIX_LENGTH = 16;
+
+    /** FileChannel locks are held per JVM, so threads are serialized here first. */
+    private static final Object JVM_LOCK = new Object();
+
+    private static volatile String defaultScriptPath;
+
+    private final Path cacheRoot;
+
+    /**
+     * Creates an installer that keeps runtimes under the given directory.
+     *
+     * @param cacheRoot the cache root directory
+     */
+    public ParserRuntimeInstaller(Path cacheRoot) {
+        this.cacheRoot = cacheRoot;
+    }
+
+    /**
+     * Gets the path of the parser entry script for this application,
+     * installing the runtime on first use. The result is shared by the whole JVM.
+     *
+     * @return the absolute path to {@code index.js}
+     * @throws ParserInitializationException if the runtime cannot be located or installed
+     */
+    public static String defaultScriptPath() {
+        String path = defaultScriptPath;
+        if (path == null) {
+            synchronized (JVM_LOCK) {
+                path = defaultScriptPath;
+                if (path == null) {
+                    path = locateScript();
+                    defaultScriptPath = path;
+                }
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Gets the directory where parser processes keep their V8 compile cache.
+     * The parser script separates entries by Node version and falls back to
+     * plain compilation when the cache cannot be used.
+     *
+     * @return the compile cache directory, or null if the compile cache is disabled
+     */
+    public static Path compileCacheDir() {
+        if (Boolean.FALSE.toString().equalsIgnoreCase(System.getProperty(COMPILE_CACHE_PROPERTY))) {
+            return null;
+        }
+        return defaultCacheRoot().resolve(COMPILE_CACHE_DIR);
+    }
+
+    /**
+     * Installs the runtime bundled in a JAR, or reuses a valid installation of the same JAR.
+     *
+     * @param jarPath the JAR containing the {@code typescript-parser/} resources
+     * @return the runtime directory containing {@code index.js}
+     * @throws IOException if the JAR cannot be read or the runtime cannot be written
+     */
+    public Path install(Path jarPath) throws IOException {
+        String key = LAYOUT_VERSION + hashFile(jarPath);
+        Path runtimeDir = cacheRoot.resolve(key);
+        if (isValid(runtimeDir)) {
+            return runtimeDir;
+        }
+
+        Files.createDirectories(cacheRoot);
+        synchronized (JVM_LOCK) {
+            try (FileChannel lockChannel = FileChannel.open(cacheRoot.resolve(key + LOCK_SUFFIX),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock lock = lockChannel.lock()) {
+                // Another JVM may have finished the installation while we waited
+                if (isValid(runtimeDir)) {
+                    return runtimeDir;
+                }
+                if (Files.exists(runtimeDir)) {
+                    LOGGER.warn("Parser runtime at {} is incomplete, reinstalling", runtimeDir);
+                    deleteRecursively(runtimeDir);
+                }
+
+                Path staging = Files.createTempDirectory(cacheRoot, key + STAGING_SUFFIX);
+                try {
+                    extract(jarPath, staging);
+                    moveIntoPlace(staging, runtimeDir);
+                } finally {
+                    deleteRecursively(staging);
+                }
+                LOGGER.debug("Installed parser runtime into {}", runtimeDir);
+                return runtimeDir;
+            }
+        }
+    }
+
+    /**
+     * Uses the resources in place from the file system, or installs them from the JAR.
+     */
+    private static String locateScript() {
+        URL scriptUrl = ParserRuntimeInstaller.class.getClassLoader()
+                .getResource(RESOURCE_PATH_PREFIX + SCRIPT_NAME);
+        if (scriptUrl != null && PROTOCOL_FILE.equals(scriptUrl.getProtocol())) {
+            return new File(scriptUrl.getFile()).getAbsolutePath();
+        }
+
+        try {
+            Path jarPath = Path.of(ParserRuntimeInstaller.class.getProtectionDomain()
+                    .getCodeSource().getLocation().toURI());
+            Path runtimeDir = new ParserRuntimeInstaller(defaultCacheRoot()).install(jarPath);
+            return runtimeDir.resolve(SCRIPT_NAME).toAbsolutePath().toString();
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            throw new ParserInitializationException("Failed to install TypeScript parser runtime", e);
+        }
+    }
+
+    private static Path defaultCacheRoot() {
+        String configured = System.getProperty(CACHE_DIR_PROPERTY);
+        if (configured != null && !configured.isBlank()) {
+            return Path.of(configured);
+        }
+        return Path.of(System.getProperty("java.io.tmpdir"), DEFAULT_CACHE_DIR);
+    }
+
+    /**
+     * Checks that the manifest exists and every file it lists has its recorded size.
+     */
+    private static boolean isValid(Path runtimeDir) {
+        Path manifest = runtimeDir.resolve(MANIFEST_NAME);
+        if (!Files.isRegularFile(manifest)) {
+            return false;
+        }
+        try {
+            for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+                int separator = line.indexOf('\t');
+                if (separator < 0) {
+                    continue;
+                }
+                long size = Long.parseLong(line.substring(0, separator));
+                Path file = runtimeDir.resolve(line.substring(separator + 1).replace('/', File.separatorChar));
+                if (!Files.isRegularFile(file) || Files.size(file) != size) {
+                    return false;
+                }
+            }
+            return Files.isRegularFile(runtimeDir.resolve(SCRIPT_NAME));
+        } catch (IOException | NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Extracts the parser resources and writes the manifest last.
+     */
+    private static void extract(Path jarPath, Path targetDir) throws IOException {
+        List<String> manifest = new ArrayList<>();
+        try (JarFile jarFile = new JarFile(jarPath.toFile())) {
+            Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                JarEntry entry = entries.nextElement();
+                String entryName = entry.getName();
+                if (!entryName.startsWith(RESOURCE_PATH_PREFIX) || entry.isDirectory()) {
+                    continue;
+                }
+
+                String relativePath = entryName.substring(RESOURCE_PATH_PREFIX.length());
+                Path targetPath = targetDir.resolve(relativePath.replace('/', File.separatorChar)).normalize();
+                if (!targetPath.startsWith(targetDir)) {
+                    throw new IOException("Parser resource escapes the runtime directory: " + entryName);
+                }
+                Files.createDirectories(targetPath.getParent());
+                try (InputStream is = jarFile.getInputStream(entry)) {
+                    long size = Files.copy(is, targetPath, StandardCopyOption.REPLACE_EXISTING);
+                    manifest.add(size + "\t" + relativePath);
+                }
+            }
+        }
+        if (!Files.isRegularFile(targetDir.resolve(SCRIPT_NAME))) {
+            throw new IOException("JAR does not contain " + RESOURCE_PATH_PREFIX + SCRIPT_NAME + ": " + jarPath);
+        }
+        Files.write(targetDir.resolve(MANIFEST_NAME), manifest, StandardCharsets.UTF_8);
+    }
+
+    private static void moveIntoPlace(Path staging, Path runtimeDir) throws IOException {
+        try {
+            Files.move(staging, runtimeDir, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(staging, runtimeDir);
+        }
+    }
+
+    private static String hashFile(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest()).substring(0, HASH_PREFIX_LENGTH);
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
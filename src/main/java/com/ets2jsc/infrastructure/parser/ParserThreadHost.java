@@ -0,0 +1,401 @@
+package com.ets2jsc.infrastructure.parser;
+
+import com.ets2jsc.infrastructure.parser.DaemonFrameCodec.RequestMode;
+import com.ets2jsc.infrastructure.parser.internal.IParserBackend;
+import com.ets2jsc.shared.exception.ParserException;
+import com.ets2jsc.shared.exception.ParserInitializationException;
+import com.ets2jsc.shared.exception.ParserUnavailableException;
+import com.ets2jsc.shared.process.CancellationToken;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Multi-slot parser backend served by one Node.js process that runs
+ * several parser {@code worker_threads}.
+ * <p>
+ * A {@link ParserWorkerPool} starts one process per worker, and each of them
+ * loads its own copy of the TypeScript compiler. The thread host shares one
+ * Node.js runtime between all parser threads instead, so the same number of
+ * concurrent parses needs far less memory. Requests from any number of
+ * callers are written to the host's stdin as daemon frames; a reader thread
+ * matches the responses, which arrive in completion order, to their request
+ * ids. A semaphore keeps at most one request per parser thread in flight.
+ * <p>
+ * Incremental requests for a file are always served by the same parser
+ * thread, which holds that file's previous parse. If the process dies, the
+ * requests in flight fail over to a freshly started host. A request that
+ * times out or is cancelled is withdrawn with a cancel frame, and the host
+ * restarts the parser thread running it, so the slot does not stay busy.
+ */
+public class ParserThreadHost implements IParserBackend {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParserThreadHost.class);
+
+    private static final int MAX_ATTEMPTS = 2;
+    private static final int MAX_FRAME_BYTES = Integer.MAX_VALUE - 8;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 2000;
+
+    private final ProcessExecutor executor;
+    private final DaemonFrameCodec codec;
+    private final int threads;
+    private final Semaphore permits;
+    private final AtomicLong nextRequestId;
+
+    private Connection connection;
+    private int spawnCount;
+    private volatile boolean closed;
+
+    /**
+     * Creates a new thread host handle. No process is started until the first request.
+     *
+     * @param executor the executor used to launch the parser script
+     * @param objectMapper the mapper used to encode requests and decode responses
+     * @param threads the number of parser threads (values below 1 are raised to 1)
+     */
+    public ParserThreadHost(ProcessExecutor executor, ObjectMapper objectMapper, int threads) {
+        this.executor = executor;
+        this.codec = new DaemonFrameCodec(objectMapper);
+        this.threads = Math.max(1, threads);
+        this.permits = new Semaphore(this.threads, true);
+        this.nextRequestId = new AtomicLong();
+    }
+
+    @Override
+    public JsonNode parseToJson(String fileName, String sourceCode) {
+        return request(fileName, sourceCode, RequestMode.PARSE, codec::decodeTree);
+    }
+
+    @Override
+    public JsonParser parseToStream(String fileName, String sourceCode) {
+        return request(fileName, sourceCode, RequestMode.PARSE, codec::decodeStream);
+    }
+
+    @Override
+    public JsonNode parseIncrementalToJson(String fileName, String sourceCode, boolean fullOutput) {
+        RequestMode mode = fullOutput ? RequestMode.INCREMENTAL_FULL_OUTPUT : RequestMode.INCREMENTAL;
+        return request(fileName, sourceCode, mode, codec::decodeTree);
+    }
+
+    /**
+     * Gets the number of parser threads, which is the number of parses that can run at once.
+     *
+     * @return the thread count
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Checks whether the host process is currently running.
+     *
+     * @return true if a live process is attached
+     */
+    public synchronized boolean isAlive() {
+        return connection != null && connection.process.isAlive();
+    }
+
+    /**
+     * Gets the process id of the running host.
+     *
+     * @return the pid, or -1 if no process is running
+     */
+    public synchronized long getPid() {
+        return isAlive() ? connection.process.pid() : -1;
+    }
+
+    /**
+     * Gets the number of times a host process has been started.
+     *
+     * @return the spawn count
+     */
+    public synchronized int getSpawnCount() {
+        return spawnCount;
+    }
+
+    /**
+     * Stops the host. Closing stdin lets the script finish the requests it
+     * has accepted and exit; the process is killed if it does not exit in time.
+     */
+    @Override
+    public void close() {
+        Connection current;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            current = connection;
+            connection = null;
+        }
+        if (current != null) {
+            current.terminate();
+        }
+    }
+
+    /**
+     * Decodes a response frame for a request id.
+     */
+    @FunctionalInterface
+    private interface ResponseDecoder<T> {
+        T decode(long requestId, byte[] frame) throws IOException;
+    }
+
+    /**
+     * Sends a request on a free slot, moving to a new host process once if the exchange fails.
+     */
+    private <T> T request(String fileName, String sourceCode, RequestMode mode, ResponseDecoder<T> decoder) {
+        if (closed) {
+            throw new IllegalStateException("Parser thread host is closed");
+        }
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ParserException("Interrupted while waiting for a parser thread", e);
+        }
+
+        try {
+            IOException lastFailure = null;
+            for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+                Connection current = ensureRunning();
+                try {
+                    long requestId = nextRequestId.incrementAndGet();
+                    byte[] frame = current.exchange(requestId,
+                            codec.encodeRequest(requestId, fileName, sourceCode, mode));
+                    return decoder.decode(requestId, frame);
+                } catch (IOException e) {
+                    lastFailure = e;
+                    LOGGER.warn("Parser thread host failed while parsing {}, respawning: {}", fileName, e.getMessage());
+                    discard(current);
+                }
+            }
+            throw new ParserInitializationException("Parser thread host unavailable for: " + fileName, lastFailure);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Starts the host process if none is running.
+     */
+    private synchronized Connection ensureRunning() {
+        if (closed) {
+            throw new IllegalStateException("Parser thread host is closed");
+        }
+        if (connection != null && connection.process.isAlive()) {
+            return connection;
+        }
+        if (connection != null) {
+            connection.terminate();
+            connection = null;
+        }
+
+        Process process;
+        try {
+            process = executor.startThreadHost(threads);
+        } catch (IOException e) {
+            throw new ParserUnavailableException("Failed to start parser thread host", e);
+        } catch (SecurityException e) {
+            throw new ParserInitializationException("Invalid TypeScript parser script", e);
+        }
+        spawnCount++;
+        connection = new Connection(process);
+        connection.start();
+        LOGGER.debug("Started parser thread host with {} threads (pid {})", threads, process.pid());
+        return connection;
+    }
+
+    /**
+     * Drops a failed connection, unless another caller already replaced it.
+     */
+    private void discard(Connection failed) {
+        synchronized (this) {
+            if (connection != failed) {
+                return;
+            }
+            connection = null;
+        }
+        failed.terminate();
+    }
+
+    /**
+     * One host process with its request stream and response reader.
+     */
+    private final class Connection {
+        private final Process process;
+        private final DataOutputStream requestStream;
+        private final DataInputStream responseStream;
+        private final Map<Long, CompletableFuture<byte[]>> pending;
+        private volatile IOException failure;
+
+        private Connection(Process process) {
+            this.process = process;
+            this.requestStream = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+            this.responseStream = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+            this.pending = new ConcurrentHashMap<>();
+        }
+
+        private void start() {
+            Thread reader = new Thread(this::readResponses, "ETS-Parser-Thread-Host-reader");
+            reader.setDaemon(true);
+            reader.start();
+            startStderrDrain();
+        }
+
+        /**
+         * Writes a request frame and waits for the response frame with the same id.
+         */
+        private byte[] exchange(long requestId, byte[] body) throws IOException {
+            CompletableFuture<byte[]> response = new CompletableFuture<>();
+            pending.put(requestId, response);
+            try {
+                synchronized (requestStream) {
+                    requestStream.writeInt(body.length);
+                    requestStream.write(body);
+                    requestStream.flush();
+                }
+                // The reader may have failed before this request was registered
+                if (failure != null) {
+                    throw failure;
+                }
+                return await(requestId, response);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ParserException("Interrupted while waiting for parser thread host", e);
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+            } finally {
+                pending.remove(requestId);
+            }
+        }
+
+        /**
+         * Waits for a response until the deadline of the token bound to this
+         * thread. Other requests share the host process, so it is not killed;
+         * the request is withdrawn instead, which restarts its parser thread.
+         */
+        private byte[] await(long requestId, CompletableFuture<byte[]> response)
+                throws InterruptedException, ExecutionException {
+            CancellationToken token = CancellationToken.current();
+            try (CancellationToken.Scope ignored = token.onCancel(() -> response.cancel(false))) {
+                return response.get(token.remainingNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                withdraw(requestId);
+                throw new ParserException("Parser thread host timed out", e);
+            } catch (CancellationException e) {
+                withdraw(requestId);
+                throw e;
+            }
+        }
+
+        /**
+         * Sends a cancel frame for a request. If the host is gone, the reader
+         * fails the connection and there is nothing left to withdraw.
+         */
+        private void withdraw(long requestId) {
+            try {
+                byte[] body = codec.encodeCancel(requestId);
+                synchronized (requestStream) {
+                    requestStream.writeInt(body.length);
+                    requestStream.write(body);
+                    requestStream.flush();
+                }
+            } catch (IOException e) {
+                LOGGER.debug("Could not withdraw parser thread host request {}: {}", requestId, e.getMessage());
+            }
+        }
+
+        /**
+         * Hands each response frame to the request waiting for its id until the stream ends.
+         */
+        private void readResponses() {
+            try {
+                while (true) {
+                    int length = responseStream.readInt();
+                    if (length < 0 || length > MAX_FRAME_BYTES) {
+                        throw new IOException("Invalid parser thread host frame length: " + length);
+                    }
+                    byte[] frame = new byte[length];
+                    responseStream.readFully(frame);
+                    CompletableFuture<byte[]> response = pending.get(codec.responseId(frame));
+                    if (response != null) {
+                        response.complete(frame);
+                    }
+                }
+            } catch (EOFException e) {
+                failAll(new IOException("Parser thread host exited", e));
+            } catch (IOException | RuntimeException e) {
+                failAll(e instanceof IOException io ? io : new IOException(e));
+            }
+        }
+
+        private void failAll(IOException cause) {
+            failure = cause;
+            for (CompletableFuture<byte[]> response : pending.values()) {
+                response.completeExceptionally(cause);
+            }
+        }
+
+        /**
+         * Drains stderr on a background thread so the host never blocks on a full pipe.
+         */
+        private void startStderrDrain() {
+            Thread drain = new Thread(() -> {
+                try (BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        LOGGER.debug("[parser thread host] {}", line);
+                    }
+                } catch (IOException e) {
+                    // Stream closed with the process
+                }
+            }, "ETS-Parser-Thread-Host-stderr");
+            drain.setDaemon(true);
+            drain.start();
+        }
+
+        /**
+         * Closes stdin and waits for the process, killing it if it does not exit in time.
+         */
+        private void terminate() {
+            try {
+                synchronized (requestStream) {
+                    requestStream.close();
+                }
+            } catch (IOException e) {
+                // Process already gone
+            }
+            try {
+                if (!process.waitFor(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
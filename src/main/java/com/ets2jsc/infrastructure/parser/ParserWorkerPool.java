@@ -0,0 +1,356 @@
+package com.ets2jsc.infrastructure.parser;
+
+import com.ets2jsc.infrastructure.parser.internal.IParserBackend;
+import com.ets2jsc.shared.exception.ParserException;
+import com.ets2jsc.shared.exception.ParserInitializationException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Elastic pool of warm {@link ParserDaemon} workers.
+ * <p>
+ * Workers are started on demand, up to the configured maximum, so a batch
+ * compiled on N threads keeps up to N parser processes busy. Threads borrow
+ * workers through a fair semaphore, so waiting threads are served in arrival
+ * order. A worker is recycled after parsing a configured number of files or
+ * when its resident memory grows past the configured limit, and it is
+ * replaced when its process can no longer be started.
+ * <p>
+ * Every parse is admitted by a {@link ParserMemoryGovernor}. While the total
+ * memory budget is exceeded, new parses wait, idle workers are stopped and
+ * workers that have grown are recycled when they are returned.
+ */
+public class ParserWorkerPool implements IParserBackend {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParserWorkerPool.class);
+
+    /** Growth below which recycling a worker frees too little to pay for its restart. */
+    private static final long MIN_RECLAIM_BYTES = 32L * 1024 * 1024;
+
+    private final Supplier<ParserDaemon> workerFactory;
+    private final ParserPoolConfig config;
+    private final ParserMemoryGovernor governor;
+    private final Semaphore permits;
+    private final Deque<Worker> idleWorkers;
+    private final AtomicInteger startedWorkers;
+    private final AtomicInteger recycledWorkers;
+    private final AtomicInteger replacedWorkers;
+    private volatile boolean closed;
+
+    /**
+     * Creates a pool whose workers run the parser script of the given executor.
+     *
+     * @param executor the executor used to launch parser daemons
+     * @param config the pool configuration
+     */
+    public ParserWorkerPool(ProcessExecutor executor, ParserPoolConfig config) {
+        this(createDaemonFactory(executor), config);
+    }
+
+    /**
+     * Creates a pool with a custom worker factory.
+     *
+     * @param workerFactory supplies new, not yet started parser daemons
+     * @param config the pool configuration
+     */
+    public ParserWorkerPool(Supplier<ParserDaemon> workerFactory, ParserPoolConfig config) {
+        this(workerFactory, config, new ParserMemoryGovernor(config.getMemoryBudgetBytes()));
+    }
+
+    /**
+     * Creates a pool with a custom worker factory and memory governor.
+     *
+     * @param workerFactory supplies new, not yet started parser daemons
+     * @param config the pool configuration
+     * @param governor admits parse jobs against the memory budget
+     */
+    ParserWorkerPool(Supplier<ParserDaemon> workerFactory, ParserPoolConfig config, ParserMemoryGovernor governor) {
+        this.workerFactory = workerFactory;
+        this.config = config;
+        this.governor = governor;
+        this.permits = new Semaphore(config.getMaxWorkers(), true);
+        this.idleWorkers = new ConcurrentLinkedDeque<>();
+        this.startedWorkers = new AtomicInteger();
+        this.recycledWorkers = new AtomicInteger();
+        this.replacedWorkers = new AtomicInteger();
+        LOGGER.debug("Parser worker pool initialized with up to {} workers", config.getMaxWorkers());
+    }
+
+    @Override
+    public JsonNode parseToJson(String fileName, String sourceCode) {
+        return withWorker(daemon -> daemon.parseToJson(fileName, sourceCode));
+    }
+
+    /**
+     * Parses in a pooled worker and returns a token stream over the AST.
+     * The worker streams the response as it is read, so it is given back to
+     * the pool when the returned parser is closed rather than on return.
+     */
+    @Override
+    public JsonParser parseToStream(String fileName, String sourceCode) {
+        Worker worker = borrow();
+        JsonParser stream;
+        try {
+            stream = worker.run(daemon -> daemon.parseToStream(fileName, sourceCode));
+        } catch (RuntimeException | Error e) {
+            giveBack(worker, !(e instanceof ParserInitializationException));
+            throw e;
+        }
+        return new JsonParserDelegate(stream) {
+            private boolean givenBack;
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    if (!givenBack) {
+                        givenBack = true;
+                        giveBack(worker, true);
+                    }
+                }
+            }
+        };
+    }
+
+    @Override
+    public JsonNode parseIncrementalToJson(String fileName, String sourceCode, boolean fullOutput) {
+        return withWorker(daemon -> daemon.parseIncrementalToJson(fileName, sourceCode, fullOutput));
+    }
+
+    /**
+     * Gets the configured maximum number of workers.
+     *
+     * @return the worker limit
+     */
+    public int getMaxWorkers() {
+        return config.getMaxWorkers();
+    }
+
+    /**
+     * Gets the number of workers started over the lifetime of the pool.
+     *
+     * @return the started worker count
+     */
+    public int getStartedWorkers() {
+        return startedWorkers.get();
+    }
+
+    /**
+     * Gets the number of workers retired by the recycling rules.
+     *
+     * @return the recycled worker count
+     */
+    public int getRecycledWorkers() {
+        return recycledWorkers.get();
+    }
+
+    /**
+     * Gets the number of workers that crashed and were replaced.
+     *
+     * @return the replaced worker count
+     */
+    public int getReplacedWorkers() {
+        return replacedWorkers.get();
+    }
+
+    /**
+     * Gets the highest memory use of the JVM and its child processes seen by the pool.
+     *
+     * @return the peak in bytes, or -1 if not sampled yet
+     */
+    public long getPeakMemoryBytes() {
+        return governor.getPeakBytes();
+    }
+
+    /**
+     * Gets the number of parses that waited because the memory budget was exceeded.
+     *
+     * @return the deferred parse count
+     */
+    public int getDeferredParses() {
+        return governor.getDeferredAdmissions();
+    }
+
+    /**
+     * Gets the number of warm workers currently waiting for work.
+     *
+     * @return the idle worker count
+     */
+    public int getIdleWorkers() {
+        return idleWorkers.size();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        Worker worker;
+        while ((worker = idleWorkers.pollFirst()) != null) {
+            worker.daemon.close();
+        }
+    }
+
+    /**
+     * Runs a request on a borrowed worker and returns the worker afterwards.
+     */
+    private <T> T withWorker(Function<ParserDaemon, T> request) {
+        Worker worker = borrow();
+        boolean healthy = true;
+        try {
+            return worker.run(request);
+        } catch (ParserException e) {
+            // A failed parse leaves the worker usable; a failed (re)start does not
+            healthy = !(e instanceof ParserInitializationException);
+            throw e;
+        } finally {
+            giveBack(worker, healthy);
+        }
+    }
+
+    /**
+     * Takes an idle worker, or starts a new one while below the worker limit.
+     */
+    private Worker borrow() {
+        if (closed) {
+            throw new IllegalStateException("Parser worker pool is closed");
+        }
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ParserException("Interrupted while waiting for a parser worker", e);
+        }
+        try {
+            governor.admit();
+        } catch (InterruptedException e) {
+            permits.release();
+            Thread.currentThread().interrupt();
+            throw new ParserException("Interrupted while waiting for parser memory", e);
+        }
+
+        Worker worker = idleWorkers.pollFirst();
+        if (governor.isOverBudget()) {
+            stopIdleWorkers();
+        }
+        if (worker == null) {
+            worker = new Worker(workerFactory.get());
+            startedWorkers.incrementAndGet();
+        }
+        return worker;
+    }
+
+    /**
+     * Returns a worker to the pool, retiring it if it is broken or due for recycling.
+     */
+    private void giveBack(Worker worker, boolean healthy) {
+        try {
+            if (closed) {
+                worker.daemon.close();
+            } else if (!healthy) {
+                LOGGER.warn("Replacing parser worker that could not be restarted");
+                replacedWorkers.incrementAndGet();
+                worker.daemon.close();
+            } else if (worker.isDueForRecycling()) {
+                LOGGER.debug("Recycling parser worker after {} files", worker.filesParsed);
+                recycledWorkers.incrementAndGet();
+                worker.daemon.close();
+            } else if (governor.isOverBudget() && worker.rssGrowth() > MIN_RECLAIM_BYTES) {
+                LOGGER.debug("Recycling parser worker to stay within the memory budget");
+                recycledWorkers.incrementAndGet();
+                worker.daemon.close();
+            } else {
+                // Most recently used first keeps the hottest workers busy
+                idleWorkers.offerFirst(worker);
+            }
+        } finally {
+            governor.release();
+            permits.release();
+        }
+    }
+
+    /**
+     * Stops all idle workers; they are started again when needed.
+     */
+    private void stopIdleWorkers() {
+        Worker idle;
+        while ((idle = idleWorkers.pollFirst()) != null) {
+            LOGGER.debug("Stopping idle parser worker to stay within the memory budget");
+            recycledWorkers.incrementAndGet();
+            idle.daemon.close();
+        }
+    }
+
+    private static Supplier<ParserDaemon> createDaemonFactory(ProcessExecutor executor) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        return () -> new ParserDaemon(executor, objectMapper);
+    }
+
+    /**
+     * A pooled daemon with its per-process usage counters.
+     * Only touched by the thread currently holding it.
+     */
+    private final class Worker {
+        private final ParserDaemon daemon;
+        private long pid = -1;
+        private int filesParsed;
+        private long baselineRss = -1;
+
+        private Worker(ParserDaemon daemon) {
+            this.daemon = daemon;
+        }
+
+        private <T> T run(Function<ParserDaemon, T> request) {
+            T result = request.apply(daemon);
+            track();
+            return result;
+        }
+
+        /**
+         * Updates counters; a changed pid means the daemon respawned after a crash.
+         */
+        private void track() {
+            long currentPid = daemon.getPid();
+            if (currentPid != pid) {
+                if (pid != -1) {
+                    replacedWorkers.incrementAndGet();
+                }
+                pid = currentPid;
+                filesParsed = 0;
+                baselineRss = ProcessMemorySampler.residentSetBytes(currentPid);
+            }
+            filesParsed++;
+        }
+
+        private boolean isDueForRecycling() {
+            int maxFiles = config.getMaxFilesPerWorker();
+            if (maxFiles > 0 && filesParsed >= maxFiles) {
+                return true;
+            }
+            long maxGrowth = config.getMaxRssGrowthBytes();
+            return maxGrowth > 0 && rssGrowth() > maxGrowth;
+        }
+
+        /**
+         * Gets how much the resident memory grew since the first parse, or 0 if unknown.
+         */
+        private long rssGrowth() {
+            if (baselineRss <= 0) {
+                return 0;
+            }
+            long rss = ProcessMemorySampler.residentSetBytes(pid);
+            return rss > 0 ? rss - baselineRss : 0;
+        }
+    }
+}
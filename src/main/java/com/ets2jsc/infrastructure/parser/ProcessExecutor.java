@@ -1,42 +1,65 @@
 package com.ets2jsc.infrastructure.parser;
 
-import com.ets2jsc.shared.exception.ParserInitializationException;
+import com.ets2jsc.domain.model.config.CompilerConfig;
+import com.ets2jsc.shared.exception.ParserException;
+import com.ets2jsc.shared.process.SubprocessRunner;
 import lombok.Getter;
 
-import java.io.BufferedReader;
-import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Enumeration;
 import java.util.List;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
+import java.util.Locale;
 
 /**
  * Executes external processes for the TypeScript parser.
- * Handles Node.js process spawning and JAR resource extraction.
+ * Handles Node.js process spawning.
  * <p>
  * This class is responsible for:
  * <ul>
- *   <li>Finding and extracting the TypeScript parser script from the classpath</li>
+ *   <li>Finding the TypeScript parser script through {@link ParserRuntimeInstaller}</li>
  *   <li>Executing Node.js processes with the parser script</li>
  *   <li>Capturing process output and handling errors</li>
  * </ul>
+ * One-shot processes run through a {@link SubprocessRunner}, so they are
+ * bounded by the deadline of the {@link com.ets2jsc.shared.process.CancellationToken}
+ * bound to the calling thread and killed with their children when it passes.
  */
 public class ProcessExecutor {
 
+    private static final String DAEMON_FLAG = "--daemon";
+    private static final String THREAD_HOST_FLAG = "--thread-host";
+    private static final String STDIN_FLAG = "--stdin";
+    private static final String AST_FORMAT_FLAG = "--ast-format";
+    private static final String BINARY_AST_FORMAT = "binary";
+    private static final String AST_EMISSION_FLAG = "--ast-emission";
+    private static final String BATCH_FLAG = "--batch";
+    private static final String STDIN_MANIFEST = "-";
+    private static final String COMPILE_CACHE_ENV = "ETS_PARSER_COMPILE_CACHE";
+    private static final String MAX_OLD_SPACE_FLAG = "--max-old-space-size=";
+    private static final int PIPED_OUTPUT_LIMIT = 512 * 1024 * 1024;
+
     private final String scriptPath;
+    private final CompilerConfig.AstFormat astFormat;
+    private final CompilerConfig.AstEmission astEmission;
+    private final int maxOldSpaceMb;
+    private final SubprocessRunner runner = SubprocessRunner.builder().build();
+    private final SubprocessRunner pipedRunner = SubprocessRunner.builder()
+            .stdoutLimit(PIPED_OUTPUT_LIMIT)
+            .build();
 
     /**
      * Creates a new ProcessExecutor and locates the parser script.
-     * The script is extracted from the JAR if running from a packaged application.
+     * The script is installed from the JAR by {@link ParserRuntimeInstaller}
+     * if running from a packaged application.
      */
     public ProcessExecutor() {
-        this.scriptPath = locateParserScript();
+        this.scriptPath = ParserRuntimeInstaller.defaultScriptPath();
+        this.astFormat = CompilerConfig.AstFormat.JSON;
+        this.astEmission = CompilerConfig.AstEmission.FULL;
+        this.maxOldSpaceMb = 0;
     }
 
     /**
@@ -45,7 +68,45 @@ public class ProcessExecutor {
      * @param scriptPath the path to the parser script
      */
     public ProcessExecutor(String scriptPath) {
+        this(scriptPath, CompilerConfig.AstFormat.JSON);
+    }
+
+    /**
+     * Creates a new ProcessExecutor whose daemons reply in the given AST format.
+     *
+     * @param scriptPath the path to the parser script
+     * @param astFormat the AST wire format requested from daemons
+     */
+    public ProcessExecutor(String scriptPath, CompilerConfig.AstFormat astFormat) {
+        this(scriptPath, astFormat, CompilerConfig.AstEmission.FULL);
+    }
+
+    /**
+     * Creates a new ProcessExecutor whose parsers reply in the given AST format and emission mode.
+     *
+     * @param scriptPath the path to the parser script
+     * @param astFormat the AST wire format requested from daemons
+     * @param astEmission the AST emission mode requested from parsers
+     */
+    public ProcessExecutor(String scriptPath, CompilerConfig.AstFormat astFormat,
+                           CompilerConfig.AstEmission astEmission) {
+        this(scriptPath, astFormat, astEmission, 0);
+    }
+
+    /**
+     * Creates a new ProcessExecutor whose Node.js processes get a V8 heap limit.
+     *
+     * @param scriptPath the path to the parser script
+     * @param astFormat the AST wire format requested from daemons
+     * @param astEmission the AST emission mode requested from parsers
+     * @param maxOldSpaceMb the {@code --max-old-space-size} of each process in megabytes, or 0 for Node's default
+     */
+    public ProcessExecutor(String scriptPath, CompilerConfig.AstFormat astFormat,
+                           CompilerConfig.AstEmission astEmission, int maxOldSpaceMb) {
         this.scriptPath = scriptPath;
+        this.astFormat = astFormat;
+        this.astEmission = astEmission;
+        this.maxOldSpaceMb = Math.max(0, maxOldSpaceMb);
     }
 
     /**
@@ -60,27 +121,122 @@ public class ProcessExecutor {
     public ProcessResult execute(Path sourceFile, Path outputFile)
             throws IOException, InterruptedException {
         List<String> command = buildCommand(sourceFile, outputFile);
-        ProcessBuilder pb = new ProcessBuilder(command);
+        ProcessBuilder pb = newProcessBuilder(command);
         pb.redirectErrorStream(true);
 
-        Process process = pb.start();
-        try {
-            // Read output (for debugging)
-            String output = readProcessOutput(process.getInputStream());
-            int exitCode = process.waitFor();
-
-            if (exitCode != 0) {
-                throw new IOException("TypeScript parser failed with exit code " + exitCode
-                        + ":\n" + output);
-            }
-
-            return new ProcessResult(exitCode, output, "");
-        } finally {
-            // Ensure the process is destroyed to prevent resource leaks
-            if (process != null) {
-                process.destroyForcibly();
-            }
+        // Output is only kept for debugging
+        SubprocessRunner.Result result = runner.run(pb, null);
+        checkNotTimedOut(result);
+        if (result.getExitCode() != 0) {
+            throw new IOException("TypeScript parser failed with exit code " + result.getExitCode()
+                    + ":\n" + result.getStdout());
         }
+        return new ProcessResult(result.getExitCode(), result.getStdout(), "");
+    }
+
+    /**
+     * Executes the TypeScript parser over pipes, without touching the file system.
+     * <p>
+     * The source is streamed to the parser on stdin and the AST JSON is read
+     * from stdout. Stderr is collected separately for diagnostics.
+     *
+     * @param fileName the file name for error reporting
+     * @param sourceCode the source code to parse
+     * @return the process result whose output is the AST JSON
+     * @throws IOException if the process fails or exits with an error
+     * @throws InterruptedException if process is interrupted
+     * @throws ParserException if the parser runs past its deadline or its AST exceeds the capture limit
+     */
+    public ProcessResult executePiped(String fileName, String sourceCode)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        addNode(command);
+        command.add(validateScriptPath(scriptPath).toString());
+        addEmissionOption(command);
+        command.add(STDIN_FLAG);
+        command.add(fileName);
+
+        SubprocessRunner.Result result = pipedRunner.run(newProcessBuilder(command),
+                sourceCode.getBytes(StandardCharsets.UTF_8));
+        checkNotTimedOut(result);
+        if (result.getExitCode() != 0) {
+            throw new IOException("TypeScript parser failed with exit code " + result.getExitCode()
+                    + ":\n" + result.getStderr());
+        }
+        if (result.isStdoutTruncated()) {
+            // A cut AST cannot be parsed; temp files would hit the same size
+            throw new ParserException("TypeScript parser output exceeds " + PIPED_OUTPUT_LIMIT
+                    + " bytes: " + fileName);
+        }
+        return new ProcessResult(result.getExitCode(), result.getStdout(), result.getStderr());
+    }
+
+    /**
+     * Starts the TypeScript parser in long-lived daemon mode.
+     * <p>
+     * The caller owns the returned process and exchanges length-prefixed
+     * frames with it over stdin/stdout. The daemon exits when stdin is closed.
+     * With the binary AST format, successful responses carry a binary AST
+     * (see {@link BinaryAstReader}) instead of JSON.
+     *
+     * @return the started daemon process
+     * @throws IOException if the process cannot be started
+     */
+    public Process startDaemon() throws IOException {
+        List<String> command = new ArrayList<>();
+        addNode(command);
+        command.add(validateScriptPath(scriptPath).toString());
+        if (astFormat == CompilerConfig.AstFormat.BINARY) {
+            command.add(AST_FORMAT_FLAG);
+            command.add(BINARY_AST_FORMAT);
+        }
+        addEmissionOption(command);
+        command.add(DAEMON_FLAG);
+        return newProcessBuilder(command).start();
+    }
+
+    /**
+     * Starts the TypeScript parser as a thread host: one process running
+     * the given number of parser worker threads behind a single daemon channel.
+     * <p>
+     * The frame protocol is the same as in daemon mode, but several requests
+     * may be in flight at once and responses arrive in completion order,
+     * each carrying its request id.
+     *
+     * @param threads the number of parser threads
+     * @return the started thread host process
+     * @throws IOException if the process cannot be started
+     */
+    public Process startThreadHost(int threads) throws IOException {
+        List<String> command = new ArrayList<>();
+        addNode(command);
+        command.add(validateScriptPath(scriptPath).toString());
+        if (astFormat == CompilerConfig.AstFormat.BINARY) {
+            command.add(AST_FORMAT_FLAG);
+            command.add(BINARY_AST_FORMAT);
+        }
+        addEmissionOption(command);
+        command.add(THREAD_HOST_FLAG);
+        command.add(Integer.toString(threads));
+        return newProcessBuilder(command).start();
+    }
+
+    /**
+     * Starts the TypeScript parser in multi-file batch mode.
+     * <p>
+     * The caller writes the manifest, one source path per line, to stdin and
+     * closes it; the parser then streams one JSON result per line to stdout.
+     *
+     * @return the started batch process
+     * @throws IOException if the process cannot be started
+     */
+    public Process startBatch() throws IOException {
+        List<String> command = new ArrayList<>();
+        addNode(command);
+        command.add(validateScriptPath(scriptPath).toString());
+        command.add(BATCH_FLAG);
+        command.add(STDIN_MANIFEST);
+        return newProcessBuilder(command).start();
     }
 
     /**
@@ -92,13 +248,53 @@ public class ProcessExecutor {
      */
     private List<String> buildCommand(Path sourceFile, Path outputFile) {
         List<String> command = new ArrayList<>();
-        command.add("node");
+        addNode(command);
         command.add(validateScriptPath(scriptPath).toString());
         command.add(sourceFile.toAbsolutePath().toString());
         command.add(outputFile.toAbsolutePath().toString());
         return command;
     }
 
+    /**
+     * Adds the Node.js executable and its V8 heap limit, if one is set.
+     *
+     * @param command the command list
+     */
+    private void addNode(List<String> command) {
+        command.add("node");
+        if (maxOldSpaceMb > 0) {
+            command.add(MAX_OLD_SPACE_FLAG + maxOldSpaceMb);
+        }
+    }
+
+    /**
+     * Adds the AST emission option unless the parser's default applies.
+     *
+     * @param command the command list
+     */
+    private void addEmissionOption(List<String> command) {
+        if (astEmission != CompilerConfig.AstEmission.FULL) {
+            command.add(AST_EMISSION_FLAG);
+            command.add(astEmission.name().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Creates a process builder for a parser command. The V8 compile cache
+     * directory is passed in the environment unless it is disabled.
+     *
+     * @param command the command list
+     * @return the process builder
+     */
+    private ProcessBuilder newProcessBuilder(List<String> command) {
+        ProcessBuilder pb = new ProcessBuilder(command);
+        Path compileCacheDir = ParserRuntimeInstaller.compileCacheDir();
+        if (compileCacheDir != null) {
+            pb.environment().put(COMPILE_CACHE_ENV, compileCacheDir.toAbsolutePath().toString());
+        }
+        return pb;
+    }
+
     /**
      * Validates the script path to ensure it is safe and exists.
      *
@@ -131,122 +327,35 @@ public class ProcessExecutor {
     }
 
     /**
-     * Reads process output into a string.
+     * Throws if the process was killed at its deadline. The timeout is not
+     * an {@link IOException}, so callers do not retry the same file another way.
      *
-     * @param inputStream the input stream
-     * @return the output string
-     * @throws IOException if reading fails
+     * @param result the process result
+     * @throws ParserException if the process timed out
      */
-    private String readProcessOutput(InputStream inputStream) throws IOException {
-        StringBuilder sb = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, java.nio.charset.StandardCharsets.UTF_8))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                sb.append(line).append("\n");
-            }
+    private void checkNotTimedOut(SubprocessRunner.Result result) {
+        if (result.isTimedOut()) {
+            throw new ParserException("TypeScript parser timed out after " + result.getElapsedMillis()
+                    + " ms:\n" + result.getStderr());
         }
-        return sb.toString();
     }
 
     /**
-     * Locates the TypeScript parser script in the classpath.
-     * <p>
-     * If running from a JAR, extracts the parser directory to a temp location.
-     * If running from classpath on filesystem, uses the direct path.
-     *
-     * @return the absolute path to the parser script
-     */
-    private String locateParserScript() {
-        try {
-            // Try to use the classpath location directly
-            java.net.URL scriptUrl = getClass().getClassLoader().getResource("typescript-parser/index.js");
-
-            if (scriptUrl != null && "file".equals(scriptUrl.getProtocol())) {
-                // Running from classpath on filesystem
-                return new File(scriptUrl.getFile()).getAbsolutePath();
-            } else {
-                // Running from JAR - extract to temp directory
-                return extractParserDirectory();
-            }
-        } catch (Exception e) {
-            throw new ParserInitializationException("Failed to locate TypeScript parser script", e);
-        }
-    }
-
-    /**
-     * Extracts the TypeScript parser directory from the JAR to a temp location.
-     *
-     * @return the absolute path to the extracted parser script
-     * @throws Exception if extraction fails
-     */
-    private String extractParserDirectory() throws Exception {
-        Path tempDir = Files.createTempDirectory("typescript-parser-");
-        tempDir.toFile().deleteOnExit();
-
-        // Extract all resources from typescript-parser directory
-        String jarPath = getJarPath();
-        extractResourceDirectory("typescript-parser/", tempDir, jarPath);
-
-        return tempDir.resolve("index.js").toAbsolutePath().toString();
-    }
-
-    /**
-     * Gets the path to the JAR file containing this class.
-     *
-     * @return the JAR file path
-     * @throws Exception if getting the path fails
-     */
-    private String getJarPath() throws Exception {
-        String jarPath = getClass().getProtectionDomain().getCodeSource().getLocation().toURI().getPath();
-
-        // Handle Windows paths with spaces
-        if (jarPath.startsWith("/") && jarPath.contains(":")) {
-            jarPath = jarPath.substring(1);
-        }
-
-        return jarPath;
-    }
-
-    /**
-     * Extracts all files from a resource directory in the JAR to a temp directory.
+     * Gets the path to the parser script.
      *
-     * @param resourcePath the resource path in the JAR
-     * @param targetDir the target directory
-     * @param jarPath the path to the JAR file
-     * @throws Exception if extraction fails
+     * @return the parser script path
      */
-    private void extractResourceDirectory(String resourcePath, Path targetDir, String jarPath) throws Exception {
-        try (JarFile jarFile = new JarFile(jarPath)) {
-            Enumeration<JarEntry> entries = jarFile.entries();
-
-            while (entries.hasMoreElements()) {
-                JarEntry entry = entries.nextElement();
-                String entryName = entry.getName();
-
-                if (entryName.startsWith(resourcePath)) {
-                    String relativePath = entryName.substring(resourcePath.length());
-                    Path targetPath = targetDir.resolve(relativePath.replace('/', File.separatorChar));
-
-                    if (entry.isDirectory()) {
-                        Files.createDirectories(targetPath);
-                    } else {
-                        Files.createDirectories(targetPath.getParent());
-                        try (InputStream is = jarFile.getInputStream(entry)) {
-                            Files.copy(is, targetPath, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
-                        }
-                    }
-                }
-            }
-        }
+    public String getScriptPath() {
+        return scriptPath;
     }
 
     /**
-     * Gets the path to the parser script.
+     * Gets the runner whose deadline and cancellation rules apply to parser processes.
      *
-     * @return the parser script path
+     * @return the subprocess runner
      */
-    public String getScriptPath() {
-        return scriptPath;
+    public SubprocessRunner getSubprocessRunner() {
+        return runner;
     }
 
     /**
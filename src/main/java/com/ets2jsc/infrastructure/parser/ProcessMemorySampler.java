@@ -0,0 +1,80 @@
+package com.ets2jsc.infrastructure.parser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Samples the resident memory of parser processes.
+ * <p>
+ * Reads {@code /proc/<pid>/status} where procfs is available; on other
+ * platforms sampling is reported as unavailable and memory-based
+ * recycling is skipped. The memory of the whole build, the JVM and all
+ * of its child processes, is sampled with {@link #processTreeBytes()}.
+ */
+public final class ProcessMemorySampler {
+
+    private static final Path PROC_ROOT = Path.of("/proc");
+    private static final String RSS_FIELD = "VmRSS:";
+    private static final long BYTES_PER_KB = 1024L;
+
+    private ProcessMemorySampler() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Gets the resident set size of a process.
+     *
+     * @param pid the process id
+     * @return the resident set size in bytes, or -1 if it cannot be sampled
+     */
+    public static long residentSetBytes(long pid) {
+        if (pid <= 0) {
+            return -1;
+        }
+        Path status = PROC_ROOT.resolve(Long.toString(pid)).resolve("status");
+        try {
+            List<String> lines = Files.readAllLines(status);
+            for (String line : lines) {
+                if (line.startsWith(RSS_FIELD)) {
+                    return parseKilobytes(line.substring(RSS_FIELD.length())) * BYTES_PER_KB;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Process gone or procfs unavailable
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the memory used by this JVM and all of its descendant processes,
+     * such as parser workers and tsc. Without procfs, the JVM is counted with
+     * its committed heap and child processes are not counted.
+     *
+     * @return the total resident memory in bytes
+     */
+    public static long processTreeBytes() {
+        ProcessHandle self = ProcessHandle.current();
+        long total = residentSetBytes(self.pid());
+        if (total < 0) {
+            total = Runtime.getRuntime().totalMemory();
+        }
+        for (ProcessHandle child : (Iterable<ProcessHandle>) self.descendants()::iterator) {
+            long rss = residentSetBytes(child.pid());
+            if (rss > 0) {
+                total += rss;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Parses a procfs value such as {@code "  123456 kB"}.
+     */
+    private static long parseKilobytes(String value) {
+        String trimmed = value.trim();
+        int space = trimmed.indexOf(' ');
+        return Long.parseLong(space > 0 ? trimmed.substring(0, space) : trimmed);
+    }
+}
@@ -53,14 +53,12 @@ public class StatementConverterRegistry extends NodeConverterRegistry {
      * Converts a JSON statement to an AST node.
      */
     public AstNode convert(JsonNode json, ConversionContext context) {
-        String kindName = json.has("kindName") ? json.get("kindName").asText() : "";
-
-        NodeConverter converter = findConverter(kindName);
+        NodeConverter converter = findConverter(json, context);
         Object result = converter.convert(json, context);
 
         if (result instanceof AstNode) {
             return (AstNode) result;
         }
-        throw new ClassCastException("Converter for " + kindName + " did not return an AstNode");
+        throw new ClassCastException("Converter for " + json.path("kindName").asText() + " did not return an AstNode");
     }
 }
@@ -0,0 +1,118 @@
+package com.ets2jsc.infrastructure.parser;
+
+import com.ets2jsc.shared.exception.ParserException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Pull-based reader for the parser script's SourceFile AST.
+ * <p>
+ * The root object is walked token by token and only its top-level
+ * statements are built as trees, one at a time: each statement is handed
+ * to the consumer and dropped before the next one is read. Other members
+ * of the root object are skipped without being built, so peak memory
+ * follows the largest statement rather than the whole file.
+ * <p>
+ * The numeric {@code kind} of the root is reported before the first
+ * statement, so the caller can check the kind ids of the parser script
+ * before it converts anything.
+ */
+public class StreamingAstReader {
+
+    private static final String STATEMENTS_FIELD = "statements";
+    private static final String KIND_FIELD = "kind";
+
+    /** Root kind reported when the root has no numeric kind ahead of its statements. */
+    public static final int UNKNOWN_KIND = -1;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Creates a reader.
+     *
+     * @param objectMapper the mapper used to build statement trees
+     */
+    public StreamingAstReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Reads the AST root object and streams its statements to the consumer.
+     *
+     * @param parser a parser positioned before or on the root object
+     * @param onStatement receives each top-level statement in source order
+     * @return the number of statements read
+     * @throws IOException if the AST cannot be read
+     * @throws ParserException if the AST is not a JSON object or is truncated
+     */
+    public int readStatements(JsonParser parser, Consumer<JsonNode> onStatement) throws IOException {
+        return readStatements(parser, kind -> { }, onStatement);
+    }
+
+    /**
+     * Reads the AST root object, reports its kind and streams its statements
+     * to the consumer.
+     *
+     * @param parser a parser positioned before or on the root object
+     * @param onRootKind receives the numeric kind of the root, or
+     *        {@link #UNKNOWN_KIND}, exactly once and before the first statement
+     * @param onStatement receives each top-level statement in source order
+     * @return the number of statements read
+     * @throws IOException if the AST cannot be read
+     * @throws ParserException if the AST is not a JSON object or is truncated
+     */
+    public int readStatements(JsonParser parser, IntConsumer onRootKind, Consumer<JsonNode> onStatement)
+            throws IOException {
+        JsonToken token = parser.currentToken() != null ? parser.currentToken() : parser.nextToken();
+        if (token != JsonToken.START_OBJECT) {
+            throw new ParserException("Expected an AST object but found " + token);
+        }
+
+        int count = 0;
+        boolean kindReported = false;
+        while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (KIND_FIELD.equals(field) && value == JsonToken.VALUE_NUMBER_INT && !kindReported) {
+                onRootKind.accept(parser.getIntValue());
+                kindReported = true;
+            } else if (STATEMENTS_FIELD.equals(field) && value == JsonToken.START_ARRAY) {
+                if (!kindReported) {
+                    onRootKind.accept(UNKNOWN_KIND);
+                    kindReported = true;
+                }
+                count += readArray(parser, onStatement);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (token != JsonToken.END_OBJECT) {
+            throw new ParserException("Truncated AST object");
+        }
+        if (!kindReported) {
+            onRootKind.accept(UNKNOWN_KIND);
+        }
+        return count;
+    }
+
+    private int readArray(JsonParser parser, Consumer<JsonNode> onStatement) throws IOException {
+        int count = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw new ParserException("Truncated AST statements");
+            }
+            JsonNode statement = objectMapper.readTree(parser);
+            onStatement.accept(statement != null ? statement : NullNode.getInstance());
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,204 @@
+package com.ets2jsc.infrastructure.parser;
+
+import com.ets2jsc.shared.exception.ParserException;
+import com.ets2jsc.shared.exception.ParserInitializationException;
+import com.ets2jsc.shared.process.SubprocessRunner;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Parses many files with a single parser process in batch mode.
+ * <p>
+ * The file list is sent to the parser as a manifest on stdin, and the
+ * parser streams one compact JSON result per line (NDJSON) to stdout as
+ * each file finishes. Each result is handed to the {@link Listener} as soon
+ * as its line arrives, so callers convert one file while the parser is
+ * already working on the next, and Node.js starts once per batch instead
+ * of once per file.
+ * <p>
+ * The batch runs under a watch of the executor's {@link SubprocessRunner}:
+ * when its deadline passes or the {@link com.ets2jsc.shared.process.CancellationToken}
+ * bound to the calling thread is cancelled, the parser process tree is
+ * killed and the batch fails.
+ */
+public class StreamingBatchParser {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StreamingBatchParser.class);
+
+    private final ProcessExecutor executor;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Receives batch results in the order the parser produces them.
+     * Callbacks run on the thread that called {@link #parse}.
+     */
+    public interface Listener {
+
+        /**
+         * Called when a file has been parsed.
+         *
+         * @param sourceFile the parsed file, as passed to {@link #parse}
+         * @param ast the JSON AST produced by the parser script
+         */
+        void onParsed(Path sourceFile, JsonNode ast);
+
+        /**
+         * Called when a file could not be read or parsed.
+         *
+         * @param sourceFile the failed file, as passed to {@link #parse}
+         * @param error the error reported by the parser script
+         */
+        void onFailed(Path sourceFile, String error);
+    }
+
+    /**
+     * Creates a batch parser.
+     *
+     * @param executor the configured executor of the parser, used to launch
+     *        the parser script and to bound the batch
+     * @param objectMapper the mapper used to decode result lines
+     */
+    public StreamingBatchParser(ProcessExecutor executor, ObjectMapper objectMapper) {
+        this.executor = executor;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Parses the given files and streams each result to the listener.
+     *
+     * @param sourceFiles the files to parse
+     * @param listener receives one callback per file
+     * @return the number of results received
+     * @throws ParserInitializationException if the parser process cannot be started
+     * @throws ParserException if the parser process fails mid-batch
+     */
+    public int parse(List<Path> sourceFiles, Listener listener) {
+        if (sourceFiles.isEmpty()) {
+            return 0;
+        }
+
+        Process process;
+        try {
+            process = executor.startBatch();
+        } catch (IOException | SecurityException e) {
+            throw new ParserInitializationException("Failed to start batch parser", e);
+        }
+
+        SubprocessRunner.Watch watch = executor.getSubprocessRunner().watch(process);
+        int received = 0;
+        try {
+            startStderrDrain(process);
+            Map<String, Path> filesByName = writeManifest(process, sourceFiles);
+            received = readResults(process, filesByName, listener);
+
+            // Stdout is closed, so the parser is exiting; the watch still bounds the wait
+            int exitCode = process.waitFor();
+            checkWatch(watch, received, sourceFiles.size(), null);
+            if (exitCode != 0) {
+                throw new ParserException("Batch parser failed with exit code " + exitCode
+                        + " after " + received + " of " + sourceFiles.size() + " files");
+            }
+            return received;
+        } catch (IOException e) {
+            checkWatch(watch, received, sourceFiles.size(), e);
+            throw new ParserException("Batch parser stream failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ParserException("Interrupted while waiting for batch parser", e);
+        } finally {
+            watch.close();
+            SubprocessRunner.destroyTree(process);
+        }
+    }
+
+    /**
+     * Fails the batch if its watch fired and killed the parser.
+     */
+    private static void checkWatch(SubprocessRunner.Watch watch, int received, int total, IOException cause) {
+        if (watch.isCancelled()) {
+            throw new CancellationException("Batch parsing cancelled after " + received + " of " + total + " files");
+        }
+        if (watch.isExpired()) {
+            throw new ParserException("Batch parser timed out after " + received + " of " + total + " files", cause);
+        }
+    }
+
+    /**
+     * Writes one absolute path per line and closes stdin so the parser can start.
+     *
+     * @return the original paths keyed by the name sent to the parser
+     */
+    private Map<String, Path> writeManifest(Process process, List<Path> sourceFiles) throws IOException {
+        Map<String, Path> filesByName = new HashMap<>();
+        try (Writer manifest = new BufferedWriter(
+                new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8))) {
+            for (Path sourceFile : sourceFiles) {
+                String name = sourceFile.toAbsolutePath().toString();
+                filesByName.put(name, sourceFile);
+                manifest.write(name);
+                manifest.write('\n');
+            }
+        }
+        return filesByName;
+    }
+
+    /**
+     * Reads result lines until the parser closes stdout, dispatching each one immediately.
+     */
+    private int readResults(Process process, Map<String, Path> filesByName, Listener listener) throws IOException {
+        int received = 0;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode result = objectMapper.readTree(line);
+                String name = result.path("file").asText();
+                Path sourceFile = filesByName.getOrDefault(name, Path.of(name));
+                if (result.path("ok").asBoolean()) {
+                    listener.onParsed(sourceFile, result.get("ast"));
+                } else {
+                    listener.onFailed(sourceFile, result.path("error").asText());
+                }
+                received++;
+            }
+        }
+        return received;
+    }
+
+    /**
+     * Drains stderr on a background thread so the parser never blocks on a full pipe.
+     */
+    private void startStderrDrain(Process batchProcess) {
+        Thread drain = new Thread(() -> {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(batchProcess.getErrorStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    LOGGER.debug("[batch parser] {}", line);
+                }
+            } catch (IOException e) {
+                // Stream closed with the process
+            }
+        }, "ETS-Batch-Parser-stderr");
+        drain.setDaemon(true);
+        drain.start();
+    }
+}
@@ -0,0 +1,196 @@
+package com.ets2jsc.infrastructure.parser;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of converted expressions, keyed by a structural hash of
+ * their JSON subtree.
+ * <p>
+ * UI code repeats many identical subtrees, such as resource calls, style
+ * chains and small callbacks. Two subtrees are the same when they are equal
+ * apart from their source positions, so a repeated subtree is converted once
+ * and its text is shared. Identifiers whose name is sliced from the source
+ * are compared by that name.
+ * <p>
+ * An entry keeps the canonical form of its subtree, a string of its fields
+ * without positions, to tell subtrees with the same hash apart; it does not
+ * keep the JSON tree of the file it came from.
+ * <p>
+ * Subtrees of more than {@link #MAX_NODES} nodes are not cached: they rarely
+ * repeat, and serializing them again at each level of a nested chain would
+ * cost more than it saves. The least recently used entries are evicted first.
+ */
+final class SubtreeCache {
+
+    /** Default number of entries of a cache. */
+    static final int DEFAULT_CAPACITY = 512;
+
+    /** Largest subtree that is cached, in nodes. */
+    static final int MAX_NODES = 256;
+
+    private static final Set<SyntaxKind> CACHED_KINDS = EnumSet.of(
+            SyntaxKind.CALL_EXPRESSION,
+            SyntaxKind.ARROW_FUNCTION,
+            SyntaxKind.OBJECT_LITERAL_EXPRESSION);
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final Map<Long, Entry> entries;
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+    /**
+     * Creates a cache.
+     *
+     * @param capacity the maximum number of entries
+     * @param hits counts the lookups that found their subtree
+     * @param misses counts the lookups that converted their subtree
+     */
+    SubtreeCache(int capacity, LongAdder hits, LongAdder misses) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+        this.hits = hits;
+        this.misses = misses;
+    }
+
+    /**
+     * Converts an expression, or returns the text of an equal subtree
+     * converted before. Expressions of other kinds than calls, arrow
+     * functions and object literals, and expressions that already carry
+     * their text, are converted directly.
+     *
+     * @param json the expression
+     * @param context the context of the file, which slices identifier names
+     * @param converter converts the expression
+     * @return the converted text
+     */
+    String convert(JsonNode json, ConversionContext context, Function<JsonNode, String> converter) {
+        if (json == null || json.has("text") || !CACHED_KINDS.contains(context.kindOf(json))) {
+            return converter.apply(json);
+        }
+        StringBuilder form = new StringBuilder();
+        int[] budget = {MAX_NODES};
+        if (!serialize(json, context, form, budget)) {
+            return converter.apply(json);
+        }
+        String key = form.toString();
+        long hash = hash(key);
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(hash);
+        }
+        if (entry != null && entry.form.equals(key)) {
+            hits.increment();
+            return entry.text;
+        }
+        misses.increment();
+        String text = converter.apply(json);
+        synchronized (entries) {
+            entries.put(hash, new Entry(key, text));
+        }
+        return text;
+    }
+
+    /**
+     * Gets the number of cached subtrees.
+     */
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Removes all cached subtrees.
+     */
+    void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Writes the canonical form of a subtree: its fields without source
+     * positions, and the names of identifiers sliced from the source.
+     *
+     * @return false if the subtree has more nodes than the budget
+     */
+    private static boolean serialize(JsonNode json, ConversionContext context, StringBuilder form, int[] budget) {
+        if (--budget[0] < 0) {
+            return false;
+        }
+        if (json.isObject()) {
+            form.append('{');
+            Iterator<Map.Entry<String, JsonNode>> fields = json.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (isPosition(field.getKey())) {
+                    continue;
+                }
+                form.append(field.getKey()).append(':');
+                if (!serialize(field.getValue(), context, form, budget)) {
+                    return false;
+                }
+                form.append(',');
+            }
+            if (isSlicedName(json, context)) {
+                String name = context.getText(json);
+                form.append('#').append(name.length()).append(':').append(name);
+            }
+            form.append('}');
+            return true;
+        }
+        if (json.isArray()) {
+            form.append('[');
+            for (JsonNode element : json) {
+                if (!serialize(element, context, form, budget)) {
+                    return false;
+                }
+                form.append(',');
+            }
+            form.append(']');
+            return true;
+        }
+        form.append(json.toString());
+        return true;
+    }
+
+    private static long hash(String form) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < form.length(); i++) {
+            hash = (hash ^ form.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static boolean isPosition(String field) {
+        return "pos".equals(field) || "end".equals(field);
+    }
+
+    private static boolean isSlicedName(JsonNode json, ConversionContext context) {
+        return !json.has("text") && context.isKind(json, SyntaxKind.IDENTIFIER);
+    }
+
+    private static final class Entry {
+        final String form;
+        final String text;
+
+        Entry(String form, String text) {
+            this.form = form;
+            this.text = text;
+        }
+    }
+}
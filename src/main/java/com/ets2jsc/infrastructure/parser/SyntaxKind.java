@@ -0,0 +1,446 @@
+package com.ets2jsc.infrastructure.parser;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Syntax kinds of the TypeScript version bundled with the parser script.
+ * <p>
+ * Generated from the declarations of TypeScript 5.9.3 by
+ * {@code tools/generate-syntax-kind.js} of the repository; regenerate it
+ * when upgrading TypeScript. The kind name is the name the script sends as
+ * {@code kindName}. For kinds that start or end a range of kinds it is the
+ * range marker, e.g. {@code FirstStatement} for {@link #VARIABLE_STATEMENT},
+ * and differs from the name of the kind.
+ */
+public enum SyntaxKind {
+
+    UNKNOWN(0, "Unknown", "FirstToken"),
+    END_OF_FILE_TOKEN(1, "EndOfFileToken"),
+    SINGLE_LINE_COMMENT_TRIVIA(2, "SingleLineCommentTrivia", "FirstTriviaToken"),
+    MULTI_LINE_COMMENT_TRIVIA(3, "MultiLineCommentTrivia"),
+    NEW_LINE_TRIVIA(4, "NewLineTrivia"),
+    WHITESPACE_TRIVIA(5, "WhitespaceTrivia"),
+    SHEBANG_TRIVIA(6, "ShebangTrivia"),
+    CONFLICT_MARKER_TRIVIA(7, "ConflictMarkerTrivia", "LastTriviaToken"),
+    NON_TEXT_FILE_MARKER_TRIVIA(8, "NonTextFileMarkerTrivia"),
+    NUMERIC_LITERAL(9, "NumericLiteral", "FirstLiteralToken"),
+    BIG_INT_LITERAL(10, "BigIntLiteral"),
+    STRING_LITERAL(11, "StringLiteral"),
+    JSX_TEXT(12, "JsxText"),
+    JSX_TEXT_ALL_WHITE_SPACES(13, "JsxTextAllWhiteSpaces"),
+    REGULAR_EXPRESSION_LITERAL(14, "RegularExpressionLiteral"),
+    NO_SUBSTITUTION_TEMPLATE_LITERAL(15, "NoSubstitutionTemplateLiteral", "FirstTemplateToken"),
+    TEMPLATE_HEAD(16, "TemplateHead"),
+    TEMPLATE_MIDDLE(17, "TemplateMiddle"),
+    TEMPLATE_TAIL(18, "TemplateTail", "LastTemplateToken"),
+    OPEN_BRACE_TOKEN(19, "OpenBraceToken", "FirstPunctuation"),
+    CLOSE_BRACE_TOKEN(20, "CloseBraceToken"),
+    OPEN_PAREN_TOKEN(21, "OpenParenToken"),
+    CLOSE_PAREN_TOKEN(22, "CloseParenToken"),
+    OPEN_BRACKET_TOKEN(23, "OpenBracketToken"),
+    CLOSE_BRACKET_TOKEN(24, "CloseBracketToken"),
+    DOT_TOKEN(25, "DotToken"),
+    DOT_DOT_DOT_TOKEN(26, "DotDotDotToken"),
+    SEMICOLON_TOKEN(27, "SemicolonToken"),
+    COMMA_TOKEN(28, "CommaToken"),
+    QUESTION_DOT_TOKEN(29, "QuestionDotToken"),
+    LESS_THAN_TOKEN(30, "LessThanToken", "FirstBinaryOperator"),
+    LESS_THAN_SLASH_TOKEN(31, "LessThanSlashToken"),
+    GREATER_THAN_TOKEN(32, "GreaterThanToken"),
+    LESS_THAN_EQUALS_TOKEN(33, "LessThanEqualsToken"),
+    GREATER_THAN_EQUALS_TOKEN(34, "GreaterThanEqualsToken"),
+    EQUALS_EQUALS_TOKEN(35, "EqualsEqualsToken"),
+    EXCLAMATION_EQUALS_TOKEN(36, "ExclamationEqualsToken"),
+    EQUALS_EQUALS_EQUALS_TOKEN(37, "EqualsEqualsEqualsToken"),
+    EXCLAMATION_EQUALS_EQUALS_TOKEN(38, "ExclamationEqualsEqualsToken"),
+    EQUALS_GREATER_THAN_TOKEN(39, "EqualsGreaterThanToken"),
+    PLUS_TOKEN(40, "PlusToken"),
+    MINUS_TOKEN(41, "MinusToken"),
+    ASTERISK_TOKEN(42, "AsteriskToken"),
+    ASTERISK_ASTERISK_TOKEN(43, "AsteriskAsteriskToken"),
+    SLASH_TOKEN(44, "SlashToken"),
+    PERCENT_TOKEN(45, "PercentToken"),
+    PLUS_PLUS_TOKEN(46, "PlusPlusToken"),
+    MINUS_MINUS_TOKEN(47, "MinusMinusToken"),
+    LESS_THAN_LESS_THAN_TOKEN(48, "LessThanLessThanToken"),
+    GREATER_THAN_GREATER_THAN_TOKEN(49, "GreaterThanGreaterThanToken"),
+    GREATER_THAN_GREATER_THAN_GREATER_THAN_TOKEN(50, "GreaterThanGreaterThanGreaterThanToken"),
+    AMPERSAND_TOKEN(51, "AmpersandToken"),
+    BAR_TOKEN(52, "BarToken"),
+    CARET_TOKEN(53, "CaretToken"),
+    EXCLAMATION_TOKEN(54, "ExclamationToken"),
+    TILDE_TOKEN(55, "TildeToken"),
+    AMPERSAND_AMPERSAND_TOKEN(56, "AmpersandAmpersandToken"),
+    BAR_BAR_TOKEN(57, "BarBarToken"),
+    QUESTION_TOKEN(58, "QuestionToken"),
+    COLON_TOKEN(59, "ColonToken"),
+    AT_TOKEN(60, "AtToken"),
+    QUESTION_QUESTION_TOKEN(61, "QuestionQuestionToken"),
+    BACKTICK_TOKEN(62, "BacktickToken"),
+    HASH_TOKEN(63, "HashToken"),
+    EQUALS_TOKEN(64, "EqualsToken", "FirstAssignment"),
+    PLUS_EQUALS_TOKEN(65, "PlusEqualsToken", "FirstCompoundAssignment"),
+    MINUS_EQUALS_TOKEN(66, "MinusEqualsToken"),
+    ASTERISK_EQUALS_TOKEN(67, "AsteriskEqualsToken"),
+    ASTERISK_ASTERISK_EQUALS_TOKEN(68, "AsteriskAsteriskEqualsToken"),
+    SLASH_EQUALS_TOKEN(69, "SlashEqualsToken"),
+    PERCENT_EQUALS_TOKEN(70, "PercentEqualsToken"),
+    LESS_THAN_LESS_THAN_EQUALS_TOKEN(71, "LessThanLessThanEqualsToken"),
+    GREATER_THAN_GREATER_THAN_EQUALS_TOKEN(72, "GreaterThanGreaterThanEqualsToken"),
+    GREATER_THAN_GREATER_THAN_GREATER_THAN_EQUALS_TOKEN(73, "GreaterThanGreaterThanGreaterThanEqualsToken"),
+    AMPERSAND_EQUALS_TOKEN(74, "AmpersandEqualsToken"),
+    BAR_EQUALS_TOKEN(75, "BarEqualsToken"),
+    BAR_BAR_EQUALS_TOKEN(76, "BarBarEqualsToken"),
+    AMPERSAND_AMPERSAND_EQUALS_TOKEN(77, "AmpersandAmpersandEqualsToken"),
+    QUESTION_QUESTION_EQUALS_TOKEN(78, "QuestionQuestionEqualsToken"),
+    CARET_EQUALS_TOKEN(79, "CaretEqualsToken", "LastBinaryOperator"),
+    IDENTIFIER(80, "Identifier"),
+    PRIVATE_IDENTIFIER(81, "PrivateIdentifier"),
+    BREAK_KEYWORD(83, "BreakKeyword", "FirstKeyword"),
+    CASE_KEYWORD(84, "CaseKeyword"),
+    CATCH_KEYWORD(85, "CatchKeyword"),
+    CLASS_KEYWORD(86, "ClassKeyword"),
+    CONST_KEYWORD(87, "ConstKeyword"),
+    CONTINUE_KEYWORD(88, "ContinueKeyword"),
+    DEBUGGER_KEYWORD(89, "DebuggerKeyword"),
+    DEFAULT_KEYWORD(90, "DefaultKeyword"),
+    DELETE_KEYWORD(91, "DeleteKeyword"),
+    DO_KEYWORD(92, "DoKeyword"),
+    ELSE_KEYWORD(93, "ElseKeyword"),
+    ENUM_KEYWORD(94, "EnumKeyword"),
+    EXPORT_KEYWORD(95, "ExportKeyword"),
+    EXTENDS_KEYWORD(96, "ExtendsKeyword"),
+    FALSE_KEYWORD(97, "FalseKeyword"),
+    FINALLY_KEYWORD(98, "FinallyKeyword"),
+    FOR_KEYWORD(99, "ForKeyword"),
+    FUNCTION_KEYWORD(100, "FunctionKeyword"),
+    IF_KEYWORD(101, "IfKeyword"),
+    IMPORT_KEYWORD(102, "ImportKeyword"),
+    IN_KEYWORD(103, "InKeyword"),
+    INSTANCE_OF_KEYWORD(104, "InstanceOfKeyword"),
+    NEW_KEYWORD(105, "NewKeyword"),
+    NULL_KEYWORD(106, "NullKeyword"),
+    RETURN_KEYWORD(107, "ReturnKeyword"),
+    SUPER_KEYWORD(108, "SuperKeyword"),
+    SWITCH_KEYWORD(109, "SwitchKeyword"),
+    THIS_KEYWORD(110, "ThisKeyword"),
+    THROW_KEYWORD(111, "ThrowKeyword"),
+    TRUE_KEYWORD(112, "TrueKeyword"),
+    TRY_KEYWORD(113, "TryKeyword"),
+    TYPE_OF_KEYWORD(114, "TypeOfKeyword"),
+    VAR_KEYWORD(115, "VarKeyword"),
+    VOID_KEYWORD(116, "VoidKeyword"),
+    WHILE_KEYWORD(117, "WhileKeyword"),
+    WITH_KEYWORD(118, "WithKeyword", "LastReservedWord"),
+    IMPLEMENTS_KEYWORD(119, "ImplementsKeyword", "FirstFutureReservedWord"),
+    INTERFACE_KEYWORD(120, "InterfaceKeyword"),
+    LET_KEYWORD(121, "LetKeyword"),
+    PACKAGE_KEYWORD(122, "PackageKeyword"),
+    PRIVATE_KEYWORD(123, "PrivateKeyword"),
+    PROTECTED_KEYWORD(124, "ProtectedKeyword"),
+    PUBLIC_KEYWORD(125, "PublicKeyword"),
+    STATIC_KEYWORD(126, "StaticKeyword"),
+    YIELD_KEYWORD(127, "YieldKeyword", "LastFutureReservedWord"),
+    ABSTRACT_KEYWORD(128, "AbstractKeyword"),
+    ACCESSOR_KEYWORD(129, "AccessorKeyword"),
+    AS_KEYWORD(130, "AsKeyword"),
+    ASSERTS_KEYWORD(131, "AssertsKeyword"),
+    ASSERT_KEYWORD(132, "AssertKeyword"),
+    ANY_KEYWORD(133, "AnyKeyword"),
+    ASYNC_KEYWORD(134, "AsyncKeyword"),
+    AWAIT_KEYWORD(135, "AwaitKeyword"),
+    BOOLEAN_KEYWORD(136, "BooleanKeyword"),
+    CONSTRUCTOR_KEYWORD(137, "ConstructorKeyword"),
+    DECLARE_KEYWORD(138, "DeclareKeyword"),
+    GET_KEYWORD(139, "GetKeyword"),
+    INFER_KEYWORD(140, "InferKeyword"),
+    INTRINSIC_KEYWORD(141, "IntrinsicKeyword"),
+    IS_KEYWORD(142, "IsKeyword"),
+    KEY_OF_KEYWORD(143, "KeyOfKeyword"),
+    MODULE_KEYWORD(144, "ModuleKeyword"),
+    NAMESPACE_KEYWORD(145, "NamespaceKeyword"),
+    NEVER_KEYWORD(146, "NeverKeyword"),
+    OUT_KEYWORD(147, "OutKeyword"),
+    READONLY_KEYWORD(148, "ReadonlyKeyword"),
+    REQUIRE_KEYWORD(149, "RequireKeyword"),
+    NUMBER_KEYWORD(150, "NumberKeyword"),
+    OBJECT_KEYWORD(151, "ObjectKeyword"),
+    SATISFIES_KEYWORD(152, "SatisfiesKeyword"),
+    SET_KEYWORD(153, "SetKeyword"),
+    STRING_KEYWORD(154, "StringKeyword"),
+    SYMBOL_KEYWORD(155, "SymbolKeyword"),
+    TYPE_KEYWORD(156, "TypeKeyword"),
+    UNDEFINED_KEYWORD(157, "UndefinedKeyword"),
+    UNIQUE_KEYWORD(158, "UniqueKeyword"),
+    UNKNOWN_KEYWORD(159, "UnknownKeyword"),
+    USING_KEYWORD(160, "UsingKeyword"),
+    FROM_KEYWORD(161, "FromKeyword"),
+    GLOBAL_KEYWORD(162, "GlobalKeyword"),
+    BIG_INT_KEYWORD(163, "BigIntKeyword"),
+    OVERRIDE_KEYWORD(164, "OverrideKeyword"),
+    OF_KEYWORD(165, "OfKeyword"),
+    DEFER_KEYWORD(166, "DeferKeyword", "LastToken"),
+    QUALIFIED_NAME(167, "QualifiedName", "FirstNode"),
+    COMPUTED_PROPERTY_NAME(168, "ComputedPropertyName"),
+    TYPE_PARAMETER(169, "TypeParameter"),
+    PARAMETER(170, "Parameter"),
+    DECORATOR(171, "Decorator"),
+    PROPERTY_SIGNATURE(172, "PropertySignature"),
+    PROPERTY_DECLARATION(173, "PropertyDeclaration"),
+    METHOD_SIGNATURE(174, "MethodSignature"),
+    METHOD_DECLARATION(175, "MethodDeclaration"),
+    CLASS_STATIC_BLOCK_DECLARATION(176, "ClassStaticBlockDeclaration"),
+    CONSTRUCTOR(177, "Constructor"),
+    GET_ACCESSOR(178, "GetAccessor"),
+    SET_ACCESSOR(179, "SetAccessor"),
+    CALL_SIGNATURE(180, "CallSignature"),
+    CONSTRUCT_SIGNATURE(181, "ConstructSignature"),
+    INDEX_SIGNATURE(182, "IndexSignature"),
+    TYPE_PREDICATE(183, "TypePredicate", "FirstTypeNode"),
+    TYPE_REFERENCE(184, "TypeReference"),
+    FUNCTION_TYPE(185, "FunctionType"),
+    CONSTRUCTOR_TYPE(186, "ConstructorType"),
+    TYPE_QUERY(187, "TypeQuery"),
+    TYPE_LITERAL(188, "TypeLiteral"),
+    ARRAY_TYPE(189, "ArrayType"),
+    TUPLE_TYPE(190, "TupleType"),
+    OPTIONAL_TYPE(191, "OptionalType"),
+    REST_TYPE(192, "RestType"),
+    UNION_TYPE(193, "UnionType"),
+    INTERSECTION_TYPE(194, "IntersectionType"),
+    CONDITIONAL_TYPE(195, "ConditionalType"),
+    INFER_TYPE(196, "InferType"),
+    PARENTHESIZED_TYPE(197, "ParenthesizedType"),
+    THIS_TYPE(198, "ThisType"),
+    TYPE_OPERATOR(199, "TypeOperator"),
+    INDEXED_ACCESS_TYPE(200, "IndexedAccessType"),
+    MAPPED_TYPE(201, "MappedType"),
+    LITERAL_TYPE(202, "LiteralType"),
+    NAMED_TUPLE_MEMBER(203, "NamedTupleMember"),
+    TEMPLATE_LITERAL_TYPE(204, "TemplateLiteralType"),
+    TEMPLATE_LITERAL_TYPE_SPAN(205, "TemplateLiteralTypeSpan"),
+    IMPORT_TYPE(206, "ImportType", "LastTypeNode"),
+    OBJECT_BINDING_PATTERN(207, "ObjectBindingPattern"),
+    ARRAY_BINDING_PATTERN(208, "ArrayBindingPattern"),
+    BINDING_ELEMENT(209, "BindingElement"),
+    ARRAY_LITERAL_EXPRESSION(210, "ArrayLiteralExpression"),
+    OBJECT_LITERAL_EXPRESSION(211, "ObjectLiteralExpression"),
+    PROPERTY_ACCESS_EXPRESSION(212, "PropertyAccessExpression"),
+    ELEMENT_ACCESS_EXPRESSION(213, "ElementAccessExpression"),
+    CALL_EXPRESSION(214, "CallExpression"),
+    NEW_EXPRESSION(215, "NewExpression"),
+    TAGGED_TEMPLATE_EXPRESSION(216, "TaggedTemplateExpression"),
+    TYPE_ASSERTION_EXPRESSION(217, "TypeAssertionExpression"),
+    PARENTHESIZED_EXPRESSION(218, "ParenthesizedExpression"),
+    FUNCTION_EXPRESSION(219, "FunctionExpression"),
+    ARROW_FUNCTION(220, "ArrowFunction"),
+    DELETE_EXPRESSION(221, "DeleteExpression"),
+    TYPE_OF_EXPRESSION(222, "TypeOfExpression"),
+    VOID_EXPRESSION(223, "VoidExpression"),
+    AWAIT_EXPRESSION(224, "AwaitExpression"),
+    PREFIX_UNARY_EXPRESSION(225, "PrefixUnaryExpression"),
+    POSTFIX_UNARY_EXPRESSION(226, "PostfixUnaryExpression"),
+    BINARY_EXPRESSION(227, "BinaryExpression"),
+    CONDITIONAL_EXPRESSION(228, "ConditionalExpression"),
+    TEMPLATE_EXPRESSION(229, "TemplateExpression"),
+    YIELD_EXPRESSION(230, "YieldExpression"),
+    SPREAD_ELEMENT(231, "SpreadElement"),
+    CLASS_EXPRESSION(232, "ClassExpression"),
+    OMITTED_EXPRESSION(233, "OmittedExpression"),
+    EXPRESSION_WITH_TYPE_ARGUMENTS(234, "ExpressionWithTypeArguments"),
+    AS_EXPRESSION(235, "AsExpression"),
+    NON_NULL_EXPRESSION(236, "NonNullExpression"),
+    META_PROPERTY(237, "MetaProperty"),
+    SYNTHETIC_EXPRESSION(238, "SyntheticExpression"),
+    SATISFIES_EXPRESSION(239, "SatisfiesExpression"),
+    TEMPLATE_SPAN(240, "TemplateSpan"),
+    SEMICOLON_CLASS_ELEMENT(241, "SemicolonClassElement"),
+    BLOCK(242, "Block"),
+    EMPTY_STATEMENT(243, "EmptyStatement"),
+    VARIABLE_STATEMENT(244, "VariableStatement", "FirstStatement"),
+    EXPRESSION_STATEMENT(245, "ExpressionStatement"),
+    IF_STATEMENT(246, "IfStatement"),
+    DO_STATEMENT(247, "DoStatement"),
+    WHILE_STATEMENT(248, "WhileStatement"),
+    FOR_STATEMENT(249, "ForStatement"),
+    FOR_IN_STATEMENT(250, "ForInStatement"),
+    FOR_OF_STATEMENT(251, "ForOfStatement"),
+    CONTINUE_STATEMENT(252, "ContinueStatement"),
+    BREAK_STATEMENT(253, "BreakStatement"),
+    RETURN_STATEMENT(254, "ReturnStatement"),
+    WITH_STATEMENT(255, "WithStatement"),
+    SWITCH_STATEMENT(256, "SwitchStatement"),
+    LABELED_STATEMENT(257, "LabeledStatement"),
+    THROW_STATEMENT(258, "ThrowStatement"),
+    TRY_STATEMENT(259, "TryStatement"),
+    DEBUGGER_STATEMENT(260, "DebuggerStatement", "LastStatement"),
+    VARIABLE_DECLARATION(261, "VariableDeclaration"),
+    VARIABLE_DECLARATION_LIST(262, "VariableDeclarationList"),
+    FUNCTION_DECLARATION(263, "FunctionDeclaration"),
+    CLASS_DECLARATION(264, "ClassDeclaration"),
+    INTERFACE_DECLARATION(265, "InterfaceDeclaration"),
+    TYPE_ALIAS_DECLARATION(266, "TypeAliasDeclaration"),
+    ENUM_DECLARATION(267, "EnumDeclaration"),
+    MODULE_DECLARATION(268, "ModuleDeclaration"),
+    MODULE_BLOCK(269, "ModuleBlock"),
+    CASE_BLOCK(270, "CaseBlock"),
+    NAMESPACE_EXPORT_DECLARATION(271, "NamespaceExportDeclaration"),
+    IMPORT_EQUALS_DECLARATION(272, "ImportEqualsDeclaration"),
+    IMPORT_DECLARATION(273, "ImportDeclaration"),
+    IMPORT_CLAUSE(274, "ImportClause"),
+    NAMESPACE_IMPORT(275, "NamespaceImport"),
+    NAMED_IMPORTS(276, "NamedImports"),
+    IMPORT_SPECIFIER(277, "ImportSpecifier"),
+    EXPORT_ASSIGNMENT(278, "ExportAssignment"),
+    EXPORT_DECLARATION(279, "ExportDeclaration"),
+    NAMED_EXPORTS(280, "NamedExports"),
+    NAMESPACE_EXPORT(281, "NamespaceExport"),
+    EXPORT_SPECIFIER(282, "ExportSpecifier"),
+    MISSING_DECLARATION(283, "MissingDeclaration"),
+    EXTERNAL_MODULE_REFERENCE(284, "ExternalModuleReference"),
+    JSX_ELEMENT(285, "JsxElement"),
+    JSX_SELF_CLOSING_ELEMENT(286, "JsxSelfClosingElement"),
+    JSX_OPENING_ELEMENT(287, "JsxOpeningElement"),
+    JSX_CLOSING_ELEMENT(288, "JsxClosingElement"),
+    JSX_FRAGMENT(289, "JsxFragment"),
+    JSX_OPENING_FRAGMENT(290, "JsxOpeningFragment"),
+    JSX_CLOSING_FRAGMENT(291, "JsxClosingFragment"),
+    JSX_ATTRIBUTE(292, "JsxAttribute"),
+    JSX_ATTRIBUTES(293, "JsxAttributes"),
+    JSX_SPREAD_ATTRIBUTE(294, "JsxSpreadAttribute"),
+    JSX_EXPRESSION(295, "JsxExpression"),
+    JSX_NAMESPACED_NAME(296, "JsxNamespacedName"),
+    CASE_CLAUSE(297, "CaseClause"),
+    DEFAULT_CLAUSE(298, "DefaultClause"),
+    HERITAGE_CLAUSE(299, "HeritageClause"),
+    CATCH_CLAUSE(300, "CatchClause"),
+    IMPORT_ATTRIBUTES(301, "ImportAttributes"),
+    IMPORT_ATTRIBUTE(302, "ImportAttribute"),
+    PROPERTY_ASSIGNMENT(304, "PropertyAssignment"),
+    SHORTHAND_PROPERTY_ASSIGNMENT(305, "ShorthandPropertyAssignment"),
+    SPREAD_ASSIGNMENT(306, "SpreadAssignment"),
+    ENUM_MEMBER(307, "EnumMember"),
+    SOURCE_FILE(308, "SourceFile"),
+    BUNDLE(309, "Bundle"),
+    JS_DOC_TYPE_EXPRESSION(310, "JSDocTypeExpression", "FirstJSDocNode"),
+    JS_DOC_NAME_REFERENCE(311, "JSDocNameReference"),
+    JS_DOC_MEMBER_NAME(312, "JSDocMemberName"),
+    JS_DOC_ALL_TYPE(313, "JSDocAllType"),
+    JS_DOC_UNKNOWN_TYPE(314, "JSDocUnknownType"),
+    JS_DOC_NULLABLE_TYPE(315, "JSDocNullableType"),
+    JS_DOC_NON_NULLABLE_TYPE(316, "JSDocNonNullableType"),
+    JS_DOC_OPTIONAL_TYPE(317, "JSDocOptionalType"),
+    JS_DOC_FUNCTION_TYPE(318, "JSDocFunctionType"),
+    JS_DOC_VARIADIC_TYPE(319, "JSDocVariadicType"),
+    JS_DOC_NAMEPATH_TYPE(320, "JSDocNamepathType"),
+    JS_DOC(321, "JSDoc", "JSDocComment"),
+    JS_DOC_TEXT(322, "JSDocText"),
+    JS_DOC_TYPE_LITERAL(323, "JSDocTypeLiteral"),
+    JS_DOC_SIGNATURE(324, "JSDocSignature"),
+    JS_DOC_LINK(325, "JSDocLink"),
+    JS_DOC_LINK_CODE(326, "JSDocLinkCode"),
+    JS_DOC_LINK_PLAIN(327, "JSDocLinkPlain"),
+    JS_DOC_TAG(328, "JSDocTag", "FirstJSDocTagNode"),
+    JS_DOC_AUGMENTS_TAG(329, "JSDocAugmentsTag"),
+    JS_DOC_IMPLEMENTS_TAG(330, "JSDocImplementsTag"),
+    JS_DOC_AUTHOR_TAG(331, "JSDocAuthorTag"),
+    JS_DOC_DEPRECATED_TAG(332, "JSDocDeprecatedTag"),
+    JS_DOC_CLASS_TAG(333, "JSDocClassTag"),
+    JS_DOC_PUBLIC_TAG(334, "JSDocPublicTag"),
+    JS_DOC_PRIVATE_TAG(335, "JSDocPrivateTag"),
+    JS_DOC_PROTECTED_TAG(336, "JSDocProtectedTag"),
+    JS_DOC_READONLY_TAG(337, "JSDocReadonlyTag"),
+    JS_DOC_OVERRIDE_TAG(338, "JSDocOverrideTag"),
+    JS_DOC_CALLBACK_TAG(339, "JSDocCallbackTag"),
+    JS_DOC_OVERLOAD_TAG(340, "JSDocOverloadTag"),
+    JS_DOC_ENUM_TAG(341, "JSDocEnumTag"),
+    JS_DOC_PARAMETER_TAG(342, "JSDocParameterTag"),
+    JS_DOC_RETURN_TAG(343, "JSDocReturnTag"),
+    JS_DOC_THIS_TAG(344, "JSDocThisTag"),
+    JS_DOC_TYPE_TAG(345, "JSDocTypeTag"),
+    JS_DOC_TEMPLATE_TAG(346, "JSDocTemplateTag"),
+    JS_DOC_TYPEDEF_TAG(347, "JSDocTypedefTag"),
+    JS_DOC_SEE_TAG(348, "JSDocSeeTag"),
+    JS_DOC_PROPERTY_TAG(349, "JSDocPropertyTag"),
+    JS_DOC_THROWS_TAG(350, "JSDocThrowsTag"),
+    JS_DOC_SATISFIES_TAG(351, "JSDocSatisfiesTag"),
+    JS_DOC_IMPORT_TAG(352, "JSDocImportTag", "LastJSDocTagNode"),
+    SYNTAX_LIST(353, "SyntaxList"),
+    NOT_EMITTED_STATEMENT(354, "NotEmittedStatement"),
+    NOT_EMITTED_TYPE_ELEMENT(355, "NotEmittedTypeElement"),
+    PARTIALLY_EMITTED_EXPRESSION(356, "PartiallyEmittedExpression"),
+    COMMA_LIST_EXPRESSION(357, "CommaListExpression"),
+    SYNTHETIC_REFERENCE_EXPRESSION(358, "SyntheticReferenceExpression");
+
+    /** TypeScript version the kind ids belong to. */
+    public static final String TYPESCRIPT_VERSION = "5.9.3";
+
+    private static final SyntaxKind[] BY_ID;
+    private static final Map<String, SyntaxKind> BY_NAME = new HashMap<>();
+
+    static {
+        SyntaxKind[] kinds = values();
+        BY_ID = new SyntaxKind[kinds[kinds.length - 1].id + 1];
+        for (SyntaxKind kind : kinds) {
+            BY_ID[kind.id] = kind;
+            BY_NAME.put(kind.typeScriptName, kind);
+            BY_NAME.put(kind.kindName, kind);
+        }
+    }
+
+    private final int id;
+    private final String typeScriptName;
+    private final String kindName;
+
+    SyntaxKind(int id, String typeScriptName) {
+        this(id, typeScriptName, typeScriptName);
+    }
+
+    SyntaxKind(int id, String typeScriptName, String kindName) {
+        this.id = id;
+        this.typeScriptName = typeScriptName;
+        this.kindName = kindName;
+    }
+
+    /**
+     * Gets the numeric kind id, as sent by the parser script in {@code kind}.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Gets the name of the kind in TypeScript's {@code SyntaxKind}.
+     */
+    public String getTypeScriptName() {
+        return typeScriptName;
+    }
+
+    /**
+     * Gets the kind name, as sent by the parser script in {@code kindName}.
+     */
+    public String getKindName() {
+        return kindName;
+    }
+
+    /**
+     * Gets the kind with the given id.
+     *
+     * @param id the kind id
+     * @return the kind, or null if the id is unknown
+     */
+    public static SyntaxKind fromId(int id) {
+        return id >= 0 && id < BY_ID.length ? BY_ID[id] : null;
+    }
+
+    /**
+     * Gets the kind with the given kind name or TypeScript name.
+     *
+     * @param kindName the kind name or TypeScript name
+     * @return the kind, or null if the name is unknown
+     */
+    public static SyntaxKind fromKindName(String kindName) {
+        return kindName != null ? BY_NAME.get(kindName) : null;
+    }
+}
@@ -1,33 +1,35 @@
 package com.ets2jsc.infrastructure.parser;
 
-import com.ets2jsc.domain.model.ast.AstNode;
-import com.ets2jsc.domain.model.ast.Decorator;
-import com.ets2jsc.domain.model.ast.ExpressionStatement;
 import com.ets2jsc.domain.model.ast.SourceFile;
+import com.ets2jsc.domain.model.compilation.ConversionCacheStats;
+import com.ets2jsc.domain.model.config.CompilerConfig;
 import com.ets2jsc.shared.exception.ParserException;
 import com.ets2jsc.shared.exception.ParserInitializationException;
+import com.ets2jsc.shared.exception.ParserUnavailableException;
+import com.ets2jsc.shared.process.SubprocessRunner;
+import com.ets2jsc.shared.util.ResourceIndex;
 
 import com.ets2jsc.infrastructure.parser.ConversionContext;
+import com.ets2jsc.infrastructure.parser.internal.IParserBackend;
+import com.ets2jsc.infrastructure.parser.internal.ITypeScriptParser;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
-import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
-import java.util.Enumeration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 /**
  * TypeScript/ETS parser using Node.js and TypeScript Compiler API.
@@ -37,89 +39,307 @@ import java.util.jar.JarFile;
  * - ConversionContext for shared state and utilities
  * - ExpressionConverterRegistry for expression conversion
  * - StatementConverterRegistry for statement conversion
+ * <p>
+ * Source files are parsed by a warm {@link ParserDaemon}, a
+ * {@link ParserWorkerPool} of them, or a {@link ParserThreadHost} running
+ * several parser threads in one process, that is reused across calls, or
+ * in-process by a {@link GraalJsParserBackend}. If the backend cannot be
+ * started, a one-shot parser process is run over stdin/stdout, and the
+ * temp-file based run is only used when the pipes fail as well. A backend
+ * that cannot be started at all is not tried again for the life of the parser.
+ * <p>
+ * ASTs are read as a token stream by a {@link StreamingAstReader}, so each
+ * top-level statement is converted and released before the next one is
+ * built and the whole JSON tree of a file is never held at once. Files with
+ * many top-level statements can have them converted in parallel, see
+ * {@link #setParallelConversionThreshold(int)}.
  */
-public class TypeScriptScriptParser {
+public class TypeScriptScriptParser implements ITypeScriptParser {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TypeScriptScriptParser.class);
 
-    // Constants for resource paths and protocols
-    private static final String PROTOCOL_FILE = "file";
-    private static final String RESOURCE_PATH_PREFIX = "typescript-parser/";
-    private static final String SCRIPT_RESOURCE_PATH = "typescript-parser/index.js";
-    private static final String TEMP_DIR_PREFIX = "typescript-parser-";
+    // Constants for temp file names
     private static final String TEMP_SOURCE_PREFIX = "ets-source-";
     private static final String TEMP_AST_PREFIX = "ets-ast-";
+    private static final int MAX_INCREMENTAL_FILES = 64;
+    private static final SubprocessRunner SUBPROCESS_RUNNER = SubprocessRunner.builder().build();
 
     private final String scriptPath;
     private final ObjectMapper objectMapper;
-    private final ConversionContext conversionContext;
+    private final AstJsonConverter astConverter;
+    private final StreamingAstReader astReader;
+    private final IParserBackend backend;
+    private volatile boolean backendUnavailable;
+    private final Map<String, Map<String, JsonNode>> incrementalStatements;
+    private final AtomicLong reusedStatements;
 
+    /**
+     * Creates a parser backed by a single warm parser daemon.
+     */
     public TypeScriptScriptParser() {
+        this(CompilerConfig.AstFormat.JSON);
+    }
+
+    /**
+     * Creates a parser backed by a single warm parser daemon
+     * that sends ASTs in the given wire format.
+     *
+     * @param astFormat the AST wire format
+     */
+    public TypeScriptScriptParser(CompilerConfig.AstFormat astFormat) {
+        this(astFormat, CompilerConfig.AstEmission.FULL);
+    }
+
+    /**
+     * Creates a parser backed by a single warm parser daemon
+     * that sends ASTs in the given wire format and emission mode.
+     *
+     * @param astFormat the AST wire format
+     * @param astEmission the AST emission mode
+     */
+    public TypeScriptScriptParser(CompilerConfig.AstFormat astFormat, CompilerConfig.AstEmission astEmission) {
+        this(scriptPath -> new ParserDaemon(
+                new ProcessExecutor(scriptPath, astFormat, astEmission), new ObjectMapper()));
+    }
+
+    /**
+     * Creates a parser backed by a pool of warm parser daemons,
+     * for callers that parse from several threads at once.
+     *
+     * @param poolConfig the worker pool configuration
+     */
+    public TypeScriptScriptParser(ParserPoolConfig poolConfig) {
+        this(poolConfig, CompilerConfig.AstFormat.JSON);
+    }
+
+    /**
+     * Creates a parser backed by a pool of warm parser daemons
+     * that send ASTs in the given wire format.
+     *
+     * @param poolConfig the worker pool configuration
+     * @param astFormat the AST wire format
+     */
+    public TypeScriptScriptParser(ParserPoolConfig poolConfig, CompilerConfig.AstFormat astFormat) {
+        this(poolConfig, astFormat, CompilerConfig.AstEmission.FULL);
+    }
+
+    /**
+     * Creates a parser backed by a pool of warm parser daemons
+     * that send ASTs in the given wire format and emission mode.
+     *
+     * @param poolConfig the worker pool configuration
+     * @param astFormat the AST wire format
+     * @param astEmission the AST emission mode
+     */
+    public TypeScriptScriptParser(ParserPoolConfig poolConfig, CompilerConfig.AstFormat astFormat,
+                                  CompilerConfig.AstEmission astEmission) {
+        this(scriptPath -> new ParserWorkerPool(
+                new ProcessExecutor(scriptPath, astFormat, astEmission, poolConfig.getMaxOldSpaceMb()), poolConfig));
+    }
+
+    /**
+     * Creates a parser on a custom backend.
+     *
+     * @param backendFactory creates the backend for the resolved parser script path
+     */
+    TypeScriptScriptParser(Function<String, IParserBackend> backendFactory) {
         this.objectMapper = new ObjectMapper();
-        this.conversionContext = new ConversionContext(objectMapper);
+        this.astConverter = new AstJsonConverter(objectMapper);
+        this.astReader = new StreamingAstReader(objectMapper);
+        this.scriptPath = ParserRuntimeInstaller.defaultScriptPath();
+        this.backend = backendFactory.apply(scriptPath);
+        this.incrementalStatements = Collections.synchronizedMap(
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, Map<String, JsonNode>> eldest) {
+                        return size() > MAX_INCREMENTAL_FILES;
+                    }
+                });
+        this.reusedStatements = new AtomicLong();
+    }
 
-        // Try to use the classpath location directly (where node_modules is also available)
-        URL scriptUrl = getClass().getClassLoader().getResource(SCRIPT_RESOURCE_PATH);
+    /**
+     * Creates a parser backed by one Node.js process that parses on several
+     * worker threads, for callers that parse from several threads at once
+     * but cannot afford a parser process per thread.
+     *
+     * @param threads the maximum number of files parsed at the same time
+     * @param astFormat the AST wire format
+     * @param astEmission the AST emission mode
+     * @return a new thread host parser
+     */
+    public static TypeScriptScriptParser threadHost(int threads, CompilerConfig.AstFormat astFormat,
+                                                    CompilerConfig.AstEmission astEmission) {
+        return new TypeScriptScriptParser(scriptPath -> new ParserThreadHost(
+                new ProcessExecutor(scriptPath, astFormat, astEmission), new ObjectMapper(), threads));
+    }
 
-        if (scriptUrl != null && PROTOCOL_FILE.equals(scriptUrl.getProtocol())) {
-            // Running from classpath on filesystem (e.g., target/classes)
-            this.scriptPath = new File(scriptUrl.getFile()).getAbsolutePath();
-        } else {
-            // Running from JAR - extract entire typescript-parser directory to temp
+    /**
+     * Creates a parser that runs the parser script in-process on GraalJS,
+     * so no {@code node} installation is needed. If the JavaScript engine
+     * cannot be started, the parser falls back to a warm parser daemon.
+     *
+     * @param maxContexts the maximum number of files parsed at the same time
+     * @return a new in-process parser
+     */
+    public static TypeScriptScriptParser inProcess(int maxContexts) {
+        return new TypeScriptScriptParser(scriptPath -> {
             try {
-                Path tempDir = Files.createTempDirectory(TEMP_DIR_PREFIX);
-                tempDir.toFile().deleteOnExit();
+                return new GraalJsParserBackend(scriptPath, maxContexts);
+            } catch (ParserInitializationException e) {
+                LOGGER.warn("GraalJS parser backend unavailable, using Node.js: {}", e.getMessage());
+                return new ParserDaemon(new ProcessExecutor(scriptPath), new ObjectMapper());
+            }
+        });
+    }
 
-                // Extract all resources from typescript-parser directory
-                extractResourceDirectory(RESOURCE_PATH_PREFIX, tempDir);
+    /**
+     * Parse ETS/TypeScript source file into a SourceFile AST node.
+     */
+    @Override
+    public SourceFile parse(String fileName, String sourceCode) {
+        if (backendUnavailable) {
+            return parseOneShot(fileName, sourceCode);
+        }
+        JsonParser astStream;
+        try {
+            astStream = backend.parseToStream(fileName, sourceCode);
+        } catch (ParserInitializationException e) {
+            onBackendFailure(e);
+            return parseOneShot(fileName, sourceCode);
+        } catch (ParserException e) {
+            throw new ParserException("Failed to parse TypeScript file: " + fileName, e);
+        }
+        return convertStreamToAst(fileName, sourceCode, astStream);
+    }
 
-                this.scriptPath = tempDir.resolve("index.js").toAbsolutePath().toString();
-            } catch (Exception e) {
-                throw new ParserInitializationException("Failed to initialize TypeScript parser script", e);
+    /**
+     * Parse a file incrementally against the previous parse of the same file name.
+     * <p>
+     * The parser process reparses only the edited region and sends full ASTs
+     * for changed top-level statements; unchanged statements arrive as ids and
+     * are spliced in from the statement ASTs kept from the previous parse. The
+     * kept ASTs are converted again rather than reusing domain nodes, because
+     * transformers modify the nodes of a parsed SourceFile in place. If an id
+     * is unknown, for example because a different pooled worker answered, the
+     * file is requested again with every statement converted.
+     */
+    @Override
+    public SourceFile parseIncremental(String fileName, String sourceCode) {
+        if (backendUnavailable) {
+            return parseOneShot(fileName, sourceCode);
+        }
+        Map<String, JsonNode> previous = incrementalStatements.getOrDefault(fileName, Map.of());
+        JsonNode astJson;
+        try {
+            astJson = backend.parseIncrementalToJson(fileName, sourceCode, false);
+            if (!canSplice(astJson, previous)) {
+                astJson = backend.parseIncrementalToJson(fileName, sourceCode, true);
             }
+        } catch (ParserInitializationException e) {
+            onBackendFailure(e);
+            incrementalStatements.remove(fileName);
+            return parseOneShot(fileName, sourceCode);
+        } catch (ParserException e) {
+            throw new ParserException("Failed to parse TypeScript file: " + fileName, e);
         }
+        return spliceIncrementalAst(fileName, sourceCode, astJson, previous);
     }
 
     /**
-     * Extract all files from a resource directory in the JAR to a temp directory.
+     * Gets the number of statements taken from a previous parse by {@link #parseIncremental}.
+     *
+     * @return the reused statement count
      */
-    private void extractResourceDirectory(String resourcePath, Path targetDir) throws Exception {
-        // Get the path to the JAR file
-        String jarPath = getClass().getProtectionDomain().getCodeSource().getLocation().toURI().getPath();
+    public long getReusedStatementCount() {
+        return reusedStatements.get();
+    }
 
-        // Handle Windows paths with spaces
-        if (jarPath.startsWith("/") && jarPath.contains(":")) {
-            jarPath = jarPath.substring(1);
-        }
+    /**
+     * Gets the number of method and constructor bodies converted lazily that
+     * no transformer has materialized, so they are converted only to be rendered.
+     *
+     * @return the unmaterialized body count
+     */
+    public long getUnmaterializedBodyCount() {
+        return astConverter.getUnmaterializedBodyCount();
+    }
 
-        try (JarFile jarFile = new JarFile(jarPath)) {
-            Enumeration<JarEntry> entries = jarFile.entries();
+    @Override
+    public ConversionCacheStats getConversionCacheStats() {
+        return astConverter.getConversionCacheStats();
+    }
 
-            while (entries.hasMoreElements()) {
-                JarEntry entry = entries.nextElement();
-                String entryName = entry.getName();
+    @Override
+    public void setResourceIndex(ResourceIndex index) {
+        astConverter.setResourceIndex(index);
+    }
 
-                if (entryName.startsWith(resourcePath)) {
-                    String relativePath = entryName.substring(resourcePath.length());
-                    Path targetPath = targetDir.resolve(relativePath.replace('/', File.separatorChar));
+    /**
+     * Sets the number of top-level statements from which the statements of a
+     * file are converted in parallel on the common fork-join pool, for large
+     * generated modules. Statements keep their source order.
+     *
+     * @param threshold the statement count, or 0 to convert on the calling thread
+     */
+    public void setParallelConversionThreshold(int threshold) {
+        astConverter.setParallelThreshold(threshold);
+    }
 
-                    if (entry.isDirectory()) {
-                        Files.createDirectories(targetPath);
-                    } else {
-                        Files.createDirectories(targetPath.getParent());
-                        try (InputStream is = jarFile.getInputStream(entry)) {
-                            Files.copy(is, targetPath, StandardCopyOption.REPLACE_EXISTING);
-                        }
-                    }
-                }
-            }
+    /**
+     * Stops the parser backend and its processes.
+     */
+    @Override
+    public void close() {
+        backend.close();
+    }
+
+    /**
+     * Handles a backend that could not be (re)started. A backend that cannot
+     * be started at all is not used again: each further attempt would pay for
+     * the failed start before the one-shot fallback runs.
+     */
+    private void onBackendFailure(ParserInitializationException e) {
+        if (!(e instanceof ParserUnavailableException)) {
+            LOGGER.warn("Parser backend unavailable, falling back to one-shot parse: {}", e.getMessage());
+        } else if (!backendUnavailable) {
+            backendUnavailable = true;
+            LOGGER.warn("Parser backend cannot be started, using one-shot parses from now on: {}", e.getMessage());
         }
     }
 
     /**
-     * Parse ETS/TypeScript source file into a SourceFile AST node.
+     * Checks whether the backend failed to start and parses run one-shot processes.
+     *
+     * @return true if the backend is no longer used
      */
-    public SourceFile parse(String fileName, String sourceCode) {
+    public boolean isBackendUnavailable() {
+        return backendUnavailable;
+    }
+
+    /**
+     * Parse with a one-shot parser process over stdin/stdout, falling back
+     * to exchanging temp files if the pipes cannot be used.
+     */
+    private SourceFile parseOneShot(String fileName, String sourceCode) {
+        JsonParser astStream;
+        try {
+            ProcessExecutor.ProcessResult result = new ProcessExecutor(scriptPath).executePiped(fileName, sourceCode);
+            astStream = objectMapper.getFactory().createParser(result.getOutput());
+        } catch (IOException | SecurityException e) {
+            LOGGER.warn("Piped parse failed, falling back to temp files: {}", e.getMessage());
+            return parseWithTempFiles(fileName, sourceCode);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ParserException("Interrupted while parsing TypeScript file: " + fileName, e);
+        }
+        return convertStreamToAst(fileName, sourceCode, astStream);
+    }
+
+    /**
+     * Parse by spawning a one-shot parser process that exchanges temp files.
+     */
+    private SourceFile parseWithTempFiles(String fileName, String sourceCode) {
         try {
             // Create temporary file for source code
             Path tempSourceFile = Files.createTempFile(TEMP_SOURCE_PREFIX, ".ets");
@@ -130,10 +350,11 @@ public class TypeScriptScriptParser {
 
             try {
                 // Run Node.js TypeScript parser
-                JsonNode astJson = runTypeScriptParser(tempSourceFile, tempAstFile);
+                runTypeScriptParser(tempSourceFile, tempAstFile);
 
-                // Convert JSON to AST
-                return convertJsonToAst(fileName, sourceCode, astJson);
+                // Convert JSON to AST, streaming it from the output file
+                return convertStreamToAst(fileName, sourceCode,
+                        objectMapper.getFactory().createParser(tempAstFile.toFile()));
 
             } finally {
                 // Clean up temp files
@@ -148,10 +369,9 @@ public class TypeScriptScriptParser {
 
     /**
      * Run the Node.js TypeScript parser script.
-     * Uses try-with-resources for automatic resource management.
-     * CC: 4 (null check + exit code check + try-with-resources + process cleanup)
+     * The process is bounded by the deadline of the token bound to this thread.
      */
-    private JsonNode runTypeScriptParser(Path sourceFile, Path outputFile) throws Exception {
+    private void runTypeScriptParser(Path sourceFile, Path outputFile) throws Exception {
         List<String> command = new ArrayList<>();
         command.add("node");
         command.add(scriptPath);
@@ -161,28 +381,13 @@ public class TypeScriptScriptParser {
         ProcessBuilder pb = new ProcessBuilder(command);
         pb.redirectErrorStream(true);
 
-        Process process = pb.start();
-
-        // Use try-with-resources for automatic BufferedReader closure
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), java.nio.charset.StandardCharsets.UTF_8))) {
-            StringBuilder errorOutput = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                errorOutput.append(line).append("\n");
-            }
-
-            int exitCode = process.waitFor();
-
-            if (exitCode != 0) {
-                throw new ParserException("TypeScript parser failed:\n" + errorOutput.toString());
-            }
-
-            // Read and parse JSON output
-            String jsonContent = Files.readString(outputFile);
-            return objectMapper.readTree(jsonContent);
-        } finally {
-            // Ensure the process is destroyed to prevent resource leaks
-            process.destroyForcibly();
+        SubprocessRunner.Result result = SUBPROCESS_RUNNER.run(pb, null);
+        if (result.isTimedOut()) {
+            throw new ParserException("TypeScript parser timed out after " + result.getElapsedMillis()
+                    + " ms:\n" + result.getStdout());
+        }
+        if (result.getExitCode() != 0) {
+            throw new ParserException("TypeScript parser failed:\n" + result.getStdout());
         }
     }
 
@@ -190,99 +395,86 @@ public class TypeScriptScriptParser {
      * Convert JSON AST to our AST model.
      */
     private SourceFile convertJsonToAst(String fileName, String sourceCode, JsonNode astJson) {
-        SourceFile sourceFile = new SourceFile(fileName, sourceCode);
+        return astConverter.convert(fileName, sourceCode, astJson);
+    }
 
+    /**
+     * Checks that every statement left out of an incremental AST is known from the previous parse.
+     */
+    private boolean canSplice(JsonNode astJson, Map<String, JsonNode> previous) {
+        JsonNode ids = astJson.get("statementIds");
         JsonNode statements = astJson.get("statements");
-        if (statements != null && statements.isArray()) {
-            ArrayNode statementsArray = (ArrayNode) statements;
-            for (JsonNode stmtElement : statementsArray) {
-                AstNode node = convertJsonNode(stmtElement);
-                if (node != null) {
-                    sourceFile.addStatement(node);
-                }
+        if (ids == null || statements == null) {
+            return true;
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            JsonNode statement = statements.get(i);
+            if ((statement == null || statement.isNull()) && !previous.containsKey(ids.get(i).asText())) {
+                return false;
             }
         }
-
-        return sourceFile;
+        return true;
     }
 
     /**
-     * Convert JSON node to AST node using the new converter architecture.
-     * CC: 2 (switch + try-catch)
+     * Convert an incremental JSON AST to our AST model, taking unchanged
+     * statements from the previous parse and keeping this parse's statements
+     * for the next one.
      */
-    private AstNode convertJsonNode(JsonNode json) {
-        // Guard Clause: validate kindName exists
-        JsonNode kindNameNode = json.get("kindName");
-        if (kindNameNode == null || kindNameNode.isNull()) {
-            throw new ParserException("JSON node missing required 'kindName' field");
-        }
-        String kindName = kindNameNode.asText();
-
-        // Special cases that don't go through converters
-        switch (kindName) {
-            case "SourceFile":
-                return convertSourceFile(json);
-            case "Decorator":
-                return convertDecorator(json);
-            case "BreakStatement":
-                return new ExpressionStatement("break;");
-            case "ContinueStatement":
-                return new ExpressionStatement("continue;");
-            case "EmptyStatement":
-                // Empty statement - just a semicolon
-                return new ExpressionStatement(";");
-            case "InterfaceDeclaration":
-                // Interface declarations don't generate runtime code
-                return null;
-            case "StringLiteral":
-            case "NumericLiteral":
-            case "TrueLiteral":
-            case "FalseLiteral":
-            case "NullLiteral":
-            case "UndefinedLiteral":
-            case "ThisKeyword":
-            case "SuperKeyword":
-                // These are expression literals - convert to expression statement
-                return new ExpressionStatement(convertExpressionToString(json));
-            default:
-                // Use the new converter architecture for all other cases
-                return conversionContext.convertStatement(json);
+    private SourceFile spliceIncrementalAst(String fileName, String sourceCode, JsonNode astJson,
+                                            Map<String, JsonNode> previous) {
+        JsonNode ids = astJson.get("statementIds");
+        if (ids == null || !ids.isArray()) {
+            // The backend parsed the whole file
+            incrementalStatements.remove(fileName);
+            return convertJsonToAst(fileName, sourceCode, astJson);
         }
-    }
 
-    private SourceFile convertSourceFile(JsonNode json) {
-        return new SourceFile(json.get("fileName").asText());
-    }
-
-    private Decorator convertDecorator(JsonNode json) {
-        String name = json.get("name").asText();
-        return new Decorator(name);
-    }
+        SourceFile sourceFile = new SourceFile(fileName, sourceCode);
+        ConversionContext fileContext = astConverter.forSource(fileName, sourceCode,
+                AstJsonConverter.hasBundledKindIds(astJson));
+        AstJsonConverter.StatementConversion conversion = astConverter.startStatements(sourceFile, fileContext);
+        Map<String, JsonNode> current = new HashMap<>();
+        JsonNode statements = astJson.path("statements");
+        int reused = 0;
+        for (int i = 0; i < ids.size(); i++) {
+            String id = ids.get(i).asText();
+            JsonNode statement = statements.get(i);
+            if (statement == null || statement.isNull()) {
+                statement = previous.get(id);
+                if (statement == null) {
+                    throw new ParserException("Incremental AST of " + fileName + " refers to unknown statement " + id);
+                }
+                reused++;
+            }
+            current.put(id, statement);
+            conversion.add(statement);
+        }
+        conversion.finish();
 
-    /**
-     * Safely gets the kindName from a JSON object.
-     * Returns empty string if kindName is not present.
-     */
-    private String getKindName(JsonNode json) {
-        return json.has("kindName") ? json.get("kindName").asText() : "";
+        incrementalStatements.put(fileName, current);
+        reusedStatements.addAndGet(reused);
+        LOGGER.debug("Incremental parse of {} reused {} of {} statements", fileName, reused, ids.size());
+        return sourceFile;
     }
 
     /**
-     * Converts a JSON expression to a JavaScript string representation.
-     * Now delegates to the new converter architecture.
+     * Convert a streamed JSON AST to our AST model, one statement at a time.
+     * The file context is created once the root kind has been read, so the
+     * kind ids of the parser script are checked as for a tree.
+     * The stream is closed once the AST has been read.
      */
-    private String convertExpressionToString(JsonNode exprJson) {
-        // Use the new converter architecture
-        try {
-            return conversionContext.convertExpression(exprJson);
-        } catch (Exception e) {
-            // Fallback: return the text if available
-            String fallbackText = exprJson.has("text") ? exprJson.get("text").asText() : "";
-            if (!fallbackText.isEmpty()) {
-                return fallbackText.trim();
-            }
-            // Last resort: return the JSON as string
-            return exprJson.toString();
+    private SourceFile convertStreamToAst(String fileName, String sourceCode, JsonParser astStream) {
+        SourceFile sourceFile = new SourceFile(fileName, sourceCode);
+        AtomicReference<AstJsonConverter.StatementConversion> conversion = new AtomicReference<>();
+        try (astStream) {
+            astReader.readStatements(astStream,
+                    rootKind -> conversion.set(astConverter.startStatements(sourceFile, astConverter.forSource(
+                            fileName, sourceCode, AstJsonConverter.hasBundledKindIds(rootKind)))),
+                    statement -> conversion.get().add(statement));
+        } catch (IOException e) {
+            throw new ParserException("Failed to read AST of TypeScript file: " + fileName, e);
         }
+        return conversion.get().finish();
     }
 }
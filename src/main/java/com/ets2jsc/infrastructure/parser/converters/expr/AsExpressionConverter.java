@@ -2,6 +2,7 @@ package com.ets2jsc.infrastructure.parser.converters.expr;
 
 import com.ets2jsc.infrastructure.parser.ConversionContext;
 import com.ets2jsc.infrastructure.parser.NodeConverter;
+import com.ets2jsc.infrastructure.parser.SyntaxKind;
 import com.fasterxml.jackson.databind.JsonNode;
 
 /**
@@ -19,10 +20,8 @@ public class AsExpressionConverter implements NodeConverter {
 
     @Override
     public Object convert(JsonNode json, ConversionContext context) {
-        String kindName = json.has("kindName") ? json.get("kindName").asText() : "";
-
         // Non-null assertion ! has no runtime effect
-        if ("NonNullExpression".equals(kindName)) {
+        if (context.isKind(json, SyntaxKind.NON_NULL_EXPRESSION)) {
             JsonNode exprNode = json.get("expression");
             return (exprNode != null && exprNode.isObject()) ? context.convertExpression(exprNode) : "";
         }
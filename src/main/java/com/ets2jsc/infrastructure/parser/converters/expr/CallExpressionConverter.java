@@ -2,6 +2,7 @@ package com.ets2jsc.infrastructure.parser.converters.expr;
 
 import com.ets2jsc.shared.constant.RuntimeFunctions;
 import com.ets2jsc.shared.constant.Symbols;
+import com.ets2jsc.shared.util.ResourceIndex;
 import com.ets2jsc.infrastructure.parser.ConversionContext;
 import com.ets2jsc.infrastructure.parser.NodeConverter;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -13,12 +14,20 @@ import java.util.List;
 /**
  * Converter for call expressions.
  * Handles: functionCall(), methodCall(), import('module'), $r(), $rawfile()
+ * <p>
+ * Application resources of {@code $r()} are checked against the
+ * {@link ResourceIndex} of the build, and references to resources the
+ * project does not have are reported. The id of a resource is only emitted
+ * when the resource compiler assigned it; otherwise the runtime looks the
+ * resource up by name.
  */
 public class CallExpressionConverter implements NodeConverter {
 
     private static final String IMPORT_KEYWORD = "import";
     private static final String RESOURCE_REF_EXPRESSION = "ResourceReferenceExpression";
     private static final String CALL_EXPRESSION = "CallExpression";
+    private static final String APP_MODULE = "app";
+    private static final String UNRESOLVED_ID = "undefined";
 
     @Override
     public boolean canConvert(String kindName) {
@@ -30,7 +39,7 @@ public class CallExpressionConverter implements NodeConverter {
         String kindName = getKindName(json);
 
         if (RESOURCE_REF_EXPRESSION.equals(kindName)) {
-            return convertResourceReference(json);
+            return convertResourceReference(json, context.getResourceIndex());
         }
 
         return convertCallExpression(json, context);
@@ -49,13 +58,31 @@ public class CallExpressionConverter implements NodeConverter {
         String base = context.convertExpression(expressionNode);
 
         // Check for dynamic import pattern: import('module')
-        if (IMPORT_KEYWORD.equals(base)) {
+        if (isDynamicImport(base)) {
             return convertDynamicImport(json);
         }
 
         // Regular function/method call
-        String args = convertArguments(json, context);
-        return base + "(" + args + ")";
+        return render(base, convertArguments(json, context));
+    }
+
+    /**
+     * Renders a call from its converted callee and arguments.
+     *
+     * @param callee the converted callee
+     * @param arguments the converted arguments
+     * @return the converted code string
+     */
+    public static String render(String callee, List<String> arguments) {
+        return callee + "(" + String.join(", ", arguments) + ")";
+    }
+
+    /**
+     * Checks if a converted callee is a dynamic import, whose call is
+     * rendered from the source text of its module argument.
+     */
+    public static boolean isDynamicImport(String callee) {
+        return IMPORT_KEYWORD.equals(callee);
     }
 
     /**
@@ -78,13 +105,13 @@ public class CallExpressionConverter implements NodeConverter {
     }
 
     /**
-     * Converts all arguments to a comma-separated string.
+     * Converts all arguments.
      * CC: 3 (null check + loop + ternary)
      */
-    private String convertArguments(JsonNode json, ConversionContext context) {
+    private List<String> convertArguments(JsonNode json, ConversionContext context) {
         JsonNode argsArrayNode = json.get("arguments");
         if (argsArrayNode == null || !argsArrayNode.isArray()) {
-            return "";
+            return List.of();
         }
 
         ArrayNode argsArray = (ArrayNode) argsArrayNode;
@@ -94,7 +121,7 @@ public class CallExpressionConverter implements NodeConverter {
             argStrings.add(arg != null ? arg.trim() : "");
         }
 
-        return String.join(", ", argStrings);
+        return argStrings;
     }
 
     /**
@@ -140,16 +167,16 @@ public class CallExpressionConverter implements NodeConverter {
      * Convert resource reference call ($r or $rawfile) to runtime function call.
      * CC: 3 (if-else for type check)
      */
-    private String convertResourceReference(JsonNode json) {
+    private String convertResourceReference(JsonNode json, ResourceIndex index) {
         String resourceRefType = json.has("resourceRefType") ? json.get("resourceRefType").asText() : "";
         JsonNode argsArrayNode = json.get("arguments");
 
         if ("rawfile".equals(resourceRefType)) {
-            return convertRawfileReference(argsArrayNode);
+            return convertRawfileReference(argsArrayNode, index);
         }
 
         if ("r".equals(resourceRefType)) {
-            return convertRResourceReference(argsArrayNode);
+            return convertRResourceReference(argsArrayNode, index);
         }
 
         return "";
@@ -157,12 +184,15 @@ public class CallExpressionConverter implements NodeConverter {
 
     /**
      * Converts $rawfile() reference.
-     * CC: 2 (null check)
+     * CC: 3 (null check + missing check)
      */
-    private String convertRawfileReference(JsonNode argsArrayNode) {
+    private String convertRawfileReference(JsonNode argsArrayNode, ResourceIndex index) {
         if (argsArrayNode != null && argsArrayNode.isArray() && argsArrayNode.size() > 0) {
             ArrayNode argsArray = (ArrayNode) argsArrayNode;
             String filename = extractAndCleanArgument(argsArray.get(0));
+            if (!index.isEmpty() && !index.hasRawFile(filename)) {
+                index.reportMissing("rawfile/" + filename);
+            }
             return RuntimeFunctions.GET_RAW_FILE_ID + "(\"" + filename + "\")";
         }
         return RuntimeFunctions.GET_RAW_FILE_ID + "(\"\")";
@@ -172,7 +202,7 @@ public class CallExpressionConverter implements NodeConverter {
      * Converts $r() resource reference.
      * CC: 3 (null check + parse check + else)
      */
-    private String convertRResourceReference(JsonNode argsArrayNode) {
+    private String convertRResourceReference(JsonNode argsArrayNode, ResourceIndex index) {
         if (argsArrayNode == null || !argsArrayNode.isArray()) {
             return RuntimeFunctions.GET_RESOURCE_ID + "(" + RuntimeFunctions.RESOURCE_TYPE_DEFAULT + ", undefined, \"\", \"\")";
         }
@@ -187,12 +217,30 @@ public class CallExpressionConverter implements NodeConverter {
 
         if (path.isValid()) {
             int typeId = ResourceTypeIdMapper.getTypeId(path.type);
-            return RuntimeFunctions.GET_RESOURCE_ID + "(" + typeId + ", undefined, \"" + path.module + "\", \"" + path.name + "\")";
+            String id = resolveResourceId(path, resourcePath, index);
+            return RuntimeFunctions.GET_RESOURCE_ID + "(" + typeId + ", " + id + ", \"" + path.module + "\", \"" + path.name + "\")";
         }
 
         return RuntimeFunctions.GET_RESOURCE_ID + "(" + RuntimeFunctions.RESOURCE_TYPE_DEFAULT + ", undefined, \"\", \"\")";
     }
 
+    /**
+     * Resolves the id of an application resource. Resources of other
+     * modules, such as system resources, are left to the runtime.
+     * CC: 4 (module check + empty check + missing check + id check)
+     */
+    private String resolveResourceId(ResourcePath path, String reference, ResourceIndex index) {
+        if (!APP_MODULE.equals(path.module) || index.isEmpty()) {
+            return UNRESOLVED_ID;
+        }
+        if (!index.hasResource(path.type, path.name)) {
+            index.reportMissing(reference);
+            return UNRESOLVED_ID;
+        }
+        int id = index.getResourceId(path.type, path.name);
+        return id >= 0 ? Integer.toString(id) : UNRESOLVED_ID;
+    }
+
     /**
      * Extracts and cleans argument string (removes quotes).
      * CC: 1
@@ -2,6 +2,7 @@ package com.ets2jsc.infrastructure.parser.converters.expr;
 
 import com.ets2jsc.infrastructure.parser.ConversionContext;
 import com.ets2jsc.infrastructure.parser.NodeConverter;
+import com.ets2jsc.infrastructure.parser.SyntaxKind;
 import com.fasterxml.jackson.databind.JsonNode;
 
 /**
@@ -18,19 +19,18 @@ public class IdentifierConverter implements NodeConverter {
 
     @Override
     public Object convert(JsonNode json, ConversionContext context) {
-        String kindName = json.has("kindName") ? json.get("kindName").asText() : "";
+        SyntaxKind kind = context.kindOf(json);
 
         // Handle special keywords
-        if ("SuperKeyword".equals(kindName)) {
+        if (kind == SyntaxKind.SUPER_KEYWORD) {
             return "super";
         }
-        if ("ImportKeyword".equals(kindName)) {
+        if (kind == SyntaxKind.IMPORT_KEYWORD) {
             return "import";
         }
 
-        // Handle regular identifiers
-        String text = json.has("text") ? json.get("text").asText() : "";
-        return text.trim();
+        // Handle regular identifiers; lean ASTs carry a position instead of the text
+        return context.intern(context.getText(json).trim());
     }
 
     @Override
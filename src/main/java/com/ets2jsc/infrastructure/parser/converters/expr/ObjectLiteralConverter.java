@@ -2,6 +2,7 @@ package com.ets2jsc.infrastructure.parser.converters.expr;
 
 import com.ets2jsc.infrastructure.parser.ConversionContext;
 import com.ets2jsc.infrastructure.parser.NodeConverter;
+import com.ets2jsc.infrastructure.parser.SyntaxKind;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 
@@ -24,13 +25,13 @@ public class ObjectLiteralConverter implements NodeConverter {
 
     @Override
     public Object convert(JsonNode json, ConversionContext context) {
-        String kindName = getKindName(json);
+        SyntaxKind kind = context.kindOf(json);
 
-        if (PROPERTY_ASSIGNMENT.equals(kindName)) {
+        if (kind == SyntaxKind.PROPERTY_ASSIGNMENT) {
             return convertPropertyAssignment(json, context);
         }
 
-        if (SHORTHAND_PROPERTY_ASSIGNMENT.equals(kindName)) {
+        if (kind == SyntaxKind.SHORTHAND_PROPERTY_ASSIGNMENT) {
             return convertShorthandProperty(json);
         }
 
@@ -89,15 +90,4 @@ public class ObjectLiteralConverter implements NodeConverter {
         sb.append("}");
         return sb.toString();
     }
-
-    /**
-     * Gets kind name safely.
-     * CC: 2 (null check + has check)
-     */
-    private String getKindName(JsonNode json) {
-        if (json == null || !json.has("kindName")) {
-            return "";
-        }
-        return json.get("kindName").asText();
-    }
 }
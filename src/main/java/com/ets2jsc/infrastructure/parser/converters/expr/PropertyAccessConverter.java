@@ -34,7 +34,17 @@ public class PropertyAccessConverter implements NodeConverter {
      */
     private String convertValidPropertyAccess(JsonNode json, ConversionContext context) {
         JsonNode expressionNode = json.get("expression");
-        String base = context.convertExpression(expressionNode);
+        return render(context.convertExpression(expressionNode), json);
+    }
+
+    /**
+     * Renders a property access from its converted base.
+     *
+     * @param base the converted base expression
+     * @param json the JSON node containing the property access
+     * @return the converted code string
+     */
+    public static String render(String base, JsonNode json) {
         String property = extractPropertyName(json);
         String dotOperator = determineDotOperator(json);
 
@@ -68,7 +78,7 @@ public class PropertyAccessConverter implements NodeConverter {
      * @param json the JSON node containing the property access
      * @return property name
      */
-    private String extractPropertyName(JsonNode json) {
+    private static String extractPropertyName(JsonNode json) {
         JsonNode nameNode = json.get("name");
         return (nameNode != null && nameNode.isTextual()) ? nameNode.asText().trim() : "";
     }
@@ -79,7 +89,7 @@ public class PropertyAccessConverter implements NodeConverter {
      * @param json the JSON node
      * @return true if optional chaining should be used
      */
-    private boolean hasQuestionDotToken(JsonNode json) {
+    private static boolean hasQuestionDotToken(JsonNode json) {
         if (json == null || !json.has("questionDotToken")) {
             return false;
         }
@@ -92,7 +102,7 @@ public class PropertyAccessConverter implements NodeConverter {
      * @param json the JSON node
      * @return "." if optional chaining, "?." otherwise
      */
-    private String determineDotOperator(JsonNode json) {
+    private static String determineDotOperator(JsonNode json) {
         return hasQuestionDotToken(json) ? "?." : ".";
     }
 
@@ -103,7 +113,7 @@ public class PropertyAccessConverter implements NodeConverter {
      * @param property the property name
      * @return the argument string
      */
-    private String buildArguments(JsonNode json, String property) {
+    private static String buildArguments(JsonNode json, String property) {
         JsonNode argsArrayNode = json.get("arguments");
         if (argsArrayNode == null || !argsArrayNode.isArray()) {
             return "";
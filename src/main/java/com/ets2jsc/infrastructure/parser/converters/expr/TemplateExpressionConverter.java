@@ -2,6 +2,7 @@ package com.ets2jsc.infrastructure.parser.converters.expr;
 
 import com.ets2jsc.infrastructure.parser.ConversionContext;
 import com.ets2jsc.infrastructure.parser.NodeConverter;
+import com.ets2jsc.infrastructure.parser.SyntaxKind;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 
@@ -22,9 +23,7 @@ public class TemplateExpressionConverter implements NodeConverter {
 
     @Override
     public Object convert(JsonNode json, ConversionContext context) {
-        String kindName = getKindName(json);
-
-        if (NO_SUBSTITUTION_TEMPLATE_LITERAL.equals(kindName)) {
+        if (context.isKind(json, SyntaxKind.NO_SUBSTITUTION_TEMPLATE_LITERAL)) {
             return convertNoSubstitutionTemplate(json, context);
         }
 
@@ -113,15 +112,4 @@ public class TemplateExpressionConverter implements NodeConverter {
         String litText = literal.has("text") ? literal.get("text").asText() : "";
         return context.escapeTemplateLiteral(litText);
     }
-
-    /**
-     * Gets kind name safely.
-     * CC: 2 (null check + has check)
-     */
-    private String getKindName(JsonNode json) {
-        if (json == null || !json.has("kindName")) {
-            return "";
-        }
-        return json.get("kindName").asText();
-    }
 }
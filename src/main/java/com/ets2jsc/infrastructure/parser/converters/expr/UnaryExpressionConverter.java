@@ -2,6 +2,7 @@ package com.ets2jsc.infrastructure.parser.converters.expr;
 
 import com.ets2jsc.infrastructure.parser.ConversionContext;
 import com.ets2jsc.infrastructure.parser.NodeConverter;
+import com.ets2jsc.infrastructure.parser.SyntaxKind;
 import com.fasterxml.jackson.databind.JsonNode;
 
 /**
@@ -18,12 +19,11 @@ public class UnaryExpressionConverter implements NodeConverter {
 
     @Override
     public Object convert(JsonNode json, ConversionContext context) {
-        String kindName = json.has("kindName") ? json.get("kindName").asText() : "";
         String operator = json.has("operator") ? json.get("operator").asText() : "";
         JsonNode operandNode = json.get("operand");
         String operandStr = (operandNode != null && operandNode.isObject()) ? context.convertExpression(operandNode) : "";
 
-        if ("PostfixUnaryExpression".equals(kindName)) {
+        if (context.isKind(json, SyntaxKind.POSTFIX_UNARY_EXPRESSION)) {
             return operandStr + operator;
         }
         return operator + operandStr;
@@ -8,6 +8,7 @@ import com.ets2jsc.domain.model.ast.ExpressionStatement;
 import com.ets2jsc.shared.constant.Symbols;
 import com.ets2jsc.infrastructure.parser.ConversionContext;
 import com.ets2jsc.infrastructure.parser.NodeConverter;
+import com.ets2jsc.infrastructure.parser.SyntaxKind;
 import com.ets2jsc.infrastructure.transformer.ComponentExpressionTransformer;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
@@ -77,13 +78,12 @@ public class BlockConverter implements NodeConverter {
             return 0;
         }
 
-        String stmtKindName = getKindName(stmtObj);
-        if (!"ExpressionStatement".equals(stmtKindName)) {
+        if (!context.isKind(stmtObj, SyntaxKind.EXPRESSION_STATEMENT)) {
             return 0;
         }
 
         // Extract component name from expression
-        String componentName = extractComponentName(stmtObj);
+        String componentName = extractComponentName(stmtObj, context);
         if (componentName == null) {
             return 0;
         }
@@ -95,7 +95,7 @@ public class BlockConverter implements NodeConverter {
 
         // Check if next is a Block
         JsonNode nextStmtObj = statementsArray.get(index + 1);
-        if (!"Block".equals(getKindName(nextStmtObj))) {
+        if (!context.isKind(nextStmtObj, SyntaxKind.BLOCK)) {
             return 0;
         }
 
@@ -108,14 +108,13 @@ public class BlockConverter implements NodeConverter {
      * Extracts component name from ExpressionStatement.
      * CC: 2 (null checks)
      */
-    private String extractComponentName(JsonNode stmtObj) {
+    private String extractComponentName(JsonNode stmtObj, ConversionContext context) {
         JsonNode exprObj = stmtObj.get("expression");
         if (exprObj == null || !exprObj.isObject()) {
             return null;
         }
 
-        String exprKindName = getKindName(exprObj);
-        if (!"CallExpression".equals(exprKindName)) {
+        if (!context.isKind(exprObj, SyntaxKind.CALL_EXPRESSION)) {
             return null;
         }
 
@@ -124,11 +123,11 @@ public class BlockConverter implements NodeConverter {
             return null;
         }
 
-        if (!"Identifier".equals(getKindName(idObj))) {
+        if (!context.isKind(idObj, SyntaxKind.IDENTIFIER)) {
             return null;
         }
 
-        return idObj.get("name").asText();
+        return context.intern(idObj.get("name").asText());
     }
 
     /**
@@ -167,19 +166,8 @@ public class BlockConverter implements NodeConverter {
      * @return an Optional containing ComponentStatement if transform succeeds, empty otherwise
      */
     private Optional<ComponentStatement> transformToComponentStatement(ExpressionStatement exprStmt) {
-        return ComponentExpressionTransformer.transform(exprStmt.getExpression())
+        return ComponentExpressionTransformer.transform(exprStmt.getExpressionNode())
                 .filter(node -> node instanceof ComponentStatement)
                 .map(node -> (ComponentStatement) node);
     }
-
-    /**
-     * Safely extracts kindName from JsonNode.
-     * CC: 1
-     */
-    private String getKindName(JsonNode obj) {
-        if (obj == null || !obj.has("kindName")) {
-            return "";
-        }
-        return obj.get("kindName").asText();
-    }
 }
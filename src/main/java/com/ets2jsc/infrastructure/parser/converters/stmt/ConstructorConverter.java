@@ -81,7 +81,7 @@ public class ConstructorConverter implements NodeConverter {
             return;
         }
 
-        AstNode body = context.convertStatement(bodyNode);
+        AstNode body = context.convertStatementLazily(bodyNode);
         constructorDecl.setBody(body);
     }
 }
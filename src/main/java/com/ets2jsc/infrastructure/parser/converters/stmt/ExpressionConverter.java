@@ -6,6 +6,7 @@ import com.ets2jsc.domain.model.ast.ExpressionStatement;
 import com.ets2jsc.domain.model.ast.ForeachStatement;
 import com.ets2jsc.infrastructure.parser.ConversionContext;
 import com.ets2jsc.infrastructure.parser.NodeConverter;
+import com.ets2jsc.infrastructure.parser.SyntaxKind;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 
@@ -23,18 +24,16 @@ public class ExpressionConverter implements NodeConverter {
     @Override
     public Object convert(JsonNode json, ConversionContext context) {
         JsonNode exprNode = json.get("expression");
-        String kindName = exprNode.has("kindName") ? exprNode.get("kindName").asText() : "";
 
         // Check for special components: ForEach
-        if ("CallExpression".equals(kindName)) {
+        if (context.isKind(exprNode, SyntaxKind.CALL_EXPRESSION)) {
             String componentName = exprNode.has("componentName") ? exprNode.get("componentName").asText() : "";
             if ("ForEach".equals(componentName)) {
                 return convertForEachExpression(exprNode, context);
             }
         }
 
-        String expression = context.convertExpression(exprNode);
-        return new ExpressionStatement(expression);
+        return ExpressionStatement.of(context.convertExpressionNode(exprNode));
     }
 
     private ForeachStatement convertForEachExpression(JsonNode json, ConversionContext context) {
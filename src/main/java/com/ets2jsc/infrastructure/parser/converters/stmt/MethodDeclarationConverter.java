@@ -122,7 +122,7 @@ public class MethodDeclarationConverter implements NodeConverter {
             return;
         }
 
-        AstNode body = context.convertStatement(bodyNode);
+        AstNode body = context.convertStatementLazily(bodyNode);
         methodDecl.setBody(body);
     }
 
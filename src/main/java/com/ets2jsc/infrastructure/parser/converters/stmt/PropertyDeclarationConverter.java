@@ -55,7 +55,7 @@ public class PropertyDeclarationConverter implements NodeConverter {
 
     /**
      * Sets initializer if present.
-     * CC: 3 (null check + instance checks)
+     * CC: 4 (null check + instance checks)
      */
     private void setInitializer(PropertyDeclaration propDecl, JsonNode json, ConversionContext context) {
         JsonNode initNode = json.get("initializer");
@@ -67,6 +67,9 @@ public class PropertyDeclarationConverter implements NodeConverter {
         if (initializer != null && !initializer.isEmpty()) {
             propDecl.setInitializer(initializer);
         }
+        if (initNode.isObject()) {
+            propDecl.setInitializerExpression(context.convertExpressionNode(initNode));
+        }
     }
 
     /**
@@ -6,6 +6,7 @@ import com.ets2jsc.shared.constant.Symbols;
 import com.ets2jsc.infrastructure.generator.CodeGenerator;
 import com.ets2jsc.infrastructure.parser.ConversionContext;
 import com.ets2jsc.infrastructure.parser.NodeConverter;
+import com.ets2jsc.infrastructure.parser.SyntaxKind;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 
@@ -15,10 +16,6 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
  */
 public class SwitchConverter implements NodeConverter {
 
-    private static final String KIND_NAME = "kindName";
-    private static final String KIND_CASE_CLAUSE = "CaseClause";
-    private static final String KIND_DEFAULT_CLAUSE = "DefaultClause";
-
     @Override
     public boolean canConvert(String kindName) {
         return "SwitchStatement".equals(kindName);
@@ -65,18 +62,17 @@ public class SwitchConverter implements NodeConverter {
         ArrayNode clauses = (ArrayNode) clausesNode;
         for (int i = Symbols.INDEX_ZERO; i < clauses.size(); i++) {
             JsonNode clause = clauses.get(i);
-            String kindName = getKindName(clause);
-            processClause(clause, kindName, sb, context);
+            processClause(clause, context.kindOf(clause), sb, context);
         }
     }
 
     /**
      * Processes a single case or default clause.
      */
-    private void processClause(JsonNode clause, String kindName, StringBuilder sb, ConversionContext context) {
-        if (KIND_CASE_CLAUSE.equals(kindName)) {
+    private void processClause(JsonNode clause, SyntaxKind kind, StringBuilder sb, ConversionContext context) {
+        if (kind == SyntaxKind.CASE_CLAUSE) {
             processCaseClause(clause, sb, context);
-        } else if (KIND_DEFAULT_CLAUSE.equals(kindName)) {
+        } else if (kind == SyntaxKind.DEFAULT_CLAUSE) {
             processDefaultClause(clause, sb, context);
         }
     }
@@ -127,11 +123,4 @@ public class SwitchConverter implements NodeConverter {
             }
         }
     }
-
-    /**
-     * Gets the kind name from a JSON node.
-     */
-    private String getKindName(JsonNode json) {
-        return json.has(KIND_NAME) ? json.get(KIND_NAME).asText() : Symbols.EMPTY_STRING;
-    }
 }
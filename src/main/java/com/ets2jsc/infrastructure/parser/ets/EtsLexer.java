@@ -0,0 +1,669 @@
+package com.ets2jsc.infrastructure.parser.ets;
+
+import com.ets2jsc.shared.exception.UnsupportedSyntaxException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * On-demand scanner for ETS/TypeScript source text.
+ * <p>
+ * Tokens are scanned one at a time as the parser asks for them, because
+ * several tokens depend on the syntactic context: a slash starts a regular
+ * expression or is a division, a closing brace may continue a template, and
+ * {@code >} is scanned alone so type argument lists can be closed, then
+ * rescanned into {@code >>}, {@code >=} and the like as an operator. The
+ * scanner state is a handful of fields, so {@link #mark()} and
+ * {@link #reset(long)} make speculative parsing cheap.
+ * <p>
+ * String and template values are cooked, and numeric values are normalized
+ * the way the TypeScript scanner does. Anything whose value cannot be
+ * reproduced exactly, such as escaped identifiers, legacy octal literals or
+ * big integers, is rejected with an {@link UnsupportedSyntaxException}.
+ */
+final class EtsLexer {
+
+    /**
+     * Kind of a scanned token.
+     */
+    enum TokenKind {
+        EOF,
+        IDENTIFIER,                 // Identifiers and keywords
+        NUMBER,                     // Value is the normalized number text
+        STRING,                     // Value is the cooked string
+        NO_SUBSTITUTION_TEMPLATE,   // Value is the cooked template text
+        TEMPLATE_HEAD,
+        TEMPLATE_MIDDLE,
+        TEMPLATE_TAIL,
+        REGEX,
+        PUNCTUATION
+    }
+
+    private static final double MIN_PLAIN_NUMBER = 1e-6;
+    private static final BigDecimal MAX_PLAIN_NUMBER = new BigDecimal("1e21");
+    private static final int MAX_EXACT_DIGITS = 15;
+    private static final int MAX_SAFE_INTEGER_BITS = 53;
+
+    private final String source;
+    private final int length;
+    private final IntUnaryOperator originalOffset;
+
+    private int pos;
+    private TokenKind kind;
+    private String text;
+    private String value;
+    private int tokenStart;
+    private int tokenEnd;
+    private int fullStart;
+    private int previousEnd;
+    private boolean lineBreakBefore;
+
+    EtsLexer(String source) {
+        this(source, IntUnaryOperator.identity());
+    }
+
+    /**
+     * Creates a scanner for preprocessed source text.
+     *
+     * @param source the source text
+     * @param originalOffset maps offsets in the source text to the original source, for error messages
+     */
+    EtsLexer(String source, IntUnaryOperator originalOffset) {
+        this.source = source;
+        this.length = source.length();
+        this.originalOffset = originalOffset;
+        skipShebang();
+    }
+
+    String getSource() {
+        return source;
+    }
+
+    TokenKind kind() {
+        return kind;
+    }
+
+    /**
+     * Gets the token text: the source of identifiers, numbers, strings and
+     * regular expressions, or the operator itself for punctuation.
+     */
+    String text() {
+        return text;
+    }
+
+    /**
+     * Gets the cooked value of strings and templates, or the normalized number text.
+     */
+    String value() {
+        return value;
+    }
+
+    int tokenStart() {
+        return tokenStart;
+    }
+
+    int tokenEnd() {
+        return tokenEnd;
+    }
+
+    /**
+     * Gets the end of the token before the current one.
+     */
+    int previousEnd() {
+        return previousEnd;
+    }
+
+    boolean hasLineBreakBefore() {
+        return lineBreakBefore;
+    }
+
+    boolean isPunctuation(String punctuation) {
+        return kind == TokenKind.PUNCTUATION && text.equals(punctuation);
+    }
+
+    boolean isIdentifier(String name) {
+        return kind == TokenKind.IDENTIFIER && text.equals(name);
+    }
+
+    /**
+     * Saves the scanner position. The current token is rescanned on {@link #reset(long)}.
+     *
+     * @return the saved position
+     */
+    long mark() {
+        return ((long) previousEnd << 32) | fullStart;
+    }
+
+    /**
+     * Returns to a position saved by {@link #mark()} and rescans its token.
+     *
+     * @param mark the saved position
+     */
+    void reset(long mark) {
+        pos = (int) mark;
+        int end = (int) (mark >>> 32);
+        next();
+        previousEnd = end;
+    }
+
+    /**
+     * Advances to the next token.
+     */
+    void next() {
+        previousEnd = tokenEnd;
+        fullStart = pos;
+        lineBreakBefore = false;
+        int start = skipTrivia(pos);
+        tokenStart = start;
+        scan(start);
+    }
+
+    /**
+     * Rescans a {@code >} token as the longest operator starting with it.
+     */
+    void reScanGreaterToken() {
+        if (!isPunctuation(">")) {
+            return;
+        }
+        if (charAt(pos) == '>') {
+            if (charAt(pos + 1) == '>') {
+                finishPunctuation(charAt(pos + 2) == '=' ? ">>>=" : ">>>");
+            } else {
+                finishPunctuation(charAt(pos + 1) == '=' ? ">>=" : ">>");
+            }
+        } else if (charAt(pos) == '=') {
+            finishPunctuation(">=");
+        }
+    }
+
+    /**
+     * Rescans a {@code /} or {@code /=} token as a regular expression literal.
+     */
+    void reScanSlashToken() {
+        int p = tokenStart + 1;
+        boolean inClass = false;
+        while (true) {
+            if (p >= length || isLineBreak(source.charAt(p))) {
+                throw unsupported("Unterminated regular expression", tokenStart);
+            }
+            char c = source.charAt(p);
+            if (c == '\\') {
+                p += 2;
+                continue;
+            }
+            if (c == '[') {
+                inClass = true;
+            } else if (c == ']') {
+                inClass = false;
+            } else if (c == '/' && !inClass) {
+                break;
+            }
+            p++;
+        }
+        p++;
+        while (p < length && isIdentifierPart(source.charAt(p))) {
+            p++;
+        }
+        finish(TokenKind.REGEX, p, null);
+    }
+
+    /**
+     * Rescans a {@code }} token as the continuation of a template.
+     */
+    void reScanTemplateContinuation() {
+        if (!isPunctuation("}")) {
+            throw unsupported("Expected '}' to continue the template", tokenStart);
+        }
+        scanTemplate(tokenStart, false);
+    }
+
+    private void scan(int start) {
+        pos = start;
+        if (start >= length) {
+            kind = TokenKind.EOF;
+            text = "";
+            value = null;
+            tokenEnd = start;
+            return;
+        }
+        char c = source.charAt(start);
+        if (isIdentifierStart(c)) {
+            scanIdentifier(start);
+        } else if (isDigit(c) || (c == '.' && isDigit(charAt(start + 1)))) {
+            scanNumber(start);
+        } else if (c == '"' || c == '\'') {
+            scanString(start, c);
+        } else if (c == '`') {
+            scanTemplate(start, true);
+        } else if (c == '#' || c == '\\') {
+            throw unsupported("Private names and escaped identifiers are not supported", start);
+        } else {
+            scanPunctuation(start, c);
+        }
+    }
+
+    private void scanIdentifier(int start) {
+        int p = start + 1;
+        while (p < length && isIdentifierPart(source.charAt(p))) {
+            p++;
+        }
+        if (p < length && source.charAt(p) == '\\') {
+            throw unsupported("Escaped identifiers are not supported", start);
+        }
+        finish(TokenKind.IDENTIFIER, p, null);
+    }
+
+    private void scanNumber(int start) {
+        int p = start;
+        String normalized;
+        char prefix = Character.toLowerCase(charAt(start + 1));
+        if (charAt(start) == '0' && (prefix == 'x' || prefix == 'b' || prefix == 'o')) {
+            int radix = prefix == 'x' ? 16 : prefix == 'b' ? 2 : 8;
+            p = start + 2;
+            int digitsStart = p;
+            while (p < length && (Character.digit(source.charAt(p), radix) >= 0 || source.charAt(p) == '_')) {
+                p++;
+            }
+            String digits = source.substring(digitsStart, p).replace("_", "");
+            if (digits.isEmpty()) {
+                throw unsupported("Malformed numeric literal", start);
+            }
+            BigInteger number = new BigInteger(digits, radix);
+            if (number.bitLength() > MAX_SAFE_INTEGER_BITS) {
+                throw unsupported("Numeric literal out of exact range", start);
+            }
+            normalized = number.toString();
+        } else {
+            if (charAt(start) == '0' && (isDigit(charAt(start + 1)) || charAt(start + 1) == '_')) {
+                throw unsupported("Legacy octal literals are not supported", start);
+            }
+            p = scanDigits(p);
+            boolean plainInteger = true;
+            if (charAt(p) == '.') {
+                plainInteger = false;
+                p = scanDigits(p + 1);
+            }
+            char e = charAt(p);
+            if (e == 'e' || e == 'E') {
+                plainInteger = false;
+                p++;
+                if (charAt(p) == '+' || charAt(p) == '-') {
+                    p++;
+                }
+                if (!isDigit(charAt(p))) {
+                    throw unsupported("Malformed numeric literal", start);
+                }
+                p = scanDigits(p);
+            }
+            normalized = normalizeDecimal(source.substring(start, p).replace("_", ""), plainInteger, start);
+        }
+        if (p < length && (isIdentifierStart(source.charAt(p)) || isDigit(source.charAt(p)))) {
+            throw unsupported("Unsupported numeric literal suffix", start);
+        }
+        finish(TokenKind.NUMBER, p, normalized);
+    }
+
+    /**
+     * Normalizes a decimal literal to the text of its number value, as
+     * {@code "" + +literal} does, for values whose text is known exactly.
+     */
+    private String normalizeDecimal(String literal, boolean plainInteger, int start) {
+        if (plainInteger) {
+            if (literal.length() > MAX_EXACT_DIGITS) {
+                throw unsupported("Numeric literal out of exact range", start);
+            }
+            return literal;
+        }
+        BigDecimal number = new BigDecimal(literal);
+        if (number.signum() == 0) {
+            return "0";
+        }
+        BigDecimal stripped = number.stripTrailingZeros();
+        if (stripped.precision() > MAX_EXACT_DIGITS
+                || stripped.compareTo(BigDecimal.valueOf(MIN_PLAIN_NUMBER)) < 0
+                || stripped.compareTo(MAX_PLAIN_NUMBER) >= 0) {
+            throw unsupported("Numeric literal out of exact range", start);
+        }
+        return stripped.toPlainString();
+    }
+
+    private int scanDigits(int from) {
+        int p = from;
+        while (p < length && (isDigit(source.charAt(p)) || source.charAt(p) == '_')) {
+            p++;
+        }
+        return p;
+    }
+
+    private void scanString(int start, char quote) {
+        StringBuilder cooked = new StringBuilder();
+        int p = start + 1;
+        while (true) {
+            if (p >= length) {
+                throw unsupported("Unterminated string literal", start);
+            }
+            char c = source.charAt(p);
+            if (c == quote) {
+                p++;
+                break;
+            }
+            if (c == '\\') {
+                p = scanEscape(p, cooked);
+                continue;
+            }
+            if (c == '\n' || c == '\r') {
+                throw unsupported("Unterminated string literal", start);
+            }
+            cooked.append(c);
+            p++;
+        }
+        finish(TokenKind.STRING, p, cooked.toString());
+    }
+
+    /**
+     * Scans a template part starting at a backtick or at the closing brace
+     * of a substitution, up to the next substitution or the end of the template.
+     */
+    private void scanTemplate(int start, boolean head) {
+        StringBuilder cooked = new StringBuilder();
+        int p = start + 1;
+        while (true) {
+            if (p >= length) {
+                throw unsupported("Unterminated template literal", start);
+            }
+            char c = source.charAt(p);
+            if (c == '`') {
+                finish(head ? TokenKind.NO_SUBSTITUTION_TEMPLATE : TokenKind.TEMPLATE_TAIL, p + 1, cooked.toString());
+                return;
+            }
+            if (c == '$' && charAt(p + 1) == '{') {
+                finish(head ? TokenKind.TEMPLATE_HEAD : TokenKind.TEMPLATE_MIDDLE, p + 2, cooked.toString());
+                return;
+            }
+            if (c == '\\') {
+                p = scanEscape(p, cooked);
+                continue;
+            }
+            if (c == '\r') {
+                // Template values normalize line endings
+                cooked.append('\n');
+                p += charAt(p + 1) == '\n' ? 2 : 1;
+                continue;
+            }
+            cooked.append(c);
+            p++;
+        }
+    }
+
+    /**
+     * Scans an escape sequence at a backslash and appends its value.
+     *
+     * @return the position after the escape sequence
+     */
+    private int scanEscape(int backslash, StringBuilder cooked) {
+        int p = backslash + 1;
+        if (p >= length) {
+            throw unsupported("Unterminated escape sequence", backslash);
+        }
+        char c = source.charAt(p);
+        switch (c) {
+            case '0':
+                if (isDigit(charAt(p + 1))) {
+                    throw unsupported("Octal escape sequences are not supported", backslash);
+                }
+                cooked.append('\0');
+                return p + 1;
+            case 'b':
+                cooked.append('\b');
+                return p + 1;
+            case 't':
+                cooked.append('\t');
+                return p + 1;
+            case 'n':
+                cooked.append('\n');
+                return p + 1;
+            case 'v':
+                cooked.append('\u000B');
+                return p + 1;
+            case 'f':
+                cooked.append('\f');
+                return p + 1;
+            case 'r':
+                cooked.append('\r');
+                return p + 1;
+            case 'x':
+                cooked.append((char) parseHex(p + 1, p + 3, backslash));
+                return p + 3;
+            case 'u':
+                return scanUnicodeEscape(p + 1, backslash, cooked);
+            case '\r':
+                return charAt(p + 1) == '\n' ? p + 2 : p + 1;
+            case '\n':
+            case '\u2028':
+            case '\u2029':
+                return p + 1;
+            default:
+                if (c >= '1' && c <= '9') {
+                    throw unsupported("Octal escape sequences are not supported", backslash);
+                }
+                cooked.append(c);
+                return p + 1;
+        }
+    }
+
+    private int scanUnicodeEscape(int from, int backslash, StringBuilder cooked) {
+        if (charAt(from) == '{') {
+            int close = source.indexOf('}', from);
+            if (close < 0) {
+                throw unsupported("Malformed unicode escape", backslash);
+            }
+            int codePoint = parseHex(from + 1, close, backslash);
+            if (codePoint > Character.MAX_CODE_POINT) {
+                throw unsupported("Malformed unicode escape", backslash);
+            }
+            cooked.appendCodePoint(codePoint);
+            return close + 1;
+        }
+        cooked.append((char) parseHex(from, from + 4, backslash));
+        return from + 4;
+    }
+
+    private int parseHex(int from, int to, int backslash) {
+        if (to > length || to <= from || to - from > 6) {
+            throw unsupported("Malformed escape sequence", backslash);
+        }
+        int result = 0;
+        for (int i = from; i < to; i++) {
+            int digit = Character.digit(source.charAt(i), 16);
+            if (digit < 0) {
+                throw unsupported("Malformed escape sequence", backslash);
+            }
+            result = result * 16 + digit;
+        }
+        return result;
+    }
+
+    private void scanPunctuation(int start, char c) {
+        char c1 = charAt(start + 1);
+        char c2 = charAt(start + 2);
+        String punctuation;
+        switch (c) {
+            case '{': case '}': case '(': case ')': case '[': case ']':
+            case ';': case ',': case '~': case ':': case '@':
+                punctuation = String.valueOf(c).intern();
+                break;
+            case '>':
+                // Rescanned by the parser where an operator may follow
+                punctuation = ">";
+                break;
+            case '.':
+                punctuation = c1 == '.' && c2 == '.' ? "..." : ".";
+                break;
+            case '<':
+                if (c1 == '<') {
+                    punctuation = c2 == '=' ? "<<=" : "<<";
+                } else {
+                    punctuation = c1 == '=' ? "<=" : "<";
+                }
+                break;
+            case '=':
+                if (c1 == '=') {
+                    punctuation = c2 == '=' ? "===" : "==";
+                } else {
+                    punctuation = c1 == '>' ? "=>" : "=";
+                }
+                break;
+            case '!':
+                if (c1 == '=') {
+                    punctuation = c2 == '=' ? "!==" : "!=";
+                } else {
+                    punctuation = "!";
+                }
+                break;
+            case '+':
+                punctuation = c1 == '+' ? "++" : c1 == '=' ? "+=" : "+";
+                break;
+            case '-':
+                punctuation = c1 == '-' ? "--" : c1 == '=' ? "-=" : "-";
+                break;
+            case '*':
+                if (c1 == '*') {
+                    punctuation = c2 == '=' ? "**=" : "**";
+                } else {
+                    punctuation = c1 == '=' ? "*=" : "*";
+                }
+                break;
+            case '/':
+                punctuation = c1 == '=' ? "/=" : "/";
+                break;
+            case '%':
+                punctuation = c1 == '=' ? "%=" : "%";
+                break;
+            case '&':
+                if (c1 == '&') {
+                    punctuation = c2 == '=' ? "&&=" : "&&";
+                } else {
+                    punctuation = c1 == '=' ? "&=" : "&";
+                }
+                break;
+            case '|':
+                if (c1 == '|') {
+                    punctuation = c2 == '=' ? "||=" : "||";
+                } else {
+                    punctuation = c1 == '=' ? "|=" : "|";
+                }
+                break;
+            case '^':
+                punctuation = c1 == '=' ? "^=" : "^";
+                break;
+            case '?':
+                if (c1 == '?') {
+                    punctuation = c2 == '=' ? "??=" : "??";
+                } else if (c1 == '.' && !isDigit(c2)) {
+                    punctuation = "?.";
+                } else {
+                    punctuation = "?";
+                }
+                break;
+            default:
+                throw unsupported("Unexpected character '" + c + "'", start);
+        }
+        finishPunctuation(punctuation);
+    }
+
+    private void finishPunctuation(String punctuation) {
+        kind = TokenKind.PUNCTUATION;
+        text = punctuation;
+        value = null;
+        tokenEnd = tokenStart + punctuation.length();
+        pos = tokenEnd;
+    }
+
+    private void finish(TokenKind tokenKind, int end, String tokenValue) {
+        kind = tokenKind;
+        tokenEnd = end;
+        pos = end;
+        text = source.substring(tokenStart, end);
+        value = tokenValue;
+    }
+
+    /**
+     * Skips whitespace and comments, noting line breaks.
+     *
+     * @return the start of the next token
+     */
+    private int skipTrivia(int from) {
+        int p = from;
+        while (p < length) {
+            char c = source.charAt(p);
+            if (isLineBreak(c)) {
+                lineBreakBefore = true;
+                p++;
+            } else if (c == ' ' || c == '\t' || c == '\u000B' || c == '\f' || c == '\u00A0' || c == '\uFEFF'
+                    || (c > 127 && Character.getType(c) == Character.SPACE_SEPARATOR)) {
+                p++;
+            } else if (c == '/' && charAt(p + 1) == '/') {
+                p += 2;
+                while (p < length && !isLineBreak(source.charAt(p))) {
+                    p++;
+                }
+            } else if (c == '/' && charAt(p + 1) == '*') {
+                int close = source.indexOf("*/", p + 2);
+                if (close < 0) {
+                    throw unsupported("Unterminated comment", p);
+                }
+                for (int i = p + 2; i < close && !lineBreakBefore; i++) {
+                    lineBreakBefore = isLineBreak(source.charAt(i));
+                }
+                p = close + 2;
+            } else {
+                break;
+            }
+        }
+        return p;
+    }
+
+    private void skipShebang() {
+        pos = source.startsWith("#!") ? skipLine(0) : 0;
+        tokenEnd = pos;
+    }
+
+    private int skipLine(int from) {
+        int p = from;
+        while (p < length && !isLineBreak(source.charAt(p))) {
+            p++;
+        }
+        return p;
+    }
+
+    private char charAt(int index) {
+        return index < length ? source.charAt(index) : '\0';
+    }
+
+    UnsupportedSyntaxException unsupported(String message, int offset) {
+        return new UnsupportedSyntaxException(message + " at offset " + originalOffset.applyAsInt(offset));
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLineBreak(char c) {
+        return c == '\n' || c == '\r' || c == '\u2028' || c == '\u2029';
+    }
+
+    static boolean isIdentifierStart(char c) {
+        if (c < 128) {
+            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '$' || c == '_';
+        }
+        return Character.isUnicodeIdentifierStart(c);
+    }
+
+    static boolean isIdentifierPart(char c) {
+        if (c < 128) {
+            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || isDigit(c) || c == '$' || c == '_';
+        }
+        return c == '\u200C' || c == '\u200D' || Character.isUnicodeIdentifierPart(c);
+    }
+}
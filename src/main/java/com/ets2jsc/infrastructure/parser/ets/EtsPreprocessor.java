@@ -0,0 +1,404 @@
+package com.ets2jsc.infrastructure.parser.ets;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * ETS preprocessing for the Java parser.
+ * <p>
+ * Mirrors the preprocessing of the Node.js parser so both parsers see the
+ * same TypeScript code: {@code struct} becomes {@code class}, the last
+ * decorator before each struct is extracted for the top-level classes, and
+ * {@code @Entry} classes are exported. The source is scanned once, skipping
+ * strings, comments, templates and regular expressions, and the edits are
+ * kept to map offsets in the preprocessed code back to the source.
+ */
+final class EtsPreprocessor {
+
+    private static final String CLASS_PREFIX = "class ";
+    private static final String EXPORT_PREFIX = "export ";
+    private static final String STRUCT_KEYWORD = "struct";
+    private static final String CLASS_KEYWORD = "class";
+
+    // Keywords after which a slash starts a regular expression, not a division
+    private static final Set<String> REGEX_PRECEDING_KEYWORDS = Set.of(
+            "return", "typeof", "instanceof", "in", "of", "new", "delete", "void", "throw",
+            "case", "do", "else", "yield", "await");
+
+    private final String code;
+    private final List<String> extractedDecorators;
+    private final List<Edit> edits;
+
+    private EtsPreprocessor(String code, List<String> extractedDecorators, List<Edit> edits) {
+        this.code = code;
+        this.extractedDecorators = extractedDecorators;
+        this.edits = edits;
+    }
+
+    /**
+     * Preprocesses ETS source code.
+     *
+     * @param sourceCode the source code
+     * @return the preprocessed code and the extracted decorator names
+     */
+    static EtsPreprocessor preprocess(String sourceCode) {
+        if (sourceCode.indexOf('@') < 0 && !sourceCode.contains(STRUCT_KEYWORD)) {
+            return new EtsPreprocessor(sourceCode, Collections.emptyList(), Collections.emptyList());
+        }
+        Scanner scanner = new Scanner(sourceCode);
+        scanner.scan();
+        return new EtsPreprocessor(applyEdits(sourceCode, scanner.edits), scanner.decorators, scanner.edits);
+    }
+
+    String getCode() {
+        return code;
+    }
+
+    /**
+     * Gets the names of the decorators extracted from struct declarations,
+     * in source order. Every top-level class declaration carries them.
+     */
+    List<String> getExtractedDecorators() {
+        return extractedDecorators;
+    }
+
+    /**
+     * Maps an offset in the preprocessed code to the source. Offsets inside
+     * inserted text map to the start of the insertion.
+     *
+     * @param offset the offset in the preprocessed code
+     * @return the offset in the source
+     */
+    int toOriginal(int offset) {
+        int low = 0;
+        int high = edits.size() - 1;
+        Edit edit = null;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (edits.get(mid).outStart <= offset) {
+                edit = edits.get(mid);
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (edit == null) {
+            return offset;
+        }
+        int inside = offset - edit.outStart;
+        if (inside < edit.text.length()) {
+            return edit.start + Math.min(inside, edit.oldLength);
+        }
+        return edit.start + edit.oldLength + inside - edit.text.length();
+    }
+
+    private static String applyEdits(String source, List<Edit> edits) {
+        StringBuilder result = new StringBuilder(source.length() + edits.size() * EXPORT_PREFIX.length());
+        int last = 0;
+        for (Edit edit : edits) {
+            edit.outStart = result.length() + edit.start - last;
+            result.append(source, last, edit.start).append(edit.text);
+            last = edit.start + edit.oldLength;
+        }
+        return result.append(source, last, source.length()).toString();
+    }
+
+    /**
+     * A replacement of source text, in source coordinates.
+     */
+    private static final class Edit {
+        private final int start;
+        private final int oldLength;
+        private final String text;
+        private int outStart;
+
+        Edit(int start, int oldLength, String text) {
+            this.start = start;
+            this.oldLength = oldLength;
+            this.text = text;
+        }
+    }
+
+    /**
+     * A decorator since the last other token.
+     */
+    private static final class PendingDecorator {
+        private final String name;
+        private final boolean hasArguments;
+        private final boolean ownLine;
+
+        PendingDecorator(String name, boolean hasArguments, boolean ownLine) {
+            this.name = name;
+            this.hasArguments = hasArguments;
+            this.ownLine = ownLine;
+        }
+
+        boolean isBare(String decoratorName) {
+            return name.equals(decoratorName) && !hasArguments && ownLine;
+        }
+    }
+
+    /**
+     * Single-pass scanner, a port of the scanner of the parser script.
+     */
+    private static final class Scanner {
+        private final String source;
+        private final int length;
+        private final List<Edit> edits = new ArrayList<>();
+        private final List<String> decorators = new ArrayList<>();
+        private final List<PendingDecorator> run = new ArrayList<>();
+        // Open braces of each template substitution being scanned
+        private final List<Integer> templateBraces = new ArrayList<>();
+        private int pos;
+        private boolean exported;
+        private boolean regexAllowed = true;
+
+        Scanner(String source) {
+            this.source = source;
+            this.length = source.length();
+        }
+
+        void scan() {
+            while (pos < length) {
+                char c = source.charAt(pos);
+                char next = pos + 1 < length ? source.charAt(pos + 1) : 0;
+                if (isWhitespace(c)) {
+                    pos++;
+                } else if (c == '/' && (next == '/' || next == '*')) {
+                    skipComment(next);
+                } else if (c == '\'' || c == '"') {
+                    skipString(c);
+                    endToken(false);
+                } else if (c == '`') {
+                    pos++;
+                    skipTemplate();
+                } else if (c == '@') {
+                    scanDecorator();
+                } else if (isIdentifierStart(c)) {
+                    scanWord();
+                } else if (c >= '0' && c <= '9') {
+                    skipIdentifierPart();
+                    endToken(false);
+                } else if (c == '/' && regexAllowed) {
+                    skipRegex();
+                    endToken(false);
+                } else {
+                    scanPunctuation(c);
+                }
+            }
+        }
+
+        private void scanPunctuation(char c) {
+            pos++;
+            int top = templateBraces.size() - 1;
+            if (c == '{' && top >= 0) {
+                templateBraces.set(top, templateBraces.get(top) + 1);
+            } else if (c == '}' && top >= 0) {
+                if (templateBraces.get(top) == 0) {
+                    templateBraces.remove(top);
+                    skipTemplate();
+                    return;
+                }
+                templateBraces.set(top, templateBraces.get(top) - 1);
+            }
+            endToken(c != ')' && c != ']' && c != '}');
+        }
+
+        private void scanWord() {
+            int start = pos;
+            skipIdentifierPart();
+            String word = source.substring(start, pos);
+            boolean struct = STRUCT_KEYWORD.equals(word);
+            if (struct || CLASS_KEYWORD.equals(word)) {
+                int whitespaceEnd = whitespaceEnd(pos);
+                if (whitespaceEnd > pos) {
+                    scanClassKeyword(start, struct, whitespaceEnd);
+                    return;
+                }
+            }
+            if ("export".equals(word) && !run.isEmpty()) {
+                exported = true;
+                return;
+            }
+            endToken(REGEX_PRECEDING_KEYWORDS.contains(word));
+        }
+
+        private void scanClassKeyword(int start, boolean struct, int whitespaceEnd) {
+            if (struct && !run.isEmpty()) {
+                decorators.add(run.get(run.size() - 1).name);
+            }
+            if (!exported && isEntryRun()) {
+                edits.add(new Edit(start, 0, EXPORT_PREFIX));
+            }
+            if (struct) {
+                edits.add(new Edit(start, whitespaceEnd - start, CLASS_PREFIX));
+            }
+            pos = struct ? whitespaceEnd : start + CLASS_KEYWORD.length();
+            endToken(false);
+        }
+
+        /**
+         * Checks whether the decorators end with {@code @Entry}, optionally
+         * followed by {@code @Component}, each bare and on its own line.
+         */
+        private boolean isEntryRun() {
+            int last = run.size() - 1;
+            if (last >= 1 && run.get(last).isBare("Component") && run.get(last - 1).isBare("Entry")) {
+                return true;
+            }
+            return last >= 0 && run.get(last).isBare("Entry");
+        }
+
+        private void scanDecorator() {
+            pos++;
+            int nameStart = pos;
+            skipIdentifierPart();
+            if (pos == nameStart) {
+                endToken(true);
+                return;
+            }
+            String name = source.substring(nameStart, pos);
+            int argumentsStart = whitespaceEnd(pos);
+            boolean hasArguments = argumentsStart < length && source.charAt(argumentsStart) == '(';
+            if (hasArguments) {
+                pos = argumentsStart;
+                skipArguments();
+            }
+            boolean ownLine = source.substring(pos, whitespaceEnd(pos)).indexOf('\n') >= 0;
+            run.add(new PendingDecorator(name, hasArguments, ownLine));
+            regexAllowed = false;
+        }
+
+        private void skipArguments() {
+            int depth = 0;
+            while (pos < length) {
+                char c = source.charAt(pos);
+                if (c == '\'' || c == '"') {
+                    skipString(c);
+                    continue;
+                }
+                if (c == '`') {
+                    pos++;
+                    skipTemplateText();
+                    continue;
+                }
+                pos++;
+                if (c == '(') {
+                    depth++;
+                } else if (c == ')' && --depth == 0) {
+                    return;
+                }
+            }
+        }
+
+        private void endToken(boolean regexMayFollow) {
+            regexAllowed = regexMayFollow;
+            if (!run.isEmpty()) {
+                run.clear();
+                exported = false;
+            }
+        }
+
+        private void skipComment(char kind) {
+            int end = kind == '/' ? source.indexOf('\n', pos) : source.indexOf("*/", pos + 2);
+            if (end < 0) {
+                pos = length;
+            } else {
+                pos = kind == '/' ? end : end + 2;
+            }
+        }
+
+        private void skipString(char quote) {
+            pos++;
+            while (pos < length) {
+                char c = source.charAt(pos++);
+                if (c == '\\') {
+                    pos++;
+                } else if (c == quote || c == '\n') {
+                    return;
+                }
+            }
+        }
+
+        private void skipTemplate() {
+            if (skipTemplateText()) {
+                templateBraces.add(0);
+                endToken(true);
+            } else {
+                endToken(false);
+            }
+        }
+
+        /**
+         * Skips template text up to the end of the template or a substitution.
+         *
+         * @return true if a substitution starts
+         */
+        private boolean skipTemplateText() {
+            while (pos < length) {
+                char c = source.charAt(pos++);
+                if (c == '\\') {
+                    pos++;
+                } else if (c == '`') {
+                    return false;
+                } else if (c == '$' && pos < length && source.charAt(pos) == '{') {
+                    pos++;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void skipRegex() {
+            int start = pos;
+            boolean inClass = false;
+            pos++;
+            while (pos < length) {
+                char c = source.charAt(pos++);
+                if (c == '\\') {
+                    pos++;
+                } else if (c == '\n') {
+                    // Not a regular expression after all
+                    pos = start + 1;
+                    return;
+                } else if (c == '[') {
+                    inClass = true;
+                } else if (c == ']') {
+                    inClass = false;
+                } else if (c == '/' && !inClass) {
+                    skipIdentifierPart();
+                    return;
+                }
+            }
+        }
+
+        private void skipIdentifierPart() {
+            while (pos < length && isIdentifierPart(source.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private int whitespaceEnd(int from) {
+            int end = from;
+            while (end < length && isWhitespace(source.charAt(end))) {
+                end++;
+            }
+            return end;
+        }
+
+        private static boolean isWhitespace(char c) {
+            return c == ' ' || c == '\n' || c == '\t' || c == '\r' || c == '\f' || c == '\u000b'
+                    || c == '\u00a0' || c == '\ufeff';
+        }
+
+        private static boolean isIdentifierStart(char c) {
+            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c == '$' || c > '\u007f';
+        }
+
+        private static boolean isIdentifierPart(char c) {
+            return isIdentifierStart(c) || (c >= '0' && c <= '9');
+        }
+    }
+}
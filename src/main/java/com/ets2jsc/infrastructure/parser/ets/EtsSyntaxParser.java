@@ -0,0 +1,2370 @@
+package com.ets2jsc.infrastructure.parser.ets;
+
+import com.ets2jsc.infrastructure.parser.SyntaxKind;
+import com.ets2jsc.infrastructure.parser.ets.EtsLexer.TokenKind;
+import com.ets2jsc.shared.exception.UnsupportedSyntaxException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Recursive-descent parser for the ETS subset handled by the compiler.
+ * <p>
+ * Parses structs and decorators, classes, functions, statements,
+ * expressions, imports and exports in-process, and builds the same JSON AST
+ * the Node.js parser script sends, so it feeds the existing converters and
+ * the compiled output does not depend on which parser ran. The source is
+ * preprocessed like the script does it, and the parser recovers from the
+ * same errors as the TypeScript parser where ETS relies on them: a missing
+ * semicolon before the trailing block of a component, and a leading dot
+ * of a chained attribute after it.
+ * <p>
+ * Types are skipped, keeping only their source text. Anything else the
+ * parser does not cover, and any syntax error, is rejected with an
+ * {@link UnsupportedSyntaxException}, so callers can parse the file with
+ * the Node.js parser instead. A parser instance parses one file and is not
+ * thread-safe.
+ */
+public final class EtsSyntaxParser {
+
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+    private static final Pattern DECORATOR_NAME = Pattern.compile("@(\\w+)");
+
+    private static final String KIND_NAME = "kindName";
+    private static final String IDENTIFIER = "Identifier";
+    private static final String BLOCK = "Block";
+    private static final String VARIABLE_DECLARATION_LIST = "VariableDeclarationList";
+
+    private static final Set<String> RESERVED_WORDS = Set.of(
+            "break", "case", "catch", "class", "const", "continue", "debugger", "default", "delete", "do",
+            "else", "enum", "export", "extends", "false", "finally", "for", "function", "if", "import", "in",
+            "instanceof", "new", "null", "return", "super", "switch", "this", "throw", "true", "try",
+            "typeof", "var", "void", "while", "with");
+
+    private static final Set<String> ASSIGNMENT_OPERATORS = Set.of(
+            "=", "+=", "-=", "*=", "/=", "%=", "**=", "<<=", ">>=", ">>>=", "&=", "|=", "^=",
+            "&&=", "||=", "??=");
+
+    private static final Set<String> CLASS_MEMBER_MODIFIERS = Set.of(
+            "public", "private", "protected", "static", "readonly", "async", "declare");
+
+    private static final Set<String> PARAMETER_MODIFIERS = Set.of(
+            "public", "private", "protected", "readonly");
+
+    private final EtsLexer lexer;
+    private final String source;
+    private final List<String> extractedDecorators;
+    private boolean inAsync;
+    private boolean inGenerator;
+    private boolean disallowIn;
+    private int whenTrueDepth;
+
+    private EtsSyntaxParser(EtsPreprocessor preprocessed) {
+        this.source = preprocessed.getCode();
+        this.lexer = new EtsLexer(source, preprocessed::toOriginal);
+        this.extractedDecorators = preprocessed.getExtractedDecorators();
+    }
+
+    /**
+     * Parses an ETS source file into the JSON AST of the parser script.
+     *
+     * @param fileName the file name recorded in the AST
+     * @param sourceCode the ETS source code
+     * @return the SourceFile node
+     * @throws UnsupportedSyntaxException if the file uses syntax this parser does not cover
+     */
+    public static ObjectNode parse(String fileName, String sourceCode) {
+        return new EtsSyntaxParser(EtsPreprocessor.preprocess(sourceCode)).parseSourceFile(fileName);
+    }
+
+    private ObjectNode parseSourceFile(String fileName) {
+        ObjectNode sourceFile = node("SourceFile");
+        sourceFile.put("fileName", fileName);
+        ArrayNode statements = sourceFile.putArray("statements");
+        lexer.next();
+        while (lexer.kind() != TokenKind.EOF) {
+            if (skipStrayDot()) {
+                continue;
+            }
+            statements.add(parseStatement(true));
+        }
+        return sourceFile;
+    }
+
+    // ========== Statements ==========
+
+    private JsonNode parseStatement(boolean topLevel) {
+        if (lexer.kind() == TokenKind.PUNCTUATION) {
+            if (lexer.isPunctuation("{")) {
+                return parseBlock();
+            }
+            if (lexer.isPunctuation(";")) {
+                lexer.next();
+                return node("EmptyStatement");
+            }
+            if (lexer.isPunctuation("@")) {
+                return parseDeclaration(topLevel);
+            }
+            return parseExpressionStatement();
+        }
+        if (lexer.kind() != TokenKind.IDENTIFIER) {
+            return parseExpressionStatement();
+        }
+        switch (lexer.text()) {
+            case "var":
+                return parseVariableStatement();
+            case "const":
+                return nextTokenIs("enum") ? parseDeclaration(topLevel) : parseVariableStatement();
+            case "let":
+                return isLetDeclaration() ? parseVariableStatement() : parseExpressionStatement();
+            case "function":
+            case "class":
+            case "enum":
+            case "export":
+                return parseDeclaration(topLevel);
+            case "abstract":
+                return nextTokenIsOnSameLine("class") ? parseDeclaration(topLevel) : parseExpressionStatement();
+            case "async":
+                return nextTokenIsOnSameLine("function") ? parseDeclaration(topLevel) : parseExpressionStatement();
+            case "interface":
+            case "type":
+                return nextTokenIsIdentifierOnSameLine() ? parseDeclaration(topLevel) : parseExpressionStatement();
+            case "declare":
+            case "namespace":
+            case "module":
+            case "global":
+            case "using":
+                if (nextTokenStartsDeclarationOnSameLine()) {
+                    throw unsupported("Ambient, namespace and using declarations are not supported");
+                }
+                return parseExpressionStatement();
+            case "import":
+                return parseImportDeclaration();
+            case "if":
+                return parseIfStatement();
+            case "do":
+                return parseDoStatement();
+            case "while":
+                return parseWhileStatement();
+            case "for":
+                return parseForStatement();
+            case "return":
+                return parseReturnStatement();
+            case "break":
+            case "continue":
+                return parseBreakOrContinueStatement();
+            case "throw":
+                return parseThrowStatement();
+            case "try":
+                return parseTryStatement();
+            case "switch":
+                return parseSwitchStatement();
+            case "debugger":
+            case "with":
+                throw unsupported("'" + lexer.text() + "' statements are not supported");
+            default:
+                if (isIdentifierToken() && nextTokenIsPunctuation(":")) {
+                    return parseLabeledStatement();
+                }
+                return parseExpressionStatement();
+        }
+    }
+
+    /**
+     * Skips a dot at the start of a statement, as the TypeScript parser does
+     * when it recovers from the chained attributes after a component block.
+     */
+    private boolean skipStrayDot() {
+        if (lexer.isPunctuation(".")) {
+            lexer.next();
+            return true;
+        }
+        return false;
+    }
+
+    private ObjectNode parseBlock() {
+        ObjectNode block = node(BLOCK);
+        expect("{");
+        parseStatementList(block.putArray("statements"));
+        expect("}");
+        return block;
+    }
+
+    private void parseStatementList(ArrayNode statements) {
+        while (!lexer.isPunctuation("}")) {
+            if (lexer.kind() == TokenKind.EOF) {
+                throw unsupported("Expected '}'");
+            }
+            if (skipStrayDot()) {
+                continue;
+            }
+            statements.add(parseStatement(false));
+        }
+    }
+
+    private ObjectNode parseExpressionStatement() {
+        ObjectNode statement = node("ExpressionStatement");
+        statement.set("expression", parseExpression());
+        parseSemicolon();
+        return statement;
+    }
+
+    private ObjectNode parseLabeledStatement() {
+        lexer.next();
+        expect(":");
+        parseStatement(false);
+        return node("LabeledStatement");
+    }
+
+    private ObjectNode parseVariableStatement() {
+        ObjectNode statement = node("FirstStatement");
+        statement.set("declarationList", parseVariableDeclarationList());
+        parseSemicolon();
+        return statement;
+    }
+
+    private ObjectNode parseVariableDeclarationList() {
+        ObjectNode list = node(VARIABLE_DECLARATION_LIST);
+        ArrayNode declarations = list.putArray("declarations");
+        list.put("declarationKind", lexer.text());
+        lexer.next();
+        do {
+            declarations.add(parseVariableDeclaration());
+        } while (optional(","));
+        return list;
+    }
+
+    private ObjectNode parseVariableDeclaration() {
+        ObjectNode declaration = node("VariableDeclaration");
+        int nameStart = lexer.tokenStart();
+        parseBindingName();
+        declaration.put("name", sliceFrom(nameStart));
+        optional("!");
+        declaration.put("type", parseTypeAnnotation());
+        declaration.set("initializer", optional("=") ? parseAssignment() : NODES.nullNode());
+        return declaration;
+    }
+
+    private ObjectNode parseIfStatement() {
+        ObjectNode statement = node("IfStatement");
+        lexer.next();
+        expect("(");
+        statement.set("expression", parseExpressionAllowingIn());
+        expect(")");
+        statement.set("thenStatement", parseStatement(false));
+        statement.set("elseStatement", optionalKeyword("else") ? parseStatement(false) : NODES.nullNode());
+        return statement;
+    }
+
+    private ObjectNode parseDoStatement() {
+        ObjectNode statement = node("DoStatement");
+        lexer.next();
+        JsonNode body = parseStatement(false);
+        expectKeyword("while");
+        expect("(");
+        JsonNode condition = parseExpressionAllowingIn();
+        expect(")");
+        optional(";");
+        statement.set("expression", condition);
+        statement.set("statement", body);
+        statement.put("text", "do {" + JsonCodeGenerator.generate(body) + "} while ("
+                + JsonCodeGenerator.generate(condition) + ")");
+        return statement;
+    }
+
+    private ObjectNode parseWhileStatement() {
+        ObjectNode statement = node("WhileStatement");
+        lexer.next();
+        expect("(");
+        JsonNode condition = parseExpressionAllowingIn();
+        expect(")");
+        JsonNode body = parseStatement(false);
+        statement.set("expression", condition);
+        statement.set("statement", body);
+        statement.put("text", "while (" + JsonCodeGenerator.generate(condition) + ") {"
+                + JsonCodeGenerator.generate(body) + "}");
+        return statement;
+    }
+
+    private ObjectNode parseForStatement() {
+        lexer.next();
+        boolean await = false;
+        if (lexer.isIdentifier("await")) {
+            if (!inAsync) {
+                throw unsupported("'for await' outside of an async function");
+            }
+            await = true;
+            lexer.next();
+        }
+        expect("(");
+        JsonNode initializer = NODES.nullNode();
+        if (!lexer.isPunctuation(";")) {
+            boolean savedDisallowIn = disallowIn;
+            disallowIn = true;
+            if (lexer.isIdentifier("var") || lexer.isIdentifier("const")
+                    || (lexer.isIdentifier("let") && isLetDeclaration())) {
+                initializer = parseVariableDeclarationList();
+            } else {
+                initializer = parseExpression();
+            }
+            disallowIn = savedDisallowIn;
+        }
+        if (lexer.isIdentifier("of") || lexer.isIdentifier("in")) {
+            return parseForInOrOfRest(initializer, lexer.text(), await);
+        }
+        if (await) {
+            throw unsupported("Expected 'of' in 'for await'");
+        }
+        ObjectNode statement = node("ForStatement");
+        expect(";");
+        JsonNode condition = lexer.isPunctuation(";") ? NODES.nullNode() : parseExpressionAllowingIn();
+        expect(";");
+        JsonNode incrementor = lexer.isPunctuation(")") ? NODES.nullNode() : parseExpressionAllowingIn();
+        expect(")");
+        JsonNode body = parseStatement(false);
+        statement.set("initializer", initializer);
+        statement.set("condition", condition);
+        statement.set("incrementor", incrementor);
+        statement.set("statement", body);
+        String init = JsonCodeGenerator.generate(initializer);
+        if (isKind(initializer, VARIABLE_DECLARATION_LIST) && !init.isEmpty()) {
+            init = initializer.get("declarationKind").asText() + " " + init;
+        }
+        statement.put("text", "for (" + init + "; " + JsonCodeGenerator.generate(condition) + "; "
+                + JsonCodeGenerator.generate(incrementor) + ") {" + JsonCodeGenerator.generate(body) + "}");
+        return statement;
+    }
+
+    private ObjectNode parseForInOrOfRest(JsonNode initializer, String keyword, boolean await) {
+        boolean forOf = "of".equals(keyword);
+        if (initializer.isNull() || (!forOf && await)) {
+            throw unsupported("Malformed for-" + keyword + " statement");
+        }
+        ObjectNode statement = node(forOf ? "ForOfStatement" : "ForInStatement");
+        lexer.next();
+        JsonNode expression = forOf ? parseAssignmentAllowingIn() : parseExpressionAllowingIn();
+        expect(")");
+        JsonNode body = parseStatement(false);
+        statement.set("initializer", initializer);
+        statement.set("expression", expression);
+        statement.set("statement", body);
+        String init = JsonCodeGenerator.generate(initializer);
+        if (isKind(initializer, VARIABLE_DECLARATION_LIST) && !init.isEmpty()) {
+            init = "const " + init;
+        }
+        if (forOf) {
+            statement.put("awaitModifier", await);
+        }
+        statement.put("text", "for " + (await ? "await " : "") + "(" + init + " " + keyword + " "
+                + JsonCodeGenerator.generate(expression) + ") {" + JsonCodeGenerator.generate(body) + "}");
+        return statement;
+    }
+
+    private ObjectNode parseReturnStatement() {
+        ObjectNode statement = node("ReturnStatement");
+        lexer.next();
+        statement.set("expression", canParseSemicolon() ? NODES.nullNode() : parseExpressionAllowingIn());
+        parseSemicolon();
+        return statement;
+    }
+
+    private ObjectNode parseBreakOrContinueStatement() {
+        ObjectNode statement = node(lexer.isIdentifier("break") ? "BreakStatement" : "ContinueStatement");
+        lexer.next();
+        if (!canParseSemicolon() && isIdentifierToken()) {
+            statement.put("label", lexer.text());
+            lexer.next();
+        } else {
+            statement.putNull("label");
+        }
+        parseSemicolon();
+        return statement;
+    }
+
+    private ObjectNode parseThrowStatement() {
+        ObjectNode statement = node("ThrowStatement");
+        lexer.next();
+        if (lexer.hasLineBreakBefore()) {
+            throw unsupported("Line break after 'throw'");
+        }
+        JsonNode expression = parseExpressionAllowingIn();
+        parseSemicolon();
+        statement.set("expression", expression);
+        statement.put("text", "throw " + JsonCodeGenerator.generate(expression));
+        return statement;
+    }
+
+    private ObjectNode parseTryStatement() {
+        ObjectNode statement = node("TryStatement");
+        lexer.next();
+        ObjectNode tryBlock = parseBlock();
+        JsonNode catchClause = NODES.nullNode();
+        if (optionalKeyword("catch")) {
+            ObjectNode clause = node("CatchClause");
+            if (optional("(")) {
+                clause.set("variableDeclaration", parseVariableDeclaration());
+                expect(")");
+            } else {
+                clause.putNull("variableDeclaration");
+            }
+            clause.set("block", parseBlock());
+            catchClause = clause;
+        }
+        JsonNode finallyBlock = optionalKeyword("finally") ? parseBlock() : NODES.nullNode();
+        if (catchClause.isNull() && finallyBlock.isNull()) {
+            throw unsupported("Expected 'catch' or 'finally'");
+        }
+        statement.set("tryBlock", tryBlock);
+        statement.set("catchClause", catchClause);
+        statement.set("finallyBlock", finallyBlock);
+
+        StringBuilder text = new StringBuilder("try {").append(JsonCodeGenerator.generate(tryBlock)).append('}');
+        if (!catchClause.isNull()) {
+            String variable = JsonCodeGenerator.generate(catchClause.get("variableDeclaration"));
+            String block = JsonCodeGenerator.generate(catchClause.get("block"));
+            text.append(variable.isEmpty() ? " catch {" : " catch (" + variable + ") {").append(block).append('}');
+        }
+        String finallyCode = finallyBlock.isNull() ? "" : JsonCodeGenerator.generate(finallyBlock);
+        if (!finallyCode.isEmpty()) {
+            text.append(" finally {").append(finallyCode).append('}');
+        }
+        statement.put("text", text.toString());
+        return statement;
+    }
+
+    private ObjectNode parseSwitchStatement() {
+        ObjectNode statement = node("SwitchStatement");
+        lexer.next();
+        expect("(");
+        JsonNode expression = parseExpressionAllowingIn();
+        expect(")");
+        ObjectNode caseBlock = node("CaseBlock");
+        ArrayNode clauses = caseBlock.putArray("clauses");
+        StringBuilder text = new StringBuilder("switch (").append(JsonCodeGenerator.generate(expression)).append(") {");
+        expect("{");
+        while (!optional("}")) {
+            ObjectNode clause;
+            if (optionalKeyword("case")) {
+                clause = node("CaseClause");
+                JsonNode label = parseExpressionAllowingIn();
+                clause.set("expression", label);
+                text.append("case ").append(JsonCodeGenerator.generate(label)).append(':');
+            } else if (optionalKeyword("default")) {
+                clause = node("DefaultClause");
+                text.append("default:");
+            } else {
+                throw unsupported("Expected 'case' or 'default'");
+            }
+            expect(":");
+            ArrayNode statements = clause.putArray("statements");
+            while (!lexer.isPunctuation("}") && !lexer.isIdentifier("case") && !lexer.isIdentifier("default")) {
+                if (lexer.kind() == TokenKind.EOF) {
+                    throw unsupported("Expected '}'");
+                }
+                if (skipStrayDot()) {
+                    continue;
+                }
+                JsonNode child = parseStatement(false);
+                statements.add(child);
+                text.append(' ').append(JsonCodeGenerator.generate(child));
+            }
+            if ("CaseClause".equals(clause.get(KIND_NAME).asText()) && !statements.isEmpty()) {
+                text.append(" break;");
+            }
+            clauses.add(clause);
+        }
+        statement.set("expression", expression);
+        statement.set("caseBlock", caseBlock);
+        statement.put("text", text.append('}').toString());
+        return statement;
+    }
+
+    // ========== Declarations ==========
+
+    /**
+     * Parses a declaration with its decorators and modifiers, which the
+     * TypeScript parser keeps together in the modifier list.
+     */
+    private JsonNode parseDeclaration(boolean topLevel) {
+        Modifiers modifiers = new Modifiers();
+        while (true) {
+            if (lexer.isPunctuation("@")) {
+                parseDecorator(modifiers);
+            } else if (lexer.isIdentifier("export")) {
+                lexer.next();
+                if (modifiers.isEmpty() && (lexer.isPunctuation("{") || lexer.isPunctuation("*")
+                        || lexer.isIdentifier("type") && isTypeOnlyExport())) {
+                    return parseExportDeclaration();
+                }
+                if (lexer.isPunctuation("=") || lexer.isIdentifier("import") || lexer.isIdentifier("as")) {
+                    throw unsupported("Unsupported export form");
+                }
+                modifiers.add("ExportKeyword");
+                if (lexer.isIdentifier("default")) {
+                    if (!canFollowDefaultKeyword()) {
+                        if (!modifiers.decoratorNames.isEmpty()) {
+                            throw unsupported("Decorators before 'export default'");
+                        }
+                        return parseExportAssignment();
+                    }
+                    lexer.next();
+                    modifiers.add("DefaultKeyword");
+                }
+            } else if (lexer.isIdentifier("abstract") && nextTokenIsOnSameLine("class")) {
+                lexer.next();
+                modifiers.add("AbstractKeyword");
+            } else if (lexer.isIdentifier("async") && nextTokenIsOnSameLine("function")) {
+                lexer.next();
+                modifiers.add("AsyncKeyword");
+            } else if (lexer.isIdentifier("const") && nextTokenIs("enum")) {
+                lexer.next();
+                modifiers.add("ConstKeyword");
+            } else if (lexer.isIdentifier("declare")) {
+                throw unsupported("Ambient declarations are not supported");
+            } else {
+                break;
+            }
+        }
+        if (lexer.kind() == TokenKind.IDENTIFIER) {
+            switch (lexer.text()) {
+                case "class":
+                    return parseClassDeclaration(modifiers, topLevel);
+                case "function":
+                    return parseFunctionDeclaration(modifiers);
+                case "interface":
+                    return parseInterfaceDeclaration();
+                case "type":
+                    return parseTypeAliasDeclaration();
+                case "enum":
+                    return parseEnumDeclaration();
+                case "var":
+                case "let":
+                case "const":
+                    if (modifiers.decoratorNames.isEmpty()) {
+                        return parseVariableStatement();
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        throw unsupported("Unsupported declaration");
+    }
+
+    private boolean canFollowDefaultKeyword() {
+        long mark = lexer.mark();
+        lexer.next();
+        boolean result = lexer.isIdentifier("class") || lexer.isIdentifier("function")
+                || lexer.isIdentifier("interface") || lexer.isPunctuation("@");
+        if (!result && (lexer.isIdentifier("abstract") || lexer.isIdentifier("async"))) {
+            String expected = lexer.isIdentifier("abstract") ? "class" : "function";
+            lexer.next();
+            result = lexer.isIdentifier(expected) && !lexer.hasLineBreakBefore();
+        }
+        lexer.reset(mark);
+        return result;
+    }
+
+    private boolean isTypeOnlyExport() {
+        long mark = lexer.mark();
+        lexer.next();
+        boolean result = lexer.isPunctuation("{") || lexer.isPunctuation("*");
+        lexer.reset(mark);
+        return result;
+    }
+
+    private void parseDecorator(Modifiers modifiers) {
+        int start = lexer.tokenStart();
+        lexer.next();
+        parseMemberAndCallRest(parsePrimaryExpression(), true, true);
+        modifiers.add("Decorator");
+        Matcher matcher = DECORATOR_NAME.matcher(sliceFrom(start));
+        if (matcher.find()) {
+            modifiers.decoratorNames.add(matcher.group(1));
+        }
+    }
+
+    private ObjectNode parseExportAssignment() {
+        lexer.next();
+        parseAssignmentAllowingIn();
+        parseSemicolon();
+        return node("ExportAssignment");
+    }
+
+    private ObjectNode parseExportDeclaration() {
+        ObjectNode declaration = node("ExportDeclaration");
+        boolean typeOnly = optionalKeyword("type");
+        declaration.put("isTypeOnly", typeOnly);
+        if (optional("*")) {
+            if (optionalKeyword("as")) {
+                parseIdentifierName();
+                declaration.putObject("exportClause").putArray("elements");
+            } else {
+                declaration.putNull("exportClause");
+            }
+        } else {
+            ArrayNode elements = declaration.putObject("exportClause").putArray("elements");
+            parseNamedBindings(elements, false);
+        }
+        if (optionalKeyword("from")) {
+            declaration.put("moduleSpecifier", parseModuleSpecifier());
+        } else {
+            declaration.putNull("moduleSpecifier");
+        }
+        parseSemicolon();
+        return declaration;
+    }
+
+    private ObjectNode parseImportDeclaration() {
+        long mark = lexer.mark();
+        lexer.next();
+        if (lexer.isPunctuation("(") || lexer.isPunctuation(".")) {
+            throw unsupported("Dynamic import and import.meta are not supported");
+        }
+        lexer.reset(mark);
+        lexer.next();
+        ObjectNode declaration = node("ImportDeclaration");
+        if (lexer.kind() == TokenKind.STRING) {
+            declaration.put("moduleSpecifier", parseModuleSpecifier());
+            declaration.putNull("importClause");
+            parseSemicolon();
+            return declaration;
+        }
+        if (lexer.isIdentifier("type") && !nextTokenIs("from") && !nextTokenIsPunctuation(",")) {
+            lexer.next();
+        }
+        ObjectNode importClause = NODES.objectNode();
+        if (isIdentifierToken()) {
+            importClause.put("name", lexer.text());
+            lexer.next();
+            if (lexer.isPunctuation("=")) {
+                throw unsupported("Import equals declarations are not supported");
+            }
+            if (optional(",")) {
+                parseImportBindings(importClause.putArray("namedBindings"));
+            } else {
+                importClause.putArray("namedBindings");
+            }
+        } else {
+            importClause.putNull("name");
+            parseImportBindings(importClause.putArray("namedBindings"));
+        }
+        expectKeyword("from");
+        declaration.put("moduleSpecifier", parseModuleSpecifier());
+        declaration.set("importClause", importClause);
+        if (lexer.isIdentifier("with") || lexer.isIdentifier("assert")) {
+            throw unsupported("Import attributes are not supported");
+        }
+        parseSemicolon();
+        return declaration;
+    }
+
+    private void parseImportBindings(ArrayNode bindings) {
+        if (optional("*")) {
+            expectKeyword("as");
+            ObjectNode binding = bindings.addObject();
+            binding.put("kind", "namespace");
+            binding.put("name", parseBindingIdentifier());
+        } else {
+            parseNamedBindings(bindings, true);
+        }
+    }
+
+    /**
+     * Parses the braced import or export specifiers.
+     */
+    private void parseNamedBindings(ArrayNode bindings, boolean imports) {
+        expect("{");
+        while (!optional("}")) {
+            if (lexer.isIdentifier("type") && !nextTokenIsPunctuation(",") && !nextTokenIsPunctuation("}")) {
+                if (nextTokenIs("as")) {
+                    throw unsupported("Ambiguous type-only specifier");
+                }
+                lexer.next();
+            }
+            String first = parseSpecifierName();
+            String propertyName = null;
+            String name = first;
+            if (optionalKeyword("as")) {
+                propertyName = first;
+                name = imports ? parseBindingIdentifier() : parseSpecifierName();
+            }
+            ObjectNode binding = bindings.addObject();
+            binding.put("name", name);
+            binding.put("propertyName", propertyName);
+            if (!lexer.isPunctuation("}")) {
+                expect(",");
+            }
+        }
+    }
+
+    private String parseSpecifierName() {
+        if (lexer.kind() == TokenKind.STRING) {
+            String text = lexer.text();
+            lexer.next();
+            return text;
+        }
+        return parseIdentifierName();
+    }
+
+    private String parseModuleSpecifier() {
+        if (lexer.kind() != TokenKind.STRING) {
+            throw unsupported("Expected a module specifier");
+        }
+        String text = lexer.text();
+        lexer.next();
+        return text;
+    }
+
+    private ObjectNode parseInterfaceDeclaration() {
+        ObjectNode declaration = node("InterfaceDeclaration");
+        lexer.next();
+        declaration.put("name", escape(parseBindingIdentifier()));
+        skipTypeParameters();
+        if (optionalKeyword("extends")) {
+            do {
+                parseType();
+            } while (optional(","));
+        }
+        skipObjectType();
+        declaration.put("isTypeOnly", true);
+        return declaration;
+    }
+
+    private ObjectNode parseTypeAliasDeclaration() {
+        lexer.next();
+        parseBindingIdentifier();
+        skipTypeParameters();
+        expect("=");
+        parseType();
+        parseSemicolon();
+        return node("TypeAliasDeclaration");
+    }
+
+    private ObjectNode parseEnumDeclaration() {
+        lexer.next();
+        parseBindingIdentifier();
+        expect("{");
+        while (!optional("}")) {
+            if (lexer.kind() == TokenKind.STRING) {
+                lexer.next();
+            } else {
+                parseIdentifierName();
+            }
+            if (optional("=")) {
+                parseAssignmentAllowingIn();
+            }
+            if (!lexer.isPunctuation("}")) {
+                expect(",");
+            }
+        }
+        return node("EnumDeclaration");
+    }
+
+    private ObjectNode parseFunctionDeclaration(Modifiers modifiers) {
+        ObjectNode declaration = node("FunctionDeclaration");
+        lexer.next();
+        boolean generator = optional("*");
+        declaration.put("name", isIdentifierToken() ? escape(parseBindingIdentifier()) : "");
+        declaration.set("modifiers", modifiers.kinds);
+        parseFunctionRest(declaration, modifiers.has("AsyncKeyword"), generator, true);
+        declaration.put("asteriskToken", generator);
+        return declaration;
+    }
+
+    /**
+     * Parses type parameters, parameters, return type and an optional body
+     * into the parameters and body fields of a function-like node.
+     */
+    private ParameterList parseFunctionRest(ObjectNode function, boolean async, boolean generator,
+                                            boolean bodyOptional) {
+        boolean savedAsync = inAsync;
+        boolean savedGenerator = inGenerator;
+        inAsync = async;
+        inGenerator = generator;
+        skipTypeParameters();
+        ParameterList parameters = parseParameters();
+        function.set("parameters", parameters.json);
+        if (optional(":")) {
+            parseReturnType();
+        }
+        if (lexer.isPunctuation("{")) {
+            function.set("body", parseFunctionBody());
+        } else if (bodyOptional) {
+            parseSemicolon();
+            function.putNull("body");
+        } else {
+            throw unsupported("Expected a function body");
+        }
+        inAsync = savedAsync;
+        inGenerator = savedGenerator;
+        return parameters;
+    }
+
+    private ObjectNode parseFunctionBody() {
+        boolean savedDisallowIn = disallowIn;
+        int savedWhenTrueDepth = whenTrueDepth;
+        disallowIn = false;
+        whenTrueDepth = 0;
+        ObjectNode body = parseBlock();
+        disallowIn = savedDisallowIn;
+        whenTrueDepth = savedWhenTrueDepth;
+        return body;
+    }
+
+    private ObjectNode parseClassDeclaration(Modifiers modifiers, boolean topLevel) {
+        ObjectNode declaration = node("ClassDeclaration");
+        lexer.next();
+        String name = isIdentifierToken() && !lexer.isIdentifier("implements") && !lexer.isIdentifier("extends")
+                ? escape(parseBindingIdentifier()) : "";
+        declaration.put("name", name);
+        declaration.put("isExport", modifiers.has("ExportKeyword"));
+        ArrayNode decorators = declaration.putArray("decorators");
+        if (topLevel) {
+            // Decorators taken off structs by the preprocessing go to every top-level class
+            for (String decorator : extractedDecorators) {
+                decorators.addObject().put("name", decorator);
+            }
+        }
+        skipTypeParameters();
+        JsonNode heritageClauses = parseHeritageClauses();
+        ArrayNode members = declaration.putArray("members");
+        expect("{");
+        while (!optional("}")) {
+            if (lexer.kind() == TokenKind.EOF) {
+                throw unsupported("Expected '}'");
+            }
+            members.add(parseClassMember());
+        }
+        declaration.set("heritageClauses", heritageClauses);
+        return declaration;
+    }
+
+    private JsonNode parseHeritageClauses() {
+        ArrayNode clauses = null;
+        while (lexer.isIdentifier("extends") || lexer.isIdentifier("implements")) {
+            if (clauses == null) {
+                clauses = NODES.arrayNode();
+            }
+            ObjectNode clause = clauses.addObject();
+            clause.put("token", lexer.isIdentifier("extends") ? "ExtendsKeyword" : "FirstFutureReservedWord");
+            lexer.next();
+            ArrayNode types = clause.putArray("types");
+            do {
+                int start = lexer.tokenStart();
+                parseMemberAndCallRest(parsePrimaryExpression(), false, false);
+                types.add(sliceFrom(start));
+                if (lexer.isPunctuation("<")) {
+                    skipTypeArguments();
+                }
+            } while (optional(","));
+        }
+        return clauses == null ? NODES.nullNode() : clauses;
+    }
+
+    private JsonNode parseClassMember() {
+        if (lexer.isPunctuation(";")) {
+            lexer.next();
+            return node("SemicolonClassElement");
+        }
+        Modifiers modifiers = new Modifiers();
+        while (true) {
+            if (lexer.isPunctuation("@")) {
+                parseDecorator(modifiers);
+            } else if (lexer.kind() == TokenKind.IDENTIFIER && CLASS_MEMBER_MODIFIERS.contains(lexer.text())
+                    && nextTokenCanFollowModifier()) {
+                if (lexer.isIdentifier("static") && nextTokenIsPunctuation("{")) {
+                    throw unsupported("Static blocks are not supported");
+                }
+                modifiers.add(modifierKindName(lexer.text()));
+                lexer.next();
+            } else if ((lexer.isIdentifier("abstract") || lexer.isIdentifier("override")
+                    || lexer.isIdentifier("accessor")) && nextTokenCanFollowModifier()) {
+                throw unsupported("'" + lexer.text() + "' members are not supported");
+            } else {
+                break;
+            }
+        }
+        if (lexer.isIdentifier("constructor") && nextTokenIsPunctuation("(")) {
+            ObjectNode constructor = node("Constructor");
+            lexer.next();
+            constructor.put("name", "constructor");
+            parseFunctionRest(constructor, false, false, true);
+            return constructor;
+        }
+        if ((lexer.isIdentifier("get") || lexer.isIdentifier("set")) && nextTokenCanFollowGetOrSet()) {
+            return parseAccessor(true);
+        }
+        if (lexer.isPunctuation("[") && isIndexSignature()) {
+            throw unsupported("Index signatures are not supported");
+        }
+        boolean generator = optional("*");
+        PropertyName name = parsePropertyName(true);
+        boolean optionalMember = optional("?");
+        if (lexer.isPunctuation("(") || lexer.isPunctuation("<")) {
+            ObjectNode method = node("MethodDeclaration");
+            method.put("name", name.escapedName);
+            method.set("decorators", modifiers.decorators());
+            method.set("modifiers", modifiers.kinds);
+            parseFunctionRest(method, modifiers.has("AsyncKeyword"), generator, true);
+            method.put("asteriskToken", generator);
+            return method;
+        }
+        if (generator) {
+            throw unsupported("Expected '('");
+        }
+        if (!optionalMember) {
+            optional("!");
+        }
+        ObjectNode property = node("PropertyDeclaration");
+        property.put("name", name.escapedName);
+        property.put("type", parseTypeAnnotation());
+        if (optional("=")) {
+            int start = lexer.tokenStart();
+            JsonNode initializer = parseAssignmentAllowingIn();
+            property.set("initializer", initializer);
+            String text = initializer.path("text").asText("");
+            property.put("initializerText", text.isEmpty() ? sliceFrom(start) : text);
+        } else {
+            property.putNull("initializer");
+        }
+        property.set("decorators", modifiers.decorators());
+        property.set("modifiers", modifiers.kinds);
+        parseSemicolon();
+        return property;
+    }
+
+    /**
+     * Parses a get or set accessor of a class or an object literal.
+     */
+    private ObjectNode parseAccessor(boolean classMember) {
+        boolean getter = lexer.isIdentifier("get");
+        ObjectNode accessor = node(getter ? "GetAccessor" : "SetAccessor");
+        lexer.next();
+        PropertyName name = parsePropertyName(true);
+        accessor.put("name", name.escapedName);
+        boolean savedAsync = inAsync;
+        boolean savedGenerator = inGenerator;
+        inAsync = false;
+        inGenerator = false;
+        skipTypeParameters();
+        ParameterList parameters = parseParameters();
+        if (optional(":")) {
+            parseType();
+        }
+        JsonNode body = lexer.isPunctuation("{") ? parseFunctionBody() : null;
+        if (body == null) {
+            if (!classMember) {
+                throw unsupported("Expected an accessor body");
+            }
+            parseSemicolon();
+        }
+        inAsync = savedAsync;
+        inGenerator = savedGenerator;
+        String bodyCode = JsonCodeGenerator.generate(body);
+        if (getter) {
+            accessor.set("body", body == null ? NODES.nullNode() : body);
+            accessor.put("text", "get " + name.text + "() {" + bodyCode + "}");
+            return accessor;
+        }
+        ArrayNode simpleParameters = accessor.putArray("parameters");
+        for (JsonNode parameter : parameters.json) {
+            ObjectNode simple = simpleParameters.addObject();
+            simple.put("name", parameter.has("bindingPattern") ? "" : parameter.get("name").asText());
+            simple.put("type", parameter.get("type").asText());
+        }
+        accessor.set("body", body == null ? NODES.nullNode() : body);
+        accessor.put("text", "set " + name.text + "(" + String.join(", ", parameters.sourceNames) + ") {" + bodyCode + "}");
+        return accessor;
+    }
+
+    // ========== Parameters and bindings ==========
+
+    private ParameterList parseParameters() {
+        ParameterList parameters = new ParameterList();
+        expect("(");
+        boolean savedDisallowIn = disallowIn;
+        disallowIn = false;
+        while (!optional(")")) {
+            if (lexer.isPunctuation("@")) {
+                throw unsupported("Parameter decorators are not supported");
+            }
+            while (lexer.kind() == TokenKind.IDENTIFIER && PARAMETER_MODIFIERS.contains(lexer.text())
+                    && nextTokenStartsBindingName()) {
+                lexer.next();
+            }
+            ObjectNode parameter = parameters.json.addObject();
+            boolean rest = optional("...");
+            int nameStart = lexer.tokenStart();
+            JsonNode bindingPattern = null;
+            String name;
+            if (lexer.isPunctuation("{") || lexer.isPunctuation("[")) {
+                bindingPattern = parseBindingPattern();
+                name = sliceFrom(nameStart);
+            } else if (lexer.isIdentifier("this")) {
+                lexer.next();
+                name = "this";
+            } else {
+                name = escape(parseBindingIdentifier());
+            }
+            String sourceName = sliceFrom(nameStart);
+            parameter.put("name", name);
+            boolean questionToken = optional("?");
+            parameter.put("type", parseTypeAnnotation());
+            parameter.put("hasDotDotDot", rest);
+            parameter.put("questionToken", questionToken);
+            if (bindingPattern != null) {
+                parameter.set("bindingPattern", bindingPattern);
+            }
+            StringBuilder code = new StringBuilder(rest ? "..." : "").append(name);
+            if (optional("=")) {
+                int initializerStart = lexer.tokenStart();
+                JsonNode initializer = parseAssignment();
+                parameter.set("initializer", initializer);
+                String text = initializer.path("text").asText("");
+                parameter.put("initializerText", text.isEmpty() ? sliceFrom(initializerStart) : text);
+                code.append(" = ").append(JsonCodeGenerator.generate(initializer));
+            }
+            parameters.sourceNames.add(sourceName);
+            parameters.codes.add(code.toString());
+            if (!lexer.isPunctuation(")")) {
+                expect(",");
+            }
+        }
+        disallowIn = savedDisallowIn;
+        return parameters;
+    }
+
+    /**
+     * Parses a binding identifier or pattern.
+     */
+    private void parseBindingName() {
+        if (lexer.isPunctuation("{") || lexer.isPunctuation("[")) {
+            parseBindingPattern();
+        } else {
+            parseBindingIdentifier();
+        }
+    }
+
+    private ObjectNode parseBindingPattern() {
+        boolean object = lexer.isPunctuation("{");
+        ObjectNode pattern = node(object ? "ObjectBindingPattern" : "ArrayBindingPattern");
+        ArrayNode elements = pattern.putArray("elements");
+        String close = object ? "}" : "]";
+        lexer.next();
+        while (!optional(close)) {
+            if (!object && lexer.isPunctuation(",")) {
+                lexer.next();
+                elements.add(node("OmittedExpression"));
+                continue;
+            }
+            elements.add(parseBindingElement(object));
+            if (!lexer.isPunctuation(close)) {
+                expect(",");
+            }
+        }
+        return pattern;
+    }
+
+    private ObjectNode parseBindingElement(boolean inObject) {
+        ObjectNode element = node("BindingElement");
+        boolean rest = optional("...");
+        int nameStart = lexer.tokenStart();
+        String propertyName = null;
+        if (inObject && !rest) {
+            PropertyName property = parsePropertyName(true);
+            if (optional(":")) {
+                propertyName = property.text;
+                nameStart = lexer.tokenStart();
+                parseBindingName();
+            } else if (property.escapedName.isEmpty() || RESERVED_WORDS.contains(property.text)) {
+                throw unsupported("Expected a binding name");
+            }
+        } else {
+            parseBindingName();
+        }
+        element.put("name", sliceFrom(nameStart));
+        if (propertyName != null) {
+            element.put("propertyName", propertyName);
+        }
+        if (optional("=")) {
+            element.set("initializer", parseAssignmentAllowingIn());
+        }
+        if (rest) {
+            element.put("dotDotDotToken", true);
+        }
+        return element;
+    }
+
+    /**
+     * Parses the name of a class member, object literal member or binding element.
+     */
+    private PropertyName parsePropertyName(boolean allowComputed) {
+        int start = lexer.tokenStart();
+        String escapedName = "";
+        if (lexer.kind() == TokenKind.IDENTIFIER) {
+            escapedName = escape(lexer.text());
+            lexer.next();
+        } else if (lexer.kind() == TokenKind.STRING || lexer.kind() == TokenKind.NUMBER) {
+            lexer.next();
+        } else if (lexer.isPunctuation("[") && allowComputed) {
+            lexer.next();
+            parseAssignmentAllowingIn();
+            expect("]");
+        } else {
+            throw unsupported("Expected a property name");
+        }
+        return new PropertyName(escapedName, sliceFrom(start));
+    }
+
+    // ========== Expressions ==========
+
+    private JsonNode parseExpressionAllowingIn() {
+        boolean savedDisallowIn = disallowIn;
+        disallowIn = false;
+        JsonNode expression = parseExpression();
+        disallowIn = savedDisallowIn;
+        return expression;
+    }
+
+    private JsonNode parseAssignmentAllowingIn() {
+        boolean savedDisallowIn = disallowIn;
+        disallowIn = false;
+        JsonNode expression = parseAssignment();
+        disallowIn = savedDisallowIn;
+        return expression;
+    }
+
+    private JsonNode parseExpression() {
+        JsonNode expression = parseAssignment();
+        while (optional(",")) {
+            expression = binary(expression, ",", parseAssignment());
+        }
+        return expression;
+    }
+
+    private JsonNode parseAssignment() {
+        if (lexer.isIdentifier("yield")) {
+            throw unsupported("Yield expressions are not supported");
+        }
+        JsonNode arrow = tryParseArrowFunction();
+        if (arrow != null) {
+            return arrow;
+        }
+        JsonNode expression = parseBinary(0);
+        lexer.reScanGreaterToken();
+        if (lexer.kind() == TokenKind.PUNCTUATION && ASSIGNMENT_OPERATORS.contains(lexer.text())
+                && isLeftHandSide(expression)) {
+            String operator = lexer.text();
+            lexer.next();
+            return binary(expression, operator, parseAssignment());
+        }
+        if (!optional("?")) {
+            return expression;
+        }
+        ObjectNode conditional = node("ConditionalExpression");
+        conditional.set("condition", expression);
+        whenTrueDepth++;
+        conditional.set("whenTrue", parseAssignmentAllowingIn());
+        whenTrueDepth--;
+        expect(":");
+        conditional.set("whenFalse", parseAssignment());
+        return conditional;
+    }
+
+    private static boolean isLeftHandSide(JsonNode expression) {
+        switch (expression.get(KIND_NAME).asText()) {
+            case "BinaryExpression":
+            case "PrefixUnaryExpression":
+            case "PostfixUnaryExpression":
+            case "ConditionalExpression":
+            case "ArrowFunction":
+            case "AsExpression":
+            case "AwaitExpression":
+            case "TypeOfExpression":
+            case "DeleteExpression":
+            case "VoidExpression":
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    private JsonNode parseBinary(int precedence) {
+        JsonNode left = parseUnary();
+        while (true) {
+            lexer.reScanGreaterToken();
+            int operatorPrecedence = binaryOperatorPrecedence();
+            boolean exponent = lexer.isPunctuation("**");
+            if (operatorPrecedence == 0
+                    || (exponent ? operatorPrecedence < precedence : operatorPrecedence <= precedence)
+                    || (disallowIn && lexer.isIdentifier("in"))) {
+                return left;
+            }
+            if (lexer.isIdentifier("as") || lexer.isIdentifier("satisfies")) {
+                if (lexer.hasLineBreakBefore()) {
+                    return left;
+                }
+                if (lexer.isIdentifier("satisfies")) {
+                    throw unsupported("Satisfies expressions are not supported");
+                }
+                lexer.next();
+                int typeStart = lexer.tokenStart();
+                parseType();
+                ObjectNode as = node("AsExpression");
+                as.set("expression", left);
+                as.put("type", sliceFrom(typeStart));
+                as.put("text", JsonCodeGenerator.generate(left));
+                left = as;
+                continue;
+            }
+            String operator = lexer.text();
+            lexer.next();
+            left = binary(left, operator, parseBinary(operatorPrecedence));
+        }
+    }
+
+    private int binaryOperatorPrecedence() {
+        if (lexer.kind() == TokenKind.IDENTIFIER) {
+            switch (lexer.text()) {
+                case "instanceof":
+                case "in":
+                case "as":
+                case "satisfies":
+                    return 11;
+                default:
+                    return 0;
+            }
+        }
+        if (lexer.kind() != TokenKind.PUNCTUATION) {
+            return 0;
+        }
+        switch (lexer.text()) {
+            case "??":
+                return 4;
+            case "||":
+                return 5;
+            case "&&":
+                return 6;
+            case "|":
+                return 7;
+            case "^":
+                return 8;
+            case "&":
+                return 9;
+            case "==":
+            case "!=":
+            case "===":
+            case "!==":
+                return 10;
+            case "<":
+            case ">":
+            case "<=":
+            case ">=":
+                return 11;
+            case "<<":
+            case ">>":
+            case ">>>":
+                return 12;
+            case "+":
+            case "-":
+                return 13;
+            case "*":
+            case "/":
+            case "%":
+                return 14;
+            case "**":
+                return 15;
+            default:
+                return 0;
+        }
+    }
+
+    private JsonNode parseUnary() {
+        ObjectNode unary;
+        if (lexer.kind() == TokenKind.PUNCTUATION) {
+            switch (lexer.text()) {
+                case "+":
+                case "-":
+                case "~":
+                case "!":
+                    unary = prefix(lexer.text());
+                    unary.set("operand", parseUnary());
+                    return checkNoExponent(unary);
+                case "++":
+                case "--":
+                    unary = prefix(lexer.text());
+                    unary.set("operand", parseLeftHandSide());
+                    return unary;
+                case "<":
+                    throw unsupported("Type assertions are not supported");
+                default:
+                    break;
+            }
+        } else if (lexer.kind() == TokenKind.IDENTIFIER) {
+            switch (lexer.text()) {
+                case "delete":
+                case "typeof":
+                    unary = node(lexer.isIdentifier("delete") ? "DeleteExpression" : "TypeOfExpression");
+                    lexer.next();
+                    unary.set("expression", parseUnary());
+                    return checkNoExponent(unary);
+                case "void":
+                    lexer.next();
+                    parseUnary();
+                    return checkNoExponent(node("VoidExpression"));
+                case "await":
+                    if (!inAsync) {
+                        throw unsupported("'await' outside of an async function");
+                    }
+                    unary = node("AwaitExpression");
+                    lexer.next();
+                    unary.set("expression", parseUnary());
+                    return checkNoExponent(unary);
+                default:
+                    break;
+            }
+        }
+        JsonNode expression = parseLeftHandSide();
+        if ((lexer.isPunctuation("++") || lexer.isPunctuation("--")) && !lexer.hasLineBreakBefore()) {
+            ObjectNode postfix = node("PostfixUnaryExpression");
+            postfix.put("operator", lexer.text());
+            postfix.set("operand", expression);
+            lexer.next();
+            return postfix;
+        }
+        return expression;
+    }
+
+    private ObjectNode prefix(String operator) {
+        ObjectNode unary = node("PrefixUnaryExpression");
+        unary.put("operator", operator);
+        lexer.next();
+        return unary;
+    }
+
+    private JsonNode checkNoExponent(JsonNode unary) {
+        if (lexer.isPunctuation("**")) {
+            throw unsupported("Unary expression before '**'");
+        }
+        return unary;
+    }
+
+    private JsonNode parseLeftHandSide() {
+        JsonNode expression;
+        if (lexer.isIdentifier("super")) {
+            lexer.next();
+            if (!lexer.isPunctuation("(") && !lexer.isPunctuation(".") && !lexer.isPunctuation("[")) {
+                throw unsupported("Expected '(', '.' or '[' after 'super'");
+            }
+            expression = node("SuperKeyword");
+        } else {
+            expression = parsePrimaryExpression();
+        }
+        return parseMemberAndCallRest(expression, true, false);
+    }
+
+    /**
+     * Parses property and element accesses, non-null assertions and, if
+     * allowed, calls following an expression.
+     */
+    private JsonNode parseMemberAndCallRest(JsonNode target, boolean allowCalls, boolean decorator) {
+        JsonNode expression = target;
+        while (true) {
+            if (optional(".")) {
+                expression = propertyAccess(expression, parseIdentifierName(), false);
+            } else if (lexer.isPunctuation("?.")) {
+                if (!allowCalls || decorator) {
+                    throw unsupported("Unexpected optional chain");
+                }
+                lexer.next();
+                if (lexer.isPunctuation("(")) {
+                    expression = parseCall(expression);
+                } else if (optional("[")) {
+                    expression = elementAccess(expression, true);
+                } else if (lexer.isPunctuation("<") || lexer.kind() != TokenKind.IDENTIFIER) {
+                    throw unsupported("Unsupported optional chain");
+                } else {
+                    expression = propertyAccess(expression, parseIdentifierName(), true);
+                }
+            } else if (!decorator && optional("[")) {
+                expression = elementAccess(expression, false);
+            } else if (lexer.isPunctuation("!") && !lexer.hasLineBreakBefore()) {
+                lexer.next();
+                ObjectNode nonNull = node("NonNullExpression");
+                nonNull.set("expression", expression);
+                nonNull.put("text", JsonCodeGenerator.generate(expression));
+                expression = nonNull;
+            } else if (lexer.kind() == TokenKind.NO_SUBSTITUTION_TEMPLATE || lexer.kind() == TokenKind.TEMPLATE_HEAD) {
+                throw unsupported("Tagged templates are not supported");
+            } else if (allowCalls && lexer.isPunctuation("(")) {
+                expression = parseCall(expression);
+            } else if (allowCalls && lexer.isPunctuation("<") && tryParseTypeArgumentsOfCall()) {
+                expression = parseCall(expression);
+            } else {
+                return expression;
+            }
+        }
+    }
+
+    private ObjectNode propertyAccess(JsonNode expression, String name, boolean questionDot) {
+        ObjectNode access = node("PropertyAccessExpression");
+        String escapedName = escape(name);
+        access.set("expression", expression);
+        access.put("name", escapedName);
+        access.put("questionDotToken", questionDot);
+        access.put("text", JsonCodeGenerator.generate(expression) + (questionDot ? "?." : ".") + escapedName);
+        return access;
+    }
+
+    private ObjectNode elementAccess(JsonNode expression, boolean questionDot) {
+        ObjectNode access = node("ElementAccessExpression");
+        access.set("expression", expression);
+        access.set("argumentExpression", parseExpressionAllowingIn());
+        access.put("questionDotToken", questionDot);
+        expect("]");
+        return access;
+    }
+
+    /**
+     * Skips the type arguments of a call. Type arguments the TypeScript
+     * parser would keep without a call are rejected.
+     *
+     * @return false if the less-than sign is a relational operator
+     */
+    private boolean tryParseTypeArgumentsOfCall() {
+        long mark = lexer.mark();
+        try {
+            skipTypeArguments();
+        } catch (UnsupportedSyntaxException e) {
+            lexer.reset(mark);
+            return false;
+        }
+        if (lexer.isPunctuation("(")) {
+            return true;
+        }
+        if (lexer.isPunctuation("<") || lexer.isPunctuation(">") || lexer.isPunctuation("+")
+                || lexer.isPunctuation("-")) {
+            lexer.reset(mark);
+            return false;
+        }
+        throw unsupported("Instantiation expressions are not supported");
+    }
+
+    private ObjectNode parseCall(JsonNode callee) {
+        ObjectNode call = node("CallExpression");
+        call.set("expression", callee);
+        boolean resourceCall = isIdentifierNamed(callee, "$r") || isIdentifierNamed(callee, "$rawfile");
+        boolean forEach = isIdentifierNamed(callee, "ForEach");
+        ArrayNode arguments = call.putArray("arguments");
+        expect("(");
+        boolean savedDisallowIn = disallowIn;
+        disallowIn = false;
+        while (!optional(")")) {
+            int start = lexer.tokenStart();
+            JsonNode argument;
+            if (optional("...")) {
+                argument = node("SpreadElement").set("expression", parseAssignment());
+            } else {
+                argument = parseAssignment();
+            }
+            String sourceText = sliceFrom(start);
+            if (forEach) {
+                arguments.add(argument);
+            } else if (resourceCall) {
+                arguments.add(sourceText);
+            } else {
+                addCallArgument(arguments, argument, sourceText);
+            }
+            if (!lexer.isPunctuation(")")) {
+                expect(",");
+            }
+        }
+        disallowIn = savedDisallowIn;
+        call.put("isChainedCall", isKind(callee, "PropertyAccessExpression")
+                && isKind(callee.get("expression"), "CallExpression"));
+        JsonNode component = callee.path("expression").path("expression");
+        call.put("componentName", isKind(component, IDENTIFIER) ? component.get("name").asText() : null);
+        JsonNode name = callee.get("name");
+        call.put("methodName", name != null && name.isTextual() && !name.asText().isEmpty() ? name.asText() : null);
+        call.put("isSpecialComponent", isIdentifierNamed(callee, "ForEach") || isIdentifierNamed(callee, "If"));
+        return call;
+    }
+
+    /**
+     * Adds a call argument: literals of objects, arrays and arrow functions
+     * as nodes, any other argument as its text.
+     */
+    private static void addCallArgument(ArrayNode arguments, JsonNode argument, String sourceText) {
+        if (isKind(argument, "ObjectLiteralExpression") || isKind(argument, "ArrayLiteralExpression")
+                || isKind(argument, "ArrowFunction")) {
+            arguments.add(argument);
+            return;
+        }
+        String text = argument.path("text").asText("");
+        arguments.add(text.isEmpty() ? sourceText : text);
+    }
+
+    private JsonNode parseNewExpression() {
+        lexer.next();
+        if (lexer.isPunctuation(".")) {
+            throw unsupported("new.target is not supported");
+        }
+        JsonNode callee = parseMemberAndCallRest(parsePrimaryExpression(), false, false);
+        if (lexer.isPunctuation("<")) {
+            skipTypeArguments();
+            if (!lexer.isPunctuation("(")) {
+                throw unsupported("Expected '(' after type arguments");
+            }
+        }
+        ObjectNode expression = node("NewExpression");
+        expression.set("expression", callee);
+        ArrayNode arguments = expression.putArray("arguments");
+        if (optional("(")) {
+            boolean savedDisallowIn = disallowIn;
+            disallowIn = false;
+            while (!optional(")")) {
+                if (optional("...")) {
+                    arguments.add(node("SpreadElement").set("expression", parseAssignment()));
+                } else {
+                    arguments.add(parseAssignment());
+                }
+                if (!lexer.isPunctuation(")")) {
+                    expect(",");
+                }
+            }
+            disallowIn = savedDisallowIn;
+        }
+        return expression;
+    }
+
+    private JsonNode parsePrimaryExpression() {
+        ObjectNode expression;
+        switch (lexer.kind()) {
+            case NUMBER:
+                expression = node("FirstLiteralToken");
+                expression.put("text", lexer.value());
+                lexer.next();
+                return expression;
+            case STRING:
+                expression = node("StringLiteral");
+                expression.put("text", "\"" + lexer.value() + "\"");
+                lexer.next();
+                return expression;
+            case NO_SUBSTITUTION_TEMPLATE:
+                expression = node("FirstTemplateToken");
+                expression.put("text", "`" + lexer.value() + "`");
+                lexer.next();
+                return expression;
+            case TEMPLATE_HEAD:
+                return parseTemplateExpression();
+            case IDENTIFIER:
+                return parseIdentifierOrKeywordExpression();
+            case PUNCTUATION:
+                return parsePunctuationExpression();
+            default:
+                throw unsupported("Expected an expression");
+        }
+    }
+
+    private JsonNode parseIdentifierOrKeywordExpression() {
+        ObjectNode expression;
+        switch (lexer.text()) {
+            case "this":
+                lexer.next();
+                return node("ThisKeyword");
+            case "true":
+            case "false":
+            case "null":
+                expression = node(Character.toUpperCase(lexer.text().charAt(0)) + lexer.text().substring(1) + "Keyword");
+                expression.put("text", lexer.text());
+                lexer.next();
+                return expression;
+            case "function":
+                return parseFunctionExpression(false);
+            case "new":
+                return parseNewExpression();
+            case "async":
+                if (nextTokenIsOnSameLine("function")) {
+                    lexer.next();
+                    return parseFunctionExpression(true);
+                }
+                break;
+            default:
+                if (RESERVED_WORDS.contains(lexer.text())) {
+                    throw unsupported("Unexpected '" + lexer.text() + "'");
+                }
+                break;
+        }
+        return identifier(parseIdentifierName());
+    }
+
+    private JsonNode parsePunctuationExpression() {
+        switch (lexer.text()) {
+            case "(":
+                lexer.next();
+                ObjectNode parenthesized = node("ParenthesizedExpression");
+                int savedWhenTrueDepth = whenTrueDepth;
+                whenTrueDepth = 0;
+                parenthesized.set("expression", parseExpressionAllowingIn());
+                whenTrueDepth = savedWhenTrueDepth;
+                expect(")");
+                return parenthesized;
+            case "[":
+                return parseArrayLiteral();
+            case "{":
+                return parseObjectLiteral();
+            case "/":
+            case "/=":
+                lexer.reScanSlashToken();
+                lexer.next();
+                return node("RegularExpressionLiteral");
+            default:
+                throw unsupported("Unexpected '" + lexer.text() + "'");
+        }
+    }
+
+    private ObjectNode identifier(String name) {
+        ObjectNode identifier = node(IDENTIFIER);
+        identifier.put("name", escape(name));
+        identifier.put("text", name);
+        return identifier;
+    }
+
+    private ObjectNode parseTemplateExpression() {
+        ObjectNode template = node("TemplateExpression");
+        String head = lexer.value();
+        template.putObject("head").put("text", head);
+        ArrayNode spans = template.putArray("templateSpans");
+        StringBuilder text = new StringBuilder("`").append(escapeTemplateLiteral(head));
+        lexer.next();
+        while (true) {
+            JsonNode expression = parseExpressionAllowingIn();
+            lexer.reScanTemplateContinuation();
+            TokenKind kind = lexer.kind();
+            String literal = lexer.value();
+            ObjectNode span = spans.addObject();
+            span.set("expression", expression);
+            span.putObject("literal").put("text", literal);
+            text.append("${").append(JsonCodeGenerator.generate(expression)).append('}')
+                    .append(escapeTemplateLiteral(literal));
+            lexer.next();
+            if (kind == TokenKind.TEMPLATE_TAIL) {
+                break;
+            }
+        }
+        template.put("text", text.append('`').toString());
+        return template;
+    }
+
+    private ObjectNode parseArrayLiteral() {
+        ObjectNode array = node("ArrayLiteralExpression");
+        ArrayNode elements = array.putArray("elements");
+        lexer.next();
+        boolean savedDisallowIn = disallowIn;
+        disallowIn = false;
+        while (!optional("]")) {
+            if (optional(",")) {
+                elements.add(node("OmittedExpression"));
+                continue;
+            }
+            if (optional("...")) {
+                elements.add(node("SpreadElement").set("expression", parseAssignment()));
+            } else {
+                elements.add(parseAssignment());
+            }
+            if (!lexer.isPunctuation("]")) {
+                expect(",");
+            }
+        }
+        disallowIn = savedDisallowIn;
+        return array;
+    }
+
+    private ObjectNode parseObjectLiteral() {
+        ObjectNode object = node("ObjectLiteralExpression");
+        ArrayNode properties = object.putArray("properties");
+        StringBuilder text = new StringBuilder();
+        lexer.next();
+        boolean savedDisallowIn = disallowIn;
+        disallowIn = false;
+        while (!optional("}")) {
+            JsonNode property;
+            String code;
+            if (optional("...")) {
+                JsonNode expression = parseAssignment();
+                property = node("SpreadAssignment").set("expression", expression);
+                code = "..." + JsonCodeGenerator.generate(expression);
+            } else if ((lexer.isIdentifier("get") || lexer.isIdentifier("set")) && nextTokenCanFollowGetOrSet()) {
+                property = parseAccessor(false);
+                code = JsonCodeGenerator.generate(property);
+            } else if (lexer.isPunctuation("*") || (lexer.isIdentifier("async") && nextTokenCanFollowModifier())) {
+                throw unsupported("Object literal methods are not supported");
+            } else {
+                boolean shorthand = isIdentifierToken();
+                PropertyName name = parsePropertyName(true);
+                if (optional(":")) {
+                    JsonNode value = parseAssignment();
+                    ObjectNode assignment = node("PropertyAssignment");
+                    assignment.put("name", name.text);
+                    assignment.set("value", value);
+                    property = assignment;
+                    code = name.text + ": " + JsonCodeGenerator.generate(value);
+                } else if (shorthand && (lexer.isPunctuation(",") || lexer.isPunctuation("}"))) {
+                    ObjectNode assignment = node("ShorthandPropertyAssignment");
+                    assignment.put("name", name.text);
+                    ObjectNode value = assignment.putObject("value");
+                    value.put(KIND_NAME, IDENTIFIER);
+                    value.put("name", name.text);
+                    value.put("text", name.text);
+                    property = assignment;
+                    code = name.text;
+                } else {
+                    throw unsupported("Object literal methods are not supported");
+                }
+            }
+            properties.add(property);
+            if (text.length() > 0) {
+                text.append(", ");
+            }
+            text.append(code);
+            if (!lexer.isPunctuation("}")) {
+                expect(",");
+            }
+        }
+        disallowIn = savedDisallowIn;
+        object.put("text", properties.isEmpty() ? "{}" : "{" + text + "}");
+        return object;
+    }
+
+    private ObjectNode parseFunctionExpression(boolean async) {
+        ObjectNode function = node("FunctionExpression");
+        lexer.next();
+        boolean generator = optional("*");
+        String name = isIdentifierToken() ? escape(parseBindingIdentifier()) : "";
+        function.put("name", name);
+        ParameterList parameters = parseFunctionRest(function, async, generator, false);
+        function.put("text", (async ? "async " : "") + "function " + name + "("
+                + String.join(", ", parameters.codes) + ") {\n"
+                + JsonCodeGenerator.generate(function.get("body")) + "\n}");
+        return function;
+    }
+
+    /**
+     * Parses an arrow function if one starts at the current token.
+     *
+     * @return the arrow function, or null if there is none
+     */
+    private JsonNode tryParseArrowFunction() {
+        boolean async = lexer.isIdentifier("async") && isAsyncArrowFunction();
+        if (!async && !lexer.isPunctuation("(") && !(isIdentifierToken() && nextTokenIsPunctuation("=>"))) {
+            return null;
+        }
+        long mark = lexer.mark();
+        if (async) {
+            lexer.next();
+        }
+        ParameterList parameters;
+        boolean returnType = false;
+        if (lexer.isPunctuation("(")) {
+            try {
+                parameters = parseParameters();
+                if (optional(":")) {
+                    returnType = true;
+                    parseReturnType();
+                }
+                if (!lexer.isPunctuation("=>") || lexer.hasLineBreakBefore()) {
+                    throw unsupported("Expected '=>'");
+                }
+            } catch (UnsupportedSyntaxException e) {
+                if (async) {
+                    throw e;
+                }
+                lexer.reset(mark);
+                return null;
+            }
+        } else {
+            parameters = new ParameterList();
+            String name = escape(parseBindingIdentifier());
+            ObjectNode parameter = parameters.json.addObject();
+            parameter.put("name", name);
+            parameter.put("type", "");
+            parameter.put("hasDotDotDot", false);
+            parameter.put("questionToken", false);
+            parameters.codes.add(name);
+            if (lexer.hasLineBreakBefore()) {
+                throw unsupported("Line break before '=>'");
+            }
+        }
+        if (returnType && whenTrueDepth > 0) {
+            throw unsupported("Ambiguous arrow function in a conditional expression");
+        }
+        expect("=>");
+        return parseArrowFunctionBody(parameters, async);
+    }
+
+    private boolean isAsyncArrowFunction() {
+        long mark = lexer.mark();
+        lexer.next();
+        boolean result = false;
+        if (!lexer.hasLineBreakBefore()) {
+            if (lexer.isPunctuation("(")) {
+                result = true;
+            } else if (isIdentifierToken()) {
+                lexer.next();
+                result = lexer.isPunctuation("=>");
+            }
+        }
+        lexer.reset(mark);
+        return result;
+    }
+
+    private ObjectNode parseArrowFunctionBody(ParameterList parameters, boolean async) {
+        ObjectNode arrow = node("ArrowFunction");
+        arrow.put("name", "");
+        arrow.set("parameters", parameters.json);
+        boolean savedAsync = inAsync;
+        boolean savedGenerator = inGenerator;
+        inAsync = async;
+        inGenerator = false;
+        boolean block = lexer.isPunctuation("{");
+        JsonNode body = block ? parseFunctionBody() : parseAssignment();
+        inAsync = savedAsync;
+        inGenerator = savedGenerator;
+        arrow.set("body", body);
+        String bodyCode = JsonCodeGenerator.generate(body);
+        arrow.put("text", (async ? "async " : "") + "(" + String.join(", ", parameters.codes) + ") => "
+                + (block ? "{\n" + bodyCode + "\n}" : bodyCode));
+        return arrow;
+    }
+
+    // ========== Types ==========
+
+    /**
+     * Parses an optional type annotation.
+     *
+     * @return the source text of the type, or an empty string
+     */
+    private String parseTypeAnnotation() {
+        if (!optional(":")) {
+            return "";
+        }
+        int start = lexer.tokenStart();
+        parseType();
+        return sliceFrom(start);
+    }
+
+    private void parseReturnType() {
+        if (lexer.isIdentifier("asserts") && nextTokenStartsTypePredicate()) {
+            lexer.next();
+            lexer.next();
+            if (optionalKeyword("is")) {
+                parseType();
+            }
+            return;
+        }
+        if ((isIdentifierToken() || lexer.isIdentifier("this")) && nextTokenIsOnSameLine("is")) {
+            lexer.next();
+            lexer.next();
+        }
+        parseType();
+    }
+
+    private boolean nextTokenStartsTypePredicate() {
+        long mark = lexer.mark();
+        lexer.next();
+        boolean result = !lexer.hasLineBreakBefore() && (isIdentifierToken() || lexer.isIdentifier("this"));
+        lexer.reset(mark);
+        return result;
+    }
+
+    private void parseType() {
+        if (isStartOfFunctionType()) {
+            optionalKeyword("abstract");
+            optionalKeyword("new");
+            skipTypeParameters();
+            parseParameters();
+            expect("=>");
+            parseReturnType();
+            return;
+        }
+        parseUnionType();
+        if (!lexer.hasLineBreakBefore() && lexer.isIdentifier("extends")) {
+            lexer.next();
+            parseUnionType();
+            expect("?");
+            parseType();
+            expect(":");
+            parseType();
+        }
+    }
+
+    private boolean isStartOfFunctionType() {
+        if (lexer.isPunctuation("<") || lexer.isIdentifier("new")) {
+            return true;
+        }
+        if (lexer.isIdentifier("abstract")) {
+            return nextTokenIs("new");
+        }
+        if (!lexer.isPunctuation("(")) {
+            return false;
+        }
+        long mark = lexer.mark();
+        lexer.next();
+        boolean result;
+        if (lexer.isPunctuation(")") || lexer.isPunctuation("...")) {
+            result = true;
+        } else {
+            result = skipParameterStart() && (lexer.isPunctuation(":") || lexer.isPunctuation(",")
+                    || lexer.isPunctuation("?") || lexer.isPunctuation("=")
+                    || (optional(")") && lexer.isPunctuation("=>")));
+        }
+        lexer.reset(mark);
+        return result;
+    }
+
+    private boolean skipParameterStart() {
+        if (lexer.kind() == TokenKind.IDENTIFIER) {
+            lexer.next();
+            return true;
+        }
+        if (lexer.isPunctuation("{") || lexer.isPunctuation("[")) {
+            try {
+                parseBindingPattern();
+                return true;
+            } catch (UnsupportedSyntaxException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private void parseUnionType() {
+        optional("|");
+        parseIntersectionType();
+        while (optional("|")) {
+            parseIntersectionType();
+        }
+    }
+
+    private void parseIntersectionType() {
+        optional("&");
+        parseTypeOperator();
+        while (optional("&")) {
+            parseTypeOperator();
+        }
+    }
+
+    private void parseTypeOperator() {
+        if (lexer.isIdentifier("keyof") || lexer.isIdentifier("unique") || lexer.isIdentifier("readonly")) {
+            lexer.next();
+            parseTypeOperator();
+            return;
+        }
+        if (lexer.isIdentifier("infer")) {
+            lexer.next();
+            parseBindingIdentifier();
+            if (lexer.isIdentifier("extends")) {
+                throw unsupported("Constrained infer types are not supported");
+            }
+            return;
+        }
+        parseNonArrayType();
+        while (!lexer.hasLineBreakBefore() && optional("[")) {
+            if (!optional("]")) {
+                parseType();
+                expect("]");
+            }
+        }
+    }
+
+    private void parseNonArrayType() {
+        switch (lexer.kind()) {
+            case NUMBER:
+            case STRING:
+            case NO_SUBSTITUTION_TEMPLATE:
+                lexer.next();
+                return;
+            case TEMPLATE_HEAD:
+                lexer.next();
+                TokenKind kind;
+                do {
+                    parseType();
+                    lexer.reScanTemplateContinuation();
+                    kind = lexer.kind();
+                    lexer.next();
+                } while (kind != TokenKind.TEMPLATE_TAIL);
+                return;
+            case IDENTIFIER:
+                if (lexer.isIdentifier("import")) {
+                    throw unsupported("Import types are not supported");
+                }
+                if (optionalKeyword("typeof") && lexer.isIdentifier("import")) {
+                    throw unsupported("Import types are not supported");
+                }
+                parseIdentifierName();
+                while (optional(".")) {
+                    parseIdentifierName();
+                }
+                if (lexer.isPunctuation("<") && !lexer.hasLineBreakBefore()) {
+                    skipTypeArguments();
+                }
+                return;
+            case PUNCTUATION:
+                if (lexer.isPunctuation("-")) {
+                    lexer.next();
+                    if (lexer.kind() != TokenKind.NUMBER) {
+                        throw unsupported("Expected a number");
+                    }
+                    lexer.next();
+                } else if (lexer.isPunctuation("{") || lexer.isPunctuation("[")) {
+                    skipBalanced();
+                } else if (optional("(")) {
+                    parseType();
+                    expect(")");
+                } else {
+                    throw unsupported("Expected a type");
+                }
+                return;
+            default:
+                throw unsupported("Expected a type");
+        }
+    }
+
+    /**
+     * Skips an object type, a mapped type or a tuple type by matching brackets.
+     */
+    private void skipBalanced() {
+        StringBuilder open = new StringBuilder();
+        do {
+            if (lexer.kind() == TokenKind.EOF) {
+                throw unsupported("Unterminated type");
+            }
+            if (lexer.kind() == TokenKind.TEMPLATE_HEAD) {
+                open.append('$');
+            } else if (lexer.isPunctuation("{") || lexer.isPunctuation("[") || lexer.isPunctuation("(")) {
+                open.append(lexer.text());
+            } else if (lexer.isPunctuation("}") || lexer.isPunctuation("]") || lexer.isPunctuation(")")) {
+                char last = open.charAt(open.length() - 1);
+                if (last == '$' && lexer.isPunctuation("}")) {
+                    lexer.reScanTemplateContinuation();
+                    if (lexer.kind() == TokenKind.TEMPLATE_TAIL) {
+                        open.setLength(open.length() - 1);
+                    }
+                } else if ("{[(".indexOf(last) != "}])".indexOf(lexer.text().charAt(0))) {
+                    throw unsupported("Unbalanced brackets in a type");
+                } else {
+                    open.setLength(open.length() - 1);
+                }
+            }
+            lexer.next();
+        } while (open.length() > 0);
+    }
+
+    private void skipObjectType() {
+        if (!lexer.isPunctuation("{")) {
+            throw unsupported("Expected '{'");
+        }
+        skipBalanced();
+    }
+
+    private void skipTypeParameters() {
+        if (!optional("<")) {
+            return;
+        }
+        do {
+            while ((lexer.isIdentifier("in") || lexer.isIdentifier("out") || lexer.isIdentifier("const"))
+                    && nextTokenStartsBindingName()) {
+                lexer.next();
+            }
+            parseBindingIdentifier();
+            if (optionalKeyword("extends")) {
+                parseType();
+            }
+            if (optional("=")) {
+                parseType();
+            }
+        } while (optional(","));
+        expect(">");
+    }
+
+    private void skipTypeArguments() {
+        expect("<");
+        do {
+            parseType();
+        } while (optional(","));
+        expect(">");
+    }
+
+    // ========== Tokens and lookahead ==========
+
+    private boolean optional(String punctuation) {
+        if (lexer.isPunctuation(punctuation)) {
+            lexer.next();
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(String punctuation) {
+        if (!optional(punctuation)) {
+            throw unsupported("Expected '" + punctuation + "'");
+        }
+    }
+
+    private boolean optionalKeyword(String keyword) {
+        if (lexer.isIdentifier(keyword)) {
+            lexer.next();
+            return true;
+        }
+        return false;
+    }
+
+    private void expectKeyword(String keyword) {
+        if (!optionalKeyword(keyword)) {
+            throw unsupported("Expected '" + keyword + "'");
+        }
+    }
+
+    /**
+     * Consumes a semicolon if present. Like the TypeScript parser, a missing
+     * semicolon is not an error.
+     */
+    private void parseSemicolon() {
+        optional(";");
+    }
+
+    private boolean canParseSemicolon() {
+        return lexer.isPunctuation(";") || lexer.isPunctuation("}") || lexer.kind() == TokenKind.EOF
+                || lexer.hasLineBreakBefore();
+    }
+
+    private boolean isIdentifierToken() {
+        return lexer.kind() == TokenKind.IDENTIFIER && !RESERVED_WORDS.contains(lexer.text());
+    }
+
+    private String parseBindingIdentifier() {
+        if (!isIdentifierToken()) {
+            throw unsupported("Expected an identifier");
+        }
+        return parseIdentifierName();
+    }
+
+    private String parseIdentifierName() {
+        if (lexer.kind() != TokenKind.IDENTIFIER) {
+            throw unsupported("Expected an identifier");
+        }
+        String name = lexer.text();
+        lexer.next();
+        return name;
+    }
+
+    private boolean nextTokenIs(String word) {
+        long mark = lexer.mark();
+        lexer.next();
+        boolean result = lexer.isIdentifier(word);
+        lexer.reset(mark);
+        return result;
+    }
+
+    private boolean nextTokenIsPunctuation(String punctuation) {
+        long mark = lexer.mark();
+        lexer.next();
+        boolean result = lexer.isPunctuation(punctuation);
+        lexer.reset(mark);
+        return result;
+    }
+
+    private boolean nextTokenIsOnSameLine(String word) {
+        long mark = lexer.mark();
+        lexer.next();
+        boolean result = lexer.isIdentifier(word) && !lexer.hasLineBreakBefore();
+        lexer.reset(mark);
+        return result;
+    }
+
+    private boolean nextTokenIsIdentifierOnSameLine() {
+        long mark = lexer.mark();
+        lexer.next();
+        boolean result = isIdentifierToken() && !lexer.hasLineBreakBefore();
+        lexer.reset(mark);
+        return result;
+    }
+
+    private boolean nextTokenStartsDeclarationOnSameLine() {
+        long mark = lexer.mark();
+        lexer.next();
+        boolean result = !lexer.hasLineBreakBefore()
+                && (lexer.kind() == TokenKind.IDENTIFIER || lexer.kind() == TokenKind.STRING
+                || lexer.isPunctuation("{"));
+        lexer.reset(mark);
+        return result;
+    }
+
+    private boolean isLetDeclaration() {
+        long mark = lexer.mark();
+        lexer.next();
+        boolean result = isIdentifierToken() || lexer.isPunctuation("{") || lexer.isPunctuation("[");
+        lexer.reset(mark);
+        return result;
+    }
+
+    private boolean nextTokenCanFollowModifier() {
+        long mark = lexer.mark();
+        lexer.next();
+        boolean result = !lexer.hasLineBreakBefore()
+                && (lexer.kind() == TokenKind.IDENTIFIER || lexer.kind() == TokenKind.STRING
+                || lexer.kind() == TokenKind.NUMBER || lexer.isPunctuation("[") || lexer.isPunctuation("{")
+                || lexer.isPunctuation("*") || lexer.isPunctuation("..."));
+        lexer.reset(mark);
+        return result;
+    }
+
+    private boolean nextTokenCanFollowGetOrSet() {
+        long mark = lexer.mark();
+        lexer.next();
+        boolean result = lexer.kind() == TokenKind.IDENTIFIER || lexer.kind() == TokenKind.STRING
+                || lexer.kind() == TokenKind.NUMBER || lexer.isPunctuation("[");
+        lexer.reset(mark);
+        return result;
+    }
+
+    private boolean nextTokenStartsBindingName() {
+        long mark = lexer.mark();
+        lexer.next();
+        boolean result = lexer.kind() == TokenKind.IDENTIFIER || lexer.isPunctuation("{")
+                || lexer.isPunctuation("[");
+        lexer.reset(mark);
+        return result;
+    }
+
+    private boolean isIndexSignature() {
+        long mark = lexer.mark();
+        lexer.next();
+        boolean result;
+        if (lexer.isPunctuation("...") || lexer.isPunctuation("]")) {
+            result = true;
+        } else if (lexer.kind() != TokenKind.IDENTIFIER) {
+            result = false;
+        } else {
+            lexer.next();
+            result = lexer.isPunctuation(":") || lexer.isPunctuation(",");
+        }
+        lexer.reset(mark);
+        return result;
+    }
+
+    private UnsupportedSyntaxException unsupported(String message) {
+        return lexer.unsupported(message, lexer.tokenStart());
+    }
+
+    // ========== JSON helpers ==========
+
+    private static ObjectNode node(String kindName) {
+        ObjectNode node = NODES.objectNode();
+        SyntaxKind kind = SyntaxKind.fromKindName(kindName);
+        if (kind != null) {
+            node.put("kind", kind.getId());
+        }
+        node.put(KIND_NAME, kindName);
+        return node;
+    }
+
+    private static ObjectNode binary(JsonNode left, String operator, JsonNode right) {
+        ObjectNode binary = node("BinaryExpression");
+        binary.set("left", left);
+        binary.put("operator", operator);
+        binary.set("right", right);
+        return binary;
+    }
+
+    private String sliceFrom(int start) {
+        return source.substring(start, lexer.previousEnd());
+    }
+
+    private static boolean isKind(JsonNode json, String kindName) {
+        return json != null && kindName.equals(json.path(KIND_NAME).asText());
+    }
+
+    private static boolean isIdentifierNamed(JsonNode json, String name) {
+        return isKind(json, IDENTIFIER) && name.equals(json.path("name").asText());
+    }
+
+    /**
+     * Escapes an identifier the way TypeScript stores it: names starting
+     * with two underscores get a third.
+     */
+    private static String escape(String name) {
+        return name.startsWith("__") ? "_" + name : name;
+    }
+
+    private static String modifierKindName(String modifier) {
+        return Character.toUpperCase(modifier.charAt(0)) + modifier.substring(1) + "Keyword";
+    }
+
+    private static String escapeTemplateLiteral(String text) {
+        return text.replace("\\", "\\\\").replace("`", "\\`").replace("${", "\\${");
+    }
+
+    /**
+     * Modifiers and decorators of a declaration or class member.
+     */
+    private static final class Modifiers {
+        private final ArrayNode kinds = NODES.arrayNode();
+        private final List<String> decoratorNames = new ArrayList<>();
+
+        void add(String kindName) {
+            kinds.add(node(kindName));
+        }
+
+        boolean has(String kindName) {
+            for (JsonNode kind : kinds) {
+                if (isKind(kind, kindName)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean isEmpty() {
+            return kinds.isEmpty();
+        }
+
+        ArrayNode decorators() {
+            ArrayNode decorators = NODES.arrayNode();
+            for (String name : decoratorNames) {
+                decorators.addObject().put("name", name);
+            }
+            return decorators;
+        }
+    }
+
+    /**
+     * Parsed parameters: their JSON, their source names and their code.
+     */
+    private static final class ParameterList {
+        private final ArrayNode json = NODES.arrayNode();
+        private final List<String> sourceNames = new ArrayList<>();
+        private final List<String> codes = new ArrayList<>();
+    }
+
+    /**
+     * A property name: the escaped identifier, if it is one, and the source text.
+     */
+    private static final class PropertyName {
+        private final String escapedName;
+        private final String text;
+
+        PropertyName(String escapedName, String text) {
+            this.escapedName = escapedName;
+            this.text = text;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.ets2jsc.infrastructure.parser.ets;
+
+import com.ets2jsc.shared.exception.UnsupportedSyntaxException;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Generates code strings from converter-input JSON nodes.
+ * <p>
+ * Port of the code generator of the parser script, used to fill the
+ * {@code text} fields the same way. Where the script would fall back to
+ * the JSON of a node, the Java parser gives up on the file instead.
+ */
+final class JsonCodeGenerator {
+
+    private static final String EQUALS = " = ";
+
+    private JsonCodeGenerator() {
+    }
+
+    /**
+     * Generate text representation from JSON AST node.
+     *
+     * @param json the JSON AST node, may be null
+     * @return the generated code
+     */
+    static String generate(JsonNode json) {
+        if (json == null || json.isNull()) {
+            return "";
+        }
+        switch (kindName(json)) {
+            case "Block":
+                return generateBlock(json);
+            case "ExpressionStatement":
+                return isPresent(json.get("expression")) ? generate(json.get("expression")) + ";" : "";
+            case "ReturnStatement":
+                return isPresent(json.get("expression")) ? "return " + generate(json.get("expression")) + ";" : "return;";
+            case "FirstStatement":
+                return generateVariableStatement(json);
+            case "VariableDeclarationList":
+                return joinAll(json.get("declarations"), ", ");
+            case "VariableDeclaration":
+                return json.path("name").asText()
+                        + (isPresent(json.get("initializer")) ? EQUALS + generate(json.get("initializer")) : "");
+            case "Identifier":
+                return firstNonEmpty(text(json), json.path("name").asText(""));
+            case "ThisKeyword":
+                return "this";
+            case "FirstLiteralToken":
+            case "StringLiteral":
+                return text(json);
+            case "PropertyAccessExpression":
+                return generate(json.get("expression")) + dot(json) + json.path("name").asText();
+            case "ElementAccessExpression":
+                return generate(json.get("expression")) + (json.path("questionDotToken").asBoolean() ? "?." : "")
+                        + "[" + generate(json.get("argumentExpression")) + "]";
+            case "BinaryExpression":
+                return generate(json.get("left")) + " " + json.path("operator").asText() + " "
+                        + generate(json.get("right"));
+            case "PrefixUnaryExpression":
+                return json.path("operator").asText() + generate(json.get("operand"));
+            case "PostfixUnaryExpression":
+                return generate(json.get("operand")) + json.path("operator").asText();
+            case "CallExpression":
+                return generate(json.get("expression")) + "(" + generateArguments(json.get("arguments")) + ")";
+            case "IfStatement":
+                return generateIf(json);
+            case "ConditionalExpression":
+                return generate(json.get("condition")) + " ? " + generate(json.get("whenTrue")) + " : "
+                        + generate(json.get("whenFalse"));
+            case "TypeOfExpression":
+                return "typeof " + generate(json.get("expression"));
+            case "ArrayLiteralExpression":
+                return "[" + joinAll(json.get("elements"), ", ") + "]";
+            case "ParenthesizedExpression":
+                return "(" + generate(json.get("expression")) + ")";
+            case "AsExpression":
+            case "NonNullExpression":
+                return generate(json.get("expression"));
+            case "AwaitExpression":
+                return "await " + generate(json.get("expression"));
+            case "ThrowStatement":
+                return "throw " + generate(json.get("expression"));
+            case "ObjectLiteralExpression":
+                return "{" + joinAll(json.get("properties"), ", ") + "}";
+            case "PropertyAssignment":
+                return json.path("name").asText() + ": " + generate(json.get("value"));
+            case "NewExpression":
+                return "new " + generate(json.get("expression")) + "(" + joinAll(json.get("arguments"), ", ") + ")";
+            case "SpreadElement":
+            case "SpreadAssignment":
+                return "..." + generate(json.get("expression"));
+            case "DeleteExpression":
+                return "delete " + generate(json.get("expression"));
+            case "ObjectBindingPattern":
+                return json.path("elements").isEmpty() ? "{}" : "{" + joinAll(json.get("elements"), ", ") + "}";
+            case "ArrayBindingPattern":
+                return "[" + joinAll(json.get("elements"), ", ") + "]";
+            case "BindingElement":
+                return generateBindingElement(json);
+            case "BreakStatement":
+                return isPresent(json.get("label")) ? "break " + json.get("label").asText() + ";" : "break;";
+            case "ContinueStatement":
+                return isPresent(json.get("label")) ? "continue " + json.get("label").asText() + ";" : "continue;";
+            default:
+                // Arrow functions, templates, accessors and try statements carry their text
+                String text = text(json);
+                if (text.isEmpty()) {
+                    throw new UnsupportedSyntaxException("No code for " + kindName(json));
+                }
+                return text;
+        }
+    }
+
+    private static String generateBlock(JsonNode json) {
+        StringBuilder code = new StringBuilder();
+        for (JsonNode statement : json.path("statements")) {
+            if (code.length() > 0) {
+                code.append('\n');
+            }
+            code.append("  ").append(generate(statement));
+        }
+        return code.toString();
+    }
+
+    private static String generateVariableStatement(JsonNode json) {
+        JsonNode declarationList = json.get("declarationList");
+        if (declarationList == null || declarationList.path("declarations").isEmpty()) {
+            return "// variable";
+        }
+        JsonNode declaration = declarationList.get("declarations").get(0);
+        String declarationKind = firstNonEmpty(declarationList.path("declarationKind").asText(""), "const");
+        StringBuilder code = new StringBuilder(declarationKind).append(' ').append(declaration.path("name").asText());
+        if (isPresent(declaration.get("initializer"))) {
+            code.append(EQUALS).append(generate(declaration.get("initializer")));
+        } else if ("const".equals(declarationKind)) {
+            code.append(EQUALS).append("undefined");
+        }
+        return code.append(';').toString();
+    }
+
+    private static String generateArguments(JsonNode arguments) {
+        StringBuilder code = new StringBuilder();
+        for (JsonNode argument : arguments) {
+            if (code.length() > 0) {
+                code.append(", ");
+            }
+            if (argument.isTextual() && !argument.asText().startsWith("{")) {
+                code.append(argument.asText());
+            } else if (argument.isTextual()) {
+                // The script stringifies such arguments again
+                throw new UnsupportedSyntaxException("No code for a braced argument");
+            } else {
+                code.append(generate(argument));
+            }
+        }
+        return code.toString();
+    }
+
+    private static String generateIf(JsonNode json) {
+        String code = "if (" + generate(json.get("expression")) + ") {\n" + generate(json.get("thenStatement")) + "\n}";
+        if (isPresent(json.get("elseStatement"))) {
+            code += " else {\n" + generate(json.get("elseStatement")) + "\n}";
+        }
+        return code;
+    }
+
+    private static String generateBindingElement(JsonNode json) {
+        StringBuilder code = new StringBuilder();
+        if (json.path("dotDotDotToken").asBoolean()) {
+            code.append("...");
+        }
+        if (isPresent(json.get("propertyName"))) {
+            code.append(json.get("propertyName").asText()).append(": ");
+        }
+        code.append(json.path("name").asText(""));
+        if (isPresent(json.get("initializer"))) {
+            code.append(EQUALS).append(generate(json.get("initializer")));
+        }
+        return code.toString();
+    }
+
+    private static String joinAll(JsonNode nodes, String separator) {
+        if (nodes == null) {
+            return "";
+        }
+        StringBuilder code = new StringBuilder();
+        for (int i = 0; i < nodes.size(); i++) {
+            if (i > 0) {
+                code.append(separator);
+            }
+            code.append(generate(nodes.get(i)));
+        }
+        return code.toString();
+    }
+
+    private static String dot(JsonNode json) {
+        return json.path("questionDotToken").asBoolean() ? "?." : ".";
+    }
+
+    private static String kindName(JsonNode json) {
+        return json.path("kindName").asText("");
+    }
+
+    private static String text(JsonNode json) {
+        return json.path("text").asText("");
+    }
+
+    private static boolean isPresent(JsonNode value) {
+        return value != null && !value.isNull();
+    }
+
+    private static String firstNonEmpty(String first, String second) {
+        return first.isEmpty() ? second : first;
+    }
+}
@@ -0,0 +1,68 @@
+package com.ets2jsc.infrastructure.parser.internal;
+
+import com.ets2jsc.shared.exception.ParserException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Internal interface for a backend that runs the TypeScript parser script.
+ * <p>
+ * A backend turns source code into the script's JSON AST; conversion into
+ * the domain AST is left to the caller. This lets single-process, pooled and
+ * embedded parser runtimes share the same converters.
+ */
+public interface IParserBackend extends AutoCloseable {
+
+    /**
+     * Parses source code into the parser script's JSON AST.
+     *
+     * @param fileName the file name for error reporting
+     * @param sourceCode the source code to parse
+     * @return the JSON AST
+     * @throws ParserException if parsing fails
+     */
+    JsonNode parseToJson(String fileName, String sourceCode) throws ParserException;
+
+    /**
+     * Parses source code and returns a token stream over the JSON AST, so the
+     * caller can convert it without building the whole tree. The caller must
+     * close the returned parser.
+     * <p>
+     * The default implementation streams over the tree from {@link #parseToJson}.
+     *
+     * @param fileName the file name for error reporting
+     * @param sourceCode the source code to parse
+     * @return a parser positioned before or on the AST root object
+     * @throws ParserException if parsing fails
+     */
+    default JsonParser parseToStream(String fileName, String sourceCode) throws ParserException {
+        return parseToJson(fileName, sourceCode).traverse();
+    }
+
+    /**
+     * Parses source code incrementally, reusing the backend's previous parse of
+     * the same file name. Backends that support it add a {@code statementIds}
+     * array with a stable id per top-level statement and leave statements that
+     * are unchanged since that parse {@code null}. Ids are unique across
+     * backends and processes, so an id the caller does not know means the
+     * caller has to ask again with {@code fullOutput}.
+     * <p>
+     * The default implementation parses the whole file without ids.
+     *
+     * @param fileName the file name, which identifies the previous parse
+     * @param sourceCode the source code to parse
+     * @param fullOutput whether unchanged statements are converted as well
+     * @return the JSON AST
+     * @throws ParserException if parsing fails
+     */
+    default JsonNode parseIncrementalToJson(String fileName, String sourceCode, boolean fullOutput)
+            throws ParserException {
+        return parseToJson(fileName, sourceCode);
+    }
+
+    /**
+     * Closes the backend and releases any parser processes or engines.
+     */
+    @Override
+    void close();
+}
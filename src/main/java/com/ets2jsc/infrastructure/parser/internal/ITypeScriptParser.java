@@ -1,7 +1,9 @@
 package com.ets2jsc.infrastructure.parser.internal;
 
 import com.ets2jsc.domain.model.ast.SourceFile;
+import com.ets2jsc.domain.model.compilation.ConversionCacheStats;
 import com.ets2jsc.shared.exception.ParserException;
+import com.ets2jsc.shared.util.ResourceIndex;
 
 /**
  * Internal interface for TypeScript/ETS parser.
@@ -20,6 +22,46 @@ public interface ITypeScriptParser extends AutoCloseable {
      */
     SourceFile parse(String fileName, String sourceCode) throws ParserException;
 
+    /**
+     * Parses source code, reusing the work of the previous parse of the same
+     * file name where the parser supports it. The result is a new, complete
+     * SourceFile equivalent to {@link #parse}.
+     * <p>
+     * The default implementation parses the whole file.
+     *
+     * @param fileName the file name, which identifies the previous parse
+     * @param sourceCode the source code to parse
+     * @return the parsed SourceFile
+     * @throws ParserException if parsing fails
+     */
+    default SourceFile parseIncremental(String fileName, String sourceCode) throws ParserException {
+        return parse(fileName, sourceCode);
+    }
+
+    /**
+     * Gets the hit and miss counts of the cache of converted subtrees,
+     * counted since the parser was created.
+     * <p>
+     * The default implementation reports no lookups.
+     *
+     * @return the cache counts
+     */
+    default ConversionCacheStats getConversionCacheStats() {
+        return ConversionCacheStats.EMPTY;
+    }
+
+    /**
+     * Sets the resource index that {@code $r()} and {@code $rawfile()}
+     * references are resolved against, for the files parsed from now on.
+     * <p>
+     * The default implementation ignores the index.
+     *
+     * @param index the index of the project, or null to resolve no resources
+     */
+    default void setResourceIndex(ResourceIndex index) {
+        // Resources are resolved at runtime
+    }
+
     /**
      * Closes the parser and releases any resources.
      */
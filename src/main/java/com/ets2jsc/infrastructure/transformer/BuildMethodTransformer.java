@@ -109,6 +109,11 @@ public class BuildMethodTransformer implements AstTransformer {
 
         if (body instanceof ExpressionStatement) {
             ExpressionStatement exprStmt = (ExpressionStatement) body;
+            String componentName = getComponentName(exprStmt.getExpressionNode());
+            if (componentName != null) {
+                InvocationExpression call = (InvocationExpression) exprStmt.getExpressionNode();
+                return new ExpressionStatement(createAndPop(componentName, call.getArgumentsText()) + '\n');
+            }
             String expression = exprStmt.getExpression();
 
             // Transform component expressions
@@ -119,6 +124,19 @@ public class BuildMethodTransformer implements AstTransformer {
         return body;
     }
 
+    /**
+     * Gets the component name of a direct component call, e.g. {@code Text('Hello')}.
+     *
+     * @return the component name, or null if the expression is not a direct component call
+     */
+    private String getComponentName(Expression expression) {
+        if (!(expression instanceof InvocationExpression)) {
+            return null;
+        }
+        String name = ((InvocationExpression) expression).getFunctionName();
+        return name != null && Components.ALL_COMPONENTS.contains(name) ? name : null;
+    }
+
     /**
      * Transforms component expressions in the method body.
      * Converts declarative UI to create/pop pattern.
@@ -165,24 +183,19 @@ public class BuildMethodTransformer implements AstTransformer {
      * Transforms a component creation expression.
      */
     private String transformComponentCreation(String componentName, String line) {
-        StringBuilder result = new StringBuilder();
-
-        // Create component
-        result.append(componentName).append(".create(");
-
         // Extract arguments
         int argStart = line.indexOf('(');
         int argEnd = line.lastIndexOf(')');
-        if (argEnd > argStart) {
-            result.append(line, argStart + 1, argEnd);
-        }
+        String args = argEnd > argStart ? line.substring(argStart + 1, argEnd) : "";
 
-        result.append(");");
-
-        // Pop component
-        result.append('\n').append(componentName).append(".pop();");
+        return createAndPop(componentName, args);
+    }
 
-        return result.toString();
+    /**
+     * Builds the create and pop calls of a component.
+     */
+    private String createAndPop(String componentName, String args) {
+        return componentName + ".create(" + args + ");" + '\n' + componentName + ".pop();";
     }
 
     /**
@@ -4,14 +4,16 @@ import com.ets2jsc.domain.model.ast.*;
 import com.ets2jsc.domain.model.ast.ComponentStatement.ComponentPart;
 import com.ets2jsc.domain.model.ast.ComponentStatement.PartKind;
 
-import java.util.List;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * Transforms component expressions to create/pop pattern.
- * Parses expression strings and converts them to ComponentStatement nodes.
+ * Matches structured expressions, or parses expression strings, and converts
+ * them to ComponentStatement nodes.
  */
 public class ComponentExpressionTransformer {
 
@@ -46,6 +48,101 @@ public class ComponentExpressionTransformer {
         return parseComponentCall(trimmed);
     }
 
+    /**
+     * Transforms a structured expression to a ComponentStatement if it's a component call.
+     * Only transforms simple cases with literal arguments; expressions known
+     * only by their text are transformed as text.
+     *
+     * @param expression the expression (e.g., the call of fontSize on Text('Hello'))
+     * @return an Optional containing ComponentStatement if the expression is a component call, empty otherwise
+     */
+    public static Optional<AstNode> transform(Expression expression) {
+        if (expression == null) {
+            return Optional.empty();
+        }
+        if (expression instanceof RawExpression) {
+            return transform(expression.getText());
+        }
+
+        // Walk down the chain to the component call, collecting the chained calls
+        Deque<InvocationExpression> chainedCalls = new ArrayDeque<>();
+        Expression current = expression;
+        while (current instanceof InvocationExpression) {
+            InvocationExpression call = (InvocationExpression) current;
+            if (!hasSimpleArguments(call)) {
+                return Optional.empty();
+            }
+
+            String componentName = call.getFunctionName();
+            if (componentName != null) {
+                if (!ComponentRegistry.isBuiltinComponent(componentName)) {
+                    return Optional.empty();
+                }
+                return Optional.of(createComponentStatement(componentName, call, chainedCalls));
+            }
+
+            if (!(call.getCallee() instanceof MemberExpression)) {
+                return Optional.empty();
+            }
+            chainedCalls.push(call);
+            current = ((MemberExpression) call.getCallee()).getObject();
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Creates the ComponentStatement of a component call and its chained calls, innermost first.
+     */
+    private static ComponentStatement createComponentStatement(String componentName, InvocationExpression call,
+                                                               Deque<InvocationExpression> chainedCalls) {
+        ComponentStatement statement = new ComponentStatement(componentName);
+        statement.addPart(new ComponentPart(PartKind.CREATE, call.getArgumentsText()));
+
+        for (InvocationExpression chainedCall : chainedCalls) {
+            String methodName = ((MemberExpression) chainedCall.getCallee()).getName();
+            statement.addPart(new ComponentPart(PartKind.METHOD,
+                    methodName + "(" + chainedCall.getArgumentsText() + ")"));
+        }
+
+        statement.addPart(new ComponentPart(PartKind.POP, ""));
+        return statement;
+    }
+
+    /**
+     * Checks if all arguments of a call are simple.
+     */
+    private static boolean hasSimpleArguments(InvocationExpression call) {
+        for (Expression argument : call.getArguments()) {
+            if (!isSimpleArgument(argument)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if an argument is simple: a literal, a name, a member of a simple
+     * argument (e.g. Color.Red) or a template without substitutions.
+     * Calls, callbacks and this.property accesses are not simple.
+     */
+    private static boolean isSimpleArgument(Expression argument) {
+        if (argument instanceof LiteralExpression || argument instanceof IdentifierExpression) {
+            return true;
+        }
+        if (argument instanceof MemberExpression) {
+            return isSimpleArgument(((MemberExpression) argument).getObject());
+        }
+        if (argument instanceof TemplateExpression) {
+            return !((TemplateExpression) argument).hasSubstitutions();
+        }
+        if (argument instanceof RawExpression) {
+            String text = argument.getText();
+            return !hasComplexExpressions(text) && text.indexOf('(') < 0 && text.indexOf(')') < 0;
+        }
+        return false;
+    }
+
     /**
      * Checks if an expression contains complex expressions that should not be transformed.
      */
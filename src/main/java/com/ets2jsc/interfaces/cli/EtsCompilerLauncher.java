@@ -4,6 +4,7 @@ import com.ets2jsc.application.compile.BatchCompilationService;
 import com.ets2jsc.application.compile.BatchCompilationServiceFactory;
 import com.ets2jsc.application.compile.CompilationPipeline;
 import com.ets2jsc.application.compile.CompilationPipelineFactory;
+import com.ets2jsc.application.compile.ParallelBatchCompilationService;
 import com.ets2jsc.domain.model.compilation.CompilationResult;
 import com.ets2jsc.domain.model.config.CompilerConfig;
 import com.ets2jsc.shared.exception.CompilationException;
@@ -14,6 +15,7 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -28,6 +30,7 @@ public class EtsCompilerLauncher {
     private static final String MODE_BATCH = "--batch";
     private static final String MODE_PARALLEL = "--parallel";
     private static final String MODE_PROJECT = "--project";
+    private static final String OPTION_AST_FORMAT = "--ast-format";
     private static final int EXIT_SUCCESS = 0;
     private static final int EXIT_ERROR = 1;
     private static final int REQUIRED_ARGS_MIN = 2;
@@ -52,21 +55,29 @@ public class EtsCompilerLauncher {
      * @param args command line arguments
      * @return exit code (0 for success, 1 for failure)
      */
-    public static int execute(String[] args) {
+    public static int execute(String[] rawArgs) {
+        final CompilerConfig config = CompilerConfig.createDefault();
+        final String[] args;
+        try {
+            args = applyOptions(rawArgs, config);
+        } catch (IllegalArgumentException e) {
+            LOGGER.error(e.getMessage());
+            printUsage();
+            return EXIT_ERROR;
+        }
+
         // Validate arguments
         if (args.length < REQUIRED_ARGS_MIN) {
             printUsage();
             return EXIT_ERROR;
         }
 
-        final CompilerConfig config = CompilerConfig.createDefault();
-
         try {
             final Path inputPath = Path.of(args[ARG_INDEX_INPUT]);
             final Path outputPath = Path.of(args[ARG_INDEX_OUTPUT]);
 
             if (args.length > ARG_INDEX_MODE) {
-                return executeBatchCompilation(inputPath, outputPath, args);
+                return executeBatchCompilation(inputPath, outputPath, args, config);
             } else {
                 return executeSingleFileCompilation(inputPath, outputPath, config);
             }
@@ -86,6 +97,45 @@ public class EtsCompilerLauncher {
         }
     }
 
+    /**
+     * Applies named options to the configuration and removes them from the arguments.
+     *
+     * @param args command line arguments
+     * @param config the configuration to update
+     * @return the remaining positional arguments
+     * @throws IllegalArgumentException if an option value is missing or invalid
+     */
+    private static String[] applyOptions(String[] args, CompilerConfig config) {
+        final List<String> positional = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (OPTION_AST_FORMAT.equals(args[i])) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + OPTION_AST_FORMAT);
+                }
+                config.setParserAstFormat(parseAstFormat(args[++i]));
+            } else {
+                positional.add(args[i]);
+            }
+        }
+        return positional.toArray(new String[0]);
+    }
+
+    /**
+     * Parses an AST format name such as {@code json} or {@code binary}.
+     *
+     * @param value the format name
+     * @return the AST format
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    private static CompilerConfig.AstFormat parseAstFormat(String value) {
+        for (CompilerConfig.AstFormat format : CompilerConfig.AstFormat.values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown AST format: " + value);
+    }
+
     /**
      * Executes single file compilation.
      *
@@ -96,7 +146,7 @@ public class EtsCompilerLauncher {
      */
     private static int executeSingleFileCompilation(Path inputPath, Path outputPath, CompilerConfig config)
             throws CompilationException {
-        try (CompilationPipeline pipeline = CompilationPipelineFactory.createDefault()) {
+        try (CompilationPipeline pipeline = CompilationPipelineFactory.createPipeline(config)) {
             com.ets2jsc.domain.model.compilation.CompilationResult result = pipeline.execute(inputPath, outputPath);
             LOGGER.info("Compilation completed: {} -> {}", inputPath, outputPath);
             return result.isSuccess() ? EXIT_SUCCESS : EXIT_ERROR;
@@ -109,10 +159,11 @@ public class EtsCompilerLauncher {
      * @param inputPath the input directory path
      * @param outputPath the output directory path
      * @param args command line arguments
+     * @param config the compiler configuration
      * @return exit code
      */
-    private static int executeBatchCompilation(Path inputPath, Path outputPath, String[] args)
-            throws CompilationException {
+    private static int executeBatchCompilation(Path inputPath, Path outputPath, String[] args,
+            CompilerConfig config) throws CompilationException {
         final String mode = args[ARG_INDEX_MODE];
 
         if (!isValidMode(mode)) {
@@ -134,7 +185,7 @@ public class EtsCompilerLauncher {
 
         LOGGER.info("Found {} files", sourceFiles.size());
 
-        return executeWithMode(mode, inputPath, outputPath, sourceFiles, args);
+        return executeWithMode(mode, inputPath, outputPath, sourceFiles, args, config);
     }
 
     /**
@@ -170,21 +221,23 @@ public class EtsCompilerLauncher {
      * @param outputPath output directory path
      * @param sourceFiles list of source files to compile
      * @param args command line arguments
+     * @param config the compiler configuration
      * @return exit code
      * @throws CompilationException if compilation fails
      */
     private static int executeWithMode(String mode, Path inputPath, Path outputPath,
-                                     List<Path> sourceFiles, String[] args) throws CompilationException {
+                                     List<Path> sourceFiles, String[] args, CompilerConfig config)
+            throws CompilationException {
         if (MODE_PROJECT.equals(mode)) {
             return executeProjectCompilation(inputPath, outputPath,
-                    BatchCompilationService.CompilationMode.SEQUENTIAL);
+                    BatchCompilationService.CompilationMode.SEQUENTIAL, config);
         }
 
         final BatchCompilationService.CompilationMode compilationMode = MODE_PARALLEL.equals(mode)
                 ? BatchCompilationService.CompilationMode.PARALLEL
                 : BatchCompilationService.CompilationMode.SEQUENTIAL;
 
-        return executeDirectoryCompilation(outputPath, sourceFiles, compilationMode, args);
+        return executeDirectoryCompilation(outputPath, sourceFiles, compilationMode, args, config);
     }
 
     /**
@@ -194,12 +247,16 @@ public class EtsCompilerLauncher {
      * @param sourceFiles list of source files to compile
      * @param mode the compilation mode
      * @param args command line arguments
+     * @param config the compiler configuration
      * @return exit code
      */
     private static int executeDirectoryCompilation(Path outputPath,
-            List<Path> sourceFiles, BatchCompilationService.CompilationMode mode, String[] args)
-            throws CompilationException {
-        try (CompilationPipeline pipeline = CompilationPipelineFactory.createDefault()) {
+            List<Path> sourceFiles, BatchCompilationService.CompilationMode mode, String[] args,
+            CompilerConfig config) throws CompilationException {
+        final int parserWorkers = mode == BatchCompilationService.CompilationMode.PARALLEL
+                ? ParallelBatchCompilationService.resolveThreadPoolSize(parseThreadCount(args))
+                : 1;
+        try (CompilationPipeline pipeline = CompilationPipelineFactory.createPipeline(config, parserWorkers)) {
             BatchCompilationService batchService = createBatchServiceForMode(pipeline, mode, args);
             final long startTime = System.currentTimeMillis();
             final CompilationResult result = batchService.compileBatch(sourceFiles, outputPath);
@@ -216,15 +273,16 @@ public class EtsCompilerLauncher {
      * @param inputPath the input project directory
      * @param outputPath the output directory
      * @param mode the compilation mode
+     * @param config the compiler configuration
      * @return exit code
      */
     private static int executeProjectCompilation(Path inputPath, Path outputPath,
-            BatchCompilationService.CompilationMode mode) throws CompilationException {
+            BatchCompilationService.CompilationMode mode, CompilerConfig config) throws CompilationException {
         LOGGER.info("Compiling project: {}", inputPath);
         LOGGER.info("Output directory: {}", outputPath);
         LOGGER.info("Mode: {}, preserve directory structure, copy resources", mode);
 
-        try (CompilationPipeline pipeline = CompilationPipelineFactory.createDefault()) {
+        try (CompilationPipeline pipeline = CompilationPipelineFactory.createPipeline(config)) {
             BatchCompilationService batchService = createBatchServiceForMode(pipeline, mode, null);
             final long startTime = System.currentTimeMillis();
             final CompilationResult result = batchService.compileProject(inputPath, outputPath, true);
@@ -316,7 +374,7 @@ public class EtsCompilerLauncher {
      */
     private static void printUsage() {
         if (LOGGER.isInfoEnabled()) {
-            LOGGER.info("Usage: EtsCompiler <input> <output> [mode] [threads]");
+            LOGGER.info("Usage: EtsCompiler [{} json|binary] <input> <output> [mode] [threads]", OPTION_AST_FORMAT);
             LOGGER.info("");
             LOGGER.info("Modes:");
             LOGGER.info("  (none)      - Compile single file");
@@ -330,6 +388,7 @@ public class EtsCompilerLauncher {
             LOGGER.info("  EtsCompiler src/main/ets build/dist {}", MODE_PARALLEL);
             LOGGER.info("  EtsCompiler src/main/ets build/dist {} 8", MODE_PARALLEL);
             LOGGER.info("  EtsCompiler src/Project build/Project {}", MODE_PROJECT);
+            LOGGER.info("  EtsCompiler {} binary src/main/ets build/dist {}", OPTION_AST_FORMAT, MODE_BATCH);
         }
     }
 }
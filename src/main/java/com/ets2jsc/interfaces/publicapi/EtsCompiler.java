@@ -4,6 +4,8 @@ import com.ets2jsc.application.compile.BatchCompilationService;
 import com.ets2jsc.application.compile.BatchCompilationServiceFactory;
 import com.ets2jsc.application.compile.CompilationPipeline;
 import com.ets2jsc.application.compile.CompilationPipelineFactory;
+import com.ets2jsc.application.compile.ParallelBatchCompilationService;
+import com.ets2jsc.application.compile.PipelineWarmer;
 import com.ets2jsc.domain.model.config.CompilerConfig;
 import com.ets2jsc.domain.model.compilation.CompilationResult;
 import com.ets2jsc.interfaces.publicapi.model.CompilationMode;
@@ -13,7 +15,10 @@ import com.ets2jsc.shared.exception.CompilationException;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
@@ -49,6 +54,9 @@ public class EtsCompiler implements AutoCloseable {
     private final CompilerConfig config;
     private final CompilationMode mode;
     private final int threadCount;
+    private final int parserWorkers;
+    @Getter(AccessLevel.NONE)
+    private final AtomicReference<CompletableFuture<Void>> warmUpTask = new AtomicReference<>();
     private volatile boolean closed;
 
     /**
@@ -83,13 +91,47 @@ public class EtsCompiler implements AutoCloseable {
         this.config = config;
         this.mode = mode;
         this.threadCount = threadCount;
-        this.pipeline = CompilationPipelineFactory.createPipeline(config);
         if (mode == CompilationMode.PARALLEL && threadCount > 1) {
+            this.parserWorkers = ParallelBatchCompilationService.resolveThreadPoolSize(threadCount);
+            this.pipeline = CompilationPipelineFactory.createPipeline(config, parserWorkers);
             this.batchService = BatchCompilationServiceFactory.createParallelService(pipeline, threadCount);
         } else {
+            this.parserWorkers = 1;
+            this.pipeline = CompilationPipelineFactory.createPipeline(config);
             this.batchService = BatchCompilationServiceFactory.createSequentialService(pipeline);
         }
         this.closed = false;
+        if (config.isParserWarmUp()) {
+            warmUp();
+        }
+    }
+
+    /**
+     * Warms up the compiler in the background, starting it on the first call.
+     * <p>
+     * Every parser worker is started and a small built-in sample is parsed,
+     * transformed and generated in memory. Compilations may start before the
+     * warm-up is done; they simply share the workers it started. Await the
+     * returned future to serve requests only once the compiler is warm.
+     *
+     * @return a future completed when the warm-up is done, or completed
+     *         exceptionally if the sample could not be compiled
+     * @throws IllegalStateException if compiler is closed
+     */
+    public CompletableFuture<Void> warmUp() {
+        checkNotClosed();
+        CompletableFuture<Void> task = warmUpTask.get();
+        if (task == null) {
+            synchronized (warmUpTask) {
+                task = warmUpTask.get();
+                if (task == null) {
+                    task = PipelineWarmer.start(pipeline, parserWorkers);
+                    warmUpTask.set(task);
+                }
+            }
+        }
+        // Callers cannot complete or cancel the shared warm-up
+        return task.copy();
     }
 
     /**
@@ -140,6 +182,9 @@ public class EtsCompiler implements AutoCloseable {
 
     /**
      * Compiles a project directory to an output directory.
+     * <p>
+     * With warm-up enabled, the parser workers finish starting while the
+     * source directory is being scanned.
      *
      * @param sourceDir  source project directory
      * @param outputDir  output directory
@@ -154,6 +199,15 @@ public class EtsCompiler implements AutoCloseable {
         return new PublicCompilationResult(internalResult);
     }
 
+    /**
+     * Cancels the batch and project compilations that are running, from any thread.
+     * Files that have not started are reported as skipped, and parser and tsc
+     * processes working on the others are killed. Later compilations are not affected.
+     */
+    public void cancel() {
+        batchService.cancel();
+    }
+
     /**
      * Closes the compiler and releases all resources.
      *
@@ -210,6 +210,192 @@ public class EtsCompilerBuilder {
         return this;
     }
 
+    /**
+     * Sets the runtime that executes the TypeScript parser.
+     * <p>
+     * {@link CompilerConfig.ParserBackend#GRAAL_JS} parses in-process on the
+     * GraalJS engine, which avoids process start-up costs and does not
+     * require {@code node} to be installed.
+     * {@link CompilerConfig.ParserBackend#NODE_THREADS} runs all parser
+     * workers as threads of a single Node.js process, which loads the
+     * TypeScript compiler once instead of once per worker.
+     * {@link CompilerConfig.ParserBackend#JAVA} parses with a parser written
+     * in Java and only starts Node.js for files using syntax it does not
+     * cover. The default is
+     * {@link CompilerConfig.ParserBackend#NODE}.
+     *
+     * @param backend the parser backend
+     * @return this builder for method chaining
+     * @throws IllegalArgumentException if backend is null
+     */
+    public EtsCompilerBuilder parserBackend(CompilerConfig.ParserBackend backend) {
+        if (backend == null) {
+            throw new IllegalArgumentException("Parser backend cannot be null");
+        }
+        config.setParserBackend(backend);
+        return this;
+    }
+
+    /**
+     * Sets the wire format of ASTs sent from parser processes.
+     * <p>
+     * {@link CompilerConfig.AstFormat#BINARY} uses numeric syntax kinds, a
+     * string table and varints, which is much smaller and faster to decode
+     * than the default {@link CompilerConfig.AstFormat#JSON}. It has no effect
+     * on the in-process GraalJS backend.
+     *
+     * @param format the AST wire format
+     * @return this builder for method chaining
+     * @throws IllegalArgumentException if format is null
+     */
+    public EtsCompilerBuilder parserAstFormat(CompilerConfig.AstFormat format) {
+        if (format == null) {
+            throw new IllegalArgumentException("AST format cannot be null");
+        }
+        config.setParserAstFormat(format);
+        return this;
+    }
+
+    /**
+     * Sets how parser processes emit nodes whose JavaScript text they synthesize.
+     * <p>
+     * {@link CompilerConfig.AstEmission#COMPACT} sends such nodes either as
+     * text or as structure, whichever the compiler reads, instead of both,
+     * which makes ASTs considerably smaller.
+     * {@link CompilerConfig.AstEmission#LEAN} builds the parser's tree
+     * without parent pointers and sends source positions instead of
+     * identifier text, which the compiler slices from the source it already
+     * holds. The default is
+     * {@link CompilerConfig.AstEmission#FULL}. It has no effect on the
+     * in-process GraalJS backend.
+     *
+     * @param emission the AST emission mode
+     * @return this builder for method chaining
+     * @throws IllegalArgumentException if emission is null
+     */
+    public EtsCompilerBuilder parserAstEmission(CompilerConfig.AstEmission emission) {
+        if (emission == null) {
+            throw new IllegalArgumentException("AST emission cannot be null");
+        }
+        config.setParserAstEmission(emission);
+        return this;
+    }
+
+    /**
+     * Enables incremental parsing for watch and preview workflows.
+     * <p>
+     * The parser process keeps the previous parse of each file, reparses
+     * edited files with TypeScript's incremental parser, and only sends the
+     * top-level statements that changed. Unchanged statements are taken from
+     * the previous result.
+     *
+     * @param enabled true to enable incremental parsing
+     * @return this builder for method chaining
+     */
+    public EtsCompilerBuilder incrementalParsing(boolean enabled) {
+        config.setIncrementalParsing(enabled);
+        return this;
+    }
+
+    /**
+     * Sets when parser worker processes are recycled during parallel compilation.
+     * <p>
+     * A worker is replaced by a fresh process after parsing {@code maxFiles}
+     * files or after its resident memory grows by more than {@code maxRssGrowthMb}.
+     * A value of 0 disables the corresponding rule.
+     *
+     * @param maxFiles files parsed before a worker is recycled
+     * @param maxRssGrowthMb memory growth in megabytes before a worker is recycled
+     * @return this builder for method chaining
+     * @throws IllegalArgumentException if either value is negative
+     */
+    public EtsCompilerBuilder parserWorkerRecycling(int maxFiles, int maxRssGrowthMb) {
+        if (maxFiles < 0 || maxRssGrowthMb < 0) {
+            throw new IllegalArgumentException("Parser worker recycling limits cannot be negative");
+        }
+        config.setParserWorkerMaxFiles(maxFiles);
+        config.setParserWorkerMaxRssGrowthMb(maxRssGrowthMb);
+        return this;
+    }
+
+    /**
+     * Sets the memory limits for parser worker processes.
+     * <p>
+     * Each worker runs with the given V8 heap limit. When the memory used by
+     * the JVM and all of its child processes exceeds the budget, new parses
+     * wait for running ones, idle workers are stopped and grown workers are
+     * recycled. The peak usage of each build is reported in its result.
+     * A value of 0 disables the corresponding limit.
+     *
+     * @param maxOldSpaceMb the V8 heap limit of each worker in megabytes
+     * @param memoryBudgetMb the total memory budget in megabytes
+     * @return this builder for method chaining
+     * @throws IllegalArgumentException if either value is negative
+     */
+    public EtsCompilerBuilder parserMemoryLimits(int maxOldSpaceMb, int memoryBudgetMb) {
+        if (maxOldSpaceMb < 0 || memoryBudgetMb < 0) {
+            throw new IllegalArgumentException("Parser memory limits cannot be negative");
+        }
+        config.setParserMaxOldSpaceMb(maxOldSpaceMb);
+        config.setMemoryBudgetMb(memoryBudgetMb);
+        return this;
+    }
+
+    /**
+     * Sets the time one file may take to compile.
+     * <p>
+     * Parser and tsc processes still running when the time is up are killed
+     * together with their child processes, and the file fails with a timeout.
+     * A value of 0 disables the limit.
+     *
+     * @param seconds the per-file deadline in seconds
+     * @return this builder for method chaining
+     * @throws IllegalArgumentException if the value is negative
+     */
+    public EtsCompilerBuilder fileTimeout(int seconds) {
+        if (seconds < 0) {
+            throw new IllegalArgumentException("File timeout cannot be negative");
+        }
+        config.setFileTimeoutSeconds(seconds);
+        return this;
+    }
+
+    /**
+     * Sets the number of top-level statements from which the statements of
+     * a file are converted to the AST in parallel.
+     * <p>
+     * Meant for large generated modules with hundreds of top-level classes
+     * and functions; statements keep their source order. A value of 0
+     * converts every file on the compiling thread.
+     *
+     * @param statements the top-level statement count
+     * @return this builder for method chaining
+     * @throws IllegalArgumentException if the value is negative
+     */
+    public EtsCompilerBuilder parallelConversionThreshold(int statements) {
+        if (statements < 0) {
+            throw new IllegalArgumentException("Parallel conversion threshold cannot be negative");
+        }
+        config.setParallelConversionThreshold(statements);
+        return this;
+    }
+
+    /**
+     * Sets whether the compiler warms up in the background as soon as it is built.
+     * <p>
+     * The warm-up starts the parser workers and compiles a small built-in
+     * sample in memory, so the first real file does not pay for process
+     * start-up and class loading. {@link EtsCompiler#warmUp()} returns the
+     * warm-up future either way.
+     *
+     * @param warmUp true to warm up when built
+     * @return this builder for method chaining
+     */
+    public EtsCompilerBuilder warmUp(boolean warmUp) {
+        config.setParserWarmUp(warmUp);
+        return this;
+    }
+
     /**
      * Adds an entry point to the configuration.
      *
@@ -268,6 +454,17 @@ public class EtsCompilerBuilder {
         builder.config.setEnableLazyImport(config.isEnableLazyImport());
         builder.config.setValidateApi(config.isValidateApi());
         builder.config.setPureJavaScript(config.isPureJavaScript());
+        builder.config.setParserBackend(config.getParserBackend());
+        builder.config.setParserAstFormat(config.getParserAstFormat());
+        builder.config.setParserAstEmission(config.getParserAstEmission());
+        builder.config.setIncrementalParsing(config.isIncrementalParsing());
+        builder.config.setParallelConversionThreshold(config.getParallelConversionThreshold());
+        builder.config.setParserWorkerMaxFiles(config.getParserWorkerMaxFiles());
+        builder.config.setParserWorkerMaxRssGrowthMb(config.getParserWorkerMaxRssGrowthMb());
+        builder.config.setParserMaxOldSpaceMb(config.getParserMaxOldSpaceMb());
+        builder.config.setMemoryBudgetMb(config.getMemoryBudgetMb());
+        builder.config.setFileTimeoutSeconds(config.getFileTimeoutSeconds());
+        builder.config.setParserWarmUp(config.isParserWarmUp());
         return builder;
     }
 }
@@ -107,6 +107,24 @@ public class PublicCompilationResult {
         return internalResult.getDurationMs();
     }
 
+    /**
+     * Gets the peak memory used by the compiler and its child processes during the build.
+     *
+     * @return the peak memory in bytes, or -1 if not sampled
+     */
+    public long getPeakMemoryBytes() {
+        return internalResult.getPeakMemoryBytes();
+    }
+
+    /**
+     * Gets the share of repeated subtrees the parser took from its conversion cache during the build.
+     *
+     * @return the hit rate between 0 and 1, or 0 if no subtree was looked up
+     */
+    public double getConversionCacheHitRate() {
+        return internalResult.getConversionCacheStats().hitRate();
+    }
+
     /**
      * Gets a list of all file results.
      *
@@ -0,0 +1,28 @@
+package com.ets2jsc.shared.exception;
+
+/**
+ * Exception thrown when a parser process cannot be started at all.
+ * Unlike a parser that crashed, starting it again would fail the same way,
+ * typically because Node.js is missing or cannot be executed.
+ */
+public class ParserUnavailableException extends ParserInitializationException {
+
+    /**
+     * Constructs a new parser unavailable exception with the specified detail message.
+     *
+     * @param message the detail message
+     */
+    public ParserUnavailableException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructs a new parser unavailable exception with the specified detail message and cause.
+     *
+     * @param message the detail message
+     * @param cause the cause of the exception
+     */
+    public ParserUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,25 @@
+package com.ets2jsc.shared.exception;
+
+/**
+ * Exception thrown when a parser meets syntax it does not cover.
+ * <p>
+ * It marks input that another parser may still handle, so callers usually
+ * fall back rather than report it. It is also thrown while a parser tries
+ * an ambiguous construct speculatively, so it carries no stack trace.
+ */
+public class UnsupportedSyntaxException extends ParserException {
+
+    /**
+     * Constructs a new unsupported syntax exception with the specified detail message.
+     *
+     * @param message the detail message
+     */
+    public UnsupportedSyntaxException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,141 @@
+package com.ets2jsc.shared.process;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Ring buffer that keeps the last bytes written to it, up to a fixed capacity.
+ * <p>
+ * Subprocess output is captured into these buffers so a process that writes
+ * without end cannot exhaust the heap. The buffer starts small and grows up
+ * to its capacity; after that, the oldest bytes are overwritten and counted
+ * as dropped. For diagnostics the end of the output is usually what matters.
+ * Writes and reads may come from different threads.
+ */
+public final class BoundedOutputBuffer {
+
+    private static final int INITIAL_SIZE = 8 * 1024;
+    private static final int READ_CHUNK = 8 * 1024;
+
+    private final int capacity;
+    private byte[] data;
+    private int start;
+    private int size;
+    private long dropped;
+
+    /**
+     * Creates a buffer.
+     *
+     * @param capacity the maximum number of bytes kept
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public BoundedOutputBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.data = new byte[Math.min(capacity, INITIAL_SIZE)];
+    }
+
+    /**
+     * Appends bytes, dropping the oldest ones if the capacity is exceeded.
+     *
+     * @param bytes the source array
+     * @param offset the start offset in the source array
+     * @param length the number of bytes to append
+     */
+    public synchronized void write(byte[] bytes, int offset, int length) {
+        if (length >= capacity) {
+            // Only the tail of this chunk survives
+            dropped += size + length - capacity;
+            ensureSize(capacity);
+            System.arraycopy(bytes, offset + length - capacity, data, 0, capacity);
+            start = 0;
+            size = capacity;
+            return;
+        }
+        ensureSize(Math.min(capacity, size + length));
+        int evicted = Math.max(0, size + length - capacity);
+        if (evicted > 0) {
+            start = (start + evicted) % data.length;
+            size -= evicted;
+            dropped += evicted;
+        }
+        int end = (start + size) % data.length;
+        int firstPart = Math.min(length, data.length - end);
+        System.arraycopy(bytes, offset, data, end, firstPart);
+        System.arraycopy(bytes, offset + firstPart, data, 0, length - firstPart);
+        size += length;
+    }
+
+    /**
+     * Reads a stream to its end into this buffer.
+     *
+     * @param in the stream to drain
+     * @throws IOException if reading fails
+     */
+    public void drain(InputStream in) throws IOException {
+        byte[] chunk = new byte[READ_CHUNK];
+        int read;
+        while ((read = in.read(chunk)) != -1) {
+            write(chunk, 0, read);
+        }
+    }
+
+    /**
+     * Checks whether bytes have been dropped.
+     *
+     * @return true if more bytes were written than the capacity holds
+     */
+    public synchronized boolean isTruncated() {
+        return dropped > 0;
+    }
+
+    /**
+     * Gets the number of bytes dropped from the start of the output.
+     *
+     * @return the dropped byte count
+     */
+    public synchronized long getDroppedBytes() {
+        return dropped;
+    }
+
+    /**
+     * Gets the kept bytes in order.
+     *
+     * @return a copy of the kept bytes
+     */
+    public synchronized byte[] toByteArray() {
+        byte[] copy = new byte[size];
+        int firstPart = Math.min(size, data.length - start);
+        System.arraycopy(data, start, copy, 0, firstPart);
+        System.arraycopy(data, 0, copy, firstPart, size - firstPart);
+        return copy;
+    }
+
+    /**
+     * Decodes the kept bytes as UTF-8. A character cut at the truncation
+     * point decodes to a replacement character.
+     *
+     * @return the kept output
+     */
+    @Override
+    public String toString() {
+        return new String(toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Grows the backing array, unrolling the ring, so it holds at least the given size.
+     */
+    private void ensureSize(int required) {
+        if (required <= data.length) {
+            return;
+        }
+        int newLength = (int) Math.min(capacity, Math.max(required, (long) data.length * 2));
+        byte[] grown = toByteArray();
+        data = Arrays.copyOf(grown, newLength);
+        start = 0;
+    }
+}
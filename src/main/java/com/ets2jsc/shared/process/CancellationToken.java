@@ -0,0 +1,218 @@
+package com.ets2jsc.shared.process;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Cooperative cancellation signal with an optional deadline.
+ * <p>
+ * Batch services create one token per batch and a child token per file,
+ * carrying the per-file deadline, and bind it to the worker thread while
+ * the file compiles. Code further down, such as {@link SubprocessRunner},
+ * picks the bound token up with {@link #current()}, so cancellation and
+ * deadlines reach subprocesses without being passed through every layer.
+ * Cancelling a token cancels its children; listeners run on the thread
+ * that cancels. Children hold no registration in their parent, so a
+ * batch token does not accumulate state for the files it has seen.
+ */
+public final class CancellationToken {
+
+    private static final CancellationToken NONE = new CancellationToken(null, 0);
+    private static final ThreadLocal<CancellationToken> CURRENT = new ThreadLocal<>();
+
+    private final CancellationToken parent;
+    private final long deadlineNanos;
+    private final List<Runnable> listeners;
+    private volatile boolean cancelled;
+
+    private CancellationToken(CancellationToken parent, long deadlineNanos) {
+        this.parent = parent;
+        this.deadlineNanos = deadlineNanos;
+        this.listeners = new ArrayList<>();
+    }
+
+    /**
+     * Creates a token without a deadline.
+     *
+     * @return a new token
+     */
+    public static CancellationToken create() {
+        return new CancellationToken(null, 0);
+    }
+
+    /**
+     * Gets a token that is never cancelled and has no deadline.
+     *
+     * @return the shared inactive token
+     */
+    public static CancellationToken none() {
+        return NONE;
+    }
+
+    /**
+     * Gets the token bound to the current thread.
+     *
+     * @return the bound token, or {@link #none()} if no token is bound
+     */
+    public static CancellationToken current() {
+        CancellationToken token = CURRENT.get();
+        return token != null ? token : NONE;
+    }
+
+    /**
+     * Creates a child token that is cancelled with this token and expires
+     * after the given time, or at this token's deadline if that comes first.
+     *
+     * @param timeout the time until the child expires, or 0 or less for no deadline of its own
+     * @param unit the unit of the timeout
+     * @return the child token
+     */
+    public CancellationToken child(long timeout, TimeUnit unit) {
+        long deadline = timeout > 0 ? System.nanoTime() + unit.toNanos(timeout) : 0;
+        if (deadlineNanos != 0 && (deadline == 0 || deadlineNanos - deadline < 0)) {
+            deadline = deadlineNanos;
+        }
+        return new CancellationToken(this, deadline);
+    }
+
+    /**
+     * Binds this token to the current thread until the returned scope is closed.
+     *
+     * @return the scope restoring the previously bound token on close
+     */
+    public Scope bind() {
+        CancellationToken previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        };
+    }
+
+    /**
+     * Cancels this token and its children and runs the registered listeners.
+     * Cancelling more than once has no further effect.
+     */
+    public void cancel() {
+        if (this == NONE) {
+            return;
+        }
+        List<Runnable> toRun;
+        synchronized (listeners) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            toRun = new ArrayList<>(listeners);
+            listeners.clear();
+        }
+        for (Runnable listener : toRun) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Checks whether this token has been cancelled.
+     *
+     * @return true once {@link #cancel()} has been called on this token or a parent
+     */
+    public boolean isCancelled() {
+        return cancelled || (parent != null && parent.isCancelled());
+    }
+
+    /**
+     * Checks whether the deadline of this token has passed.
+     *
+     * @return true if the token has a deadline and it has passed
+     */
+    public boolean isExpired() {
+        return deadlineNanos != 0 && System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    /**
+     * Gets the time left until the deadline.
+     *
+     * @return the remaining nanoseconds, 0 if expired, or {@link Long#MAX_VALUE} without a deadline
+     */
+    public long remainingNanos() {
+        if (deadlineNanos == 0) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, deadlineNanos - System.nanoTime());
+    }
+
+    /**
+     * Throws if this token has been cancelled.
+     *
+     * @throws CancellationException if the token has been cancelled
+     */
+    public void throwIfCancelled() {
+        if (isCancelled()) {
+            throw new CancellationException("Operation cancelled");
+        }
+    }
+
+    /**
+     * Registers a listener that runs when this token or a parent is cancelled.
+     * If the token is already cancelled, the listener runs immediately. It
+     * runs at most once.
+     *
+     * @param listener the listener
+     * @return a registration that removes the listener when closed
+     */
+    public Scope onCancel(Runnable listener) {
+        if (this == NONE) {
+            return () -> { };
+        }
+        AtomicBoolean fired = new AtomicBoolean();
+        Runnable once = () -> {
+            if (fired.compareAndSet(false, true)) {
+                listener.run();
+            }
+        };
+        List<CancellationToken> registered = new ArrayList<>();
+        for (CancellationToken token = this; token != null; token = token.parent) {
+            if (!token.register(once)) {
+                unregister(registered, once);
+                once.run();
+                return () -> { };
+            }
+            registered.add(token);
+        }
+        return () -> unregister(registered, once);
+    }
+
+    private boolean register(Runnable listener) {
+        synchronized (listeners) {
+            if (cancelled) {
+                return false;
+            }
+            listeners.add(listener);
+            return true;
+        }
+    }
+
+    private static void unregister(List<CancellationToken> tokens, Runnable listener) {
+        for (CancellationToken token : tokens) {
+            synchronized (token.listeners) {
+                token.listeners.remove(listener);
+            }
+        }
+    }
+
+    /**
+     * A binding or registration that is undone when closed.
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,355 @@
+package com.ets2jsc.shared.process;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs external processes with a deadline, cancellation and bounded output capture.
+ * <p>
+ * Stdout and stderr are drained concurrently into {@link BoundedOutputBuffer}s,
+ * and stdin is written on its own thread, so no pipe can fill up and stall
+ * the child or the caller. The process must finish before the earlier of
+ * the runner's timeout and the deadline of the {@link CancellationToken}
+ * bound to the calling thread. When the deadline passes or the token is
+ * cancelled, the whole process tree is killed: tools such as {@code npx}
+ * start the real work in a child process, which would otherwise survive.
+ * <p>
+ * Long-lived processes that serve one request at a time can be put under
+ * the same rules for the duration of a request with {@link #watch(Process)}.
+ */
+public final class SubprocessRunner {
+
+    /** Default capture limit per stream. */
+    public static final int DEFAULT_OUTPUT_LIMIT = 1024 * 1024;
+
+    private static final long DRAIN_GRACE_MILLIS = 1000;
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    /** Fires deadlines of watched processes. */
+    private static final ScheduledExecutorService WATCHDOG = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "ETS-Subprocess-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final long timeoutMillis;
+    private final int stdoutLimit;
+    private final int stderrLimit;
+
+    private SubprocessRunner(Builder builder) {
+        this.timeoutMillis = builder.timeoutMillis;
+        this.stdoutLimit = builder.stdoutLimit;
+        this.stderrLimit = builder.stderrLimit;
+    }
+
+    /**
+     * Creates a builder with no timeout of its own and the default output limits.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the runner's own timeout.
+     *
+     * @return the timeout in milliseconds, or 0 if only the bound token's deadline applies
+     */
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    /**
+     * Starts a process, feeds it the input and waits for it to exit.
+     *
+     * @param processBuilder the configured process builder; its stdout and stderr must be pipes
+     * @param input the bytes written to stdin before it is closed, or null to close stdin at once
+     * @return the result; {@link Result#isTimedOut()} tells whether the process was killed at its deadline
+     * @throws IOException if the process cannot be started
+     * @throws InterruptedException if the calling thread is interrupted; the process tree is killed
+     * @throws CancellationException if the bound token is or gets cancelled; the process tree is killed
+     */
+    public Result run(ProcessBuilder processBuilder, byte[] input) throws IOException, InterruptedException {
+        CancellationToken token = CancellationToken.current();
+        token.throwIfCancelled();
+        long startNanos = System.nanoTime();
+        long waitNanos = waitNanos(token);
+
+        Process process = processBuilder.start();
+        BoundedOutputBuffer stdout = new BoundedOutputBuffer(stdoutLimit);
+        BoundedOutputBuffer stderr = new BoundedOutputBuffer(stderrLimit);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Thread stdoutDrain = startDrain(process.getInputStream(), stdout, "stdout");
+        Thread stderrDrain = startDrain(process.getErrorStream(), stderr, "stderr");
+        startInputWriter(process, input);
+
+        boolean finished;
+        try (CancellationToken.Scope ignored = token.onCancel(() -> {
+            cancelled.set(true);
+            destroyTree(process);
+        })) {
+            finished = process.waitFor(waitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            destroyTree(process);
+            throw e;
+        }
+        if (!finished) {
+            destroyTree(process);
+            process.waitFor(DRAIN_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        // Grandchildren that inherited the pipes may keep them open after the process exits
+        stdoutDrain.join(DRAIN_GRACE_MILLIS);
+        stderrDrain.join(DRAIN_GRACE_MILLIS);
+
+        if (cancelled.get()) {
+            throw new CancellationException("Process cancelled: " + processBuilder.command().get(0));
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        int exitCode = finished ? process.exitValue() : -1;
+        return new Result(exitCode, !finished, elapsedMillis, stdout, stderr);
+    }
+
+    /**
+     * Puts a running process under this runner's deadline and the bound
+     * token's cancellation until the returned watch is closed. If either
+     * fires, the process tree is killed, which makes pending reads and
+     * writes on its pipes fail.
+     *
+     * @param process the process serving the current request
+     * @return the watch; close it when the request is done
+     */
+    public Watch watch(Process process) {
+        CancellationToken token = CancellationToken.current();
+        long waitNanos = waitNanos(token);
+        Watch watch = new Watch(process);
+        if (waitNanos != Long.MAX_VALUE) {
+            watch.deadline = WATCHDOG.schedule(watch::expire, waitNanos, TimeUnit.NANOSECONDS);
+        }
+        watch.registration = token.onCancel(watch::cancel);
+        return watch;
+    }
+
+    /**
+     * Kills a process and all of its descendants.
+     *
+     * @param process the process
+     */
+    public static void destroyTree(Process process) {
+        // Collect descendants first; once the parent is gone they are reparented and lost
+        List<ProcessHandle> descendants = process.descendants().toList();
+        process.destroyForcibly();
+        for (ProcessHandle descendant : descendants) {
+            descendant.destroyForcibly();
+        }
+    }
+
+    /**
+     * Gets how long to wait: the earlier of the runner's timeout and the token's deadline.
+     */
+    private long waitNanos(CancellationToken token) {
+        long own = timeoutMillis > 0 ? TimeUnit.MILLISECONDS.toNanos(timeoutMillis) : Long.MAX_VALUE;
+        return Math.min(own, token.remainingNanos());
+    }
+
+    private static Thread startDrain(InputStream stream, BoundedOutputBuffer buffer, String name) {
+        Thread drain = new Thread(() -> {
+            try (InputStream in = stream) {
+                buffer.drain(in);
+            } catch (IOException e) {
+                // Stream closed with the process
+            }
+        }, "ETS-Subprocess-" + name + "-" + THREAD_COUNTER.incrementAndGet());
+        drain.setDaemon(true);
+        drain.start();
+        return drain;
+    }
+
+    private static void startInputWriter(Process process, byte[] input) {
+        if (input == null || input.length == 0) {
+            closeQuietly(process.getOutputStream());
+            return;
+        }
+        Thread writer = new Thread(() -> {
+            try (OutputStream stdin = process.getOutputStream()) {
+                stdin.write(input);
+            } catch (IOException e) {
+                // The process stopped reading early; its exit code and stderr explain why
+            }
+        }, "ETS-Subprocess-stdin-" + THREAD_COUNTER.incrementAndGet());
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private static void closeQuietly(OutputStream stream) {
+        try {
+            stream.close();
+        } catch (IOException e) {
+            // Process already gone
+        }
+    }
+
+    /**
+     * Outcome of a finished, or killed, process.
+     */
+    @Getter
+    public static final class Result {
+        private final int exitCode;
+        private final boolean timedOut;
+        private final long elapsedMillis;
+        private final String stdout;
+        private final String stderr;
+        private final boolean stdoutTruncated;
+        private final boolean stderrTruncated;
+
+        private Result(int exitCode, boolean timedOut, long elapsedMillis,
+                       BoundedOutputBuffer stdout, BoundedOutputBuffer stderr) {
+            this.exitCode = exitCode;
+            this.timedOut = timedOut;
+            this.elapsedMillis = elapsedMillis;
+            this.stdout = stdout.toString();
+            this.stderr = stderr.toString();
+            this.stdoutTruncated = stdout.isTruncated();
+            this.stderrTruncated = stderr.isTruncated();
+        }
+
+        /**
+         * Checks whether the process exited normally with code 0.
+         *
+         * @return true on success
+         */
+        public boolean isSuccess() {
+            return !timedOut && exitCode == 0;
+        }
+    }
+
+    /**
+     * Deadline and cancellation guard for one request to a long-lived process.
+     */
+    public static final class Watch implements AutoCloseable {
+        private final Process process;
+        private final AtomicBoolean expired;
+        private final AtomicBoolean cancelled;
+        private volatile ScheduledFuture<?> deadline;
+        private volatile CancellationToken.Scope registration;
+
+        private Watch(Process process) {
+            this.process = process;
+            this.expired = new AtomicBoolean();
+            this.cancelled = new AtomicBoolean();
+        }
+
+        /**
+         * Checks whether the deadline passed and the process was killed.
+         *
+         * @return true if the watch expired
+         */
+        public boolean isExpired() {
+            return expired.get();
+        }
+
+        /**
+         * Checks whether the bound token was cancelled and the process was killed.
+         *
+         * @return true if the watch was cancelled
+         */
+        public boolean isCancelled() {
+            return cancelled.get();
+        }
+
+        private void expire() {
+            expired.set(true);
+            destroyTree(process);
+        }
+
+        private void cancel() {
+            cancelled.set(true);
+            destroyTree(process);
+        }
+
+        /**
+         * Stops watching. The process is left running unless the watch fired.
+         */
+        @Override
+        public void close() {
+            ScheduledFuture<?> pending = deadline;
+            if (pending != null) {
+                pending.cancel(false);
+            }
+            CancellationToken.Scope current = registration;
+            if (current != null) {
+                current.close();
+            }
+        }
+    }
+
+    /**
+     * Builder for {@link SubprocessRunner}.
+     */
+    public static final class Builder {
+        private long timeoutMillis;
+        private int stdoutLimit = DEFAULT_OUTPUT_LIMIT;
+        private int stderrLimit = DEFAULT_OUTPUT_LIMIT;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the runner's own timeout, applied in addition to the bound token's deadline.
+         *
+         * @param timeout the timeout, or 0 for none
+         * @param unit the unit of the timeout
+         * @return this builder
+         */
+        public Builder timeout(long timeout, TimeUnit unit) {
+            this.timeoutMillis = Math.max(0, unit.toMillis(timeout));
+            return this;
+        }
+
+        /**
+         * Sets how many bytes of stdout are kept; earlier output is dropped.
+         *
+         * @param bytes the capture limit
+         * @return this builder
+         */
+        public Builder stdoutLimit(int bytes) {
+            this.stdoutLimit = bytes;
+            return this;
+        }
+
+        /**
+         * Sets how many bytes of stderr are kept; earlier output is dropped.
+         *
+         * @param bytes the capture limit
+         * @return this builder
+         */
+        public Builder stderrLimit(int bytes) {
+            this.stderrLimit = bytes;
+            return this;
+        }
+
+        /**
+         * Builds the runner.
+         *
+         * @return the runner
+         * @throws IllegalArgumentException if a limit is not positive
+         */
+        public SubprocessRunner build() {
+            if (stdoutLimit <= 0 || stderrLimit <= 0) {
+                throw new IllegalArgumentException("Output limits must be positive");
+            }
+            return new SubprocessRunner(this);
+        }
+    }
+}
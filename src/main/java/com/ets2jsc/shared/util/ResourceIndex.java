@@ -0,0 +1,686 @@
+package com.ets2jsc.shared.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Index of the resources of a project, for resolving {@code $r()} and
+ * {@code $rawfile()} references at compile time.
+ * <p>
+ * The index lists the resources declared in {@code resources/<qualifier>/element/*.json},
+ * the files in the {@code media} and {@code profile} directories, and the
+ * files under {@code resources/rawfile}.
+ * <p>
+ * Ids are only known for resources that have an id assigned by the resource
+ * compiler: in {@code element/id_defined.json}, or in a {@code ResourceTable.txt}
+ * in the build directory of the module. Other resources are only checked
+ * for existence and are resolved by name at runtime.
+ * <p>
+ * {@link #load(Path, Path)} builds the index once per build and persists it
+ * with a fingerprint of the resource directories and of the files whose
+ * contents it indexes. A later build of an unchanged project memory-maps the
+ * persisted index and answers lookups from the mapping: the index is laid
+ * out as sorted tables of UTF-8 strings, searched in place, so nothing is
+ * copied to the heap.
+ * Builds keep their indexes in a cache directory, see {@link #loadForBuild(Path)},
+ * so nothing is added to the output of the build.
+ */
+public final class ResourceIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResourceIndex.class);
+
+    /** Suffix of persisted index files. */
+    public static final String INDEX_FILE_NAME = ".resource-index";
+
+    /** System property overriding the directory of persisted indexes. */
+    public static final String CACHE_DIR_PROPERTY = "ets2jsc.resourceIndex.cacheDir";
+
+    private static final String DEFAULT_CACHE_DIR = "ets2jsc-resource-index";
+
+    /** Index of a project without resources; it resolves nothing. */
+    public static final ResourceIndex EMPTY = encode(0, new String[0], new int[0], new String[0]);
+
+    private static final int MAGIC = 0x45525849;
+    private static final int FORMAT_VERSION = 3;
+    private static final int HEADER_BYTES = 2 * Integer.BYTES + Long.BYTES;
+    private static final int UNKNOWN_ID = -1;
+    private static final String ID_DEFINED_FILE = "id_defined.json";
+    private static final String RESOURCE_TABLE_FILE = "ResourceTable.txt";
+    private static final String BUILD_DIR = "build";
+    private static final int RESOURCE_TABLE_SEARCH_DEPTH = 8;
+    private static final String RESOURCES_DIR = "resources";
+    private static final String RAWFILE_DIR = "rawfile";
+    private static final String ELEMENT_DIR = "element";
+    private static final String[] FILE_TYPE_DIRS = {"media", "profile"};
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final ByteBuffer data;
+    private final long fingerprint;
+    private final int keyCount;
+    private final int keyTable;
+    private final int idTable;
+    private final int rawFileCount;
+    private final int rawFileTable;
+    private final Set<String> reportedMissing;
+
+    /**
+     * Creates an index over its encoded form: the header, the key count with
+     * the offsets of the keys and their ids, the raw file count with the
+     * offsets of the raw files, and then the strings, each a length and its
+     * UTF-8 bytes. Keys and raw files are sorted by their UTF-8 bytes. Only
+     * absolute reads are used, so the buffer can be shared by threads.
+     *
+     * @throws IllegalArgumentException if the tables do not fit the buffer
+     */
+    private ResourceIndex(ByteBuffer data) {
+        this.data = data;
+        this.fingerprint = data.getLong(2 * Integer.BYTES);
+        this.keyCount = count(data, HEADER_BYTES, 2);
+        this.keyTable = HEADER_BYTES + Integer.BYTES;
+        this.idTable = keyTable + keyCount * Integer.BYTES;
+        int rawFileCountPosition = idTable + keyCount * Integer.BYTES;
+        this.rawFileCount = count(data, rawFileCountPosition, 1);
+        this.rawFileTable = rawFileCountPosition + Integer.BYTES;
+        this.reportedMissing = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Reads a table size and checks that the table, of the given number of
+     * ints per entry, fits the buffer.
+     */
+    private static int count(ByteBuffer data, int position, int intsPerEntry) {
+        int count = data.getInt(position);
+        long end = position + Integer.BYTES + (long) count * intsPerEntry * Integer.BYTES;
+        if (count < 0 || end > data.limit()) {
+            throw new IllegalArgumentException("Invalid table size " + count);
+        }
+        return count;
+    }
+
+    /**
+     * Loads the index of a project from its persisted index file, or builds
+     * it and writes the file when the resource files have changed.
+     *
+     * @param projectDir the project or source directory
+     * @param indexFile the persisted index
+     * @return the index
+     * @throws IOException if the resource files cannot be read
+     */
+    public static ResourceIndex load(Path projectDir, Path indexFile) throws IOException {
+        List<Path> resourceDirs = findResourceDirectories(projectDir);
+        long fingerprint = fingerprint(resourceDirs);
+
+        ResourceIndex persisted = read(indexFile);
+        if (persisted != null && persisted.fingerprint == fingerprint) {
+            LOGGER.debug("Reusing resource index {}", indexFile);
+            return persisted;
+        }
+
+        ResourceIndex index = build(resourceDirs, fingerprint);
+        try {
+            write(index, indexFile);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to persist resource index {}: {}", indexFile, e.getMessage());
+        }
+        return index;
+    }
+
+    /**
+     * Loads the index of a project for a build, persisted in the cache
+     * directory. An index that cannot be built only disables resource
+     * checks: the failure is logged and the empty index is returned.
+     *
+     * @param projectDir the project or source directory
+     * @return the index, empty if the resources cannot be read
+     */
+    public static ResourceIndex loadForBuild(Path projectDir) {
+        try {
+            return load(projectDir, defaultIndexFile(projectDir));
+        } catch (IOException | UncheckedIOException e) {
+            LOGGER.warn("Failed to index resources of {}, resource references are not checked: {}",
+                    projectDir, e.getMessage());
+            return EMPTY;
+        }
+    }
+
+    /**
+     * Gets the persisted index file of a project in the cache directory,
+     * named after a hash of the project path.
+     *
+     * @param projectDir the project or source directory
+     * @return the index file
+     */
+    public static Path defaultIndexFile(Path projectDir) {
+        String configured = System.getProperty(CACHE_DIR_PROPERTY);
+        Path cacheDir = configured != null && !configured.isBlank()
+                ? Path.of(configured)
+                : Path.of(System.getProperty("java.io.tmpdir"), DEFAULT_CACHE_DIR);
+        String project = projectDir.toAbsolutePath().normalize().toString();
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < project.length(); i++) {
+            hash = mix(hash, project.charAt(i));
+        }
+        return cacheDir.resolve(Long.toHexString(hash) + INDEX_FILE_NAME);
+    }
+
+    /**
+     * Builds the index of a project without persisting it.
+     *
+     * @param projectDir the project or source directory
+     * @return the index
+     * @throws IOException if the resource files cannot be read
+     */
+    public static ResourceIndex build(Path projectDir) throws IOException {
+        List<Path> resourceDirs = findResourceDirectories(projectDir);
+        return build(resourceDirs, fingerprint(resourceDirs));
+    }
+
+    /**
+     * Checks whether the project has an application resource.
+     *
+     * @param type the resource type, such as {@code color}
+     * @param name the resource name
+     */
+    public boolean hasResource(String type, String name) {
+        return search(keyTable, keyCount, type + "." + name) >= 0;
+    }
+
+    /**
+     * Gets the id the resource compiler assigned to an application resource.
+     *
+     * @param type the resource type, such as {@code color}
+     * @param name the resource name
+     * @return the id, or -1 if the project has no such resource or its id is not known
+     */
+    public int getResourceId(String type, String name) {
+        int position = search(keyTable, keyCount, type + "." + name);
+        return position >= 0 ? data.getInt(idTable + position * Integer.BYTES) : UNKNOWN_ID;
+    }
+
+    /**
+     * Checks whether the project has a raw file.
+     *
+     * @param path the path of the file under {@code resources/rawfile}
+     */
+    public boolean hasRawFile(String path) {
+        return search(rawFileTable, rawFileCount, path) >= 0;
+    }
+
+    /**
+     * Checks whether the index lists no resources, as for projects whose
+     * resources are not available to the compiler.
+     */
+    public boolean isEmpty() {
+        return keyCount == 0 && rawFileCount == 0;
+    }
+
+    /**
+     * Gets the number of resources, not counting raw files.
+     */
+    public int size() {
+        return keyCount;
+    }
+
+    /**
+     * Binary searches a sorted string table by the UTF-8 bytes of a value.
+     *
+     * @return the position of the value in the table, or -1 if it is not listed
+     */
+    private int search(int table, int count, String value) {
+        byte[] key = value.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int order = compareAt(data.getInt(table + middle * Integer.BYTES), key);
+            if (order < 0) {
+                low = middle + 1;
+            } else if (order > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compares the string at an offset of the buffer with UTF-8 bytes, as unsigned bytes.
+     */
+    private int compareAt(int offset, byte[] key) {
+        int length = data.getInt(offset);
+        int start = offset + Integer.BYTES;
+        for (int i = 0; i < Math.min(length, key.length); i++) {
+            int order = Integer.compare(data.get(start + i) & 0xff, key[i] & 0xff);
+            if (order != 0) {
+                return order;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    /**
+     * Reports a reference to a resource the project does not have.
+     * Each reference is reported once per build.
+     *
+     * @param reference the reference as written in the source, such as {@code app.color.title}
+     */
+    public void reportMissing(String reference) {
+        if (reportedMissing.add(reference)) {
+            LOGGER.warn("Resource not found: {}", reference);
+        }
+    }
+
+    /**
+     * Finds the resource directories of a project: the {@code resources}
+     * directories below it, or next to it for a source directory such as
+     * {@code src/main/ets}. Excluded directories are not searched.
+     */
+    private static List<Path> findResourceDirectories(Path projectDir) throws IOException {
+        List<Path> found = new ArrayList<>();
+        if (projectDir == null || !Files.isDirectory(projectDir)) {
+            return found;
+        }
+        Files.walkFileTree(projectDir, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                String name = String.valueOf(dir.getFileName());
+                if (RESOURCES_DIR.equals(name)) {
+                    found.add(dir);
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                if (!dir.equals(projectDir) && ResourceFileCopier.isExcludedDirectory(name)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        Path parent = projectDir.toAbsolutePath().normalize().getParent();
+        if (found.isEmpty() && parent != null && Files.isDirectory(parent.resolve(RESOURCES_DIR))) {
+            found.add(parent.resolve(RESOURCES_DIR));
+        }
+        found.sort(null);
+        return found;
+    }
+
+    private static List<Path> listDirectory(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> entries = Files.list(dir)) {
+            return entries.sorted().toList();
+        }
+    }
+
+    /**
+     * Hashes what the index is built from without reading every resource
+     * file: the modification times of the resource directories, which change
+     * when files are added, removed or renamed, and the paths, sizes and
+     * modification times of the element files and the resource table, whose
+     * contents are indexed.
+     */
+    private static long fingerprint(List<Path> resourceDirs) throws IOException {
+        long hash = mix(FNV_OFFSET, FORMAT_VERSION);
+        for (Path resourceDir : resourceDirs) {
+            hash = mixDirectory(hash, resourceDir);
+            for (Path qualifierDir : listDirectory(resourceDir)) {
+                if (!Files.isDirectory(qualifierDir)) {
+                    continue;
+                }
+                if (RAWFILE_DIR.equals(qualifierDir.getFileName().toString())) {
+                    hash = mixDirectoryTree(hash, qualifierDir);
+                    continue;
+                }
+                hash = mixDirectory(hash, qualifierDir);
+                Path elementDir = qualifierDir.resolve(ELEMENT_DIR);
+                hash = mixDirectory(hash, elementDir);
+                for (Path file : listDirectory(elementDir)) {
+                    if (file.getFileName().toString().endsWith(".json")) {
+                        hash = mixFile(hash, file);
+                    }
+                }
+                for (String typeDir : FILE_TYPE_DIRS) {
+                    hash = mixDirectory(hash, qualifierDir.resolve(typeDir));
+                }
+            }
+            Path resourceTable = findResourceTable(resourceDir);
+            if (resourceTable != null) {
+                hash = mixFile(hash, resourceTable);
+            }
+        }
+        return hash;
+    }
+
+    private static long mixFile(long hash, Path file) throws IOException {
+        hash = mix(hash, file.toAbsolutePath().toString().hashCode());
+        hash = mix(hash, Files.size(file));
+        return mix(hash, Files.getLastModifiedTime(file).toMillis());
+    }
+
+    private static long mixDirectory(long hash, Path dir) throws IOException {
+        hash = mix(hash, dir.toAbsolutePath().toString().hashCode());
+        return mix(hash, Files.isDirectory(dir) ? Files.getLastModifiedTime(dir).toMillis() : UNKNOWN_ID);
+    }
+
+    /**
+     * Hashes a directory and its subdirectories, such as the raw files,
+     * whose names are indexed at any depth.
+     */
+    private static long mixDirectoryTree(long hash, Path root) throws IOException {
+        long[] tree = {hash};
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                tree[0] = mix(tree[0], dir.toAbsolutePath().toString().hashCode());
+                tree[0] = mix(tree[0], attrs.lastModifiedTime().toMillis());
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return tree[0];
+    }
+
+    private static long mix(long hash, long value) {
+        return (hash ^ value) * FNV_PRIME;
+    }
+
+    private static ResourceIndex build(List<Path> resourceDirs, long fingerprint) throws IOException {
+        Set<String> keys = new TreeSet<>();
+        Map<String, Integer> ids = new HashMap<>();
+        Set<String> rawFiles = new TreeSet<>();
+        for (Path resourceDir : resourceDirs) {
+            Path resourceTable = findResourceTable(resourceDir);
+            if (resourceTable != null) {
+                addResourceTable(resourceTable, ids);
+            }
+            for (Path qualifierDir : listDirectory(resourceDir)) {
+                if (!Files.isDirectory(qualifierDir)) {
+                    continue;
+                }
+                if (RAWFILE_DIR.equals(qualifierDir.getFileName().toString())) {
+                    addRawFiles(qualifierDir, rawFiles);
+                    continue;
+                }
+                for (Path file : listDirectory(qualifierDir.resolve(ELEMENT_DIR))) {
+                    String fileName = file.getFileName().toString();
+                    if (ID_DEFINED_FILE.equals(fileName)) {
+                        addDefinedIds(file, ids);
+                    } else if (fileName.endsWith(".json")) {
+                        addElements(file, keys);
+                    }
+                }
+                for (String typeDir : FILE_TYPE_DIRS) {
+                    for (Path file : listDirectory(qualifierDir.resolve(typeDir))) {
+                        keys.add(typeDir + "." + stripExtension(file.getFileName().toString()));
+                    }
+                }
+            }
+        }
+        String[] resourceKeys = keys.toArray(new String[0]);
+        int[] resourceIds = new int[resourceKeys.length];
+        for (int i = 0; i < resourceKeys.length; i++) {
+            resourceIds[i] = ids.getOrDefault(resourceKeys[i], UNKNOWN_ID);
+        }
+        return encode(fingerprint, resourceKeys, resourceIds, rawFiles.toArray(new String[0]));
+    }
+
+    /**
+     * Encodes an index in the form it is persisted in.
+     *
+     * @param resourceKeys the keys, in the order of their ids
+     * @param resourceIds the ids of the keys
+     * @param rawFiles the raw file paths
+     */
+    private static ResourceIndex encode(long fingerprint, String[] resourceKeys, int[] resourceIds,
+                                        String[] rawFiles) {
+        byte[][] keys = utf8(resourceKeys);
+        byte[][] files = utf8(rawFiles);
+        Integer[] keyOrder = sortedOrder(keys);
+        Integer[] fileOrder = sortedOrder(files);
+        int tables = 2 * Integer.BYTES + (2 * keys.length + files.length) * Integer.BYTES;
+        ByteBuffer data = ByteBuffer.allocate(HEADER_BYTES + tables + stringBytes(keys) + stringBytes(files));
+        data.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(fingerprint);
+
+        int offset = HEADER_BYTES + tables;
+        data.putInt(keys.length);
+        for (int key : keyOrder) {
+            data.putInt(offset);
+            offset += Integer.BYTES + keys[key].length;
+        }
+        for (int key : keyOrder) {
+            data.putInt(resourceIds[key]);
+        }
+        data.putInt(files.length);
+        for (int file : fileOrder) {
+            data.putInt(offset);
+            offset += Integer.BYTES + files[file].length;
+        }
+        for (int key : keyOrder) {
+            data.putInt(keys[key].length).put(keys[key]);
+        }
+        for (int file : fileOrder) {
+            data.putInt(files[file].length).put(files[file]);
+        }
+        return new ResourceIndex(data.clear());
+    }
+
+    private static byte[][] utf8(String[] values) {
+        byte[][] encoded = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            encoded[i] = values[i].getBytes(StandardCharsets.UTF_8);
+        }
+        return encoded;
+    }
+
+    /**
+     * Orders strings by their UTF-8 bytes, the order {@link #search} expects.
+     */
+    private static Integer[] sortedOrder(byte[][] values) {
+        Integer[] order = new Integer[values.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(values[a], values[b]));
+        return order;
+    }
+
+    private static int stringBytes(byte[][] values) {
+        int total = 0;
+        for (byte[] value : values) {
+            total += Integer.BYTES + value.length;
+        }
+        return total;
+    }
+
+    /**
+     * Finds the {@code ResourceTable.txt} the resource compiler wrote for the
+     * module of a resources directory, such as {@code entry/src/main/resources}.
+     *
+     * @return the table, or null if the module has not been built
+     */
+    private static Path findResourceTable(Path resourceDir) throws IOException {
+        Path main = resourceDir.toAbsolutePath().normalize().getParent();
+        Path src = main != null ? main.getParent() : null;
+        Path module = src != null ? src.getParent() : null;
+        if (module == null || !Files.isDirectory(module.resolve(BUILD_DIR))) {
+            return null;
+        }
+        try (Stream<Path> files = Files.find(module.resolve(BUILD_DIR), RESOURCE_TABLE_SEARCH_DEPTH,
+                (file, attrs) -> attrs.isRegularFile()
+                        && RESOURCE_TABLE_FILE.equals(String.valueOf(file.getFileName())))) {
+            return files.sorted().findFirst().orElse(null);
+        }
+    }
+
+    /**
+     * Adds the ids of a {@code ResourceTable.txt}, whose lines are
+     * {@code <type> <name> <id>}.
+     */
+    private static void addResourceTable(Path file, Map<String, Integer> ids) {
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                String[] parts = line.trim().split("\\s+");
+                if (parts.length == 3) {
+                    putId(ids, parts[0], parts[1], parts[2]);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Skipping unreadable resource table {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Adds the ids of an {@code id_defined.json}, such as
+     * {@code {"record": [{"type": "color", "name": "title", "id": "0x01000000"}]}}.
+     */
+    private static void addDefinedIds(Path file, Map<String, Integer> ids) {
+        try {
+            for (JsonNode record : MAPPER.readTree(file.toFile()).path("record")) {
+                putId(ids, record.path("type").asText(), record.path("name").asText(), record.path("id").asText());
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Skipping unreadable resource id file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static void putId(Map<String, Integer> ids, String type, String name, String id) {
+        if (type.isEmpty() || name.isEmpty()) {
+            return;
+        }
+        try {
+            int value = id.startsWith("0x") || id.startsWith("0X")
+                    ? Integer.parseUnsignedInt(id.substring(2), 16)
+                    : Integer.parseInt(id);
+            ids.put(type + "." + name, value);
+        } catch (NumberFormatException e) {
+            // Not an id line, such as a header
+        }
+    }
+
+    /**
+     * Adds the resources of an element file, such as
+     * {@code {"color": [{"name": "title", "value": "#000000"}]}}.
+     */
+    private static void addElements(Path file, Set<String> keys) {
+        try {
+            JsonNode root = MAPPER.readTree(file.toFile());
+            Iterator<Map.Entry<String, JsonNode>> types = root.fields();
+            while (types.hasNext()) {
+                Map.Entry<String, JsonNode> type = types.next();
+                for (JsonNode element : type.getValue()) {
+                    JsonNode name = element.get("name");
+                    if (name != null && name.isTextual()) {
+                        keys.add(type.getKey() + "." + name.asText());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Skipping unreadable resource file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static void addRawFiles(Path rawfileDir, Set<String> rawFiles) throws IOException {
+        try (Stream<Path> files = Files.walk(rawfileDir)) {
+            files.filter(Files::isRegularFile)
+                    .map(file -> rawfileDir.relativize(file).toString().replace('\\', '/'))
+                    .forEach(rawFiles::add);
+        }
+    }
+
+    private static String stripExtension(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot > 0 ? fileName.substring(0, dot) : fileName;
+    }
+
+    /**
+     * Writes the index next to its final place and moves it there, so a
+     * reader never sees a partly written index.
+     */
+    private static void write(ResourceIndex index, Path indexFile) throws IOException {
+        Path dir = indexFile.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path staging = Files.createTempFile(dir, INDEX_FILE_NAME, ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(staging, StandardOpenOption.WRITE)) {
+                ByteBuffer data = index.data.duplicate().clear();
+                while (data.hasRemaining()) {
+                    channel.write(data);
+                }
+            }
+            try {
+                Files.move(staging, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(staging, indexFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(staging);
+        }
+    }
+
+    /**
+     * Maps a persisted index. Its tables and strings are checked once here,
+     * so lookups can read the mapping without bounds checks of their own.
+     *
+     * @return the index, or null if there is none or it is damaged or of another format
+     */
+    private static ResourceIndex read(Path indexFile) {
+        if (!Files.isRegularFile(indexFile)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.limit() < HEADER_BYTES + 2 * Integer.BYTES
+                    || buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != FORMAT_VERSION) {
+                return null;
+            }
+            ResourceIndex index = new ResourceIndex(buffer);
+            checkStrings(buffer, index.keyTable, index.keyCount);
+            checkStrings(buffer, index.rawFileTable, index.rawFileCount);
+            return index;
+        } catch (IOException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            LOGGER.debug("Ignoring unreadable resource index {}: {}", indexFile, e.getMessage());
+            return null;
+        }
+    }
+
+    private static void checkStrings(ByteBuffer buffer, int table, int count) {
+        for (int i = 0; i < count; i++) {
+            int offset = buffer.getInt(table + i * Integer.BYTES);
+            if (offset < 0 || offset > buffer.limit() - Integer.BYTES) {
+                throw new IllegalArgumentException("Invalid string offset " + offset);
+            }
+            int length = buffer.getInt(offset);
+            if (length < 0 || length > buffer.limit() - offset - Integer.BYTES) {
+                throw new IllegalArgumentException("Invalid string length " + length);
+            }
+        }
+    }
+}
@@ -11,19 +11,35 @@
  * @since 2.0
  *
  * @example CLI usage:
- *   node index.js <source-file> <output-file>
+ *   node index.js [--ast-format json|binary] [--ast-emission full|compact|lean] <source-file> <output-file>
+ *   node index.js --stdin [file-name] < source.ets > ast.json
+ *   node index.js --daemon
+ *   node index.js --thread-host <threads>
+ *   node index.js --batch <manifest-file|->
+ *   node index.js --batch-dir <dir> [glob]
+ *   node index.js --build-compile-cache <cache-dir>
  *
  * @example Library usage:
  *   const { parse, parseFile } = require('./index');
  *   const ast = parse('const x = 42;');
  */
 
+// Must run before typescript and the parser modules are loaded
+const { enableCompileCache } = require('./src/javascript/runtime/compile-cache');
+const compileCacheMode = enableCompileCache(__dirname);
+
 const ts = require('typescript');
 const fs = require('fs');
 
 // Import from the modular structure
 const { preprocessEts } = require('./src/javascript/ast/preprocessor');
 const { convertAstToJson } = require('./src/javascript/ast/converter');
+const { applyEmission } = require('./src/javascript/ast/emission');
+const { withSourceText } = require('./src/javascript/ast/source-text');
+const { AST_EMISSION } = require('./src/javascript/common/constants');
+
+const EMISSION_MODES = [AST_EMISSION.FULL, AST_EMISSION.COMPACT, AST_EMISSION.LEAN];
+let astEmission = AST_EMISSION.FULL;
 
 // =============================================================================
 // PUBLIC API - Library Interface
@@ -38,16 +54,69 @@ const { convertAstToJson } = require('./src/javascript/ast/converter');
  */
 function parse(sourceCode, fileName = 'input.ets') {
     const preprocessResult = preprocessEts(sourceCode);
+    const lean = astEmission === AST_EMISSION.LEAN;
 
     const tsSourceFile = ts.createSourceFile(
         fileName,
         preprocessResult.code,
         ts.ScriptTarget.Latest,
-        true,
+        !lean,
         ts.ScriptKind.TS
     );
 
-    return convertAstToJson(tsSourceFile, preprocessResult.decorators);
+    if (lean) {
+        return withSourceText(tsSourceFile, preprocessResult.offsets,
+            () => convertForEmission(tsSourceFile, preprocessResult.decorators));
+    }
+    return convertForEmission(tsSourceFile, preprocessResult.decorators);
+}
+
+/**
+ * Convert a TypeScript node and apply the current emission mode.
+ *
+ * @param {Object} node - The TypeScript AST node
+ * @param {Array} decorators - Decorators extracted during preprocessing
+ * @returns {Object} AST as JSON-serializable object
+ */
+function convertForEmission(node, decorators) {
+    return applyEmission(convertAstToJson(node, decorators), astEmission);
+}
+
+/**
+ * Select how nodes with synthesized text are emitted by later parses.
+ * In compact mode a node carries either its final text or its structure,
+ * never both. In lean mode the TypeScript tree is built without parent
+ * pointers, every node carries its pos/end offsets in the original source,
+ * and identifiers leave their text to be sliced from the source by the
+ * reader. Incremental parses keep parent pointers and emit full text.
+ *
+ * @param {string} mode - Emission mode, full, compact or lean
+ */
+function setAstEmission(mode) {
+    if (!EMISSION_MODES.includes(mode)) {
+        throw new Error(`Unknown AST emission mode: ${mode}`);
+    }
+    astEmission = mode;
+}
+
+let incrementalSession = null;
+
+/**
+ * Parse ETS/TypeScript source code, reusing the previous parse of the same file.
+ * Unchanged top-level statements are null in the result and keep their
+ * entry in statementIds; see {@link IncrementalSession#parse}.
+ *
+ * @param {string} sourceCode - The source code to parse
+ * @param {string} fileName - File name identifying the previous parse
+ * @param {boolean} fullOutput - Convert every statement even if unchanged
+ * @returns {Object} AST with statementIds and reusedStatements
+ */
+function parseIncremental(sourceCode, fileName = 'input.ets', fullOutput = false) {
+    if (!incrementalSession) {
+        const { IncrementalSession } = require('./src/javascript/incremental/session');
+        incrementalSession = new IncrementalSession(preprocessEts, convertForEmission);
+    }
+    return incrementalSession.parse(sourceCode, fileName, fullOutput);
 }
 
 /**
@@ -65,14 +134,59 @@ function parseFile(filePath) {
 // CLI INTERFACE
 // =============================================================================
 
-const { ERROR_MESSAGES } = require('./src/javascript/common/constants');
+const {
+    ERROR_MESSAGES, DAEMON, THREAD_HOST, AST_FORMAT, STDIN_MODE, BATCH, COMPILE_CACHE
+} = require('./src/javascript/common/constants');
+const { encodeBinaryAst } = require('./src/javascript/wire/binary-ast');
+const { runDaemon } = require('./src/javascript/daemon/server');
 
 /**
  * Main CLI function.
  * Executes when run directly from command line.
  */
 function main() {
-    const args = process.argv.slice(2);
+    const formatOption = extractOption(process.argv.slice(2), AST_FORMAT.FLAG,
+        [AST_FORMAT.JSON, AST_FORMAT.BINARY]);
+    const emissionOption = formatOption && extractOption(formatOption.args, AST_EMISSION.FLAG, EMISSION_MODES);
+    if (!emissionOption) {
+        console.error(ERROR_MESSAGES.USAGE);
+        process.exit(1);
+    }
+    const format = formatOption.value;
+    const args = emissionOption.args;
+    setAstEmission(emissionOption.value);
+
+    if (args[0] === DAEMON.FLAG) {
+        runDaemon(parseDaemonRequest, format);
+        return;
+    }
+
+    if (args[0] === THREAD_HOST.FLAG) {
+        const threads = parseInt(args[1], 10);
+        if (!(threads > 0)) {
+            console.error(ERROR_MESSAGES.USAGE);
+            process.exit(1);
+        }
+        // Loaded here because worker_threads is Node-only
+        const { runThreadHost } = require('./src/javascript/daemon/thread-host');
+        runThreadHost(__filename, threads, format, astEmission);
+        return;
+    }
+
+    if (args[0] === STDIN_MODE.FLAG) {
+        runStdinCli(args[1] || STDIN_MODE.DEFAULT_FILE_NAME, format);
+        return;
+    }
+
+    if (args[0] === BATCH.FLAG || args[0] === BATCH.DIR_FLAG) {
+        runBatchCli(args);
+        return;
+    }
+
+    if (args[0] === COMPILE_CACHE.BUILD_FLAG) {
+        runBuildCompileCache(args[1]);
+        return;
+    }
 
     if (args.length < 2) {
         console.error(ERROR_MESSAGES.USAGE);
@@ -83,7 +197,9 @@ function main() {
 
     try {
         const astJson = parseFile(sourceFilePath);
-        fs.writeFileSync(outputFile, JSON.stringify(astJson, null, 2));
+        fs.writeFileSync(outputFile, format === AST_FORMAT.BINARY
+            ? encodeBinaryAst(astJson)
+            : JSON.stringify(astJson, null, 2));
         console.error(ERROR_MESSAGES.SUCCESS, sourceFilePath);
     } catch (error) {
         console.error(ERROR_MESSAGES.PARSE_FAILED, error.message);
@@ -92,6 +208,106 @@ function main() {
     }
 }
 
+/**
+ * Parse function for daemon requests, which may ask for an incremental parse.
+ *
+ * @param {string} sourceCode - The source code to parse
+ * @param {string} fileName - File name
+ * @param {Object} options - Request flags: incremental, fullOutput
+ * @returns {Object} AST
+ */
+function parseDaemonRequest(sourceCode, fileName, options) {
+    return options.incremental
+        ? parseIncremental(sourceCode, fileName, options.fullOutput)
+        : parse(sourceCode, fileName);
+}
+
+/**
+ * Take an option with a value out of the arguments.
+ *
+ * @param {string[]} rawArgs - Command line arguments
+ * @param {string} flag - Option flag
+ * @param {string[]} allowed - Allowed values; the first is the default
+ * @returns {{value: string, args: string[]}|null} Value and remaining arguments, or null if invalid
+ */
+function extractOption(rawArgs, flag, allowed) {
+    const index = rawArgs.indexOf(flag);
+    if (index === -1) {
+        return { value: allowed[0], args: rawArgs };
+    }
+    const value = rawArgs[index + 1];
+    if (!allowed.includes(value)) {
+        return null;
+    }
+    return { value, args: [...rawArgs.slice(0, index), ...rawArgs.slice(index + 2)] };
+}
+
+/**
+ * Pipe CLI: read the source from stdin and write the compact AST to stdout.
+ * Diagnostics go to stderr so stdout carries nothing but the AST.
+ *
+ * @param {string} fileName - File name used for error reporting
+ * @param {string} format - AST output format, json or binary
+ */
+function runStdinCli(fileName, format) {
+    try {
+        const sourceCode = fs.readFileSync(0, 'utf-8');
+        const ast = parse(sourceCode, fileName);
+        process.stdout.write(format === AST_FORMAT.BINARY ? encodeBinaryAst(ast) : JSON.stringify(ast));
+    } catch (error) {
+        console.error(ERROR_MESSAGES.PARSE_FAILED, error.message);
+        console.error(error.stack);
+        process.exit(1);
+    }
+}
+
+/**
+ * Batch CLI: parse many files and stream one AST per line to stdout.
+ *
+ * @param {string[]} args - Batch arguments
+ */
+function runBatchCli(args) {
+    // Loaded here because it needs Node's path module, which embedded runtimes lack
+    const { runBatch, resolveBatchFiles } = require('./src/javascript/batch/runner');
+
+    let files;
+    try {
+        files = resolveBatchFiles(args);
+    } catch (error) {
+        console.error(ERROR_MESSAGES.PARSE_FAILED, error.message);
+        process.exit(1);
+    }
+    if (!files) {
+        console.error(ERROR_MESSAGES.USAGE);
+        process.exit(1);
+    }
+
+    runBatch(parseFile, files).catch((error) => {
+        console.error(ERROR_MESSAGES.PARSE_FAILED, error.message);
+        process.exit(1);
+    });
+}
+
+/**
+ * Build step: fill the compile cache by parsing a small ETS sample, so the
+ * functions used while parsing are compiled too. The cache is written on exit.
+ *
+ * @param {string} cacheDir - Cache directory, already enabled at startup
+ */
+function runBuildCompileCache(cacheDir) {
+    if (!cacheDir) {
+        console.error(ERROR_MESSAGES.USAGE);
+        process.exit(1);
+    }
+    try {
+        parse(COMPILE_CACHE.WARMUP_SOURCE, COMPILE_CACHE.WARMUP_FILE_NAME);
+        console.error(`Compile cache (${compileCacheMode}):`, cacheDir);
+    } catch (error) {
+        console.error(ERROR_MESSAGES.PARSE_FAILED, error.message);
+        process.exit(1);
+    }
+}
+
 // =============================================================================
 // MODULE EXPORTS & ENTRY POINT
 // =============================================================================
@@ -100,6 +316,9 @@ function main() {
 module.exports = {
     parse,
     parseFile,
+    parseIncremental,
+    parseDaemonRequest,
+    setAstEmission,
     // Export sub-modules for advanced usage
     preprocess: preprocessEts,
     convert: convertAstToJson
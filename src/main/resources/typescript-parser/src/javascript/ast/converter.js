@@ -6,6 +6,7 @@
 
 const ts = require('typescript');
 const { getSyntaxKindName } = require('../common/utils');
+const { addSourcePosition } = require('./source-text');
 
 // Import all converters
 const literals = require('./converters/literals');
@@ -250,6 +251,7 @@ function convertAstToJson(node, extractedDecorators = []) {
         kind: node.kind,
         kindName: getSyntaxKindName(node.kind)
     };
+    addSourcePosition(result, node);
 
     // Get the converter for this node type
     const converter = AST_CONVERTERS[node.kind];
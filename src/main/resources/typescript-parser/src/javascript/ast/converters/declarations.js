@@ -7,6 +7,7 @@
 const ts = require('typescript');
 const { KEYWORDS } = require('../../common/constants');
 const { hasExportModifier, getSyntaxKindName } = require('../../common/utils');
+const { getNodeText } = require('../source-text');
 
 /**
  * Convert SourceFile node.
@@ -123,12 +124,12 @@ function convertConstructor(result, node, convert) {
  */
 function convertPropertyDeclaration(result, node, convert) {
     result.name = node.name?.escapedText || '';
-    result.type = node.type?.getText() || '';
+    result.type = getNodeText(node.type) || '';
     result.initializer = node.initializer ? convert(node.initializer) : null;
 
     if (node.initializer) {
         const initJson = result.initializer;
-        result.initializerText = initJson?.text || node.initializer?.getText() || '';
+        result.initializerText = initJson?.text || getNodeText(node.initializer) || '';
     }
 
     result.decorators = convertDecoratorsWithModifierCheck(node.decorators, node.modifiers, convert);
@@ -148,7 +149,7 @@ function convertDecorator(result, node) {
         result.name = expression.expression.escapedText;
         result.arguments = [];
         for (const arg of expression.arguments || []) {
-            result.arguments.push(arg.getText());
+            result.arguments.push(getNodeText(arg));
         }
     }
 }
@@ -169,7 +170,7 @@ function convertInterfaceDeclaration(result, node) {
  * @param {Object} node - TypeScript AST node
  */
 function convertImportDeclaration(result, node) {
-    result.moduleSpecifier = node.moduleSpecifier.getText();
+    result.moduleSpecifier = getNodeText(node.moduleSpecifier);
     result.importClause = convertImportClause(node.importClause);
 }
 
@@ -181,7 +182,7 @@ function convertImportDeclaration(result, node) {
 function convertExportDeclaration(result, node) {
     result.isTypeOnly = node.isTypeOnly || false;
     result.exportClause = convertExportClause(node.exportClause);
-    result.moduleSpecifier = node.moduleSpecifier ? node.moduleSpecifier.getText() : null;
+    result.moduleSpecifier = node.moduleSpecifier ? getNodeText(node.moduleSpecifier) : null;
 }
 
 /**
@@ -222,7 +223,7 @@ function convertHeritageClauses(heritageClauses) {
         };
         if (clause.types) {
             for (const type of clause.types) {
-                clauseJson.types.push(type.expression.getText());
+                clauseJson.types.push(getNodeText(type.expression));
             }
         }
         result.push(clauseJson);
@@ -312,7 +313,7 @@ function extractDecoratorNameFromModifier(mod) {
     const { REGEX_PATTERNS } = require('../../common/constants');
 
     try {
-        const modText = mod.getText();
+        const modText = getNodeText(mod);
         const decoratorMatch = modText.match(REGEX_PATTERNS.DECORATOR_NAME);
         return decoratorMatch ? decoratorMatch[1] : null;
     } catch (e) {
@@ -351,7 +352,7 @@ function convertParameters(parameters, convert) {
     for (const param of parameters || []) {
         const paramJson = {
             name: param.name?.escapedText || '',
-            type: param.type?.getText() || '',
+            type: getNodeText(param.type) || '',
             hasDotDotDot: !!param.dotDotDotToken,
             questionToken: !!param.questionToken
         };
@@ -360,7 +361,7 @@ function convertParameters(parameters, convert) {
             const bindingKind = getSyntaxKindName(param.name.kind);
             if (isBindingPattern(bindingKind)) {
                 paramJson.bindingPattern = convert(param.name);
-                paramJson.name = param.name.getText() || '';
+                paramJson.name = getNodeText(param.name) || '';
             }
         }
 
@@ -369,7 +370,7 @@ function convertParameters(parameters, convert) {
             if (paramJson.initializer?.text) {
                 paramJson.initializerText = paramJson.initializer.text;
             } else {
-                paramJson.initializerText = param.initializer?.getText() || '';
+                paramJson.initializerText = getNodeText(param.initializer) || '';
             }
         }
 
@@ -388,7 +389,7 @@ function convertParametersSimple(parameters) {
     for (const param of parameters || []) {
         result.push({
             name: param.name?.escapedText || '',
-            type: param.type?.getText() || ''
+            type: getNodeText(param.type) || ''
         });
     }
     return result;
@@ -403,7 +404,7 @@ function convertImportClause(importClause) {
     if (!importClause) return null;
 
     const result = {
-        name: importClause.name ? importClause.name.getText() : null,
+        name: importClause.name ? getNodeText(importClause.name) : null,
         namedBindings: []
     };
 
@@ -411,14 +412,14 @@ function convertImportClause(importClause) {
         if (importClause.namedBindings.kind === ts.SyntaxKind.NamedImports) {
             for (const element of importClause.namedBindings.elements) {
                 result.namedBindings.push({
-                    name: element.name.getText(),
-                    propertyName: element.propertyName ? element.propertyName.getText() : null
+                    name: getNodeText(element.name),
+                    propertyName: element.propertyName ? getNodeText(element.propertyName) : null
                 });
             }
         } else if (importClause.namedBindings.kind === ts.SyntaxKind.NamespaceImport) {
             result.namedBindings.push({
                 kind: 'namespace',
-                name: importClause.namedBindings.name.getText()
+                name: getNodeText(importClause.namedBindings.name)
             });
         }
     }
@@ -439,8 +440,8 @@ function convertExportClause(exportClause) {
     if (exportClause.kind === ts.SyntaxKind.NamedExports) {
         for (const element of exportClause.elements) {
             result.elements.push({
-                name: element.name.getText(),
-                propertyName: element.propertyName ? element.propertyName.getText() : null
+                name: getNodeText(element.name),
+                propertyName: element.propertyName ? getNodeText(element.propertyName) : null
             });
         }
     }
@@ -452,7 +453,7 @@ function convertExportClause(exportClause) {
 function generateGetAccessorText(node, convert) {
     const { jsonToCodeString } = require('../../codegen');
 
-    const name = node.name ? node.name.getText() : '';
+    const name = node.name ? getNodeText(node.name) : '';
     const bodyCode = node.body ? jsonToCodeString(convert(node.body)) : '';
 
     return `${KEYWORDS.GET} ${name}() {${bodyCode}}`;
@@ -461,8 +462,8 @@ function generateGetAccessorText(node, convert) {
 function generateSetAccessorText(node, convert) {
     const { jsonToCodeString } = require('../../codegen');
 
-    const name = node.name ? node.name.getText() : '';
-    const params = (node.parameters || []).map(p => p.name?.getText() || '').join(', ');
+    const name = node.name ? getNodeText(node.name) : '';
+    const params = (node.parameters || []).map(p => getNodeText(p.name) || '').join(', ');
     const bodyCode = node.body ? jsonToCodeString(convert(node.body)) : '';
 
     return `${KEYWORDS.SET} ${name}(${params}) {${bodyCode}}`;
@@ -472,7 +473,7 @@ function generateClassExpressionText(node, convert) {
     const { jsonToCodeString } = require('../../codegen');
     const { SYNTAX_KIND_NAMES, OPERATORS } = require('../../common/constants');
 
-    const className = node.name ? node.name.getText() : '';
+    const className = node.name ? getNodeText(node.name) : '';
     let result = KEYWORDS.CLASS + ' ';
 
     if (className) {
@@ -496,7 +497,7 @@ function generateExtendsClause(node) {
         const tokenName = getSyntaxKindName(clause.token);
         if (tokenName === SYNTAX_KIND_NAMES.EXTENDS_KEYWORD) {
             if (clause.types?.length > 0) {
-                return `${KEYWORDS.EXTENDS} ${clause.types[0].expression.getText()} `;
+                return `${KEYWORDS.EXTENDS} ${getNodeText(clause.types[0].expression)} `;
             }
         }
     }
@@ -528,7 +529,7 @@ function generateClassMembers(node, convert) {
 function generateConstructorText(node, convert) {
     const { jsonToCodeString } = require('../../codegen');
 
-    const params = (node.parameters || []).map(p => p.name?.getText() || '').join(', ');
+    const params = (node.parameters || []).map(p => getNodeText(p.name) || '').join(', ');
     const bodyCode = node.body ? generateBlockBodyText(node.body, convert) : '';
 
     return `${KEYWORDS.CONSTRUCTOR}(${params}) {${bodyCode}}`;
@@ -537,18 +538,18 @@ function generateConstructorText(node, convert) {
 function generateMethodDeclarationText(node, convert) {
     const { jsonToCodeString } = require('../../codegen');
 
-    const name = node.name?.getText() || '';
-    const params = (node.parameters || []).map(p => p.name?.getText() || '').join(', ');
+    const name = getNodeText(node.name) || '';
+    const params = (node.parameters || []).map(p => getNodeText(p.name) || '').join(', ');
     const bodyCode = node.body ? generateBlockBodyText(node.body, convert) : '';
 
     return `${name}(${params}) {${bodyCode}}`;
 }
 
 function generatePropertyDeclarationText(node) {
-    const name = node.name?.getText() || '';
+    const name = getNodeText(node.name) || '';
 
     if (node.initializer) {
-        const initText = node.initializer.getText();
+        const initText = getNodeText(node.initializer);
         return `${name} = ${initText};`;
     }
 
@@ -562,7 +563,7 @@ function generateBlockBodyText(blockNode, convert) {
 
     const statements = [];
     for (const stmt of blockNode.statements) {
-        const stmtText = stmt.getText();
+        const stmtText = getNodeText(stmt);
         if (stmtText) {
             statements.push(stmtText);
         }
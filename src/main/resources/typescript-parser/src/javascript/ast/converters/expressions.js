@@ -7,6 +7,7 @@
 const ts = require('typescript');
 const { RESOURCE_REF_FUNCTIONS, SPECIAL_COMPONENTS, KEYWORDS, OPERATORS } = require('../../common/constants');
 const { getSyntaxKindName, isBindingPattern, hasAsyncModifier } = require('../../common/utils');
+const { getNodeText } = require('../source-text');
 
 /**
  * Convert CallExpression node.
@@ -30,7 +31,7 @@ function convertCallExpression(result, node, convert) {
  */
 function convertIdentifier(result, node) {
     result.name = node.escapedText;
-    result.text = node.getText();
+    result.text = getNodeText(node);
 
     const isResourceFunction = result.name === RESOURCE_REF_FUNCTIONS.R ||
                            result.name === RESOURCE_REF_FUNCTIONS.RAWFILE;
@@ -148,7 +149,7 @@ function convertNonNullExpression(result, node, convert) {
  */
 function convertAsExpression(result, node, convert) {
     result.expression = convert(node.expression);
-    result.type = node.type ? node.type.getText() : null;
+    result.type = node.type ? getNodeText(node.type) : null;
     result.text = generateAsExpressionText(node, convert);
 }
 
@@ -160,7 +161,7 @@ function convertAsExpression(result, node, convert) {
  */
 function convertTypeAssertion(result, node, convert) {
     result.expression = convert(node.expression);
-    result.type = node.type ? node.type.getText() : null;
+    result.type = node.type ? getNodeText(node.type) : null;
     result.text = generateAsExpressionText(node, convert);
 }
 
@@ -219,7 +220,7 @@ function convertAwaitExpression(result, node, convert) {
  */
 function convertBinaryExpression(result, node, convert) {
     result.left = convert(node.left);
-    result.operator = node.operatorToken.getText();
+    result.operator = getNodeText(node.operatorToken);
     result.right = convert(node.right);
 }
 
@@ -279,7 +280,7 @@ function convertObjectLiteralExpression(result, node, convert) {
  * @param {Function} convert - Recursive convert function
  */
 function convertPropertyAssignment(result, node, convert) {
-    result.name = node.name.getText();
+    result.name = getNodeText(node.name);
     result.value = convert(node.initializer);
 }
 
@@ -289,11 +290,12 @@ function convertPropertyAssignment(result, node, convert) {
  * @param {Object} node - TypeScript AST node
  */
 function convertShorthandPropertyAssignment(result, node) {
-    result.name = node.name.getText();
+    result.name = getNodeText(node.name);
     result.value = {
+        kind: ts.SyntaxKind.Identifier,
         kindName: 'Identifier',
-        name: node.name.getText(),
-        text: node.name.getText()
+        name: getNodeText(node.name),
+        text: getNodeText(node.name)
     };
 }
 
@@ -340,9 +342,9 @@ function convertArrayBindingPattern(result, node, convert) {
  * @param {Function} convert - Recursive convert function
  */
 function convertBindingElement(result, node, convert) {
-    result.name = node.name?.getText() || '';
+    result.name = getNodeText(node.name) || '';
     if (node.propertyName) {
-        result.propertyName = node.propertyName.getText();
+        result.propertyName = getNodeText(node.propertyName);
     }
     if (node.initializer) {
         result.initializer = convert(node.initializer);
@@ -373,7 +375,7 @@ function convertParameters(parameters, convert) {
     for (const param of parameters || []) {
         const paramJson = {
             name: param.name?.escapedText || '',
-            type: param.type?.getText() || '',
+            type: getNodeText(param.type) || '',
             hasDotDotDot: !!param.dotDotDotToken,
             questionToken: !!param.questionToken
         };
@@ -382,7 +384,7 @@ function convertParameters(parameters, convert) {
             const bindingKind = getSyntaxKindName(param.name.kind);
             if (isBindingPattern(bindingKind)) {
                 paramJson.bindingPattern = convert(param.name);
-                paramJson.name = param.name.getText() || '';
+                paramJson.name = getNodeText(param.name) || '';
             }
         }
 
@@ -391,7 +393,7 @@ function convertParameters(parameters, convert) {
             if (paramJson.initializer?.text) {
                 paramJson.initializerText = paramJson.initializer.text;
             } else {
-                paramJson.initializerText = param.initializer?.getText() || '';
+                paramJson.initializerText = getNodeText(param.initializer) || '';
             }
         }
 
@@ -410,7 +412,7 @@ function convertCallArguments(node, expressionJson, convert) {
         if (isForEach) {
             result.push(convert(arg));
         } else if (isResourceCall) {
-            result.push(arg.getText());
+            result.push(getNodeText(arg));
         } else {
             result.push(convertCallArgument(arg, convert));
         }
@@ -439,7 +441,7 @@ function convertCallArgument(arg, convert) {
     }
 
     try {
-        return arg.getText();
+        return getNodeText(arg);
     } catch (e) {
         return JSON.stringify(argJson);
     }
@@ -572,7 +574,7 @@ function generateFunctionParameters(parameters, convert) {
         if (param.name?.kind) {
             const bindingKind = getSyntaxKindName(param.name.kind);
             if (isBindingPattern(bindingKind)) {
-                paramText += param.name.getText();
+                paramText += getNodeText(param.name);
             } else {
                 paramText += param.name?.escapedText || param.name?.text || '';
             }
@@ -600,12 +602,12 @@ function generateObjectLiteralExpressionText(node, convert) {
 
     const props = node.properties.map(prop => {
         if (prop.kind === ts.SyntaxKind.PropertyAssignment) {
-            const name = prop.name.getText();
+            const name = getNodeText(prop.name);
             const valueJson = convert(prop.initializer);
             const valueStr = valueJson ? jsonToCodeString(valueJson) : '';
             return name + ': ' + valueStr;
         } else if (prop.kind === ts.SyntaxKind.ShorthandPropertyAssignment) {
-            return prop.name.getText();
+            return getNodeText(prop.name);
         } else if (prop.kind === ts.SyntaxKind.SpreadAssignment) {
             const exprJson = convert(prop.expression);
             const exprStr = exprJson ? jsonToCodeString(exprJson) : '';
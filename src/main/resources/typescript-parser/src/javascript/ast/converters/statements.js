@@ -5,6 +5,7 @@
  */
 
 const { KEYWORDS } = require('../../common/constants');
+const { getNodeText } = require('../source-text');
 
 /**
  * Convert Block node.
@@ -52,8 +53,8 @@ function convertVariableDeclarationList(result, node, convert) {
  * @param {Function} convert - Recursive convert function
  */
 function convertVariableDeclaration(result, node, convert) {
-    result.name = node.name?.getText() || '';
-    result.type = node.type?.getText() || '';
+    result.name = getNodeText(node.name) || '';
+    result.type = getNodeText(node.type) || '';
     result.initializer = node.initializer ? convert(node.initializer) : null;
 }
 
@@ -230,7 +231,7 @@ function convertCatchClause(result, node, convert) {
  * @param {Object} node - TypeScript AST node
  */
 function convertBreakStatement(result, node) {
-    result.label = node.label ? node.label.getText() : null;
+    result.label = node.label ? getNodeText(node.label) : null;
 }
 
 /**
@@ -239,7 +240,7 @@ function convertBreakStatement(result, node) {
  * @param {Object} node - TypeScript AST node
  */
 function convertContinueStatement(result, node) {
-    result.label = node.label ? node.label.getText() : null;
+    result.label = node.label ? getNodeText(node.label) : null;
 }
 
 /**
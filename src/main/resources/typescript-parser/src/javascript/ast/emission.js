@@ -0,0 +1,169 @@
+/**
+ * AST Emission Policy
+ * Decides per node whether the synthesized text or the structure is emitted
+ * @module lib/ast/emission
+ */
+
+const ts = require('typescript');
+const { AST_EMISSION } = require('../common/constants');
+
+/**
+ * Drop kinds this TypeScript version does not define, so nodes without a
+ * numeric kind never match.
+ *
+ * @param {Map|Set} kinds - Kinds keyed by SyntaxKind value
+ * @returns {Map|Set} The same collection
+ */
+function knownKinds(kinds) {
+    kinds.delete(undefined);
+    return kinds;
+}
+
+/**
+ * Kinds that carry their final JavaScript in `text`. The compiler reads
+ * the text whenever it is present and never looks into these subtrees, so
+ * in compact mode only the text and scalar fields are kept. The listed
+ * fields are still read next to the text and are kept too.
+ * @constant
+ */
+const TEXT_ONLY_KINDS = knownKinds(new Map([
+    [ts.SyntaxKind.PropertyAccessExpression, []],
+    [ts.SyntaxKind.NonNullExpression, []],
+    [ts.SyntaxKind.AsExpression, []],
+    [ts.SyntaxKind.TypeAssertionExpression, []],
+    [ts.SyntaxKind.ArrowFunction, []],
+    [ts.SyntaxKind.FunctionExpression, []],
+    [ts.SyntaxKind.ObjectLiteralExpression, []],
+    [ts.SyntaxKind.TemplateExpression, []],
+    [ts.SyntaxKind.ClassExpression, []],
+    [ts.SyntaxKind.GetAccessor, []],
+    [ts.SyntaxKind.SetAccessor, ['parameters']],
+    [ts.SyntaxKind.ForOfStatement, []],
+    [ts.SyntaxKind.ForInStatement, []],
+    [ts.SyntaxKind.WhileStatement, []],
+    [ts.SyntaxKind.DoStatement, []],
+    [ts.SyntaxKind.ForStatement, []],
+    [ts.SyntaxKind.SwitchStatement, []],
+    [ts.SyntaxKind.TryStatement, []]
+]));
+
+/**
+ * Kinds whose text the compiler never reads; it rebuilds them from the structure.
+ * @constant
+ */
+const STRUCTURE_ONLY_KINDS = knownKinds(new Set([
+    ts.SyntaxKind.ThrowStatement
+]));
+
+/**
+ * Kinds whose text is a verbatim slice of the source. In lean mode the
+ * compiler slices it from its own copy of the source using the node position.
+ * @constant
+ */
+const SOURCE_TEXT_KINDS = knownKinds(new Set([
+    ts.SyntaxKind.Identifier
+]));
+
+/**
+ * Check whether a value is a nested AST object or array.
+ *
+ * @param {*} value - Field value
+ * @returns {boolean} True for subtrees
+ */
+function isSubtree(value) {
+    return value !== null && typeof value === 'object';
+}
+
+/**
+ * Drop the half of each node the compiler will not read, in place.
+ * Fields are set to undefined rather than deleted, which keeps object
+ * shapes stable; both JSON and binary encoding skip undefined fields.
+ *
+ * @param {*} value - Converted AST value
+ */
+function compact(value) {
+    if (Array.isArray(value)) {
+        for (const element of value) {
+            compact(element);
+        }
+        return;
+    }
+    if (!isSubtree(value)) {
+        return;
+    }
+
+    if (STRUCTURE_ONLY_KINDS.has(value.kind)) {
+        value.text = undefined;
+    } else if (typeof value.text === 'string' && value.text.length > 0 && TEXT_ONLY_KINDS.has(value.kind)) {
+        const kept = TEXT_ONLY_KINDS.get(value.kind);
+        for (const key of Object.keys(value)) {
+            if (!isSubtree(value[key])) {
+                continue;
+            }
+            if (kept.includes(key)) {
+                compact(value[key]);
+            } else {
+                value[key] = undefined;
+            }
+        }
+        return;
+    }
+
+    for (const key of Object.keys(value)) {
+        if (isSubtree(value[key])) {
+            compact(value[key]);
+        }
+    }
+}
+
+/**
+ * Drop source text that the compiler can slice from the node position, in place.
+ * Nodes converted without positions keep their text.
+ *
+ * @param {*} value - Converted AST value
+ */
+function dropSourceText(value) {
+    if (Array.isArray(value)) {
+        for (const element of value) {
+            dropSourceText(element);
+        }
+        return;
+    }
+    if (!isSubtree(value)) {
+        return;
+    }
+
+    if (SOURCE_TEXT_KINDS.has(value.kind) && typeof value.pos === 'number') {
+        value.text = undefined;
+    }
+    for (const key of Object.keys(value)) {
+        if (isSubtree(value[key])) {
+            dropSourceText(value[key]);
+        }
+    }
+}
+
+/**
+ * Apply an emission mode to a converted AST.
+ * Runs after conversion, because converters of parent nodes inspect the
+ * structure of their children.
+ *
+ * @param {Object} ast - Converted AST, modified in place
+ * @param {string} mode - Emission mode, full, compact or lean
+ * @returns {Object} The same AST
+ */
+function applyEmission(ast, mode) {
+    if (mode === AST_EMISSION.COMPACT) {
+        compact(ast);
+    } else if (mode === AST_EMISSION.LEAN) {
+        dropSourceText(ast);
+    }
+    return ast;
+}
+
+module.exports = {
+    applyEmission,
+    TEXT_ONLY_KINDS,
+    STRUCTURE_ONLY_KINDS,
+    SOURCE_TEXT_KINDS
+};
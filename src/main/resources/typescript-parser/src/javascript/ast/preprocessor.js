@@ -4,73 +4,456 @@
  * @module lib/preprocessor
  */
 
-const { REGEX_PATTERNS, KEYWORDS } = require('../common/constants');
+const { KEYWORDS } = require('../common/constants');
+
+const CLASS_PREFIX = 'class ';
 
 /**
- * Preprocess ETS code to convert struct to class and extract decorators.
- * @param {string} sourceCode - The source code to preprocess
- * @returns {Object} Object containing processed code and extracted decorators
+ * Maps offsets in the preprocessed code back to the original source.
+ * Each rewrite pass records its edits as one step; offsets are mapped
+ * back through the steps in reverse order.
  */
-function preprocessEts(sourceCode) {
-    let processedCode = sourceCode;
-    const extractedDecorators = extractDecorators(sourceCode);
+class OffsetMap {
+    constructor() {
+        this.steps = [];
+    }
 
-    processedCode = processedCode.replace(REGEX_PATTERNS.STRUCT_KEYWORD, 'class ');
-    processedCode = ensureExportForEntryClasses(processedCode);
+    /**
+     * Record the edits of one pass.
+     * @param {Array} edits - Edits sorted by start, as {start, oldLength, newLength}
+     *                        in the coordinates of the pass input
+     */
+    addStep(edits) {
+        if (edits.length === 0) {
+            return;
+        }
+        let shift = 0;
+        for (const edit of edits) {
+            edit.outStart = edit.start + shift;
+            shift += edit.newLength - edit.oldLength;
+        }
+        this.steps.push(edits);
+    }
 
-    return {
-        code: processedCode,
-        decorators: extractedDecorators
-    };
+    /**
+     * Map an offset in the preprocessed code to the original source.
+     * Offsets inside inserted text map to the start of the insertion.
+     * @param {number} offset - Offset in the preprocessed code
+     * @returns {number} Offset in the original source
+     */
+    toOriginal(offset) {
+        let mapped = offset;
+        for (let i = this.steps.length - 1; i >= 0; i--) {
+            mapped = mapThroughStep(this.steps[i], mapped);
+        }
+        return mapped;
+    }
 }
 
 /**
- * Extract decorators from struct declarations.
- * @param {string} sourceCode - The source code to search
- * @returns {Array} Array of extracted decorator objects
+ * Map an offset in the output of one pass to its input.
+ * @param {Array} edits - Edits of the pass with their output starts
+ * @param {number} offset - Offset in the pass output
+ * @returns {number} Offset in the pass input
  */
-function extractDecorators(sourceCode) {
-    const extractedDecorators = [];
-    let match;
-
-    while ((match = REGEX_PATTERNS.STRUCT_DECORATOR.exec(sourceCode)) !== null) {
-        const decoratorText = match[1];
-        REGEX_PATTERNS.INDIVIDUAL_DECORATOR.lastIndex = 0;
-        let decMatch;
-
-        while ((decMatch = REGEX_PATTERNS.INDIVIDUAL_DECORATOR.exec(decoratorText)) !== null) {
-            extractedDecorators.push({
-                name: decMatch[1],
-                fullText: decMatch[0]
+function mapThroughStep(edits, offset) {
+    let low = 0;
+    let high = edits.length - 1;
+    let index = -1;
+    while (low <= high) {
+        const mid = (low + high) >> 1;
+        if (edits[mid].outStart <= offset) {
+            index = mid;
+            low = mid + 1;
+        } else {
+            high = mid - 1;
+        }
+    }
+    if (index === -1) {
+        return offset;
+    }
+    const edit = edits[index];
+    const inside = offset - edit.outStart;
+    if (inside < edit.newLength) {
+        return edit.start + Math.min(inside, edit.oldLength);
+    }
+    return edit.start + edit.oldLength + inside - edit.newLength;
+}
+
+const EXPORT_PREFIX = 'export ';
+
+// Keywords after which a slash starts a regular expression, not a division
+const REGEX_PRECEDING_KEYWORDS = new Set([
+    'return', 'typeof', 'instanceof', 'in', 'of', 'new', 'delete', 'void', 'throw',
+    'case', 'do', 'else', 'yield', 'await'
+]);
+
+/**
+ * Single-pass scanner for the ETS rewrites.
+ * Skips strings, comments, templates and regular expressions, so only
+ * real `struct` keywords and decorators are seen. It collects the
+ * decorator directly before each struct, and the edits that turn
+ * `struct` into `class` and export `@Entry` classes.
+ */
+class EtsScanner {
+    /**
+     * @param {string} source - The source code to scan
+     */
+    constructor(source) {
+        this.source = source;
+        this.pos = 0;
+        this.edits = [];
+        this.decorators = [];
+        // Decorators since the last other token, and whether `export` followed them
+        this.run = [];
+        this.exported = false;
+        this.regexAllowed = true;
+        // Open braces of each template substitution being scanned
+        this.templateBraces = [];
+    }
+
+    /**
+     * Scan the whole source.
+     * @returns {EtsScanner} This scanner, holding the edits and decorators
+     */
+    scan() {
+        const source = this.source;
+        while (this.pos < source.length) {
+            const ch = source[this.pos];
+            if (isWhitespace(ch)) {
+                this.pos++;
+            } else if (ch === '/' && (source[this.pos + 1] === '/' || source[this.pos + 1] === '*')) {
+                this.skipComment();
+            } else if (ch === '\'' || ch === '"') {
+                this.skipString(ch);
+                this.endToken(false);
+            } else if (ch === '`') {
+                this.pos++;
+                this.skipTemplate();
+            } else if (ch === '@') {
+                this.scanDecorator();
+            } else if (isIdentifierStart(ch)) {
+                this.scanWord();
+            } else if (ch >= '0' && ch <= '9') {
+                this.skipWhile(isIdentifierPart);
+                this.endToken(false);
+            } else if (ch === '/' && this.regexAllowed) {
+                this.skipRegex();
+                this.endToken(false);
+            } else {
+                this.scanPunctuation(ch);
+            }
+        }
+        return this;
+    }
+
+    scanPunctuation(ch) {
+        this.pos++;
+        const braces = this.templateBraces;
+        if (ch === '{' && braces.length > 0) {
+            braces[braces.length - 1]++;
+        } else if (ch === '}' && braces.length > 0) {
+            if (braces[braces.length - 1] === 0) {
+                braces.pop();
+                this.skipTemplate();
+                return;
+            }
+            braces[braces.length - 1]--;
+        }
+        this.endToken(ch !== ')' && ch !== ']' && ch !== '}');
+    }
+
+    scanWord() {
+        const start = this.pos;
+        this.skipWhile(isIdentifierPart);
+        const word = this.source.slice(start, this.pos);
+        if (word === KEYWORDS.STRUCT || word === KEYWORDS.CLASS) {
+            const whitespaceEnd = this.whitespaceEnd(this.pos);
+            if (whitespaceEnd > this.pos) {
+                this.scanClassKeyword(start, word === KEYWORDS.STRUCT, whitespaceEnd);
+                return;
+            }
+        }
+        if (word === KEYWORDS.EXPORT && this.run.length > 0) {
+            this.exported = true;
+            return;
+        }
+        this.endToken(REGEX_PRECEDING_KEYWORDS.has(word));
+    }
+
+    /**
+     * Handle a `struct` or `class` keyword followed by whitespace.
+     * @param {number} start - Start of the keyword
+     * @param {boolean} isStruct - Whether the keyword is `struct`
+     * @param {number} whitespaceEnd - End of the whitespace after the keyword
+     */
+    scanClassKeyword(start, isStruct, whitespaceEnd) {
+        const lastDecorator = this.run[this.run.length - 1];
+        if (isStruct && lastDecorator) {
+            this.decorators.push({ name: lastDecorator.name, fullText: lastDecorator.fullText });
+        }
+        if (!this.exported && this.isEntryRun()) {
+            this.edits.push({ start, oldLength: 0, newLength: EXPORT_PREFIX.length, text: EXPORT_PREFIX });
+        }
+        if (isStruct) {
+            this.edits.push({
+                start,
+                oldLength: whitespaceEnd - start,
+                newLength: CLASS_PREFIX.length,
+                text: CLASS_PREFIX
             });
         }
+        this.pos = isStruct ? whitespaceEnd : start + KEYWORDS.CLASS.length;
+        this.endToken(false);
+    }
+
+    /**
+     * Whether the decorators before a class end with `@Entry`, optionally
+     * followed by `@Component`, each without arguments and on its own line.
+     * @returns {boolean} True if the class must be exported
+     */
+    isEntryRun() {
+        const run = this.run;
+        let last = run.length - 1;
+        if (last >= 0 && isBareDecorator(run[last], 'Component')) {
+            last--;
+            if (last >= 0 && isBareDecorator(run[last], 'Entry')) {
+                return true;
+            }
+            last++;
+        }
+        return last >= 0 && isBareDecorator(run[last], 'Entry');
+    }
+
+    scanDecorator() {
+        const start = this.pos;
+        this.pos++;
+        const nameStart = this.pos;
+        this.skipWhile(isIdentifierPart);
+        if (this.pos === nameStart) {
+            this.endToken(true);
+            return;
+        }
+        const name = this.source.slice(nameStart, this.pos);
+        const argumentsStart = this.whitespaceEnd(this.pos);
+        const hasArguments = this.source[argumentsStart] === '(';
+        if (hasArguments) {
+            this.pos = argumentsStart;
+            this.skipArguments();
+        }
+        const end = this.pos;
+        this.run.push({
+            name,
+            fullText: this.source.slice(start, end),
+            hasArguments,
+            ownLine: this.source.slice(end, this.whitespaceEnd(end)).includes('\n')
+        });
+        this.regexAllowed = false;
+    }
+
+    /**
+     * Skip balanced decorator arguments, starting at the open parenthesis.
+     */
+    skipArguments() {
+        let depth = 0;
+        const source = this.source;
+        while (this.pos < source.length) {
+            const ch = source[this.pos];
+            if (ch === '\'' || ch === '"') {
+                this.skipString(ch);
+                continue;
+            }
+            if (ch === '`') {
+                this.pos++;
+                this.skipTemplateText();
+                continue;
+            }
+            this.pos++;
+            if (ch === '(') {
+                depth++;
+            } else if (ch === ')' && --depth === 0) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * End a token other than a decorator or `export` after decorators.
+     * @param {boolean} regexAllowed - Whether a slash after the token starts a regular expression
+     */
+    endToken(regexAllowed) {
+        this.regexAllowed = regexAllowed;
+        if (this.run.length > 0) {
+            this.run = [];
+            this.exported = false;
+        }
+    }
+
+    skipComment() {
+        const source = this.source;
+        if (source[this.pos + 1] === '/') {
+            const end = source.indexOf('\n', this.pos);
+            this.pos = end < 0 ? source.length : end;
+        } else {
+            const end = source.indexOf('*/', this.pos + 2);
+            this.pos = end < 0 ? source.length : end + 2;
+        }
+    }
+
+    skipString(quote) {
+        const source = this.source;
+        this.pos++;
+        while (this.pos < source.length) {
+            const ch = source[this.pos++];
+            if (ch === '\\') {
+                this.pos++;
+            } else if (ch === quote || ch === '\n') {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Skip template text after a backtick or a substitution. A substitution
+     * is scanned as code until its closing brace resumes the template.
+     */
+    skipTemplate() {
+        if (this.skipTemplateText()) {
+            this.templateBraces.push(0);
+            this.endToken(true);
+        } else {
+            this.endToken(false);
+        }
     }
 
-    return extractedDecorators;
+    /**
+     * Skip template text up to the end of the template or a substitution.
+     * Nested templates in decorator arguments are skipped as text.
+     * @returns {boolean} True if a substitution starts
+     */
+    skipTemplateText() {
+        const source = this.source;
+        while (this.pos < source.length) {
+            const ch = source[this.pos++];
+            if (ch === '\\') {
+                this.pos++;
+            } else if (ch === '`') {
+                return false;
+            } else if (ch === '$' && source[this.pos] === '{') {
+                this.pos++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    skipRegex() {
+        const source = this.source;
+        const start = this.pos;
+        let inClass = false;
+        this.pos++;
+        while (this.pos < source.length) {
+            const ch = source[this.pos++];
+            if (ch === '\\') {
+                this.pos++;
+            } else if (ch === '\n') {
+                // Not a regular expression after all
+                this.pos = start + 1;
+                return;
+            } else if (ch === '[') {
+                inClass = true;
+            } else if (ch === ']') {
+                inClass = false;
+            } else if (ch === '/' && !inClass) {
+                this.skipWhile(isIdentifierPart);
+                return;
+            }
+        }
+    }
+
+    skipWhile(predicate) {
+        const source = this.source;
+        while (this.pos < source.length && predicate(source[this.pos])) {
+            this.pos++;
+        }
+    }
+
+    whitespaceEnd(from) {
+        let end = from;
+        while (end < this.source.length && isWhitespace(this.source[end])) {
+            end++;
+        }
+        return end;
+    }
+}
+
+function isWhitespace(ch) {
+    return ch === ' ' || ch === '\n' || ch === '\t' || ch === '\r' || ch === '\f' || ch === '\v'
+        || ch === '\u00a0' || ch === '\ufeff';
+}
+
+function isIdentifierStart(ch) {
+    return (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || ch === '_' || ch === '$' || ch > '\u007f';
+}
+
+function isIdentifierPart(ch) {
+    return isIdentifierStart(ch) || (ch >= '0' && ch <= '9');
+}
+
+function isBareDecorator(decorator, name) {
+    return decorator.name === name && !decorator.hasArguments && decorator.ownLine;
 }
 
 /**
- * Ensure @Entry decorated classes have export keyword.
- * @param {string} processedCode - The processed source code
- * @returns {string} Code with export added to Entry classes
+ * Apply sorted edits to the source.
+ * @param {string} source - The source code
+ * @param {Array} edits - Edits sorted by start, with their replacement text
+ * @returns {string} The rewritten code
  */
-function ensureExportForEntryClasses(processedCode) {
-    let code = processedCode;
-    let match;
+function applyEdits(source, edits) {
+    const parts = [];
+    let last = 0;
+    for (const edit of edits) {
+        parts.push(source.slice(last, edit.start), edit.text);
+        last = edit.start + edit.oldLength;
+    }
+    parts.push(source.slice(last));
+    return parts.join('');
+}
 
-    REGEX_PATTERNS.ENTRY_PATTERN.lastIndex = 0;
-    while ((match = REGEX_PATTERNS.ENTRY_PATTERN.exec(code)) !== null) {
-        const classDecl = match[0];
-        if (!classDecl.includes(KEYWORDS.EXPORT)) {
-            code = code.replace(classDecl, classDecl.replace('class ', 'export class '));
-        }
+/**
+ * Preprocess ETS code to convert struct to class and extract decorators.
+ * The code is scanned once; strings, comments and templates are left as
+ * they are.
+ * @param {string} sourceCode - The source code to preprocess
+ * @returns {Object} Object containing processed code, extracted decorators
+ *                   and the offset map back to the source
+ */
+function preprocessEts(sourceCode) {
+    const offsets = new OffsetMap();
+    if (!sourceCode.includes('@') && !sourceCode.includes(KEYWORDS.STRUCT)) {
+        return { code: sourceCode, decorators: [], offsets };
     }
+    const scanner = new EtsScanner(sourceCode).scan();
+    offsets.addStep(scanner.edits);
+    return {
+        code: applyEdits(sourceCode, scanner.edits),
+        decorators: scanner.decorators,
+        offsets
+    };
+}
 
-    return code;
+/**
+ * Extract decorators from struct declarations.
+ * @param {string} sourceCode - The source code to search
+ * @returns {Array} Array of extracted decorator objects
+ */
+function extractDecorators(sourceCode) {
+    return new EtsScanner(sourceCode).scan().decorators;
 }
 
 module.exports = {
     preprocessEts,
     extractDecorators,
-    ensureExportForEntryClasses
+    OffsetMap
 };
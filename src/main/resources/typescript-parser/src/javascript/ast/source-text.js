@@ -0,0 +1,62 @@
+/**
+ * Source Text Access
+ * Node text and positions for trees built with or without parent pointers
+ * @module lib/ast/source-text
+ */
+
+let current = null;
+
+/**
+ * Run a conversion of a tree built without parent pointers.
+ * Such nodes cannot find their source file, so it is provided here, and
+ * every converted node gets its position in the original source.
+ *
+ * @param {Object} sourceFile - The TypeScript source file being converted
+ * @param {Object} offsets - Offset map from the preprocessed code to the source
+ * @param {Function} convert - Conversion to run
+ * @returns {*} The conversion result
+ */
+function withSourceText(sourceFile, offsets, convert) {
+    const previous = current;
+    current = { sourceFile, offsets };
+    try {
+        return convert();
+    } finally {
+        current = previous;
+    }
+}
+
+/**
+ * Get the source text of a node.
+ *
+ * @param {Object} node - The TypeScript AST node, may be undefined
+ * @returns {string|undefined} The node text, or undefined without a node
+ */
+function getNodeText(node) {
+    if (!node) {
+        return undefined;
+    }
+    return current ? node.getText(current.sourceFile) : node.getText();
+}
+
+/**
+ * Record the position of a node in the original source, during a
+ * {@link withSourceText} conversion only. The position starts at the first
+ * token, after leading trivia, so it spans exactly the node text.
+ *
+ * @param {Object} result - Result object to populate
+ * @param {Object} node - The TypeScript AST node
+ */
+function addSourcePosition(result, node) {
+    if (!current || node.pos < 0) {
+        return;
+    }
+    result.pos = current.offsets.toOriginal(node.getStart(current.sourceFile));
+    result.end = current.offsets.toOriginal(node.end);
+}
+
+module.exports = {
+    withSourceText,
+    getNodeText,
+    addSourcePosition
+};
@@ -0,0 +1,135 @@
+/**
+ * Batch Parse Runner
+ * Parses many files in one process and streams one compact AST per line (NDJSON)
+ * @module lib/batch/runner
+ */
+
+const fs = require('fs');
+const path = require('path');
+const { BATCH, ERROR_MESSAGES } = require('../common/constants');
+
+/**
+ * Read a manifest of source paths, one per line.
+ * Blank lines and lines starting with '#' are ignored.
+ *
+ * @param {string} manifestPath - Manifest file, or '-' for stdin
+ * @returns {string[]} Source file paths
+ */
+function readManifest(manifestPath) {
+    const content = fs.readFileSync(manifestPath === BATCH.STDIN ? 0 : manifestPath, 'utf-8');
+    return content
+        .split(/\r?\n/)
+        .map(line => line.trim())
+        .filter(line => line && !line.startsWith('#'));
+}
+
+/**
+ * Convert a glob into an anchored regular expression.
+ * Supports '**' (any directories), '*' (any name characters) and '?' (one character).
+ *
+ * @param {string} glob - Glob relative to the batch directory, using '/' separators
+ * @returns {RegExp} Matching expression
+ */
+function globToRegExp(glob) {
+    let pattern = '';
+    for (let i = 0; i < glob.length; i++) {
+        const ch = glob[i];
+        if (ch === '*' && glob[i + 1] === '*') {
+            const slash = glob[i + 2] === '/';
+            pattern += slash ? '(?:.*/)?' : '.*';
+            i += slash ? 2 : 1;
+        } else if (ch === '*') {
+            pattern += '[^/]*';
+        } else if (ch === '?') {
+            pattern += '[^/]';
+        } else {
+            pattern += ch.replace(/[.+^${}()|[\]\\]/g, '\\$&');
+        }
+    }
+    return new RegExp(`^${pattern}$`);
+}
+
+/**
+ * List the files under a directory whose relative path matches a glob.
+ *
+ * @param {string} dir - Directory to scan recursively
+ * @param {string} glob - Glob relative to dir
+ * @returns {string[]} Matching file paths in sorted order
+ */
+function listSourceFiles(dir, glob = BATCH.DEFAULT_GLOB) {
+    const matcher = globToRegExp(glob);
+    const files = [];
+    const walk = (current) => {
+        for (const entry of fs.readdirSync(current, { withFileTypes: true })) {
+            const fullPath = path.join(current, entry.name);
+            if (entry.isDirectory()) {
+                walk(fullPath);
+            } else if (matcher.test(path.relative(dir, fullPath).split(path.sep).join('/'))) {
+                files.push(fullPath);
+            }
+        }
+    };
+    walk(dir);
+    return files.sort();
+}
+
+/**
+ * Resolve the files of a batch from the command line.
+ *
+ * @param {string[]} args - Arguments: '--batch <manifest>' or '--batch-dir <dir> [glob]'
+ * @returns {string[]|null} Source file paths, or null if the arguments are invalid
+ */
+function resolveBatchFiles(args) {
+    const [flag, target, glob] = args;
+    if (!target) {
+        return null;
+    }
+    return flag === BATCH.DIR_FLAG ? listSourceFiles(target, glob) : readManifest(target);
+}
+
+/**
+ * Parse one file into a single NDJSON line.
+ * Failures are reported on the line instead of aborting the batch.
+ *
+ * @param {string} file - Source file path
+ * @param {Function} parseFile - Parse function (filePath) => AST
+ * @returns {string} Compact JSON followed by a newline
+ */
+function formatResult(file, parseFile) {
+    let result;
+    try {
+        result = { file, ok: true, ast: parseFile(file) };
+    } catch (error) {
+        result = { file, ok: false, error: `${ERROR_MESSAGES.PARSE_FAILED} ${error.message}` };
+    }
+    return JSON.stringify(result) + '\n';
+}
+
+/**
+ * Parse every file and write each result to the output as soon as it is ready.
+ * Waits for the output to drain so a slow reader never buffers the whole batch.
+ *
+ * @param {Function} parseFile - Parse function (filePath) => AST
+ * @param {string[]} files - Source file paths
+ * @param {Object} output - Writable stream, defaults to stdout
+ * @returns {Promise<number>} Number of files written
+ */
+async function runBatch(parseFile, files, output = process.stdout) {
+    // stdout carries results only; keep stray logging on stderr
+    console.log = console.error;
+
+    for (const file of files) {
+        if (!output.write(formatResult(file, parseFile))) {
+            await new Promise(resolve => output.once('drain', resolve));
+        }
+    }
+    return files.length;
+}
+
+module.exports = {
+    runBatch,
+    resolveBatchFiles,
+    listSourceFiles,
+    globToRegExp,
+    formatResult
+};
@@ -101,17 +101,109 @@ const EMPTY_VALUES = {
 
 // Error messages
 const ERROR_MESSAGES = {
-    USAGE: 'Usage: node parse-ets.js <source-file> <output-file>',
+    USAGE: 'Usage: node index.js [options] <source-file> <output-file>'
+        + ' | node index.js [options] --stdin [file-name]'
+        + ' | node index.js [options] --daemon'
+        + ' | node index.js [options] --thread-host <threads>'
+        + ' | node index.js --batch <manifest|-> | node index.js --batch-dir <dir> [glob]'
+        + ' | node index.js --build-compile-cache <cache-dir>'
+        + ' (options: --ast-format json|binary, --ast-emission full|compact|lean)',
     PARSE_FAILED: 'Error parsing file:',
-    SUCCESS: 'Successfully parsed:'
+    SUCCESS: 'Successfully parsed:',
+    DAEMON_TRUNCATED: 'Parser daemon input ended inside a frame',
+    THREAD_FAILED: 'Parser thread failed:',
+    REQUEST_CANCELLED: 'request cancelled by the client'
 };
 
-// Regex patterns for ETS preprocessing
+// Long-lived daemon mode settings
+const DAEMON = {
+    FLAG: '--daemon',
+    HEADER_BYTES: 4
+};
+
+// Daemon channel served by several parser worker threads in one process
+const THREAD_HOST = {
+    FLAG: '--thread-host',
+    MAX_THREADS: 64
+};
+
+// AST output formats, selected with --ast-format
+const AST_FORMAT = {
+    FLAG: '--ast-format',
+    JSON: 'json',
+    BINARY: 'binary'
+};
+
+// AST emission modes, selected with --ast-emission
+const AST_EMISSION = {
+    FLAG: '--ast-emission',
+    FULL: 'full',      // Synthesized text next to the full structure
+    COMPACT: 'compact', // Text or structure per node, never both
+    LEAN: 'lean'        // No parent pointers; source positions instead of source text
+};
+
+// Compact binary AST wire format
+const BINARY_AST = {
+    MAGIC: 'EAB1',
+    TAGS: {
+        NULL: 0,
+        FALSE: 1,
+        TRUE: 2,
+        INT: 3,
+        DOUBLE: 4,
+        STRING: 5,
+        ARRAY: 6,
+        OBJECT: 7,
+        NODE: 8
+    }
+};
+
+// Single-file pipe mode settings: source on stdin, AST on stdout
+const STDIN_MODE = {
+    FLAG: '--stdin',
+    DEFAULT_FILE_NAME: 'input.ets'
+};
+
+// Multi-file batch mode settings
+const BATCH = {
+    FLAG: '--batch',
+    DIR_FLAG: '--batch-dir',
+    STDIN: '-',
+    DEFAULT_GLOB: '**/*.ets'
+};
+
+// Incremental reparse in daemon mode
+const INCREMENTAL = {
+    MAX_FILES: 64,
+    TOKEN_BYTES: 6
+};
+
+// V8 compile cache for typescript.js and the parser modules
+const COMPILE_CACHE = {
+    ENV: 'ETS_PARSER_COMPILE_CACHE',
+    BUILD_FLAG: '--build-compile-cache',
+    FILE_EXTENSION: '.v8cache',
+    MODE_BUILTIN: 'builtin',
+    MODE_CACHED_DATA: 'cached-data',
+    MODE_OFF: 'off',
+    WARMUP_FILE_NAME: 'Warmup.ets',
+    WARMUP_SOURCE: [
+        '@Entry',
+        '@Component',
+        'struct Warmup {',
+        '    @State count: number = 0;',
+        '    build() {',
+        '        Column() {',
+        '            Text(`Count: ${this.count}`).fontSize(20)',
+        '            Button(\'Add\').onClick(() => { this.count++; })',
+        '        }',
+        '    }',
+        '}'
+    ].join('\n')
+};
+
+// Regex patterns for AST conversion
 const REGEX_PATTERNS = {
-    STRUCT_DECORATOR: /(@\w+\s*(?:\([^)]*\))?\s*)\b(?:export\s+)?struct\s+/g,
-    INDIVIDUAL_DECORATOR: /@(\w+)(?:\s*\([^)]*\))?/g,
-    STRUCT_KEYWORD: /\bstruct\s+/g,
-    ENTRY_PATTERN: /@Entry\s*\n(?:@Component\s*\n)?(?:export\s+)?class\s+(\w+)/g,
     DECORATOR_NAME: /@(\w+)/,
     QUOTES: /^['"]|['"]$/g
 };
@@ -147,6 +239,15 @@ module.exports = {
     KEYWORDS,
     EMPTY_VALUES,
     ERROR_MESSAGES,
+    DAEMON,
+    THREAD_HOST,
+    AST_FORMAT,
+    AST_EMISSION,
+    BINARY_AST,
+    STDIN_MODE,
+    INCREMENTAL,
+    COMPILE_CACHE,
+    BATCH,
     REGEX_PATTERNS,
     OPERATORS
 };
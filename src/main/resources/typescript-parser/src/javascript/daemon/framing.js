@@ -0,0 +1,78 @@
+/**
+ * Length-prefixed Frame Codec
+ * Encodes and decodes the frames exchanged with the JVM in daemon mode
+ * @module lib/daemon/framing
+ */
+
+const { DAEMON } = require('../common/constants');
+
+/**
+ * Encode a JSON-serializable message as a length-prefixed frame.
+ * The header is a 4-byte big-endian unsigned length of the UTF-8 body.
+ *
+ * @param {Object} message - Message to encode
+ * @returns {Buffer} Encoded frame
+ */
+function encodeFrame(message) {
+    return encodeRawFrame(Buffer.from(JSON.stringify(message), 'utf-8'));
+}
+
+/**
+ * Wrap an already encoded body, such as a binary AST, in a length-prefixed frame.
+ *
+ * @param {Buffer} body - Frame body
+ * @returns {Buffer} Encoded frame
+ */
+function encodeRawFrame(body) {
+    const header = Buffer.allocUnsafe(DAEMON.HEADER_BYTES);
+    header.writeUInt32BE(body.length, 0);
+    return Buffer.concat([header, body], header.length + body.length);
+}
+
+/**
+ * Incremental decoder for length-prefixed frames.
+ * Chunks are pushed as they arrive; complete frames are returned in order.
+ */
+class FrameDecoder {
+    constructor() {
+        this.buffer = Buffer.alloc(0);
+    }
+
+    /**
+     * Append a chunk and extract every complete frame.
+     *
+     * @param {Buffer} chunk - Raw bytes read from the input stream
+     * @returns {Array<Object>} Decoded messages, possibly empty
+     */
+    push(chunk) {
+        this.buffer = this.buffer.length === 0 ? chunk : Buffer.concat([this.buffer, chunk]);
+        const messages = [];
+
+        while (this.buffer.length >= DAEMON.HEADER_BYTES) {
+            const bodyLength = this.buffer.readUInt32BE(0);
+            const frameLength = DAEMON.HEADER_BYTES + bodyLength;
+            if (this.buffer.length < frameLength) {
+                break;
+            }
+            const body = this.buffer.toString('utf-8', DAEMON.HEADER_BYTES, frameLength);
+            messages.push(JSON.parse(body));
+            this.buffer = this.buffer.subarray(frameLength);
+        }
+
+        return messages;
+    }
+
+    /**
+     * Check whether a partial frame is still buffered.
+     * @returns {boolean} True if bytes are pending
+     */
+    hasPending() {
+        return this.buffer.length > 0;
+    }
+}
+
+module.exports = {
+    encodeFrame,
+    encodeRawFrame,
+    FrameDecoder
+};
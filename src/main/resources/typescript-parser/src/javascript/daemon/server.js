@@ -0,0 +1,76 @@
+/**
+ * Parser Daemon
+ * Long-lived request loop that keeps the TypeScript compiler warm
+ * @module lib/daemon/server
+ */
+
+const { encodeFrame, encodeRawFrame, FrameDecoder } = require('./framing');
+const { encodeBinaryAst } = require('../wire/binary-ast');
+const { ERROR_MESSAGES, AST_FORMAT } = require('../common/constants');
+
+/**
+ * Handle a single parse request.
+ * Failures are reported in the response instead of terminating the daemon.
+ *
+ * @param {Object} request - Request with id, fileName, source and the optional
+ *     incremental and fullOutput flags
+ * @param {Function} parse - Parse function (sourceCode, fileName, options) => AST
+ * @returns {Object} Response message
+ */
+function handleRequest(request, parse) {
+    const options = { incremental: request.incremental === true, fullOutput: request.fullOutput === true };
+    try {
+        return { id: request.id, ok: true, ast: parse(request.source, request.fileName, options) };
+    } catch (error) {
+        return { id: request.id, ok: false, error: `${ERROR_MESSAGES.PARSE_FAILED} ${error.message}` };
+    }
+}
+
+/**
+ * Encode a response frame.
+ * In binary format successful responses carry a binary AST; failures stay JSON.
+ *
+ * @param {Object} response - Response message
+ * @param {string} format - AST output format
+ * @returns {Buffer} Encoded frame
+ */
+function encodeResponse(response, format) {
+    if (format === AST_FORMAT.BINARY && response.ok) {
+        return encodeRawFrame(encodeBinaryAst(response.ast, response.id));
+    }
+    return encodeFrame(response);
+}
+
+/**
+ * Run the daemon loop on stdin/stdout.
+ * The daemon exits when stdin is closed, so the JVM never leaks processes.
+ *
+ * @param {Function} parse - Parse function (sourceCode, fileName, options) => AST
+ * @param {string} format - AST output format, json or binary
+ * @param {Object} io - Optional streams, defaults to process stdin/stdout
+ */
+function runDaemon(parse, format = AST_FORMAT.JSON, io = { input: process.stdin, output: process.stdout }) {
+    const decoder = new FrameDecoder();
+
+    // stdout carries frames only; keep stray logging on stderr
+    console.log = console.error;
+
+    io.input.on('data', (chunk) => {
+        for (const request of decoder.push(chunk)) {
+            io.output.write(encodeResponse(handleRequest(request, parse), format));
+        }
+    });
+
+    io.input.on('end', () => {
+        if (decoder.hasPending()) {
+            console.error(ERROR_MESSAGES.DAEMON_TRUNCATED);
+        }
+        process.exit(0);
+    });
+}
+
+module.exports = {
+    runDaemon,
+    handleRequest,
+    encodeResponse
+};
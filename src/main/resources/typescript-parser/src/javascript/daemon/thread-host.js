@@ -0,0 +1,223 @@
+/**
+ * Parser Thread Host
+ * Serves the daemon protocol from several worker threads in one process
+ * @module lib/daemon/thread-host
+ */
+
+const { Worker, isMainThread, parentPort, workerData } = require('worker_threads');
+const { encodeFrame, FrameDecoder } = require('./framing');
+const { handleRequest, encodeResponse } = require('./server');
+const { ERROR_MESSAGES, AST_FORMAT, AST_EMISSION, THREAD_HOST } = require('../common/constants');
+
+/**
+ * Pick the thread that owns a file's incremental session.
+ * Incremental requests for a file always go to the same thread, since
+ * each thread keeps its own previous parses.
+ *
+ * @param {string} fileName - File name
+ * @param {number} threadCount - Number of threads
+ * @returns {number} Thread index
+ */
+function affinityOf(fileName, threadCount) {
+    let hash = 0;
+    for (let i = 0; i < fileName.length; i++) {
+        hash = (hash * 31 + fileName.charCodeAt(i)) | 0;
+    }
+    return Math.abs(hash) % threadCount;
+}
+
+/**
+ * Dispatches daemon requests to parser worker threads and writes their
+ * response frames to one output stream as they complete.
+ * Responses may leave in a different order than requests arrived; each
+ * carries its request id.
+ */
+class ThreadHost {
+    /**
+     * @param {string} entryScript - Parser entry script loaded by every thread
+     * @param {number} threadCount - Number of parser threads
+     * @param {string} format - AST output format
+     * @param {string} emission - AST emission mode
+     * @param {Object} output - Stream receiving response frames
+     */
+    constructor(entryScript, threadCount, format, emission, output) {
+        this.entryScript = entryScript;
+        this.format = format;
+        this.emission = emission;
+        this.output = output;
+        this.shared = [];
+        this.slots = [];
+        this.onIdle = null;
+        for (let i = 0; i < threadCount; i++) {
+            const slot = { worker: null, current: null, queue: [] };
+            this.slots.push(slot);
+            this.start(slot);
+        }
+    }
+
+    /**
+     * Queue a request. Incremental requests wait for the thread holding the
+     * file's session; all others go to the first free thread. A cancel frame
+     * withdraws the request with its id instead.
+     *
+     * @param {Object} request - Decoded request frame
+     */
+    submit(request) {
+        if (request.cancel === true) {
+            this.cancel(request.id);
+        } else if (request.incremental === true) {
+            this.slots[affinityOf(String(request.fileName), this.slots.length)].queue.push(request);
+        } else {
+            this.shared.push(request);
+        }
+        this.pump();
+    }
+
+    /**
+     * Withdraw a request the client stopped waiting for. A queued request is
+     * dropped; a running one has its thread restarted, since a parse cannot
+     * be interrupted, so the slot is free for the next request.
+     *
+     * @param {number} id - Request id
+     */
+    cancel(id) {
+        const queued = (request) => request.id !== id;
+        this.shared = this.shared.filter(queued);
+        for (const slot of this.slots) {
+            slot.queue = slot.queue.filter(queued);
+            if (slot.current && slot.current.id === id) {
+                this.fail(slot, slot.worker, ERROR_MESSAGES.REQUEST_CANCELLED);
+            }
+        }
+        this.pump();
+    }
+
+    /**
+     * Hand queued requests to idle threads.
+     */
+    pump() {
+        for (const slot of this.slots) {
+            if (slot.current) {
+                continue;
+            }
+            const next = slot.queue.length > 0 ? slot.queue.shift() : this.shared.shift();
+            if (next) {
+                slot.current = next;
+                slot.worker.postMessage(next);
+            }
+        }
+        if (this.onIdle && this.isIdle()) {
+            this.onIdle();
+        }
+    }
+
+    /**
+     * @returns {boolean} True if no request is running or queued
+     */
+    isIdle() {
+        return this.shared.length === 0 && this.slots.every((slot) => !slot.current && slot.queue.length === 0);
+    }
+
+    /**
+     * Start a parser thread for a slot. A thread that dies fails its current
+     * request and is replaced; the other threads keep running.
+     *
+     * @param {Object} slot - Thread slot
+     */
+    start(slot) {
+        const worker = new Worker(__filename, {
+            workerData: { entryScript: this.entryScript, format: this.format, emission: this.emission }
+        });
+        slot.worker = worker;
+        worker.on('message', (frame) => {
+            slot.current = null;
+            this.output.write(frame);
+            this.pump();
+        });
+        worker.on('error', (error) => this.fail(slot, worker, error.message));
+        worker.on('exit', (code) => this.fail(slot, worker, `exit code ${code}`));
+    }
+
+    /**
+     * Report a thread failure for its current request and restart the thread.
+     *
+     * @param {Object} slot - Thread slot
+     * @param {Worker} worker - The failed thread
+     * @param {string} reason - Failure description
+     */
+    fail(slot, worker, reason) {
+        if (slot.worker !== worker) {
+            return;
+        }
+        console.error(ERROR_MESSAGES.THREAD_FAILED, reason);
+        if (slot.current) {
+            this.output.write(encodeFrame({
+                id: slot.current.id,
+                ok: false,
+                error: `${ERROR_MESSAGES.THREAD_FAILED} ${reason}`
+            }));
+            slot.current = null;
+        }
+        worker.removeAllListeners();
+        worker.terminate();
+        this.start(slot);
+        this.pump();
+    }
+}
+
+/**
+ * Run the thread host on stdin/stdout. It speaks the same frame protocol as
+ * {@link runDaemon}, so one channel serves several concurrent requests.
+ * The host exits once stdin is closed and every accepted request is answered.
+ *
+ * @param {string} entryScript - Parser entry script exporting parseDaemonRequest and setAstEmission
+ * @param {number} threadCount - Number of parser threads
+ * @param {string} format - AST output format, json or binary
+ * @param {string} emission - AST emission mode, full or compact
+ * @param {Object} io - Optional streams, defaults to process stdin/stdout
+ */
+function runThreadHost(entryScript, threadCount, format = AST_FORMAT.JSON, emission = AST_EMISSION.FULL,
+                       io = { input: process.stdin, output: process.stdout }) {
+    const decoder = new FrameDecoder();
+    const threads = Math.min(Math.max(1, threadCount | 0), THREAD_HOST.MAX_THREADS);
+    const host = new ThreadHost(entryScript, threads, format, emission, io.output);
+
+    // stdout carries frames only; keep stray logging on stderr
+    console.log = console.error;
+
+    io.input.on('data', (chunk) => {
+        for (const request of decoder.push(chunk)) {
+            host.submit(request);
+        }
+    });
+
+    io.input.on('end', () => {
+        if (decoder.hasPending()) {
+            console.error(ERROR_MESSAGES.DAEMON_TRUNCATED);
+        }
+        host.onIdle = () => process.exit(0);
+        host.pump();
+    });
+}
+
+/**
+ * Worker thread body: parse each request and post back its encoded frame.
+ * Encoding runs on the thread too, so the main thread only moves bytes.
+ */
+function runParserThread() {
+    const { parseDaemonRequest, setAstEmission } = require(workerData.entryScript);
+    setAstEmission(workerData.emission);
+    console.log = console.error;
+    parentPort.on('message', (request) => {
+        parentPort.postMessage(encodeResponse(handleRequest(request, parseDaemonRequest), workerData.format));
+    });
+}
+
+if (!isMainThread && workerData && workerData.entryScript) {
+    runParserThread();
+}
+
+module.exports = {
+    runThreadHost,
+    affinityOf
+};
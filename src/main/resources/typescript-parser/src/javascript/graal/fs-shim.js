@@ -0,0 +1,20 @@
+/**
+ * File System Stand-in
+ * Replaces the Node.js fs module when the parser runs in-process on GraalJS,
+ * where source text is passed in directly and no file is ever read or written
+ * @module lib/graal/fs-shim
+ */
+
+/**
+ * Reject file access that is only meaningful under Node.js.
+ *
+ * @throws {Error} always
+ */
+function unavailable() {
+    throw new Error('File system access is not available in the in-process parser');
+}
+
+module.exports = {
+    readFileSync: unavailable,
+    writeFileSync: unavailable
+};
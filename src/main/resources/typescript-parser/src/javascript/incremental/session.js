@@ -0,0 +1,196 @@
+/**
+ * Incremental Parse Session
+ * Reparses edited files with ts.updateSourceFile and reports unchanged statements by id
+ * @module lib/incremental/session
+ */
+
+const ts = require('typescript');
+const crypto = require('crypto');
+const { INCREMENTAL } = require('../common/constants');
+const { getSyntaxKindName } = require('../common/utils');
+
+/**
+ * Compute the TypeScript text change range between two texts from their
+ * common prefix and suffix.
+ *
+ * @param {string} oldText - Previous text
+ * @param {string} newText - New text
+ * @returns {Object|null} Text change range, or null if the texts are equal
+ */
+function computeChangeRange(oldText, newText) {
+    if (oldText === newText) {
+        return null;
+    }
+    const maxPrefix = Math.min(oldText.length, newText.length);
+    let prefix = 0;
+    while (prefix < maxPrefix && oldText.charCodeAt(prefix) === newText.charCodeAt(prefix)) {
+        prefix++;
+    }
+    const maxSuffix = maxPrefix - prefix;
+    let suffix = 0;
+    while (suffix < maxSuffix
+        && oldText.charCodeAt(oldText.length - 1 - suffix) === newText.charCodeAt(newText.length - 1 - suffix)) {
+        suffix++;
+    }
+    return ts.createTextChangeRange(
+        ts.createTextSpan(prefix, oldText.length - prefix - suffix),
+        newText.length - prefix - suffix
+    );
+}
+
+/**
+ * Keeps the last parse of each file so the next parse of the same file
+ * only rebuilds and converts what changed.
+ *
+ * Change ranges are computed on the preprocessed text, because
+ * preprocessing shifts offsets relative to the original source. A
+ * statement keeps its id while its kind and text stay the same; TypeScript
+ * reusing the node is the fast path, and a text match catches statements
+ * it reparsed anyway. Converted class declarations also depend on the
+ * decorators extracted from the whole file, so a change there starts the
+ * file over.
+ */
+class IncrementalSession {
+    /**
+     * @param {Function} preprocess - ETS preprocessor, (sourceCode) => { code, decorators }
+     * @param {Function} convert - Node converter, (node, decorators) => JSON
+     * @param {number} maxFiles - Number of files kept before the least recently used is dropped
+     */
+    constructor(preprocess, convert, maxFiles = INCREMENTAL.MAX_FILES) {
+        this.preprocess = preprocess;
+        this.convert = convert;
+        this.maxFiles = maxFiles;
+        this.files = new Map();
+        this.token = crypto.randomBytes(INCREMENTAL.TOKEN_BYTES).toString('hex');
+        this.nextId = 0;
+    }
+
+    /**
+     * Parse a file, reusing the previous parse of the same file name.
+     *
+     * The result has the shape of a SourceFile AST plus statementIds, one
+     * id per statement. Statements that are unchanged since the previous
+     * parse of this file are null and keep their previous id.
+     *
+     * @param {string} sourceCode - The source code to parse
+     * @param {string} fileName - File name, the key of the kept state
+     * @param {boolean} fullOutput - Convert every statement, for callers without the previous result
+     * @returns {Object} SourceFile AST with statementIds and reusedStatements
+     */
+    parse(sourceCode, fileName, fullOutput = false) {
+        const preprocessed = this.preprocess(sourceCode);
+        const decoratorKey = JSON.stringify(preprocessed.decorators);
+        const previous = this.take(fileName);
+        const base = previous && previous.decoratorKey === decoratorKey ? previous : null;
+
+        const sourceFile = this.buildSourceFile(fileName, preprocessed.code, base);
+        const state = {
+            sourceFile,
+            code: preprocessed.code,
+            decoratorKey,
+            nodeIds: new WeakMap(),
+            keys: new Map()
+        };
+
+        const textIndex = base ? indexByText(base.keys) : null;
+        const statements = [];
+        const statementIds = [];
+        let reusedStatements = 0;
+
+        for (const statement of sourceFile.statements) {
+            const key = `${statement.kind}\0${statement.getText(sourceFile)}`;
+            let id = base ? base.nodeIds.get(statement) : undefined;
+            if (id === undefined || base.keys.get(id) !== key || state.keys.has(id)) {
+                id = textIndex ? takeFromIndex(textIndex, key, state.keys) : undefined;
+            }
+
+            if (id === undefined) {
+                id = `${this.token}-${this.nextId++}`;
+                statements.push(this.convert(statement, preprocessed.decorators));
+            } else {
+                statements.push(fullOutput ? this.convert(statement, preprocessed.decorators) : null);
+                reusedStatements++;
+            }
+            state.nodeIds.set(statement, id);
+            state.keys.set(id, key);
+            statementIds.push(id);
+        }
+
+        this.files.set(fileName, state);
+        this.evict();
+
+        return {
+            kind: sourceFile.kind,
+            kindName: getSyntaxKindName(sourceFile.kind),
+            fileName: sourceFile.fileName,
+            statements,
+            statementIds,
+            reusedStatements
+        };
+    }
+
+    /**
+     * Update the previous tree in place, or parse from scratch without a usable base.
+     */
+    buildSourceFile(fileName, code, base) {
+        if (base) {
+            const changeRange = computeChangeRange(base.code, code);
+            if (!changeRange) {
+                return base.sourceFile;
+            }
+            try {
+                return ts.updateSourceFile(base.sourceFile, code, changeRange);
+            } catch (error) {
+                // The old tree may be half updated; parse from scratch below
+            }
+        }
+        return ts.createSourceFile(fileName, code, ts.ScriptTarget.Latest, true, ts.ScriptKind.TS);
+    }
+
+    /**
+     * Remove and return a file's state, so re-adding it marks it most recently used.
+     */
+    take(fileName) {
+        const state = this.files.get(fileName);
+        this.files.delete(fileName);
+        return state;
+    }
+
+    evict() {
+        while (this.files.size > this.maxFiles) {
+            this.files.delete(this.files.keys().next().value);
+        }
+    }
+}
+
+/**
+ * Group previous statement ids by their kind and text, in source order.
+ */
+function indexByText(keys) {
+    const index = new Map();
+    for (const [id, key] of keys) {
+        const ids = index.get(key);
+        if (ids) {
+            ids.push(id);
+        } else {
+            index.set(key, [id]);
+        }
+    }
+    return index;
+}
+
+function takeFromIndex(index, key, usedIds) {
+    const ids = index.get(key);
+    while (ids && ids.length > 0) {
+        const id = ids.shift();
+        if (!usedIds.has(id)) {
+            return id;
+        }
+    }
+    return undefined;
+}
+
+module.exports = {
+    IncrementalSession,
+    computeChangeRange
+};
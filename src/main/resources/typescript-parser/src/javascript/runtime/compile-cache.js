@@ -0,0 +1,141 @@
+/**
+ * V8 Compile Cache
+ * Persists compiled code of typescript.js and the parser modules between runs
+ * @module lib/runtime/compile-cache
+ */
+
+const { COMPILE_CACHE } = require('../common/constants');
+
+/**
+ * Enable the compile cache for modules loaded after this call.
+ *
+ * Uses the built-in module compile cache where Node provides it (22.1+).
+ * On older Node versions, CommonJS modules below the parser directory are
+ * compiled through vm.Script with V8 cached data, and the data is written
+ * back when the process exits, so it also covers functions that were only
+ * compiled lazily while parsing. Cached data is keyed by the Node version,
+ * file path, size and modification time; V8 rejects stale data by itself.
+ *
+ * Any failure leaves module loading untouched.
+ *
+ * @param {string} rootDir - Only modules below this directory are cached
+ * @param {string} [cacheDir] - Cache directory, defaults to {@link resolveCacheDir}
+ * @returns {string} The mode in use: 'builtin', 'cached-data' or 'off'
+ */
+function enableCompileCache(rootDir, cacheDir = resolveCacheDir()) {
+    if (!cacheDir) {
+        return COMPILE_CACHE.MODE_OFF;
+    }
+    try {
+        const Module = require('module');
+        if (typeof Module.enableCompileCache === 'function') {
+            const result = Module.enableCompileCache(cacheDir);
+            if (result && result.status !== Module.constants.compileCacheStatus.FAILED) {
+                return COMPILE_CACHE.MODE_BUILTIN;
+            }
+        }
+        installCachedDataHook(Module, rootDir, cacheDir);
+        return COMPILE_CACHE.MODE_CACHED_DATA;
+    } catch (error) {
+        return COMPILE_CACHE.MODE_OFF;
+    }
+}
+
+/**
+ * Find the cache directory: the argument of --build-compile-cache, else the
+ * ETS_PARSER_COMPILE_CACHE variable. Embedded runtimes without a process
+ * object get none.
+ *
+ * @returns {string|undefined} Cache directory
+ */
+function resolveCacheDir() {
+    if (typeof process === 'undefined' || !process.argv || !process.env) {
+        return undefined;
+    }
+    const args = process.argv.slice(2);
+    if (args[0] === COMPILE_CACHE.BUILD_FLAG) {
+        return args[1];
+    }
+    return process.env[COMPILE_CACHE.ENV];
+}
+
+/**
+ * Route Module.prototype._compile through vm.Script with V8 cached data.
+ *
+ * @param {Function} Module - The CommonJS Module class
+ * @param {string} rootDir - Only modules below this directory are cached
+ * @param {string} cacheDir - Cache directory
+ */
+function installCachedDataHook(Module, rootDir, cacheDir) {
+    const fs = require('fs');
+    const path = require('path');
+    const vm = require('vm');
+    const crypto = require('crypto');
+
+    const versionDir = path.join(cacheDir, `${process.version}-${process.arch}`);
+    fs.mkdirSync(versionDir, { recursive: true });
+
+    const root = path.resolve(rootDir) + path.sep;
+    const compiled = [];
+    const originalCompile = Module.prototype._compile;
+
+    Module.prototype._compile = function compileWithCache(content, filename) {
+        if (!filename.startsWith(root)) {
+            return originalCompile.call(this, content, filename);
+        }
+
+        const stat = fs.statSync(filename);
+        const key = crypto.createHash('sha1')
+            .update(`${filename}\0${stat.size}\0${stat.mtimeMs}`)
+            .digest('hex');
+        const cacheFile = path.join(versionDir, key + COMPILE_CACHE.FILE_EXTENSION);
+        const cachedData = readIfExists(fs, cacheFile);
+
+        const script = new vm.Script(Module.wrap(content), { filename, cachedData });
+        compiled.push({ script, cacheFile, stale: !cachedData || script.cachedDataRejected });
+
+        const moduleFunction = script.runInThisContext({ displayErrors: true });
+        const moduleRequire = Module.createRequire(filename);
+        return moduleFunction.call(this.exports, this.exports, moduleRequire, this,
+            filename, path.dirname(filename));
+    };
+
+    process.once('exit', () => flush(fs, compiled));
+}
+
+function readIfExists(fs, file) {
+    try {
+        return fs.readFileSync(file);
+    } catch (error) {
+        return undefined;
+    }
+}
+
+/**
+ * Write cached data for scripts that had none or had it rejected.
+ * Each file is written to a temp name and renamed, so concurrent
+ * processes never read a partial cache file.
+ */
+function flush(fs, compiled) {
+    for (const entry of compiled) {
+        if (!entry.stale) {
+            continue;
+        }
+        const tempFile = `${entry.cacheFile}.${process.pid}.tmp`;
+        try {
+            fs.writeFileSync(tempFile, entry.script.createCachedData());
+            fs.renameSync(tempFile, entry.cacheFile);
+        } catch (error) {
+            try {
+                fs.unlinkSync(tempFile);
+            } catch (ignored) {
+                // Nothing was written
+            }
+        }
+    }
+}
+
+module.exports = {
+    enableCompileCache,
+    resolveCacheDir
+};
@@ -0,0 +1,190 @@
+/**
+ * Compact Binary AST Encoder
+ * Encodes a JSON AST with numeric syntax kinds, a shared string table and varints
+ * @module lib/wire/binary-ast
+ *
+ * Layout (all counts and indexes are unsigned LEB128 varints):
+ *   magic 'EAB1' | message id | string count, strings (byte length + UTF-8)
+ *   | kind count, (kind id, name string index) pairs | root value
+ *
+ * Values start with a tag byte (see BINARY_AST.TAGS). A NODE is an object whose
+ * first two fields are kind and kindName; only the kind id is written and the
+ * reader restores kindName from the kind table.
+ */
+
+const { BINARY_AST } = require('../common/constants');
+
+const { TAGS } = BINARY_AST;
+const INITIAL_CAPACITY = 4096;
+const MAX_VARINT_BYTES = 10;
+const MAX_ZIGZAG_INT = 2 ** 51;
+
+/**
+ * Growable byte buffer with varint helpers.
+ */
+class ByteWriter {
+    constructor(capacity = INITIAL_CAPACITY) {
+        this.buffer = Buffer.allocUnsafe(capacity);
+        this.length = 0;
+    }
+
+    ensure(extra) {
+        const required = this.length + extra;
+        if (required <= this.buffer.length) {
+            return;
+        }
+        let capacity = this.buffer.length * 2;
+        while (capacity < required) {
+            capacity *= 2;
+        }
+        const next = Buffer.allocUnsafe(capacity);
+        this.buffer.copy(next, 0, 0, this.length);
+        this.buffer = next;
+    }
+
+    byte(value) {
+        this.ensure(1);
+        this.buffer[this.length++] = value;
+    }
+
+    varint(value) {
+        this.ensure(MAX_VARINT_BYTES);
+        let remaining = value;
+        while (remaining >= 0x80) {
+            this.buffer[this.length++] = (remaining % 0x80) | 0x80;
+            remaining = Math.floor(remaining / 0x80);
+        }
+        this.buffer[this.length++] = remaining;
+    }
+
+    double(value) {
+        this.ensure(8);
+        this.buffer.writeDoubleBE(value, this.length);
+        this.length += 8;
+    }
+
+    bytes(data) {
+        this.ensure(data.length);
+        data.copy(this.buffer, this.length);
+        this.length += data.length;
+    }
+
+    toBuffer() {
+        return this.buffer.subarray(0, this.length);
+    }
+}
+
+/**
+ * Stateful encoder that interns strings and kinds while writing values.
+ */
+class BinaryAstEncoder {
+    constructor() {
+        this.body = new ByteWriter();
+        this.strings = new Map();
+        this.kinds = new Map();
+    }
+
+    intern(text) {
+        let index = this.strings.get(text);
+        if (index === undefined) {
+            index = this.strings.size;
+            this.strings.set(text, index);
+        }
+        return index;
+    }
+
+    writeValue(value) {
+        if (value === null || value === undefined || typeof value === 'function') {
+            this.body.byte(TAGS.NULL);
+        } else if (typeof value === 'boolean') {
+            this.body.byte(value ? TAGS.TRUE : TAGS.FALSE);
+        } else if (typeof value === 'number') {
+            this.writeNumber(value);
+        } else if (typeof value === 'string') {
+            this.body.byte(TAGS.STRING);
+            this.body.varint(this.intern(value));
+        } else if (Array.isArray(value)) {
+            this.body.byte(TAGS.ARRAY);
+            this.body.varint(value.length);
+            value.forEach(element => this.writeValue(element));
+        } else {
+            this.writeObject(value);
+        }
+    }
+
+    writeNumber(value) {
+        if (!Number.isFinite(value)) {
+            // Same as JSON.stringify
+            this.body.byte(TAGS.NULL);
+        } else if (Number.isInteger(value) && Math.abs(value) < MAX_ZIGZAG_INT) {
+            this.body.byte(TAGS.INT);
+            this.body.varint(value >= 0 ? value * 2 : -value * 2 - 1);
+        } else {
+            this.body.byte(TAGS.DOUBLE);
+            this.body.double(value);
+        }
+    }
+
+    writeObject(object) {
+        // Same as JSON.stringify: drop undefined and function members
+        const keys = Object.keys(object).filter(key =>
+            object[key] !== undefined && typeof object[key] !== 'function');
+
+        if (keys[0] === 'kind' && keys[1] === 'kindName'
+            && typeof object.kind === 'number' && typeof object.kindName === 'string') {
+            if (!this.kinds.has(object.kind)) {
+                this.kinds.set(object.kind, this.intern(object.kindName));
+            }
+            this.body.byte(TAGS.NODE);
+            this.body.varint(object.kind);
+            keys.splice(0, 2);
+        } else {
+            this.body.byte(TAGS.OBJECT);
+        }
+
+        this.body.varint(keys.length);
+        for (const key of keys) {
+            this.body.varint(this.intern(key));
+            this.writeValue(object[key]);
+        }
+    }
+
+    finish(messageId) {
+        const header = new ByteWriter();
+        header.bytes(Buffer.from(BINARY_AST.MAGIC, 'ascii'));
+        header.varint(messageId);
+
+        header.varint(this.strings.size);
+        for (const text of this.strings.keys()) {
+            const encoded = Buffer.from(text, 'utf-8');
+            header.varint(encoded.length);
+            header.bytes(encoded);
+        }
+
+        header.varint(this.kinds.size);
+        for (const [kind, nameIndex] of this.kinds) {
+            header.varint(kind);
+            header.varint(nameIndex);
+        }
+
+        const body = this.body.toBuffer();
+        return Buffer.concat([header.toBuffer(), body], header.length + body.length);
+    }
+}
+
+/**
+ * Encode an AST in the compact binary format.
+ *
+ * @param {Object} ast - JSON-serializable AST
+ * @param {number} messageId - Request id in daemon mode, 0 otherwise
+ * @returns {Buffer} Encoded message
+ */
+function encodeBinaryAst(ast, messageId = 0) {
+    const encoder = new BinaryAstEncoder();
+    encoder.writeValue(ast);
+    return encoder.finish(messageId);
+}
+
+module.exports = {
+    encodeBinaryAst
+};
@@ -63,6 +63,23 @@ class BatchCompilationServiceTest {
         verify(mockPipeline, times(3)).execute(any(Path.class), any(Path.class));
     }
 
+    /**
+     * Test that batch results report the peak memory of the build.
+     */
+    @Test
+    @DisplayName("Batch service should report peak memory of the build")
+    void testBatchServiceReportsPeakMemory() throws CompilationException {
+        CompilerConfig config = CompilerConfig.createDefault();
+        when(mockPipeline.getConfig()).thenReturn(config);
+        when(mockPipeline.execute(any(Path.class), any(Path.class)))
+                .thenReturn(CompilationResult.success(Path.of("test.ets"), Path.of("test.js"), 100));
+
+        BatchCompilationService service = new SequentialBatchCompilationService(mockPipeline);
+        CompilationResult result = service.compileBatch(List.of(Path.of("file1.ets")), Path.of("output"));
+
+        assertTrue(result.getPeakMemoryBytes() > 0);
+    }
+
     /**
      * Test parallel batch service with mocked pipeline.
      */
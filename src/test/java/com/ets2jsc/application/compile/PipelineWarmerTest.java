@@ -0,0 +1,72 @@
+package com.ets2jsc.application.compile;
+
+import com.ets2jsc.domain.model.ast.SourceFile;
+import com.ets2jsc.domain.service.GeneratorService;
+import com.ets2jsc.domain.service.ParserService;
+import com.ets2jsc.domain.service.TransformerService;
+import com.ets2jsc.shared.exception.ParserException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PipelineWarmer using a mocked pipeline.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Pipeline Warmer Tests")
+class PipelineWarmerTest {
+
+    @Mock
+    private CompilationPipeline mockPipeline;
+    @Mock
+    private ParserService mockParser;
+    @Mock
+    private TransformerService mockTransformer;
+    @Mock
+    private GeneratorService mockGenerator;
+
+    @Test
+    @DisplayName("Warm-up should parse once per parser worker and generate once on its own instances")
+    void testCompilesSamplePerWorker() throws Exception {
+        SourceFile sample = new SourceFile(PipelineWarmer.SAMPLE_FILE_NAME);
+        when(mockPipeline.getParser()).thenReturn(mockParser);
+        when(mockParser.parseString(PipelineWarmer.SAMPLE_FILE_NAME, PipelineWarmer.SAMPLE_SOURCE)).thenReturn(sample);
+        when(mockTransformer.transform(sample)).thenReturn(sample);
+
+        PipelineWarmer.start(mockPipeline, 3, () -> mockTransformer, () -> mockGenerator)
+                .get(10, TimeUnit.SECONDS);
+
+        verify(mockParser, times(3)).parseString(anyString(), anyString());
+        verify(mockTransformer).transform(sample);
+        verify(mockGenerator).generate(sample);
+        verify(mockTransformer).close();
+        verify(mockGenerator).close();
+        verify(mockGenerator, never()).generateToFile(any(), any());
+        verify(mockPipeline, never()).getTransformer();
+        verify(mockPipeline, never()).getGenerator();
+        verify(mockPipeline, never()).execute(any(), any());
+    }
+
+    @Test
+    @DisplayName("Warm-up should complete exceptionally when the sample cannot be parsed")
+    void testReportsFailure() {
+        when(mockPipeline.getParser()).thenReturn(mockParser);
+        when(mockParser.parseString(anyString(), anyString())).thenThrow(new ParserException("no parser"));
+
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> PipelineWarmer.start(mockPipeline, 1, () -> mockTransformer, () -> mockGenerator)
+                        .get(10, TimeUnit.SECONDS));
+
+        assertInstanceOf(ParserException.class, error.getCause());
+    }
+}
@@ -0,0 +1,89 @@
+package com.ets2jsc.domain.model.ast;
+
+import com.ets2jsc.shared.exception.ParserException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for LazyBlock deferred bodies
+ */
+@DisplayName("LazyBlock Tests")
+class LazyBlockTest {
+
+    @Test
+    @DisplayName("Test body is converted once when materialized")
+    void testMaterialize() {
+        AtomicInteger conversions = new AtomicInteger();
+        AtomicInteger materializations = new AtomicInteger();
+        LazyBlock body = new LazyBlock("Test.ets", () -> {
+            conversions.incrementAndGet();
+            return new Block();
+        }, materializations::incrementAndGet);
+
+        assertFalse(body.isMaterialized());
+        AstNode first = body.materialize();
+        AstNode second = body.materialize();
+
+        assertSame(first, second);
+        assertTrue(body.isMaterialized());
+        assertEquals(1, conversions.get());
+        assertEquals(1, materializations.get());
+    }
+
+    @Test
+    @DisplayName("Test rendering converts the body once without materializing it")
+    void testRender() {
+        AtomicInteger conversions = new AtomicInteger();
+        AtomicInteger materializations = new AtomicInteger();
+        LazyBlock body = new LazyBlock("Test.ets", () -> {
+            conversions.incrementAndGet();
+            return new ExpressionStatement("return 1;");
+        }, materializations::incrementAndGet);
+
+        String rendered = body.render(node -> ((ExpressionStatement) node).getExpression());
+        String again = body.render(node -> ((ExpressionStatement) node).getExpression());
+
+        assertEquals("return 1;", rendered);
+        assertEquals(rendered, again);
+        assertEquals("Block", body.getType());
+        assertFalse(body.isMaterialized());
+        assertEquals(1, conversions.get());
+        assertEquals(0, materializations.get());
+
+        body.materialize();
+        assertTrue(body.isMaterialized());
+        assertEquals(1, conversions.get());
+        assertEquals(1, materializations.get());
+    }
+
+    @Test
+    @DisplayName("Test conversion failures are reported as parse failures of the file")
+    void testConversionFailure() {
+        LazyBlock body = new LazyBlock("Broken.ets", () -> {
+            throw new IllegalStateException("unknown statement");
+        }, () -> { });
+
+        ParserException error = assertThrows(ParserException.class, () -> body.render(AstNode::getType));
+
+        assertTrue(error.getMessage().contains("Broken.ets"));
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+    }
+
+    @Test
+    @DisplayName("Test method body getter materializes a deferred body")
+    void testMethodBody() {
+        Block block = new Block();
+        LazyBlock body = new LazyBlock("Test.ets", () -> block, () -> { });
+        MethodDeclaration method = new MethodDeclaration("f");
+        method.setBody(body);
+
+        assertSame(body, method.getDeclaredBody());
+        assertFalse(body.isMaterialized());
+        assertSame(block, method.getBody());
+        assertTrue(body.isMaterialized());
+    }
+}
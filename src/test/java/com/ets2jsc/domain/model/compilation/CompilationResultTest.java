@@ -109,6 +109,34 @@ class CompilationResultTest {
         assertTrue(summary.contains("Duration"));
     }
 
+    @Test
+    @DisplayName("Test peak memory keeps the highest sample")
+    void testPeakMemory() {
+        CompilationResult result = new CompilationResult();
+        assertEquals(-1, result.getPeakMemoryBytes());
+        assertFalse(result.getSummary().contains("Peak memory"));
+
+        result.recordPeakMemory(300L << 20);
+        result.recordPeakMemory(200L << 20);
+
+        assertEquals(300L << 20, result.getPeakMemoryBytes());
+        assertTrue(result.getSummary().contains("Peak memory: 300MB"));
+    }
+
+    @Test
+    @DisplayName("Test conversion cache counts are added up")
+    void testConversionCache() {
+        CompilationResult result = new CompilationResult();
+        assertFalse(result.getSummary().contains("Conversion cache"));
+
+        result.recordConversionCache(new ConversionCacheStats(1, 3));
+        result.recordConversionCache(new ConversionCacheStats(5, 1));
+
+        assertEquals(new ConversionCacheStats(6, 4), result.getConversionCacheStats());
+        assertEquals(0.6, result.getConversionCacheStats().hitRate(), 1e-9);
+        assertTrue(result.getSummary().contains("Conversion cache hits: 60%"));
+    }
+
     @Test
     @DisplayName("Test mark completed")
     void testMarkCompleted() {
@@ -310,6 +310,21 @@ class CodeGeneratorTest {
         assertTrue(code.contains("If.pop()"));
     }
 
+    @Test
+    @DisplayName("Test已解析 of初始值不加引号")
+    void testParsedInitializerNotQuoted() {
+        CodeGenerator generator = new CodeGenerator();
+
+        PropertyDeclaration prop = new PropertyDeclaration("color");
+        prop.setInitializer("defaultColor");
+        prop.setInitializerExpression(new IdentifierExpression("defaultColor"));
+
+        String code = generator.generate(prop);
+
+        assertTrue(code.contains("color = defaultColor;"),
+            "已解析 of初始值should保持原样");
+    }
+
     @Test
     @DisplayName("Test字符串转义")
     void testStringEscaping() {
@@ -0,0 +1,96 @@
+package com.ets2jsc.infrastructure.parser;
+
+import com.ets2jsc.shared.exception.ParserException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BinaryAstReader.
+ * Round-trips ASTs through the parser's binary encoder running on Node.js.
+ */
+@DisplayName("BinaryAstReader Tests")
+class BinaryAstReaderTest {
+
+    private static final String ENCODER_RESOURCE = "typescript-parser/src/javascript/wire/binary-ast.js";
+
+    private static final String SAMPLE_AST = String.join("",
+            "{ kind: 312, kindName: 'SourceFile', fileName: 'App.ets', statements: [",
+            "  { kind: 263, kindName: 'ClassDeclaration', name: 'App', text: 'struct App {}',",
+            "    decorators: [{ name: 'Component' }, { name: 'Entry', args: [] }],",
+            "    members: [{ kind: 80, kindName: 'Identifier', text: 'App', pos: -7, big: 2 ** 40 }] },",
+            "  { kind: 80, kindName: 'Identifier', text: 'üñî', ratio: 0.25, flag: false },",
+            "  null, true, { kindName: 'NotANode', kind: 1 }",
+            "], missing: undefined, nan: NaN }");
+
+    /**
+     * Encodes the sample with the real encoder and also serializes it with JSON.stringify.
+     */
+    private byte[] encodeSample(Path tempDir, Path jsonOut, long messageId) throws Exception {
+        String encoder = new File(getClass().getClassLoader().getResource(ENCODER_RESOURCE).toURI()).getAbsolutePath();
+        Path binaryOut = tempDir.resolve("ast.bin");
+        Path script = tempDir.resolve("encode.js");
+        Files.writeString(script, String.join("\n",
+                "const fs = require('fs');",
+                "const { encodeBinaryAst } = require(" + new ObjectMapper().writeValueAsString(encoder) + ");",
+                "const ast = " + SAMPLE_AST + ";",
+                "fs.writeFileSync(process.argv[2], encodeBinaryAst(ast, " + messageId + "));",
+                "fs.writeFileSync(process.argv[3], JSON.stringify(ast));"));
+
+        Process process = new ProcessBuilder("node", script.toString(), binaryOut.toString(), jsonOut.toString())
+                .redirectErrorStream(true)
+                .start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertEquals(0, process.waitFor(), output);
+        return Files.readAllBytes(binaryOut);
+    }
+
+    @Test
+    @DisplayName("Test binary AST decodes to the same tree as JSON")
+    void testBinaryMatchesJson(@TempDir Path tempDir) throws Exception {
+        Path jsonOut = tempDir.resolve("ast.json");
+        byte[] binary = encodeSample(tempDir, jsonOut, 42);
+
+        BinaryAstReader reader = new BinaryAstReader(binary);
+        JsonNode fromBinary = reader.readAst();
+        JsonNode fromJson = new ObjectMapper().readTree(jsonOut.toFile());
+
+        assertEquals(42, reader.getMessageId());
+        assertEquals(fromJson, fromBinary);
+        assertEquals(fromJson.toString(), fromBinary.toString());
+        assertTrue(binary.length < Files.size(jsonOut));
+    }
+
+    @Test
+    @DisplayName("Test repeated strings share one decoded node")
+    void testStringsAreShared(@TempDir Path tempDir) throws Exception {
+        byte[] binary = encodeSample(tempDir, tempDir.resolve("ast.json"), 0);
+
+        JsonNode ast = new BinaryAstReader(binary).readAst();
+        JsonNode statements = ast.get("statements");
+
+        assertSame(statements.get(0).get("kindName").getClass(), statements.get(1).get("kindName").getClass());
+        assertSame(statements.get(0).get("name"), statements.get(0).get("members").get(0).get("text"));
+    }
+
+    @Test
+    @DisplayName("Test non-binary and truncated data are rejected")
+    void testInvalidDataRejected(@TempDir Path tempDir) throws Exception {
+        byte[] binary = encodeSample(tempDir, tempDir.resolve("ast.json"), 0);
+
+        assertFalse(BinaryAstReader.isBinaryAst("{\"ok\":true}".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(ParserException.class, () -> new BinaryAstReader(new byte[]{'{'}));
+        assertThrows(ParserException.class,
+                () -> new BinaryAstReader(Arrays.copyOf(binary, binary.length - 3)).readAst());
+    }
+}
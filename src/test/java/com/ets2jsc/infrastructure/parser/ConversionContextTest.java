@@ -2,12 +2,19 @@ package com.ets2jsc.infrastructure.parser;
 
 import com.ets2jsc.infrastructure.parser.ConversionContext;
 import com.ets2jsc.domain.model.ast.AstNode;
+import com.ets2jsc.domain.model.ast.Expression;
+import com.ets2jsc.domain.model.ast.InvocationExpression;
+import com.ets2jsc.domain.model.ast.MemberExpression;
+import com.ets2jsc.domain.model.ast.RawExpression;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.TextNode;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -171,4 +178,155 @@ class ConversionContextTest {
 
         assertNotNull(mapper);
     }
+
+    @Test
+    @DisplayName("Test getText slices identifier text from the source by position")
+    void testGetTextSlicesSourceByPosition() throws Exception {
+        ConversionContext context = new ConversionContext().forSource("Test.ets", "let count = 1;");
+        JsonNode identifier = context.getObjectMapper().readTree(
+                "{\"kindName\":\"Identifier\",\"pos\":4,\"end\":9,\"name\":\"count\"}");
+
+        assertEquals("count", context.getText(identifier));
+        assertEquals("count", context.convertExpression(identifier));
+    }
+
+    @Test
+    @DisplayName("Test getText prefers text and only slices verbatim source kinds")
+    void testGetTextPrefersTextField() throws Exception {
+        ConversionContext context = new ConversionContext().forSource("Test.ets", "let count = 1;");
+        ObjectMapper mapper = context.getObjectMapper();
+
+        assertEquals("x", context.getText(mapper.readTree(
+                "{\"kindName\":\"Identifier\",\"pos\":4,\"end\":9,\"text\":\"x\"}")));
+        assertEquals("", context.getText(mapper.readTree(
+                "{\"kindName\":\"CallExpression\",\"pos\":0,\"end\":9}")));
+        assertEquals("", context.getText(mapper.readTree(
+                "{\"kindName\":\"Identifier\",\"pos\":4,\"end\":99}")));
+        assertEquals("", new ConversionContext().getText(mapper.readTree(
+                "{\"kindName\":\"Identifier\",\"pos\":4,\"end\":9}")));
+    }
+
+    @Test
+    @DisplayName("Test kindOf reads the kind id, or the kind name without one")
+    void testKindOf() throws Exception {
+        ConversionContext context = new ConversionContext().forSource("Test.ets", "");
+        ObjectMapper mapper = context.getObjectMapper();
+
+        assertEquals(SyntaxKind.VARIABLE_STATEMENT, context.kindOf(mapper.readTree(
+                "{\"kind\":244,\"kindName\":\"FirstStatement\"}")));
+        assertEquals(SyntaxKind.CALL_EXPRESSION, context.kindOf(mapper.readTree(
+                "{\"kindName\":\"CallExpression\"}")));
+        assertNull(context.kindOf(mapper.readTree("{\"kindName\":\"ResourceReferenceExpression\"}")));
+    }
+
+    @Test
+    @DisplayName("Test kindOf reads kinds by name when kind ids are not trusted")
+    void testKindOfWithoutNumericKinds() throws Exception {
+        ConversionContext context = new ConversionContext().forSource("Test.ets", "", false);
+        JsonNode json = context.getObjectMapper().readTree("{\"kind\":80,\"kindName\":\"Block\"}");
+
+        assertEquals(SyntaxKind.BLOCK, context.kindOf(json));
+    }
+
+    @Test
+    @DisplayName("Test identifier names are interned across file contexts")
+    void testInternIdentifierNames() throws Exception {
+        ConversionContext context = new ConversionContext();
+        ObjectMapper mapper = context.getObjectMapper();
+        String first = context.forSource("Test.ets", "count = 1").convertExpression(
+                mapper.readTree("{\"kind\":80,\"kindName\":\"Identifier\",\"pos\":0,\"end\":5}"));
+        String second = context.forSource("Test.ets", "let count").convertExpression(
+                mapper.readTree("{\"kind\":80,\"kindName\":\"Identifier\",\"pos\":4,\"end\":9}"));
+
+        String third = context.convertExpression(
+                mapper.readTree("{\"kind\":80,\"kindName\":\"Identifier\",\"text\":\"count\"}"));
+
+        assertEquals("count", first);
+        assertSame(first, second);
+        assertSame(first, third);
+    }
+
+    @Test
+    @DisplayName("Test the name pool is cleared when the resource index of a build is reset")
+    void testNamePoolClearedPerBuild() {
+        ConversionContext context = new ConversionContext();
+        ConversionContext fileContext = context.forSource("Test.ets", "");
+        String first = fileContext.intern(new String("count"));
+        assertSame(first, context.intern(new String("count")));
+
+        context.setResourceIndex(null);
+
+        String second = fileContext.intern(new String("count"));
+        assertEquals(first, second);
+        assertNotSame(first, second);
+    }
+
+    @Test
+    @DisplayName("Test expressions convert to structured nodes with the converted text")
+    void testConvertExpressionNode() throws Exception {
+        ConversionContext context = new ConversionContext();
+        JsonNode json = context.getObjectMapper().readTree("{\"kindName\":\"CallExpression\","
+                + "\"expression\":{\"kindName\":\"PropertyAccessExpression\",\"name\":\"fontSize\","
+                + "\"text\":\"Text('a').fontSize\",\"expression\":{\"kindName\":\"CallExpression\","
+                + "\"expression\":{\"kindName\":\"Identifier\",\"text\":\"Text\"},\"arguments\":[\"'a'\"]}},"
+                + "\"arguments\":[\" 16\"]}");
+
+        Expression node = context.convertExpressionNode(json);
+
+        assertEquals(context.convertExpression(json), node.getText());
+        assertEquals("Text('a').fontSize(16)", node.getText());
+        InvocationExpression call = assertInstanceOf(InvocationExpression.class, node);
+        assertEquals(List.of(new RawExpression("16")), call.getArguments());
+        MemberExpression member = assertInstanceOf(MemberExpression.class, call.getCallee());
+        assertEquals("fontSize", member.getName());
+        InvocationExpression text = assertInstanceOf(InvocationExpression.class, member.getObject());
+        assertEquals("Text", text.getFunctionName());
+        assertEquals("'a'", text.getArgumentsText());
+    }
+
+    @Test
+    @DisplayName("Test call chains compose their text from the text of their links")
+    void testConvertExpressionNodeChain() throws Exception {
+        ConversionContext context = new ConversionContext();
+        String chain = "{\"kindName\":\"Identifier\",\"text\":\"f\"}";
+        for (int i = 0; i < 50; i++) {
+            chain = "{\"kindName\":\"CallExpression\",\"expression\":" + chain + ",\"arguments\":[\" " + i + "\"]}";
+        }
+        JsonNode json = context.getObjectMapper().readTree(chain);
+
+        Expression node = context.convertExpressionNode(json);
+
+        assertEquals(context.convertExpression(json), node.getText());
+        assertTrue(node.getText().startsWith("f(0)(1)(2)"));
+        InvocationExpression call = assertInstanceOf(InvocationExpression.class, node);
+        assertEquals(context.convertExpression(json.get("expression")), call.getCallee().getText());
+    }
+
+    @Test
+    @DisplayName("Test repeated subtrees are converted once per file")
+    void testSubtreeCache() throws Exception {
+        ConversionContext context = new ConversionContext();
+        ConversionContext file = context.forSource("Test.ets", "f(a); f(a); f(b);");
+        ObjectMapper mapper = context.getObjectMapper();
+
+        String first = file.convertExpression(mapper.readTree(call(0, 2)));
+        String second = file.convertExpression(mapper.readTree(call(6, 8)));
+        String third = file.convertExpression(mapper.readTree(call(12, 14)));
+
+        assertEquals("f(a)", first);
+        assertSame(first, second);
+        assertEquals("f(b)", third);
+        assertEquals(1, context.getConversionCacheStats().hits());
+        assertEquals(2, context.getConversionCacheStats().misses());
+
+        context.forSource("Test.ets", "f(a);").convertExpression(mapper.readTree(call(0, 2)));
+        assertEquals(3, context.getConversionCacheStats().misses());
+    }
+
+    private static String call(int calleePos, int argumentPos) {
+        return "{\"kind\":214,\"kindName\":\"CallExpression\",\"pos\":" + calleePos
+                + ",\"expression\":{\"kind\":80,\"kindName\":\"Identifier\",\"pos\":" + calleePos
+                + ",\"end\":" + (calleePos + 1) + "},\"arguments\":[{\"kind\":80,\"kindName\":\"Identifier\","
+                + "\"pos\":" + argumentPos + ",\"end\":" + (argumentPos + 1) + "}]}";
+    }
 }
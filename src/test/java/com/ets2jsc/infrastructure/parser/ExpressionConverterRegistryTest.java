@@ -3,10 +3,15 @@ package com.ets2jsc.infrastructure.parser;
 import com.ets2jsc.infrastructure.parser.ExpressionConverterRegistry;
 import com.ets2jsc.infrastructure.parser.ConversionContext;
 import com.ets2jsc.infrastructure.parser.NodeConverter;
+import com.ets2jsc.shared.util.ResourceIndex;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -215,4 +220,36 @@ class ExpressionConverterRegistryTest {
 
         assertTrue(registry.hasConverter("ParenthesizedExpression"), "Should have ParenthesizedExpression converter");
     }
+
+    @Test
+    @DisplayName("Test resource references are resolved against the resource index")
+    void testResourceReferenceResolution(@TempDir Path tempDir) throws Exception {
+        Path resources = Files.createDirectories(tempDir.resolve("resources/base/element"));
+        Files.writeString(resources.resolve("color.json"), "{\"color\":[{\"name\":\"title\",\"value\":\"#000\"}]}");
+        ConversionContext context = new ConversionContext();
+        ObjectMapper mapper = context.getObjectMapper();
+        String known = "{\"kindName\":\"ResourceReferenceExpression\",\"resourceRefType\":\"r\","
+                + "\"arguments\":[\"'app.color.title'\"]}";
+        String missing = known.replace("title", "subtitle");
+        String system = known.replace("app.color.title", "sys.color.ohos_id_color_primary");
+
+        assertEquals("__getResourceId__(10001, undefined, \"app\", \"title\")",
+                context.convertExpression(mapper.readTree(known)));
+
+        context.setResourceIndex(ResourceIndex.build(tempDir));
+
+        assertEquals("__getResourceId__(10001, undefined, \"app\", \"title\")",
+                context.convertExpression(mapper.readTree(known)));
+
+        Files.writeString(resources.resolve("id_defined.json"),
+                "{\"record\":[{\"type\":\"color\",\"name\":\"title\",\"id\":\"0x01000002\"}]}");
+        context.setResourceIndex(ResourceIndex.build(tempDir));
+
+        assertEquals("__getResourceId__(10001, " + 0x01000002 + ", \"app\", \"title\")",
+                context.convertExpression(mapper.readTree(known)));
+        assertEquals("__getResourceId__(10001, undefined, \"app\", \"subtitle\")",
+                context.convertExpression(mapper.readTree(missing)));
+        assertEquals("__getResourceId__(10001, undefined, \"sys\", \"ohos_id_color_primary\")",
+                context.convertExpression(mapper.readTree(system)));
+    }
 }
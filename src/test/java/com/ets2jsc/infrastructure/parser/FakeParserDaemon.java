@@ -0,0 +1,48 @@
+package com.ets2jsc.infrastructure.parser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Minimal stand-in for the parser script that speaks the daemon frame protocol.
+ * <p>
+ * It echoes the request back as an AST containing the file name, the source
+ * and its own pid. The source {@code FAIL} yields a parse error and
+ * {@code CRASH} terminates the process. {@code HANG} never gets a response.
+ */
+final class FakeParserDaemon {
+
+    private static final String SCRIPT = String.join("\n",
+            "let buf = Buffer.alloc(0);",
+            "process.stdin.on('data', chunk => {",
+            "  buf = Buffer.concat([buf, chunk]);",
+            "  while (buf.length >= 4 && buf.length >= 4 + buf.readUInt32BE(0)) {",
+            "    const len = buf.readUInt32BE(0);",
+            "    const req = JSON.parse(buf.toString('utf-8', 4, 4 + len));",
+            "    buf = buf.subarray(4 + len);",
+            "    if (req.source === 'CRASH') { process.exit(3); }",
+            "    if (req.source === 'HANG') { continue; }",
+            "    const res = req.source === 'FAIL'",
+            "      ? { id: req.id, ok: false, error: 'bad input' }",
+            "      : { id: req.id, ok: true, ast: { kindName: 'SourceFile', fileName: req.fileName,",
+            "          text: req.source, pid: process.pid } };",
+            "    const body = Buffer.from(JSON.stringify(res), 'utf-8');",
+            "    const header = Buffer.alloc(4); header.writeUInt32BE(body.length, 0);",
+            "    process.stdout.write(Buffer.concat([header, body]));",
+            "  }",
+            "});",
+            "process.stdin.on('end', () => process.exit(0));");
+
+    private FakeParserDaemon() {
+    }
+
+    /**
+     * Writes the fake script into a directory and returns an executor for it.
+     */
+    static ProcessExecutor install(Path dir) throws IOException {
+        Path script = dir.resolve("fake-daemon.js");
+        Files.writeString(script, SCRIPT);
+        return new ProcessExecutor(script.toString());
+    }
+}
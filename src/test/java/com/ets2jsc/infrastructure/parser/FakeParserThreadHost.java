@@ -0,0 +1,65 @@
+package com.ets2jsc.infrastructure.parser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Minimal stand-in for the parser script in thread host mode.
+ * <p>
+ * Like {@link FakeParserDaemon} it echoes each request back as an AST, but
+ * requests are answered asynchronously: the source {@code SLOW} is answered
+ * after a delay, so later requests overtake it. The AST records how many
+ * requests were in flight when it was accepted. {@code CRASH} terminates
+ * the process. {@code HANG} is never answered and holds back every later
+ * request, like a stuck parser thread, until a cancel frame withdraws it.
+ */
+final class FakeParserThreadHost {
+
+    private static final String SCRIPT = String.join("\n",
+            "let buf = Buffer.alloc(0);",
+            "let inFlight = 0;",
+            "let hung = null;",
+            "const held = [];",
+            "function answer(req) {",
+            "  inFlight++;",
+            "  const concurrent = inFlight;",
+            "  setTimeout(() => {",
+            "    inFlight--;",
+            "    const res = { id: req.id, ok: true, ast: { kindName: 'SourceFile', fileName: req.fileName,",
+            "        text: req.source, pid: process.pid, concurrent, incremental: req.incremental === true } };",
+            "    const body = Buffer.from(JSON.stringify(res), 'utf-8');",
+            "    const header = Buffer.alloc(4); header.writeUInt32BE(body.length, 0);",
+            "    process.stdout.write(Buffer.concat([header, body]));",
+            "  }, req.source === 'SLOW' ? 500 : 0);",
+            "}",
+            "process.stdin.on('data', chunk => {",
+            "  buf = Buffer.concat([buf, chunk]);",
+            "  while (buf.length >= 4 && buf.length >= 4 + buf.readUInt32BE(0)) {",
+            "    const len = buf.readUInt32BE(0);",
+            "    const req = JSON.parse(buf.toString('utf-8', 4, 4 + len));",
+            "    buf = buf.subarray(4 + len);",
+            "    if (req.cancel === true) {",
+            "      if (req.id === hung) { hung = null; held.splice(0).forEach(answer); }",
+            "      continue;",
+            "    }",
+            "    if (req.source === 'CRASH') { process.exit(3); }",
+            "    if (hung !== null) { held.push(req); continue; }",
+            "    if (req.source === 'HANG') { hung = req.id; continue; }",
+            "    answer(req);",
+            "  }",
+            "});",
+            "process.stdin.on('end', () => setTimeout(() => process.exit(0), 600));");
+
+    private FakeParserThreadHost() {
+    }
+
+    /**
+     * Writes the fake script into a directory and returns an executor for it.
+     */
+    static ProcessExecutor install(Path dir) throws IOException {
+        Path script = dir.resolve("fake-thread-host.js");
+        Files.writeString(script, SCRIPT);
+        return new ProcessExecutor(script.toString());
+    }
+}
@@ -0,0 +1,116 @@
+package com.ets2jsc.infrastructure.parser;
+
+import com.ets2jsc.shared.exception.ParserException;
+import com.ets2jsc.shared.exception.ParserInitializationException;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for GraalJsParserBackend.
+ * Uses a minimal CommonJS module in place of the TypeScript parser script.
+ */
+@DisplayName("GraalJsParserBackend Tests")
+class GraalJsParserBackendTest {
+
+    private static final String FAKE_PARSER_SCRIPT = String.join("\n",
+            "const { describe } = require('./describe');",
+            "function parse(sourceCode, fileName) {",
+            "  if (sourceCode === 'FAIL') { throw new Error('bad input'); }",
+            "  return describe(sourceCode, fileName);",
+            "}",
+            "module.exports = { parse };");
+
+    private static final String FAKE_DESCRIBE_SCRIPT = String.join("\n",
+            "exports.describe = (text, fileName) => ({",
+            "  kindName: 'SourceFile', fileName, text,",
+            "  statements: [{ kindName: 'Identifier', pos: 3, ratio: 0.5, big: 4294967296 }, undefined],",
+            "  flag: true, empty: null, missing: undefined, nan: NaN, helper() { return 1; }",
+            "});");
+
+    private Path installScript(Path dir, String script) throws Exception {
+        Path indexJs = dir.resolve("index.js");
+        Files.writeString(indexJs, script);
+        Files.writeString(dir.resolve("describe.js"), FAKE_DESCRIBE_SCRIPT);
+        return indexJs;
+    }
+
+    @Test
+    @DisplayName("Test guest objects are converted like JSON.stringify")
+    void testGuestObjectsConvertedToJson(@TempDir Path tempDir) throws Exception {
+        Path script = installScript(tempDir, FAKE_PARSER_SCRIPT);
+        try (GraalJsParserBackend backend = new GraalJsParserBackend(script.toString(), 1)) {
+            JsonNode ast = backend.parseToJson("A.ets", "let a = 'üñî';");
+
+            assertEquals("SourceFile", ast.get("kindName").asText());
+            assertEquals("A.ets", ast.get("fileName").asText());
+            assertEquals("let a = 'üñî';", ast.get("text").asText());
+            assertTrue(ast.get("flag").asBoolean());
+            assertTrue(ast.get("empty").isNull());
+            assertTrue(ast.get("nan").isNull());
+            assertFalse(ast.has("missing"));
+            assertFalse(ast.has("helper"));
+
+            JsonNode statement = ast.get("statements").get(0);
+            assertTrue(statement.get("pos").isInt());
+            assertEquals(0.5, statement.get("ratio").asDouble());
+            assertEquals(4294967296L, statement.get("big").asLong());
+            assertTrue(ast.get("statements").get(1).isNull());
+        }
+    }
+
+    @Test
+    @DisplayName("Test script errors are reported as parse failures")
+    void testScriptErrorReportedAsParseFailure(@TempDir Path tempDir) throws Exception {
+        Path script = installScript(tempDir, FAKE_PARSER_SCRIPT);
+        try (GraalJsParserBackend backend = new GraalJsParserBackend(script.toString(), 1)) {
+            ParserException error = assertThrows(ParserException.class,
+                    () -> backend.parseToJson("Bad.ets", "FAIL"));
+
+            assertTrue(error.getMessage().contains("bad input"));
+            assertEquals("ok", backend.parseToJson("Good.ets", "ok").get("text").asText());
+            assertEquals(1, backend.getCreatedContexts());
+        }
+    }
+
+    @Test
+    @DisplayName("Test concurrent parses never exceed the context limit")
+    void testConcurrentParsesRespectContextLimit(@TempDir Path tempDir) throws Exception {
+        Path script = installScript(tempDir, FAKE_PARSER_SCRIPT);
+        ExecutorService threads = Executors.newFixedThreadPool(4);
+        try (GraalJsParserBackend backend = new GraalJsParserBackend(script.toString(), 2)) {
+            List<Future<JsonNode>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                String name = "File" + i + ".ets";
+                futures.add(threads.submit(() -> backend.parseToJson(name, name)));
+            }
+
+            for (int i = 0; i < futures.size(); i++) {
+                assertEquals("File" + i + ".ets", futures.get(i).get().get("fileName").asText());
+            }
+            assertTrue(backend.getCreatedContexts() <= 2);
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Test missing parse export fails initialization")
+    void testMissingParseExportFailsInitialization(@TempDir Path tempDir) throws Exception {
+        Path script = installScript(tempDir, "module.exports = {};");
+        try (GraalJsParserBackend backend = new GraalJsParserBackend(script.toString(), 1)) {
+            assertThrows(ParserInitializationException.class, () -> backend.parseToJson("A.ets", "a"));
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.ets2jsc.infrastructure.parser;
+
+import com.ets2jsc.domain.model.ast.ClassDeclaration;
+import com.ets2jsc.domain.model.ast.SourceFile;
+import com.ets2jsc.infrastructure.parser.internal.ITypeScriptParser;
+import com.ets2jsc.shared.process.CancellationToken;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for NativeTypeScriptParser.
+ * Uses a recording parser in place of the Node.js fallback.
+ */
+@DisplayName("NativeTypeScriptParser Tests")
+class NativeTypeScriptParserTest {
+
+    /**
+     * Records the files it is asked to parse.
+     */
+    private static final class RecordingParser implements ITypeScriptParser {
+        private final List<String> parsedFiles = new ArrayList<>();
+        private boolean closed;
+
+        @Override
+        public SourceFile parse(String fileName, String sourceCode) {
+            parsedFiles.add(fileName);
+            return new SourceFile(fileName, sourceCode);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    @Test
+    @DisplayName("Test supported files are parsed without the fallback")
+    void testParseWithoutFallback() {
+        List<RecordingParser> created = new ArrayList<>();
+        NativeTypeScriptParser parser = new NativeTypeScriptParser(() -> {
+            RecordingParser fallback = new RecordingParser();
+            created.add(fallback);
+            return fallback;
+        });
+
+        SourceFile sourceFile = parser.parse("App.ets", "@Component\nstruct App {\n  build() {\n    Text('a')\n  }\n}");
+        parser.close();
+
+        assertEquals(1, sourceFile.getStatements().size());
+        ClassDeclaration app = (ClassDeclaration) sourceFile.getStatements().get(0);
+        assertEquals("App", app.getName());
+        assertFalse(app.getDecorators().isEmpty());
+        assertEquals(0, parser.getFallbackCount());
+        assertTrue(created.isEmpty(), "Fallback parser should not be created");
+    }
+
+    @Test
+    @DisplayName("Test unsupported files are parsed by the fallback")
+    void testFallback() {
+        RecordingParser fallback = new RecordingParser();
+        NativeTypeScriptParser parser = new NativeTypeScriptParser(() -> fallback);
+
+        parser.parse("A.ets", "let a = <number>b");
+        parser.parse("B.ets", "let b = 1");
+        parser.parseIncremental("C.ets", "tag`c`");
+        parser.close();
+
+        assertEquals(List.of("A.ets", "C.ets"), fallback.parsedFiles);
+        assertEquals(2, parser.getFallbackCount());
+        assertTrue(fallback.closed);
+    }
+
+    @Test
+    @DisplayName("Test null fallback factory is rejected")
+    void testNullFallbackFactory() {
+        assertThrows(IllegalArgumentException.class, () -> new NativeTypeScriptParser(null));
+    }
+
+    @Test
+    @DisplayName("Test statements converted in parallel keep their order")
+    void testParallelConversionKeepsOrder() {
+        StringBuilder source = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            source.append("class C").append(i).append(" {\n  f() {\n    return ").append(i).append(";\n  }\n}\n");
+        }
+        NativeTypeScriptParser parser = new NativeTypeScriptParser(RecordingParser::new);
+        parser.setParallelConversionThreshold(10);
+
+        SourceFile sourceFile = parser.parse("Generated.ts", source.toString());
+        parser.close();
+
+        assertEquals(200, sourceFile.getStatements().size());
+        for (int i = 0; i < 200; i++) {
+            assertEquals("C" + i, ((ClassDeclaration) sourceFile.getStatements().get(i)).getName());
+        }
+        assertEquals(0, parser.getFallbackCount());
+    }
+
+    @Test
+    @DisplayName("Test statements converted in parallel run under the token of the parsing thread")
+    void testParallelConversionIsCancelled() {
+        StringBuilder source = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            source.append("class C").append(i).append(" {}\n");
+        }
+        NativeTypeScriptParser parser = new NativeTypeScriptParser(RecordingParser::new);
+        parser.setParallelConversionThreshold(10);
+        CancellationToken token = CancellationToken.create();
+        token.cancel();
+
+        try (CancellationToken.Scope ignored = token.bind()) {
+            assertThrows(CancellationException.class, () -> parser.parse("Cancelled.ts", source.toString()));
+        } finally {
+            parser.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Test method bodies are converted when first inspected")
+    void testLazyMethodBodies() {
+        NativeTypeScriptParser parser = new NativeTypeScriptParser(RecordingParser::new);
+
+        SourceFile sourceFile = parser.parse("Util.ts", "class Util {\n  f() {\n    return 1;\n  }\n  g() {\n    return 2;\n  }\n}");
+        parser.close();
+
+        ClassDeclaration util = (ClassDeclaration) sourceFile.getStatements().get(0);
+        assertEquals(2, parser.getUnmaterializedBodyCount());
+        assertNotNull(util.getMethods().get(0).getBody());
+        assertEquals(1, parser.getUnmaterializedBodyCount());
+    }
+}
@@ -219,4 +219,53 @@ class NodeConverterRegistryTest {
 
         assertTrue(registry.hasConverter("DefaultNode"));
     }
+
+    @Test
+    @DisplayName("Test repeated lookups are answered by the dispatch table")
+    void testDispatchTable() {
+        TestRegistry registry = new TestRegistry();
+        TestConverter converter = new TestConverter("TestNode");
+        registry.register(converter);
+
+        assertSame(converter, registry.findConverter("TestNode"));
+        assertSame(converter, registry.findConverter("TestNode"));
+        assertFalse(registry.hasConverter("OtherNode"));
+        assertFalse(registry.hasConverter("OtherNode"));
+
+        assertEquals(2, registry.getDispatchMisses());
+        assertEquals(2, registry.getDispatchHits());
+    }
+
+    @Test
+    @DisplayName("Test register resets the dispatch table")
+    void testRegisterResetsDispatchTable() {
+        TestRegistry registry = new TestRegistry();
+        registry.register(new TestConverter("TestNode", 1));
+        assertFalse(registry.hasConverter("OtherNode"));
+
+        TestConverter other = new TestConverter("OtherNode");
+        TestConverter preferred = new TestConverter("TestNode", 10);
+        registry.register(other);
+        registry.register(preferred);
+
+        assertTrue(registry.hasConverter("OtherNode"));
+        assertSame(preferred, registry.findConverter("TestNode"));
+    }
+
+    @Test
+    @DisplayName("Test syntax kinds are dispatched by kind name or TypeScript name")
+    void testFindConverterBySyntaxKind() {
+        TestRegistry registry = new TestRegistry();
+        TestConverter statement = new TestConverter("FirstStatement");
+        TestConverter template = new TestConverter("NoSubstitutionTemplateLiteral");
+        registry.register(statement);
+        registry.register(template);
+
+        assertSame(statement, registry.findConverter(SyntaxKind.VARIABLE_STATEMENT));
+        assertSame(template, registry.findConverter(SyntaxKind.NO_SUBSTITUTION_TEMPLATE_LITERAL));
+        assertSame(template, registry.findConverter(SyntaxKind.NO_SUBSTITUTION_TEMPLATE_LITERAL));
+        assertThrows(UnsupportedOperationException.class, () -> registry.findConverter(SyntaxKind.BLOCK));
+        assertEquals(1, registry.getDispatchHits());
+        assertEquals(3, registry.getDispatchMisses());
+    }
 }
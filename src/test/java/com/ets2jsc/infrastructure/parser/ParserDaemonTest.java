@@ -0,0 +1,159 @@
+package com.ets2jsc.infrastructure.parser;
+
+import com.ets2jsc.shared.exception.ParserException;
+import com.ets2jsc.shared.exception.ParserInitializationException;
+import com.ets2jsc.shared.exception.ParserUnavailableException;
+import com.ets2jsc.shared.process.CancellationToken;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ParserDaemon.
+ * Uses {@link FakeParserDaemon} in place of the TypeScript parser script.
+ */
+@DisplayName("ParserDaemon Tests")
+class ParserDaemonTest {
+
+    private ParserDaemon createDaemon(Path tempDir) throws Exception {
+        return new ParserDaemon(FakeParserDaemon.install(tempDir), new ObjectMapper());
+    }
+
+    @Test
+    @DisplayName("Test daemon is started lazily and reused across requests")
+    void testDaemonReusedAcrossRequests(@TempDir Path tempDir) throws Exception {
+        try (ParserDaemon daemon = createDaemon(tempDir)) {
+            assertFalse(daemon.isAlive());
+
+            JsonNode first = daemon.parseToJson("A.ets", "let a = 1;");
+            JsonNode second = daemon.parseToJson("B.ets", "let b = 'üñî';");
+
+            assertEquals("A.ets", first.get("fileName").asText());
+            assertEquals("let b = 'üñî';", second.get("text").asText());
+            assertEquals(first.get("pid").asLong(), second.get("pid").asLong());
+            assertEquals(1, daemon.getSpawnCount());
+            assertTrue(daemon.isAlive());
+        }
+    }
+
+    @Test
+    @DisplayName("Test parse failure is reported without restarting the daemon")
+    void testParseFailureKeepsDaemon(@TempDir Path tempDir) throws Exception {
+        try (ParserDaemon daemon = createDaemon(tempDir)) {
+            ParserException error = assertThrows(ParserException.class,
+                    () -> daemon.parseToJson("Bad.ets", "FAIL"));
+
+            assertEquals("bad input", error.getMessage());
+            assertNotNull(daemon.parseToJson("Good.ets", "ok"));
+            assertEquals(1, daemon.getSpawnCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Test a request past the bound deadline kills the daemon without a retry")
+    void testDeadlineKillsDaemon(@TempDir Path tempDir) throws Exception {
+        try (ParserDaemon daemon = createDaemon(tempDir)) {
+            daemon.parseToJson("Warm.ets", "ok");
+            CancellationToken token = CancellationToken.create().child(300, TimeUnit.MILLISECONDS);
+
+            try (CancellationToken.Scope ignored = token.bind()) {
+                assertThrows(ParserException.class, () -> daemon.parseToJson("Slow.ets", "HANG"));
+            }
+
+            assertFalse(daemon.isAlive());
+            assertEquals("ok", daemon.parseToJson("Next.ets", "ok").get("text").asText());
+            assertEquals(2, daemon.getSpawnCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Test streamed response is positioned on the AST root")
+    void testParseToStream(@TempDir Path tempDir) throws Exception {
+        try (ParserDaemon daemon = createDaemon(tempDir)) {
+            try (JsonParser stream = daemon.parseToStream("A.ets", "let a = 1;")) {
+                assertEquals(JsonToken.START_OBJECT, stream.currentToken());
+                JsonNode ast = new ObjectMapper().readTree(stream);
+                assertEquals("let a = 1;", ast.get("text").asText());
+            }
+
+            ParserException error = assertThrows(ParserException.class,
+                    () -> daemon.parseToStream("Bad.ets", "FAIL"));
+            assertEquals("bad input", error.getMessage());
+            assertEquals(1, daemon.getSpawnCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Test next request waits for the streamed response and skips its unread part")
+    void testStreamedResponseHoldsDaemon(@TempDir Path tempDir) throws Exception {
+        try (ParserDaemon daemon = createDaemon(tempDir)) {
+            JsonParser stream = daemon.parseToStream("A.ets", "let a = 1;");
+            CompletableFuture<JsonNode> next = CompletableFuture.supplyAsync(() -> daemon.parseToJson("B.ets", "b"));
+
+            assertThrows(TimeoutException.class, () -> next.get(300, TimeUnit.MILLISECONDS));
+            stream.close();
+
+            assertEquals("b", next.get(10, TimeUnit.SECONDS).get("text").asText());
+            assertEquals(1, daemon.getSpawnCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Test a daemon that cannot be started is not started again")
+    void testStartFailureIsRemembered(@TempDir Path tempDir) {
+        AtomicInteger starts = new AtomicInteger();
+        ProcessExecutor executor = new ProcessExecutor(tempDir.resolve("parser.js").toString()) {
+            @Override
+            public Process startDaemon() throws IOException {
+                starts.incrementAndGet();
+                throw new IOException("Cannot run program \"node\"");
+            }
+        };
+
+        try (ParserDaemon daemon = new ParserDaemon(executor, new ObjectMapper())) {
+            assertThrows(ParserUnavailableException.class, () -> daemon.parseToJson("A.ets", "a"));
+            assertThrows(ParserUnavailableException.class, () -> daemon.parseToStream("B.ets", "b"));
+
+            assertEquals(1, starts.get());
+            assertEquals(0, daemon.getSpawnCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Test daemon respawns after the process dies")
+    void testDaemonRespawnsAfterCrash(@TempDir Path tempDir) throws Exception {
+        try (ParserDaemon daemon = createDaemon(tempDir)) {
+            daemon.parseToJson("A.ets", "first");
+
+            assertThrows(ParserInitializationException.class, () -> daemon.parseToJson("Crash.ets", "CRASH"));
+            JsonNode afterCrash = daemon.parseToJson("B.ets", "second");
+
+            assertEquals("B.ets", afterCrash.get("fileName").asText());
+            assertTrue(daemon.getSpawnCount() >= 2);
+        }
+    }
+
+    @Test
+    @DisplayName("Test closed daemon rejects requests")
+    void testClosedDaemonRejectsRequests(@TempDir Path tempDir) throws Exception {
+        ParserDaemon daemon = createDaemon(tempDir);
+        daemon.parseToJson("A.ets", "first");
+        daemon.close();
+
+        assertFalse(daemon.isAlive());
+        assertThrows(IllegalStateException.class, () -> daemon.parseToJson("B.ets", "second"));
+    }
+}
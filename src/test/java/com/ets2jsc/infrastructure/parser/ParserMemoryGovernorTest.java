@@ -0,0 +1,78 @@
+package com.ets2jsc.infrastructure.parser;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ParserMemoryGovernor.
+ * Memory is simulated with a settable sampler.
+ */
+@DisplayName("ParserMemoryGovernor Tests")
+class ParserMemoryGovernorTest {
+
+    private static final long MB = 1024L * 1024;
+
+    @Test
+    @DisplayName("Test a job is admitted over budget when nothing else runs")
+    void testAdmitsWhenIdle() throws Exception {
+        ParserMemoryGovernor governor = new ParserMemoryGovernor(100 * MB, () -> 500 * MB, 0);
+
+        governor.admit();
+
+        assertTrue(governor.isOverBudget());
+        assertEquals(0, governor.getDeferredAdmissions());
+        governor.release();
+    }
+
+    @Test
+    @DisplayName("Test jobs wait over budget until a running job finishes and memory drops")
+    void testDefersOverBudget() throws Exception {
+        AtomicLong used = new AtomicLong(500 * MB);
+        ParserMemoryGovernor governor = new ParserMemoryGovernor(100 * MB, used::get, 10);
+        governor.admit();
+
+        CountDownLatch admitted = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            try {
+                governor.admit();
+                admitted.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.start();
+
+        assertFalse(admitted.await(200, TimeUnit.MILLISECONDS));
+        used.set(50 * MB);
+        assertTrue(admitted.await(5, TimeUnit.SECONDS));
+        assertEquals(1, governor.getDeferredAdmissions());
+        governor.release();
+        governor.release();
+        waiter.join();
+    }
+
+    @Test
+    @DisplayName("Test the peak is tracked without a budget")
+    void testTracksPeakWithoutBudget() {
+        AtomicLong used = new AtomicLong(300 * MB);
+        ParserMemoryGovernor governor = new ParserMemoryGovernor(0, used::get, 0);
+
+        assertFalse(governor.isOverBudget());
+        used.set(200 * MB);
+        assertFalse(governor.isOverBudget());
+
+        assertEquals(300 * MB, governor.getPeakBytes());
+    }
+
+    @Test
+    @DisplayName("Test the process tree sample includes at least the JVM")
+    void testProcessTreeBytes() {
+        assertTrue(ProcessMemorySampler.processTreeBytes() > 0);
+    }
+}
@@ -0,0 +1,129 @@
+package com.ets2jsc.infrastructure.parser;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ParserRuntimeInstaller.
+ */
+@DisplayName("ParserRuntimeInstaller Tests")
+class ParserRuntimeInstallerTest {
+
+    private Path createJar(Path dir, String name, String scriptContent) throws IOException {
+        Path jar = dir.resolve(name);
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            addEntry(out, "typescript-parser/index.js", scriptContent);
+            addEntry(out, "typescript-parser/src/javascript/lib.js", "module.exports = 1;");
+            addEntry(out, "com/example/Other.class", "not a parser resource");
+        }
+        return jar;
+    }
+
+    private void addEntry(JarOutputStream out, String name, String content) throws IOException {
+        out.putNextEntry(new JarEntry(name));
+        out.write(content.getBytes(StandardCharsets.UTF_8));
+        out.closeEntry();
+    }
+
+    private List<Path> listRuntimes(Path cacheRoot) throws IOException {
+        try (Stream<Path> entries = Files.list(cacheRoot)) {
+            return entries.filter(Files::isDirectory).toList();
+        }
+    }
+
+    @Test
+    @DisplayName("Test runtime is extracted once and reused for the same JAR")
+    void testRuntimeReused(@TempDir Path tempDir) throws Exception {
+        Path jar = createJar(tempDir, "app.jar", "// parser");
+        ParserRuntimeInstaller installer = new ParserRuntimeInstaller(tempDir.resolve("cache"));
+
+        Path first = installer.install(jar);
+        Path marker = first.resolve("marker");
+        Files.writeString(marker, "kept");
+        Path second = new ParserRuntimeInstaller(tempDir.resolve("cache")).install(jar);
+
+        assertEquals(first, second);
+        assertTrue(Files.exists(marker), "A valid installation must not be extracted again");
+        assertEquals("// parser", Files.readString(second.resolve("index.js")));
+        assertTrue(Files.exists(second.resolve("src/javascript/lib.js")));
+        assertFalse(Files.exists(second.resolve("com")));
+    }
+
+    @Test
+    @DisplayName("Test a different JAR gets its own runtime directory")
+    void testDifferentJarGetsNewDirectory(@TempDir Path tempDir) throws Exception {
+        ParserRuntimeInstaller installer = new ParserRuntimeInstaller(tempDir.resolve("cache"));
+
+        Path first = installer.install(createJar(tempDir, "v1.jar", "// v1"));
+        Path second = installer.install(createJar(tempDir, "v2.jar", "// v2"));
+
+        assertNotEquals(first, second);
+        assertEquals("// v2", Files.readString(second.resolve("index.js")));
+    }
+
+    @Test
+    @DisplayName("Test damaged installation is extracted again")
+    void testDamagedInstallationReinstalled(@TempDir Path tempDir) throws Exception {
+        Path jar = createJar(tempDir, "app.jar", "// parser");
+        ParserRuntimeInstaller installer = new ParserRuntimeInstaller(tempDir.resolve("cache"));
+
+        Path runtime = installer.install(jar);
+        Files.writeString(runtime.resolve("src/javascript/lib.js"), "");
+        Path reinstalled = installer.install(jar);
+
+        assertEquals(runtime, reinstalled);
+        assertEquals("module.exports = 1;", Files.readString(reinstalled.resolve("src/javascript/lib.js")));
+    }
+
+    @Test
+    @DisplayName("Test concurrent installs share one runtime directory")
+    void testConcurrentInstalls(@TempDir Path tempDir) throws Exception {
+        Path jar = createJar(tempDir, "app.jar", "// parser");
+        Path cacheRoot = tempDir.resolve("cache");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Path>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> new ParserRuntimeInstaller(cacheRoot).install(jar)));
+            }
+            Set<Path> runtimes = new HashSet<>();
+            for (Future<Path> result : results) {
+                runtimes.add(result.get());
+            }
+
+            assertEquals(1, runtimes.size());
+            assertEquals(1, listRuntimes(cacheRoot).size(), "No staging directories may be left behind");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Test JAR without parser resources is rejected")
+    void testJarWithoutParserRejected(@TempDir Path tempDir) throws Exception {
+        Path jar = tempDir.resolve("empty.jar");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            addEntry(out, "com/example/Other.class", "x");
+        }
+
+        assertThrows(IOException.class, () -> new ParserRuntimeInstaller(tempDir.resolve("cache")).install(jar));
+    }
+}
@@ -0,0 +1,113 @@
+package com.ets2jsc.infrastructure.parser;
+
+import com.ets2jsc.shared.exception.ParserException;
+import com.ets2jsc.shared.exception.ParserInitializationException;
+import com.ets2jsc.shared.process.CancellationToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ParserThreadHost.
+ * Uses {@link FakeParserThreadHost} in place of the TypeScript parser script.
+ */
+@DisplayName("ParserThreadHost Tests")
+class ParserThreadHostTest {
+
+    private ParserThreadHost createHost(Path tempDir, int threads) throws Exception {
+        return new ParserThreadHost(FakeParserThreadHost.install(tempDir), new ObjectMapper(), threads);
+    }
+
+    @Test
+    @DisplayName("Test concurrent requests share one process and complete out of order")
+    void testConcurrentRequestsMultiplexed(@TempDir Path tempDir) throws Exception {
+        try (ParserThreadHost host = createHost(tempDir, 2)) {
+            CompletableFuture<JsonNode> slow = CompletableFuture.supplyAsync(() -> host.parseToJson("Slow.ets", "SLOW"));
+            // Let the slow request reach the host first
+            Thread.sleep(100);
+            JsonNode fast = host.parseToJson("Fast.ets", "let a = 1;");
+
+            assertFalse(slow.isDone(), "Fast response should not wait behind the slow one");
+            assertEquals("let a = 1;", fast.get("text").asText());
+            assertEquals(2, fast.get("concurrent").asInt());
+
+            JsonNode slowAst = slow.get(5, TimeUnit.SECONDS);
+            assertEquals("Slow.ets", slowAst.get("fileName").asText());
+            assertEquals(slowAst.get("pid").asLong(), fast.get("pid").asLong());
+            assertEquals(1, host.getSpawnCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Test in-flight requests are limited to the thread count")
+    void testInFlightLimitedToThreads(@TempDir Path tempDir) throws Exception {
+        try (ParserThreadHost host = createHost(tempDir, 1)) {
+            CompletableFuture<JsonNode> slow = CompletableFuture.supplyAsync(() -> host.parseToJson("Slow.ets", "SLOW"));
+            Thread.sleep(100);
+            JsonNode next = host.parseToJson("Next.ets", "ok");
+
+            assertTrue(slow.isDone(), "Second request should wait for the only slot");
+            assertEquals(1, next.get("concurrent").asInt());
+        }
+    }
+
+    @Test
+    @DisplayName("Test incremental flags are sent to the host")
+    void testIncrementalFlagsSent(@TempDir Path tempDir) throws Exception {
+        try (ParserThreadHost host = createHost(tempDir, 2)) {
+            assertTrue(host.parseIncrementalToJson("A.ets", "x", false).get("incremental").asBoolean());
+            assertFalse(host.parseToJson("A.ets", "x").get("incremental").asBoolean());
+        }
+    }
+
+    @Test
+    @DisplayName("Test a timed out request is withdrawn so the next request is served")
+    void testTimedOutRequestWithdrawn(@TempDir Path tempDir) throws Exception {
+        try (ParserThreadHost host = createHost(tempDir, 1)) {
+            try (CancellationToken.Scope ignored =
+                         CancellationToken.create().child(300, TimeUnit.MILLISECONDS).bind()) {
+                assertThrows(ParserException.class, () -> host.parseToJson("Hang.ets", "HANG"));
+            }
+
+            JsonNode next;
+            try (CancellationToken.Scope ignored = CancellationToken.create().child(5, TimeUnit.SECONDS).bind()) {
+                next = host.parseToJson("Next.ets", "after");
+            }
+            assertEquals("after", next.get("text").asText());
+            assertEquals(1, host.getSpawnCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Test host respawns after the process dies")
+    void testHostRespawnsAfterCrash(@TempDir Path tempDir) throws Exception {
+        try (ParserThreadHost host = createHost(tempDir, 2)) {
+            long firstPid = host.parseToJson("A.ets", "first").get("pid").asLong();
+
+            assertThrows(ParserInitializationException.class, () -> host.parseToJson("Crash.ets", "CRASH"));
+
+            JsonNode after = host.parseToJson("B.ets", "after");
+            assertNotEquals(firstPid, after.get("pid").asLong());
+            assertTrue(host.isAlive());
+        }
+    }
+
+    @Test
+    @DisplayName("Test closed host rejects requests")
+    void testClosedHostRejectsRequests(@TempDir Path tempDir) throws Exception {
+        ParserThreadHost host = createHost(tempDir, 2);
+        host.parseToJson("A.ets", "ok");
+        host.close();
+
+        assertFalse(host.isAlive());
+        assertThrows(IllegalStateException.class, () -> host.parseToJson("B.ets", "ok"));
+    }
+}
@@ -0,0 +1,132 @@
+package com.ets2jsc.infrastructure.parser;
+
+import com.ets2jsc.shared.exception.ParserException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ParserWorkerPool.
+ * Uses {@link FakeParserDaemon} in place of the TypeScript parser script.
+ */
+@DisplayName("ParserWorkerPool Tests")
+class ParserWorkerPoolTest {
+
+    private ParserWorkerPool createPool(Path tempDir, ParserPoolConfig config) throws Exception {
+        ProcessExecutor executor = FakeParserDaemon.install(tempDir);
+        ObjectMapper objectMapper = new ObjectMapper();
+        return new ParserWorkerPool(() -> new ParserDaemon(executor, objectMapper), config);
+    }
+
+    @Test
+    @DisplayName("Test sequential parses reuse one warm worker")
+    void testSequentialParsesReuseWorker(@TempDir Path tempDir) throws Exception {
+        try (ParserWorkerPool pool = createPool(tempDir, ParserPoolConfig.forWorkers(4))) {
+            JsonNode first = pool.parseToJson("A.ets", "a");
+            JsonNode second = pool.parseToJson("B.ets", "b");
+
+            assertEquals(first.get("pid").asLong(), second.get("pid").asLong());
+            assertEquals(1, pool.getStartedWorkers());
+            assertEquals(1, pool.getIdleWorkers());
+        }
+    }
+
+    @Test
+    @DisplayName("Test concurrent parses never exceed the worker limit")
+    void testConcurrentParsesRespectWorkerLimit(@TempDir Path tempDir) throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(6);
+        try (ParserWorkerPool pool = createPool(tempDir, ParserPoolConfig.forWorkers(2))) {
+            List<Future<JsonNode>> futures = new ArrayList<>();
+            for (int i = 0; i < 24; i++) {
+                String name = "File" + i + ".ets";
+                futures.add(threads.submit(() -> pool.parseToJson(name, name)));
+            }
+
+            Set<Long> pids = new HashSet<>();
+            for (int i = 0; i < futures.size(); i++) {
+                JsonNode ast = futures.get(i).get();
+                assertEquals("File" + i + ".ets", ast.get("fileName").asText());
+                pids.add(ast.get("pid").asLong());
+            }
+
+            assertTrue(pids.size() <= 2);
+            assertTrue(pool.getStartedWorkers() <= 2);
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Test worker is recycled after the configured number of files")
+    void testWorkerRecycledAfterMaxFiles(@TempDir Path tempDir) throws Exception {
+        ParserPoolConfig config = ParserPoolConfig.builder()
+                .maxWorkers(1)
+                .maxFilesPerWorker(2)
+                .maxRssGrowthBytes(0)
+                .build();
+        try (ParserWorkerPool pool = createPool(tempDir, config)) {
+            long firstPid = pool.parseToJson("A.ets", "a").get("pid").asLong();
+            long secondPid = pool.parseToJson("B.ets", "b").get("pid").asLong();
+            long thirdPid = pool.parseToJson("C.ets", "c").get("pid").asLong();
+
+            assertEquals(firstPid, secondPid);
+            assertNotEquals(secondPid, thirdPid);
+            assertEquals(1, pool.getRecycledWorkers());
+            assertEquals(2, pool.getStartedWorkers());
+        }
+    }
+
+    @Test
+    @DisplayName("Test parse failure keeps the worker and crash replaces it")
+    void testFailureAndCrashHandling(@TempDir Path tempDir) throws Exception {
+        try (ParserWorkerPool pool = createPool(tempDir, ParserPoolConfig.forWorkers(1))) {
+            assertThrows(ParserException.class, () -> pool.parseToJson("Bad.ets", "FAIL"));
+            assertEquals(1, pool.getIdleWorkers());
+
+            assertThrows(ParserException.class, () -> pool.parseToJson("Crash.ets", "CRASH"));
+            assertEquals(1, pool.getReplacedWorkers());
+
+            assertEquals("Next.ets", pool.parseToJson("Next.ets", "ok").get("fileName").asText());
+        }
+    }
+
+    @Test
+    @DisplayName("Test parses continue one at a time over the memory budget")
+    void testOverBudgetStillMakesProgress(@TempDir Path tempDir) throws Exception {
+        ProcessExecutor executor = FakeParserDaemon.install(tempDir);
+        ObjectMapper objectMapper = new ObjectMapper();
+        ParserMemoryGovernor governor = new ParserMemoryGovernor(1, () -> 1L << 30, 0);
+        try (ParserWorkerPool pool = new ParserWorkerPool(() -> new ParserDaemon(executor, objectMapper),
+                ParserPoolConfig.forWorkers(2), governor)) {
+            assertEquals("A.ets", pool.parseToJson("A.ets", "a").get("fileName").asText());
+            assertEquals("B.ets", pool.parseToJson("B.ets", "b").get("fileName").asText());
+
+            assertEquals(1L << 30, pool.getPeakMemoryBytes());
+            assertEquals(1, pool.getStartedWorkers());
+        }
+    }
+
+    @Test
+    @DisplayName("Test closed pool rejects requests")
+    void testClosedPoolRejectsRequests(@TempDir Path tempDir) throws Exception {
+        ParserWorkerPool pool = createPool(tempDir, ParserPoolConfig.forWorkers(1));
+        pool.parseToJson("A.ets", "a");
+        pool.close();
+
+        assertEquals(0, pool.getIdleWorkers());
+        assertThrows(IllegalStateException.class, () -> pool.parseToJson("B.ets", "b"));
+    }
+}
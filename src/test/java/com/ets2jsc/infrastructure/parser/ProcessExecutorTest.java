@@ -1,5 +1,6 @@
 package com.ets2jsc.infrastructure.parser;
 
+import com.ets2jsc.domain.model.config.CompilerConfig;
 import com.ets2jsc.infrastructure.parser.ProcessExecutor;
 import com.ets2jsc.shared.exception.ParserInitializationException;
 import org.junit.jupiter.api.DisplayName;
@@ -68,4 +69,79 @@ class ProcessExecutorTest {
         assertEquals(1, result.getExitCode());
         assertFalse(result.isSuccess());
     }
+
+    @Test
+    @DisplayName("Test piped execution streams source on stdin and keeps stderr separate")
+    void testExecutePiped(@TempDir Path tempDir) throws Exception {
+        Path scriptPath = tempDir.resolve("echo-script.js");
+        Files.writeString(scriptPath, String.join("\n",
+                "const source = require('fs').readFileSync(0, 'utf-8');",
+                "console.error('diagnostic');",
+                "process.stdout.write(JSON.stringify({ fileName: process.argv[3], source }));"));
+
+        ProcessExecutor executor = new ProcessExecutor(scriptPath.toString());
+        ProcessExecutor.ProcessResult result = executor.executePiped("A.ets", "let a = 'üñî';");
+
+        assertTrue(result.isSuccess());
+        assertEquals("{\"fileName\":\"A.ets\",\"source\":\"let a = 'üñî';\"}", result.getOutput());
+        assertEquals("diagnostic\n", result.getErrorOutput());
+        assertEquals(1, Files.list(tempDir).count());
+    }
+
+    @Test
+    @DisplayName("Test piped execution reports stderr when the parser fails")
+    void testExecutePipedFailure(@TempDir Path tempDir) throws Exception {
+        Path scriptPath = tempDir.resolve("fail-script.js");
+        Files.writeString(scriptPath, "console.error('bad input'); process.exit(2);");
+
+        ProcessExecutor executor = new ProcessExecutor(scriptPath.toString());
+        java.io.IOException error = assertThrows(java.io.IOException.class,
+                () -> executor.executePiped("A.ets", "source"));
+
+        assertTrue(error.getMessage().contains("exit code 2"));
+        assertTrue(error.getMessage().contains("bad input"));
+    }
+
+    @Test
+    @DisplayName("Test parser processes receive the compile cache directory")
+    void testCompileCacheDirPassedToParser(@TempDir Path tempDir) throws Exception {
+        Path scriptPath = tempDir.resolve("env-script.js");
+        Files.writeString(scriptPath, "process.stdout.write(process.env.ETS_PARSER_COMPILE_CACHE || 'none');");
+
+        ProcessExecutor executor = new ProcessExecutor(scriptPath.toString());
+        ProcessExecutor.ProcessResult result = executor.executePiped("A.ets", "");
+
+        assertEquals(ParserRuntimeInstaller.compileCacheDir().toAbsolutePath().toString(), result.getOutput());
+    }
+
+    @Test
+    @DisplayName("Test compact emission is requested from the parser")
+    void testAstEmissionPassedToParser(@TempDir Path tempDir) throws Exception {
+        Path scriptPath = tempDir.resolve("args-script.js");
+        Files.writeString(scriptPath, "process.stdout.write(process.argv.slice(2).join(' '));");
+
+        ProcessExecutor compact = new ProcessExecutor(scriptPath.toString(),
+                CompilerConfig.AstFormat.JSON, CompilerConfig.AstEmission.COMPACT);
+        ProcessExecutor lean = new ProcessExecutor(scriptPath.toString(),
+                CompilerConfig.AstFormat.JSON, CompilerConfig.AstEmission.LEAN);
+        ProcessExecutor full = new ProcessExecutor(scriptPath.toString());
+
+        assertEquals("--ast-emission compact --stdin A.ets", compact.executePiped("A.ets", "").getOutput());
+        assertEquals("--ast-emission lean --stdin A.ets", lean.executePiped("A.ets", "").getOutput());
+        assertEquals("--stdin A.ets", full.executePiped("A.ets", "").getOutput());
+    }
+
+    @Test
+    @DisplayName("Test the V8 heap limit is passed to Node.js")
+    void testMaxOldSpacePassedToNode(@TempDir Path tempDir) throws Exception {
+        Path scriptPath = tempDir.resolve("exec-args-script.js");
+        Files.writeString(scriptPath, "process.stdout.write(process.execArgv.join(' '));");
+
+        ProcessExecutor limited = new ProcessExecutor(scriptPath.toString(),
+                CompilerConfig.AstFormat.JSON, CompilerConfig.AstEmission.FULL, 256);
+        ProcessExecutor unlimited = new ProcessExecutor(scriptPath.toString());
+
+        assertEquals("--max-old-space-size=256", limited.executePiped("A.ets", "").getOutput());
+        assertEquals("", unlimited.executePiped("A.ets", "").getOutput());
+    }
 }
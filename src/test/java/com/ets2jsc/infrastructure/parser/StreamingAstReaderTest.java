@@ -0,0 +1,104 @@
+package com.ets2jsc.infrastructure.parser;
+
+import com.ets2jsc.shared.exception.ParserException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for StreamingAstReader.
+ */
+@DisplayName("StreamingAstReader Tests")
+class StreamingAstReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final StreamingAstReader reader = new StreamingAstReader(objectMapper);
+
+    private List<JsonNode> read(JsonParser parser) throws IOException {
+        List<JsonNode> statements = new ArrayList<>();
+        try (parser) {
+            int count = reader.readStatements(parser, statements::add);
+            assertEquals(statements.size(), count);
+        }
+        return statements;
+    }
+
+    @Test
+    @DisplayName("Test top-level statements are streamed in order and other members skipped")
+    void testStatementsStreamedInOrder() throws Exception {
+        String json = "{\"kindName\":\"SourceFile\",\"text\":\"ignored\","
+                + "\"extra\":{\"statements\":[{\"kindName\":\"Skipped\"}]},"
+                + "\"statements\":[{\"kindName\":\"ClassDeclaration\",\"members\":[{\"statements\":[1]}]},"
+                + "{\"kindName\":\"ExpressionStatement\",\"text\":\"a();\"}],"
+                + "\"fileName\":\"App.ets\"}";
+
+        List<JsonNode> statements = read(objectMapper.getFactory().createParser(json));
+
+        assertEquals(2, statements.size());
+        assertEquals("ClassDeclaration", statements.get(0).get("kindName").asText());
+        assertEquals(1, statements.get(0).at("/members/0/statements/0").asInt());
+        assertEquals("a();", statements.get(1).get("text").asText());
+    }
+
+    @Test
+    @DisplayName("Test a tree stream yields the same statements as a text stream")
+    void testTreeStreamMatchesTextStream() throws Exception {
+        String json = "{\"statements\":[{\"kindName\":\"A\",\"n\":1.5},null,{\"kindName\":\"B\"}]}";
+
+        List<JsonNode> fromText = read(objectMapper.getFactory().createParser(json));
+        List<JsonNode> fromTree = read(objectMapper.readTree(json).traverse());
+
+        assertEquals(fromText, fromTree);
+        assertTrue(fromText.get(1).isNull());
+    }
+
+    @Test
+    @DisplayName("Test missing statements yield no callbacks")
+    void testMissingStatements() throws Exception {
+        assertTrue(read(objectMapper.getFactory().createParser("{\"kindName\":\"SourceFile\"}")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test non-object and truncated input are rejected")
+    void testInvalidInput() {
+        assertThrows(ParserException.class, () -> read(objectMapper.getFactory().createParser("[1, 2]")));
+        assertThrows(IOException.class,
+                () -> read(objectMapper.getFactory().createParser("{\"statements\":[{\"kindName\":\"A\"}")));
+    }
+
+    @Test
+    @DisplayName("Test the root kind is reported once before the first statement")
+    void testRootKindReportedBeforeStatements() throws Exception {
+        List<String> events = new ArrayList<>();
+        String json = "{\"kind\":308,\"statements\":[{\"kindName\":\"A\"}],\"kind\":1}";
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            reader.readStatements(parser, kind -> events.add("kind " + kind),
+                    statement -> events.add(statement.get("kindName").asText()));
+        }
+
+        assertEquals(List.of("kind 308", "A"), events);
+    }
+
+    @Test
+    @DisplayName("Test a root without a numeric kind is reported as unknown")
+    void testMissingRootKind() throws Exception {
+        List<Integer> kinds = new ArrayList<>();
+        try (JsonParser parser = objectMapper.getFactory().createParser("{\"kind\":\"x\",\"statements\":[]}")) {
+            reader.readStatements(parser, kinds::add, statement -> fail("No statements expected"));
+        }
+        try (JsonParser parser = objectMapper.getFactory().createParser("{}")) {
+            reader.readStatements(parser, kinds::add, statement -> fail("No statements expected"));
+        }
+
+        assertEquals(List.of(StreamingAstReader.UNKNOWN_KIND, StreamingAstReader.UNKNOWN_KIND), kinds);
+    }
+}
@@ -0,0 +1,162 @@
+package com.ets2jsc.infrastructure.parser;
+
+import com.ets2jsc.shared.exception.ParserException;
+import com.ets2jsc.shared.process.CancellationToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for StreamingBatchParser.
+ * Uses a minimal stand-in script that speaks the NDJSON batch protocol.
+ */
+@DisplayName("StreamingBatchParser Tests")
+class StreamingBatchParserTest {
+
+    private static final String FAKE_BATCH_SCRIPT = String.join("\n",
+            "const fs = require('fs');",
+            "const files = fs.readFileSync(0, 'utf-8').split('\\n').filter(Boolean);",
+            "for (const file of files) {",
+            "  const text = fs.readFileSync(file, 'utf-8');",
+            "  if (text === 'CRASH') { process.exit(3); }",
+            "  if (text === 'HANG') { setInterval(() => {}, 1000); break; }",
+            "  const result = text === 'FAIL'",
+            "    ? { file, ok: false, error: 'bad input' }",
+            "    : { file, ok: true, ast: { kindName: 'SourceFile', fileName: file, text } };",
+            "  process.stdout.write(JSON.stringify(result) + '\\n');",
+            "}");
+
+    private StreamingBatchParser createParser(Path tempDir) throws Exception {
+        Path script = tempDir.resolve("fake-batch.js");
+        Files.writeString(script, FAKE_BATCH_SCRIPT);
+        return new StreamingBatchParser(new ProcessExecutor(script.toString()), new ObjectMapper());
+    }
+
+    private Path writeSource(Path dir, String name, String content) throws Exception {
+        Path file = dir.resolve(name);
+        Files.writeString(file, content);
+        return file;
+    }
+
+    @Test
+    @DisplayName("Test results are streamed in order with failures reported per file")
+    void testResultsStreamedInOrder(@TempDir Path tempDir) throws Exception {
+        StreamingBatchParser parser = createParser(tempDir);
+        Path first = writeSource(tempDir, "A.ets", "let a = 1;");
+        Path second = writeSource(tempDir, "B.ets", "FAIL");
+        Path third = writeSource(tempDir, "C.ets", "let c = 'üñî';");
+
+        List<String> events = new ArrayList<>();
+        int received = parser.parse(List.of(first, second, third), new StreamingBatchParser.Listener() {
+            @Override
+            public void onParsed(Path sourceFile, JsonNode ast) {
+                events.add("parsed " + sourceFile.getFileName() + " " + ast.get("text").asText());
+            }
+
+            @Override
+            public void onFailed(Path sourceFile, String error) {
+                events.add("failed " + sourceFile.getFileName() + " " + error);
+            }
+        });
+
+        assertEquals(3, received);
+        assertEquals(List.of("parsed A.ets let a = 1;", "failed B.ets bad input", "parsed C.ets let c = 'üñî';"),
+                events);
+    }
+
+    @Test
+    @DisplayName("Test original path objects are passed back to the listener")
+    void testOriginalPathsPassedBack(@TempDir Path tempDir) throws Exception {
+        StreamingBatchParser parser = createParser(tempDir);
+        Path file = writeSource(tempDir, "A.ets", "a");
+        List<Path> parsed = new ArrayList<>();
+
+        parser.parse(List.of(file), new StreamingBatchParser.Listener() {
+            @Override
+            public void onParsed(Path sourceFile, JsonNode ast) {
+                parsed.add(sourceFile);
+            }
+
+            @Override
+            public void onFailed(Path sourceFile, String error) {
+                fail("Unexpected failure: " + error);
+            }
+        });
+
+        assertSame(file, parsed.get(0));
+    }
+
+    @Test
+    @DisplayName("Test parser crash fails the batch after delivering earlier results")
+    void testCrashFailsBatch(@TempDir Path tempDir) throws Exception {
+        StreamingBatchParser parser = createParser(tempDir);
+        Path first = writeSource(tempDir, "A.ets", "a");
+        Path crash = writeSource(tempDir, "B.ets", "CRASH");
+        List<Path> parsed = new ArrayList<>();
+
+        ParserException error = assertThrows(ParserException.class,
+                () -> parser.parse(List.of(first, crash), new StreamingBatchParser.Listener() {
+                    @Override
+                    public void onParsed(Path sourceFile, JsonNode ast) {
+                        parsed.add(sourceFile);
+                    }
+
+                    @Override
+                    public void onFailed(Path sourceFile, String message) {
+                        fail("Unexpected failure: " + message);
+                    }
+                }));
+
+        assertTrue(error.getMessage().contains("exit code 3"));
+        assertEquals(List.of(first), parsed);
+    }
+
+    @Test
+    @DisplayName("Test a hung parser is killed at the deadline of the bound token")
+    void testHungBatchTimesOut(@TempDir Path tempDir) throws Exception {
+        StreamingBatchParser parser = createParser(tempDir);
+        Path first = writeSource(tempDir, "A.ets", "a");
+        Path hang = writeSource(tempDir, "B.ets", "HANG");
+        List<Path> parsed = new ArrayList<>();
+        CancellationToken token = CancellationToken.create().child(2, TimeUnit.SECONDS);
+
+        long start = System.nanoTime();
+        ParserException error;
+        try (CancellationToken.Scope ignored = token.bind()) {
+            error = assertThrows(ParserException.class,
+                    () -> parser.parse(List.of(first, hang), new StreamingBatchParser.Listener() {
+                        @Override
+                        public void onParsed(Path sourceFile, JsonNode ast) {
+                            parsed.add(sourceFile);
+                        }
+
+                        @Override
+                        public void onFailed(Path sourceFile, String message) {
+                            fail("Unexpected failure: " + message);
+                        }
+                    }));
+        }
+
+        assertTrue(error.getMessage().contains("timed out after 1 of 2 files"), error.getMessage());
+        assertEquals(List.of(first), parsed);
+        assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 20);
+    }
+
+    @Test
+    @DisplayName("Test empty batch does not start a process")
+    void testEmptyBatch() {
+        StreamingBatchParser parser = new StreamingBatchParser(new ProcessExecutor("missing.js"), new ObjectMapper());
+
+        assertEquals(0, parser.parse(List.of(), null));
+    }
+}
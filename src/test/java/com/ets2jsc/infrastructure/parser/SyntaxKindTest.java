@@ -0,0 +1,39 @@
+package com.ets2jsc.infrastructure.parser;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SyntaxKind.
+ */
+@DisplayName("SyntaxKind Tests")
+class SyntaxKindTest {
+
+    @Test
+    @DisplayName("Test kinds are found by id")
+    void testFromId() {
+        assertEquals(SyntaxKind.IDENTIFIER, SyntaxKind.fromId(80));
+        assertEquals(SyntaxKind.SOURCE_FILE, SyntaxKind.fromId(308));
+        assertNull(SyntaxKind.fromId(-1));
+        assertNull(SyntaxKind.fromId(100_000));
+    }
+
+    @Test
+    @DisplayName("Test range markers are the kind names of their first kinds")
+    void testRangeMarkers() {
+        assertEquals("FirstStatement", SyntaxKind.VARIABLE_STATEMENT.getKindName());
+        assertEquals("VariableStatement", SyntaxKind.VARIABLE_STATEMENT.getTypeScriptName());
+        assertEquals(SyntaxKind.VARIABLE_STATEMENT, SyntaxKind.fromKindName("FirstStatement"));
+        assertEquals(SyntaxKind.VARIABLE_STATEMENT, SyntaxKind.fromKindName("VariableStatement"));
+        assertEquals(SyntaxKind.NUMERIC_LITERAL, SyntaxKind.fromKindName("FirstLiteralToken"));
+    }
+
+    @Test
+    @DisplayName("Test unknown kind names are not found")
+    void testUnknownKindName() {
+        assertNull(SyntaxKind.fromKindName("ResourceReferenceExpression"));
+        assertNull(SyntaxKind.fromKindName(null));
+    }
+}
@@ -0,0 +1,152 @@
+package com.ets2jsc.infrastructure.parser;
+
+import com.ets2jsc.domain.model.ast.AstNode;
+import com.ets2jsc.domain.model.ast.ExpressionStatement;
+import com.ets2jsc.domain.model.ast.SourceFile;
+import com.ets2jsc.infrastructure.parser.internal.IParserBackend;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for incremental parsing in TypeScriptScriptParser.
+ * Uses a scripted backend in place of the parser daemon.
+ */
+@DisplayName("TypeScriptScriptParser Incremental Tests")
+class TypeScriptScriptParserIncrementalTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Answers incremental requests with queued ASTs and records the fullOutput flags.
+     */
+    private static final class ScriptedBackend implements IParserBackend {
+        private final Deque<String> responses = new ArrayDeque<>();
+        private final List<Boolean> fullOutputRequests = new ArrayList<>();
+
+        @Override
+        public JsonNode parseToJson(String fileName, String sourceCode) {
+            throw new AssertionError("Full parse not expected");
+        }
+
+        @Override
+        public JsonNode parseIncrementalToJson(String fileName, String sourceCode, boolean fullOutput) {
+            fullOutputRequests.add(fullOutput);
+            try {
+                return MAPPER.readTree(responses.removeFirst());
+            } catch (Exception e) {
+                throw new AssertionError(e);
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static String ast(String statements, String ids) {
+        return "{\"kindName\":\"SourceFile\",\"statements\":[" + statements + "],\"statementIds\":[" + ids + "]}";
+    }
+
+    private static List<String> expressions(SourceFile sourceFile) {
+        List<String> result = new ArrayList<>();
+        for (AstNode node : sourceFile.getStatements()) {
+            result.add(((ExpressionStatement) node).getExpression());
+        }
+        return result;
+    }
+
+    @Test
+    @DisplayName("Test unchanged statements are spliced in from the previous parse")
+    void testUnchangedStatementsSpliced() {
+        ScriptedBackend backend = new ScriptedBackend();
+        backend.responses.add(ast("{\"kindName\":\"BreakStatement\"},{\"kindName\":\"EmptyStatement\"}", "\"a\",\"b\""));
+        backend.responses.add(ast("null,{\"kindName\":\"ContinueStatement\"},null", "\"b\",\"c\",\"a\""));
+
+        try (TypeScriptScriptParser parser = new TypeScriptScriptParser(path -> backend)) {
+            SourceFile first = parser.parseIncremental("A.ets", "v1");
+            SourceFile second = parser.parseIncremental("A.ets", "v2");
+
+            assertEquals(List.of("break;", ";"), expressions(first));
+            assertEquals(List.of(";", "continue;", "break;"), expressions(second));
+            assertEquals("v2", second.getSourceText());
+            assertNotSame(first.getStatements().get(0), second.getStatements().get(2),
+                    "Domain nodes must not be shared between parses");
+            assertEquals(2, parser.getReusedStatementCount());
+            assertEquals(List.of(false, false), backend.fullOutputRequests);
+        }
+    }
+
+    @Test
+    @DisplayName("Test unknown statement ids trigger a full output request")
+    void testUnknownIdsRequestFullOutput() {
+        ScriptedBackend backend = new ScriptedBackend();
+        backend.responses.add(ast("null", "\"other-worker-1\""));
+        backend.responses.add(ast("{\"kindName\":\"BreakStatement\"}", "\"other-worker-1\""));
+
+        try (TypeScriptScriptParser parser = new TypeScriptScriptParser(path -> backend)) {
+            SourceFile sourceFile = parser.parseIncremental("A.ets", "v1");
+
+            assertEquals(List.of("break;"), expressions(sourceFile));
+            assertEquals(List.of(false, true), backend.fullOutputRequests);
+            assertEquals(0, parser.getReusedStatementCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Test backends without incremental support yield a full parse")
+    void testNonIncrementalBackend() {
+        IParserBackend backend = new IParserBackend() {
+            @Override
+            public JsonNode parseToJson(String fileName, String sourceCode) {
+                try {
+                    return MAPPER.readTree("{\"kindName\":\"SourceFile\",\"statements\":[{\"kindName\":\"EmptyStatement\"}]}");
+                } catch (Exception e) {
+                    throw new AssertionError(e);
+                }
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        try (TypeScriptScriptParser parser = new TypeScriptScriptParser(path -> backend)) {
+            assertEquals(List.of(";"), expressions(parser.parseIncremental("A.ets", "x")));
+            assertEquals(List.of(";"), expressions(parser.parseIncremental("A.ets", "x")));
+        }
+    }
+
+    @Test
+    @DisplayName("Test streamed parses with a mismatched root kind convert by kind name")
+    void testStreamedParseChecksKindIds() {
+        IParserBackend backend = new IParserBackend() {
+            @Override
+            public JsonNode parseToJson(String fileName, String sourceCode) {
+                try {
+                    // Root kind 309 is not SourceFile here, so kind 243 (EmptyStatement) must not be trusted
+                    return MAPPER.readTree("{\"kind\":309,\"kindName\":\"SourceFile\","
+                            + "\"statements\":[{\"kind\":243,\"kindName\":\"BreakStatement\"}]}");
+                } catch (Exception e) {
+                    throw new AssertionError(e);
+                }
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        try (TypeScriptScriptParser parser = new TypeScriptScriptParser(path -> backend)) {
+            assertEquals(List.of("break;"), expressions(parser.parse("A.ets", "break;")));
+        }
+    }
+}
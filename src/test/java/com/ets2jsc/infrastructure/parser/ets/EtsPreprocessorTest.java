@@ -0,0 +1,67 @@
+package com.ets2jsc.infrastructure.parser.ets;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for EtsPreprocessor.
+ */
+@DisplayName("EtsPreprocessor Tests")
+class EtsPreprocessorTest {
+
+    @Test
+    @DisplayName("Test struct becomes an exported entry class")
+    void testEntryStruct() {
+        EtsPreprocessor preprocessed = EtsPreprocessor.preprocess("@Entry\n@Component\nstruct  App {}");
+
+        assertEquals("@Entry\n@Component\nexport class App {}", preprocessed.getCode());
+        assertEquals(List.of("Component"), preprocessed.getExtractedDecorators());
+    }
+
+    @Test
+    @DisplayName("Test strings, comments and templates are not rewritten")
+    void testLiteralsAreSkipped() {
+        String source = "@Component\nstruct A {\n  s = 'struct X'\n  // struct Y\n  t = `${ {b: 1}.b } struct Z`\n}";
+
+        EtsPreprocessor preprocessed = EtsPreprocessor.preprocess(source);
+
+        assertEquals(source.replace("struct A", "class A"), preprocessed.getCode());
+    }
+
+    @Test
+    @DisplayName("Test only the decorator before each struct is extracted")
+    void testDecoratorExtraction() {
+        EtsPreprocessor preprocessed = EtsPreprocessor.preprocess(
+                "@Preview @Component({ a: f('x)') })\nexport struct A {}\n@Observed\nclass B {}\n@CustomDialog\nstruct C {}");
+
+        assertEquals(List.of("Component", "CustomDialog"), preprocessed.getExtractedDecorators());
+        assertFalse(preprocessed.getCode().contains("struct"));
+        assertFalse(preprocessed.getCode().contains("export export"));
+    }
+
+    @Test
+    @DisplayName("Test entry class with an export keyword is left alone")
+    void testExportedEntryClass() {
+        String source = "@Entry\n@Component\nexport class exportView {}";
+
+        assertEquals(source, EtsPreprocessor.preprocess(source).getCode());
+    }
+
+    @Test
+    @DisplayName("Test offsets map back to the source")
+    void testToOriginal() {
+        String source = "@Entry\nstruct App { a = 1 }";
+        EtsPreprocessor preprocessed = EtsPreprocessor.preprocess(source);
+        String code = preprocessed.getCode();
+
+        assertEquals("@Entry\nexport class App { a = 1 }", code);
+        assertEquals(source.indexOf("struct"), preprocessed.toOriginal(code.indexOf("export")));
+        assertEquals(source.indexOf("App"), preprocessed.toOriginal(code.indexOf("App")));
+        assertEquals(source.indexOf("a = 1"), preprocessed.toOriginal(code.indexOf("a = 1")));
+        assertEquals(3, preprocessed.toOriginal(3));
+    }
+}
@@ -0,0 +1,153 @@
+package com.ets2jsc.infrastructure.parser.ets;
+
+import com.ets2jsc.shared.exception.UnsupportedSyntaxException;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for EtsSyntaxParser.
+ * Checks the JSON AST against the output of the parser script.
+ */
+@DisplayName("EtsSyntaxParser Tests")
+class EtsSyntaxParserTest {
+
+    private static JsonNode statement(String sourceCode) {
+        return EtsSyntaxParser.parse("Test.ets", sourceCode).get("statements").get(0);
+    }
+
+    private static JsonNode expression(String sourceCode) {
+        return statement(sourceCode).get("expression");
+    }
+
+    @Test
+    @DisplayName("Test struct is parsed as a class with its decorators")
+    void testStructWithDecorators() {
+        JsonNode sourceFile = EtsSyntaxParser.parse("App.ets",
+                "@Entry\n@Component\nstruct App {\n  @State count: number = 0\n  build() {}\n}");
+
+        assertEquals("SourceFile", sourceFile.get("kindName").asText());
+        assertEquals("App.ets", sourceFile.get("fileName").asText());
+        JsonNode app = sourceFile.get("statements").get(0);
+        assertEquals("ClassDeclaration", app.get("kindName").asText());
+        assertEquals("App", app.get("name").asText());
+        assertTrue(app.get("isExport").asBoolean());
+        // Like the script, only the decorator extracted from the struct header is kept
+        assertEquals(1, app.get("decorators").size());
+        assertEquals("Component", app.get("decorators").get(0).get("name").asText());
+
+        JsonNode count = app.get("members").get(0);
+        assertEquals("PropertyDeclaration", count.get("kindName").asText());
+        assertEquals("number", count.get("type").asText());
+        assertEquals("0", count.get("initializerText").asText());
+        assertEquals("State", count.get("decorators").get(0).get("name").asText());
+        assertEquals("MethodDeclaration", app.get("members").get(1).get("kindName").asText());
+    }
+
+    @Test
+    @DisplayName("Test trailing block and attributes of a component are separate statements")
+    void testComponentTrailingBlock() {
+        JsonNode build = statement("class A {\n  build() {\n    Column() {\n      Text('a')\n    }\n    .width(10)\n  }\n}")
+                .get("members").get(0).get("body").get("statements");
+
+        assertEquals(3, build.size());
+        assertEquals("ExpressionStatement", build.get(0).get("kindName").asText());
+        assertEquals("Column", build.get(0).get("expression").get("expression").get("name").asText());
+        assertEquals("Block", build.get(1).get("kindName").asText());
+        assertEquals("width", build.get(2).get("expression").get("expression").get("name").asText());
+    }
+
+    @Test
+    @DisplayName("Test call expression fields")
+    void testCallExpression() {
+        JsonNode call = expression("Text('a').fontSize(12)");
+
+        assertEquals("CallExpression", call.get("kindName").asText());
+        assertTrue(call.get("isChainedCall").asBoolean());
+        assertEquals("Text", call.get("componentName").asText());
+        assertEquals("fontSize", call.get("methodName").asText());
+        assertFalse(call.get("isSpecialComponent").asBoolean());
+        assertEquals("12", call.get("arguments").get(0).asText());
+    }
+
+    @Test
+    @DisplayName("Test resource references keep their source text")
+    void testResourceReference() {
+        JsonNode call = expression("$r('app.string.title', 1 + 2)");
+
+        assertEquals("'app.string.title'", call.get("arguments").get(0).asText());
+        assertEquals("1 + 2", call.get("arguments").get(1).asText());
+    }
+
+    @Test
+    @DisplayName("Test binary operator precedence")
+    void testBinaryPrecedence() {
+        JsonNode binary = expression("a + b * c ** d ** e");
+
+        assertEquals("+", binary.get("operator").asText());
+        JsonNode multiply = binary.get("right");
+        assertEquals("*", multiply.get("operator").asText());
+        JsonNode power = multiply.get("right");
+        assertEquals("**", power.get("operator").asText());
+        assertEquals("**", power.get("right").get("operator").asText());
+    }
+
+    @Test
+    @DisplayName("Test arrow function text")
+    void testArrowFunction() {
+        JsonNode arrow = expression("(a: number, b = 1) => a + b");
+
+        assertEquals("ArrowFunction", arrow.get("kindName").asText());
+        assertEquals("(a, b = 1) => a + b", arrow.get("text").asText());
+        assertEquals("number", arrow.get("parameters").get(0).get("type").asText());
+    }
+
+    @Test
+    @DisplayName("Test template expression text")
+    void testTemplateExpression() {
+        JsonNode template = expression("`count: ${this.count}!`");
+
+        assertEquals("TemplateExpression", template.get("kindName").asText());
+        assertEquals("`count: ${this.count}!`", template.get("text").asText());
+    }
+
+    @Test
+    @DisplayName("Test object literal text")
+    void testObjectLiteral() {
+        JsonNode object = statement("let o = { a: 1, b, ...c }").get("declarationList")
+                .get("declarations").get(0).get("initializer");
+
+        assertEquals("ObjectLiteralExpression", object.get("kindName").asText());
+        assertEquals("{a: 1, b, ...c}", object.get("text").asText());
+    }
+
+    @Test
+    @DisplayName("Test types are skipped")
+    void testTypesAreSkipped() {
+        JsonNode declaration = statement("const m: Map<string, Array<{ a: number }>> = new Map<string, number>()")
+                .get("declarationList").get("declarations").get(0);
+
+        assertEquals("Map<string, Array<{ a: number }>>", declaration.get("type").asText());
+        assertEquals("NewExpression", declaration.get("initializer").get("kindName").asText());
+    }
+
+    @Test
+    @DisplayName("Test less-than is not mistaken for type arguments")
+    void testRelationalLessThan() {
+        JsonNode binary = expression("a < b && c > d");
+
+        assertEquals("&&", binary.get("operator").asText());
+        assertEquals("<", binary.get("left").get("operator").asText());
+        assertEquals(">", binary.get("right").get("operator").asText());
+    }
+
+    @Test
+    @DisplayName("Test unsupported syntax is rejected")
+    void testUnsupportedSyntax() {
+        assertThrows(UnsupportedSyntaxException.class, () -> EtsSyntaxParser.parse("A.ets", "let a = <number>b"));
+        assertThrows(UnsupportedSyntaxException.class, () -> EtsSyntaxParser.parse("A.ets", "tag`a`"));
+        assertThrows(UnsupportedSyntaxException.class, () -> EtsSyntaxParser.parse("A.ets", "let a = (b"));
+    }
+}
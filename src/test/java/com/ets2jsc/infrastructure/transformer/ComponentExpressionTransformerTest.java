@@ -2,9 +2,18 @@ package com.ets2jsc.infrastructure.transformer;
 
 import com.ets2jsc.domain.model.ast.AstNode;
 import com.ets2jsc.domain.model.ast.ComponentStatement;
+import com.ets2jsc.domain.model.ast.Expression;
+import com.ets2jsc.domain.model.ast.IdentifierExpression;
+import com.ets2jsc.domain.model.ast.InvocationExpression;
+import com.ets2jsc.domain.model.ast.LiteralExpression;
+import com.ets2jsc.domain.model.ast.LiteralExpression.LiteralKind;
+import com.ets2jsc.domain.model.ast.MemberExpression;
+import com.ets2jsc.domain.model.ast.RawExpression;
+import com.ets2jsc.domain.model.ast.ThisExpression;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -18,7 +27,7 @@ class ComponentExpressionTransformerTest {
     @Test
     @DisplayName("Test transform returns empty for null input")
     void testTransformReturnsEmptyForNullInput() {
-        Optional<AstNode> result = ComponentExpressionTransformer.transform(null);
+        Optional<AstNode> result = ComponentExpressionTransformer.transform((String) null);
 
         assertFalse(result.isPresent());
     }
@@ -222,4 +231,43 @@ class ComponentExpressionTransformerTest {
         ComponentStatement stmt = (ComponentStatement) result.get();
         assertEquals("TextInput", stmt.getComponentName());
     }
+
+    @Test
+    @DisplayName("Test structured component chain is transformed")
+    void testTransformStructuredChain() {
+        InvocationExpression text = new InvocationExpression(new IdentifierExpression("Text"),
+                List.of(new RawExpression("'Hello'")), "Text('Hello')");
+        InvocationExpression fontSize = new InvocationExpression(
+                new MemberExpression(text, "fontSize", "Text('Hello').fontSize"),
+                List.of(new LiteralExpression(LiteralKind.NUMBER, "16")), "Text('Hello').fontSize(16)");
+        InvocationExpression fontColor = new InvocationExpression(
+                new MemberExpression(fontSize, "fontColor", "Text('Hello').fontSize(16).fontColor"),
+                List.of(new MemberExpression(new IdentifierExpression("Color"), "Red", "Color.Red")),
+                "Text('Hello').fontSize(16).fontColor(Color.Red)");
+
+        Optional<AstNode> result = ComponentExpressionTransformer.transform(fontColor);
+
+        assertTrue(result.isPresent());
+        ComponentStatement statement = (ComponentStatement) result.get();
+        assertEquals("Text", statement.getComponentName());
+        assertEquals(4, statement.getParts().size());
+        assertEquals("'Hello'", statement.getParts().get(0).code());
+        assertEquals("fontSize(16)", statement.getParts().get(1).code());
+        assertEquals("fontColor(Color.Red)", statement.getParts().get(2).code());
+        assertEquals(ComponentStatement.PartKind.POP, statement.getParts().get(3).kind());
+    }
+
+    @Test
+    @DisplayName("Test structured call with this property or nested call argument is not transformed")
+    void testTransformStructuredComplexArguments() {
+        Expression message = new MemberExpression(ThisExpression.INSTANCE, "message", "this.message");
+        Expression format = new InvocationExpression(new IdentifierExpression("format"),
+                List.of(new RawExpression("1")), "format(1)");
+
+        assertFalse(ComponentExpressionTransformer.transform(new InvocationExpression(
+                new IdentifierExpression("Text"), List.of(message), "Text(this.message)")).isPresent());
+        assertFalse(ComponentExpressionTransformer.transform(new InvocationExpression(
+                new IdentifierExpression("Text"), List.of(format), "Text(format(1))")).isPresent());
+        assertFalse(ComponentExpressionTransformer.transform((Expression) null).isPresent());
+    }
 }
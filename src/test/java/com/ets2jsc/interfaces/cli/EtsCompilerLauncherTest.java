@@ -43,6 +43,30 @@ class EtsCompilerLauncherTest {
         assertTrue(errContent.toString().contains("Usage:"));
     }
 
+    @Test
+    @DisplayName("Test execute returns error for unknown AST format")
+    void testExecuteReturnsErrorForUnknownAstFormat() {
+        ByteArrayOutputStream errContent = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(errContent));
+
+        int exitCode = EtsCompilerLauncher.execute(new String[]{"--ast-format", "xml", "input.ets", "output.js"});
+
+        assertEquals(1, exitCode);
+        assertTrue(errContent.toString().contains("Usage:"));
+    }
+
+    @Test
+    @DisplayName("Test execute returns error for missing AST format value")
+    void testExecuteReturnsErrorForMissingAstFormatValue() {
+        ByteArrayOutputStream errContent = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(errContent));
+
+        int exitCode = EtsCompilerLauncher.execute(new String[]{"input.ets", "output.js", "--ast-format"});
+
+        assertEquals(1, exitCode);
+        assertTrue(errContent.toString().contains("Usage:"));
+    }
+
     @Test
     @DisplayName("Test parseThreadCount with default value")
     void testParseThreadCountDefaultValue() {
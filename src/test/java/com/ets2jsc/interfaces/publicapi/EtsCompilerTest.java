@@ -10,6 +10,8 @@ import org.junit.jupiter.api.io.TempDir;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -171,6 +173,23 @@ class EtsCompilerTest {
         });
     }
 
+    @Test
+    @DisplayName("EtsCompiler should warm up in the background once")
+    void testWarmUp() throws Exception {
+        EtsCompiler compiler = EtsCompiler.builder().warmUp(true).build();
+        assertTrue(compiler.getConfig().isParserWarmUp());
+
+        CompletableFuture<Void> first = compiler.warmUp();
+        CompletableFuture<Void> second = compiler.warmUp();
+        assertNotSame(first, second);
+        // Both complete either way; a missing parser only fails the future
+        CompletableFuture.allOf(first, second).handle((ignored, error) -> null).get(60, TimeUnit.SECONDS);
+        assertEquals(first.isCompletedExceptionally(), second.isCompletedExceptionally());
+
+        compiler.close();
+        assertThrows(IllegalStateException.class, compiler::warmUp);
+    }
+
     @Test
     @DisplayName("EtsCompilerBuilder should throw exception for invalid thread count")
     void testBuilderThrowsExceptionForInvalidThreadCount() {
@@ -183,6 +202,14 @@ class EtsCompilerTest {
         });
     }
 
+    @Test
+    @DisplayName("EtsCompilerBuilder should throw exception for null parser backend")
+    void testBuilderThrowsExceptionForNullParserBackend() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            EtsCompiler.builder().parserBackend(null);
+        });
+    }
+
     @Test
     @DisplayName("EtsCompiler should provide result summary")
     void testProvidesResultSummary(@TempDir Path tempDir) throws Exception {
@@ -0,0 +1,113 @@
+package com.ets2jsc.shared.process;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BoundedOutputBuffer and CancellationToken.
+ */
+@DisplayName("BoundedOutputBuffer Tests")
+class BoundedOutputBufferTest {
+
+    private static void write(BoundedOutputBuffer buffer, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        buffer.write(bytes, 0, bytes.length);
+    }
+
+    @Test
+    @DisplayName("Test output below the capacity is kept whole")
+    void testKeepsShortOutput() {
+        BoundedOutputBuffer buffer = new BoundedOutputBuffer(16);
+        write(buffer, "abc");
+        write(buffer, "def");
+
+        assertEquals("abcdef", buffer.toString());
+        assertFalse(buffer.isTruncated());
+    }
+
+    @Test
+    @DisplayName("Test the oldest bytes are dropped past the capacity")
+    void testKeepsTail() {
+        BoundedOutputBuffer buffer = new BoundedOutputBuffer(5);
+        write(buffer, "abc");
+        write(buffer, "def");
+        write(buffer, "gh");
+
+        assertEquals("defgh", buffer.toString());
+        assertTrue(buffer.isTruncated());
+        assertEquals(3, buffer.getDroppedBytes());
+    }
+
+    @Test
+    @DisplayName("Test a write larger than the capacity keeps its tail")
+    void testLargeWrite() {
+        BoundedOutputBuffer buffer = new BoundedOutputBuffer(4);
+        write(buffer, "ab");
+        write(buffer, "0123456789");
+
+        assertEquals("6789", buffer.toString());
+        assertEquals(8, buffer.getDroppedBytes());
+    }
+
+    @Test
+    @DisplayName("Test the buffer grows past its initial size and wraps correctly")
+    void testGrowsAndWraps() throws Exception {
+        BoundedOutputBuffer buffer = new BoundedOutputBuffer(20_000);
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            expected.append(i % 10);
+        }
+        buffer.drain(new ByteArrayInputStream(expected.toString().getBytes(StandardCharsets.UTF_8)));
+        buffer.drain(new ByteArrayInputStream(expected.toString().repeat(4).getBytes(StandardCharsets.UTF_8)));
+
+        String all = expected.toString().repeat(5);
+        assertEquals(all.substring(all.length() - 20_000), buffer.toString());
+        assertEquals(5000, buffer.getDroppedBytes());
+    }
+
+    @Test
+    @DisplayName("Test cancelling a parent cancels children and runs their listeners once")
+    void testTokenCancellation() {
+        CancellationToken parent = CancellationToken.create();
+        CancellationToken child = parent.child(0, TimeUnit.SECONDS);
+        int[] calls = new int[1];
+        child.onCancel(() -> calls[0]++);
+
+        parent.cancel();
+        child.cancel();
+
+        assertTrue(child.isCancelled());
+        assertEquals(1, calls[0]);
+    }
+
+    @Test
+    @DisplayName("Test a child token never outlives its parent's deadline")
+    void testTokenDeadline() {
+        CancellationToken parent = CancellationToken.create().child(1, TimeUnit.SECONDS);
+        CancellationToken child = parent.child(1, TimeUnit.HOURS);
+
+        assertTrue(child.remainingNanos() <= TimeUnit.SECONDS.toNanos(1));
+        assertEquals(Long.MAX_VALUE, CancellationToken.create().remainingNanos());
+    }
+
+    @Test
+    @DisplayName("Test binding restores the previous token")
+    void testTokenBinding() {
+        CancellationToken outer = CancellationToken.create();
+        CancellationToken inner = CancellationToken.create();
+
+        try (CancellationToken.Scope ignored = outer.bind()) {
+            try (CancellationToken.Scope ignoredInner = inner.bind()) {
+                assertSame(inner, CancellationToken.current());
+            }
+            assertSame(outer, CancellationToken.current());
+        }
+        assertSame(CancellationToken.none(), CancellationToken.current());
+    }
+}
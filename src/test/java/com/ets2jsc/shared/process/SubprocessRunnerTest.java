@@ -0,0 +1,165 @@
+package com.ets2jsc.shared.process;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SubprocessRunner.
+ */
+@DisplayName("SubprocessRunner Tests")
+@DisabledOnOs(OS.WINDOWS)
+class SubprocessRunnerTest {
+
+    private static ProcessBuilder shell(String script) {
+        return new ProcessBuilder("sh", "-c", script);
+    }
+
+    @Test
+    @DisplayName("Test stdin is fed and both streams are captured")
+    void testCapturesBothStreams() throws Exception {
+        SubprocessRunner runner = SubprocessRunner.builder().build();
+
+        SubprocessRunner.Result result = runner.run(shell("cat; echo oops >&2; exit 3"),
+                "hello".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(3, result.getExitCode());
+        assertFalse(result.isTimedOut());
+        assertFalse(result.isSuccess());
+        assertEquals("hello", result.getStdout());
+        assertEquals("oops\n", result.getStderr());
+    }
+
+    @Test
+    @DisplayName("Test a chatty stderr does not stall the process and is kept bounded")
+    void testDrainsStreamsConcurrently() throws Exception {
+        SubprocessRunner runner = SubprocessRunner.builder()
+                .timeout(30, TimeUnit.SECONDS)
+                .stderrLimit(1024)
+                .build();
+
+        // Far more than a pipe buffer on stderr before anything is written to stdout
+        SubprocessRunner.Result result = runner.run(
+                shell("head -c 1000000 /dev/zero | tr '\\0' x >&2; echo done"), null);
+
+        assertTrue(result.isSuccess());
+        assertEquals("done\n", result.getStdout());
+        assertTrue(result.isStderrTruncated());
+        assertEquals(1024, result.getStderr().length());
+    }
+
+    @Test
+    @DisplayName("Test a process past its timeout is killed with its children")
+    void testTimeoutKillsProcessTree() throws Exception {
+        SubprocessRunner runner = SubprocessRunner.builder()
+                .timeout(300, TimeUnit.MILLISECONDS)
+                .build();
+
+        long start = System.nanoTime();
+        SubprocessRunner.Result result = runner.run(shell("sleep 30 & echo $!; wait"), null);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(result.isTimedOut());
+        assertFalse(result.isSuccess());
+        assertTrue(elapsedMillis < 10_000, "Runner waited " + elapsedMillis + " ms");
+        long childPid = Long.parseLong(result.getStdout().trim());
+        waitUntilGone(childPid);
+        assertFalse(ProcessHandle.of(childPid).map(ProcessHandle::isAlive).orElse(false));
+    }
+
+    @Test
+    @DisplayName("Test the deadline of the bound token applies")
+    void testBoundTokenDeadline() throws Exception {
+        SubprocessRunner runner = SubprocessRunner.builder().build();
+        CancellationToken token = CancellationToken.create().child(300, TimeUnit.MILLISECONDS);
+
+        SubprocessRunner.Result result;
+        try (CancellationToken.Scope ignored = token.bind()) {
+            result = runner.run(shell("sleep 30"), null);
+        }
+
+        assertTrue(result.isTimedOut());
+    }
+
+    @Test
+    @DisplayName("Test cancelling the bound token kills the process")
+    void testCancellation() {
+        SubprocessRunner runner = SubprocessRunner.builder().build();
+        CancellationToken batch = CancellationToken.create();
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try (CancellationToken.Scope ignored = batch.child(0, TimeUnit.SECONDS).bind()) {
+            scheduler.schedule(batch::cancel, 200, TimeUnit.MILLISECONDS);
+
+            assertThrows(CancellationException.class, () -> runner.run(shell("sleep 30"), null));
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Test a cancelled token prevents the process from starting")
+    void testAlreadyCancelled() {
+        SubprocessRunner runner = SubprocessRunner.builder().build();
+        CancellationToken token = CancellationToken.create();
+        token.cancel();
+
+        try (CancellationToken.Scope ignored = token.bind()) {
+            assertThrows(CancellationException.class, () -> runner.run(shell("exit 0"), null));
+        }
+    }
+
+    @Test
+    @DisplayName("Test a watch kills a long-lived process at the deadline")
+    void testWatchExpires() throws Exception {
+        SubprocessRunner runner = SubprocessRunner.builder()
+                .timeout(200, TimeUnit.MILLISECONDS)
+                .build();
+        Process process = shell("sleep 30").start();
+
+        try (SubprocessRunner.Watch watch = runner.watch(process)) {
+            assertTrue(process.waitFor(10, TimeUnit.SECONDS));
+            assertTrue(watch.isExpired());
+            assertFalse(watch.isCancelled());
+        }
+    }
+
+    @Test
+    @DisplayName("Test a closed watch leaves the process running")
+    void testWatchClosed() throws Exception {
+        SubprocessRunner runner = SubprocessRunner.builder()
+                .timeout(200, TimeUnit.MILLISECONDS)
+                .build();
+        Process process = shell("sleep 30").start();
+        try {
+            SubprocessRunner.Watch watch = runner.watch(process);
+            watch.close();
+
+            assertFalse(process.waitFor(500, TimeUnit.MILLISECONDS));
+            assertFalse(watch.isExpired());
+        } finally {
+            SubprocessRunner.destroyTree(process);
+        }
+    }
+
+    @Test
+    @DisplayName("Test builder rejects non-positive limits")
+    void testBuilderValidation() {
+        assertThrows(IllegalArgumentException.class,
+                () -> SubprocessRunner.builder().stdoutLimit(0).build());
+    }
+
+    private static void waitUntilGone(long pid) throws InterruptedException {
+        for (int i = 0; i < 100 && ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false); i++) {
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.ets2jsc.shared.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ResourceIndex.
+ */
+@DisplayName("ResourceIndex Tests")
+class ResourceIndexTest {
+
+    @Test
+    @DisplayName("Test index lists elements, media and raw files")
+    void testBuild(@TempDir Path tempDir) throws IOException {
+        Path project = createProject(tempDir);
+
+        ResourceIndex index = ResourceIndex.build(project);
+
+        assertEquals(3, index.size());
+        assertTrue(index.hasResource("color", "title"));
+        assertTrue(index.hasResource("media", "icon"));
+        assertTrue(index.hasResource("string", "app_name"));
+        assertFalse(index.hasResource("string", "missing"));
+        assertFalse(index.hasResource("string", "lib_name"));
+        assertEquals(-1, index.getResourceId("color", "title"));
+        assertEquals(-1, index.getResourceId("string", "missing"));
+        assertTrue(index.hasRawFile("data/config.json"));
+        assertFalse(index.hasRawFile("config.json"));
+    }
+
+    @Test
+    @DisplayName("Test ids are read from the ids assigned by the resource compiler")
+    void testAssignedIds(@TempDir Path tempDir) throws IOException {
+        Path project = createProject(tempDir);
+        Files.writeString(project.resolve("src/main/resources/base/element/id_defined.json"),
+                "{\"record\":[{\"type\":\"color\",\"name\":\"title\",\"id\":\"0x01000005\"}]}");
+        Path table = Files.createDirectories(project.resolve("build/default/intermediates/res/default"))
+                .resolve("ResourceTable.txt");
+        Files.writeString(table, "string app_name 0x0100000a\nmedia icon 16777227\n");
+
+        ResourceIndex index = ResourceIndex.build(project);
+
+        assertEquals(3, index.size());
+        assertEquals(0x01000005, index.getResourceId("color", "title"));
+        assertEquals(0x0100000a, index.getResourceId("string", "app_name"));
+        assertEquals(16777227, index.getResourceId("media", "icon"));
+
+        Path indexFile = tempDir.resolve(ResourceIndex.INDEX_FILE_NAME);
+        ResourceIndex.load(project, indexFile);
+        assertEquals(0x01000005, ResourceIndex.load(project, indexFile).getResourceId("color", "title"));
+    }
+
+    @Test
+    @DisplayName("Test resources next to a source directory are found")
+    void testSourceDirectory(@TempDir Path tempDir) throws IOException {
+        Path project = createProject(tempDir);
+        Path sourceDir = Files.createDirectories(project.resolve("src/main/ets"));
+
+        assertEquals(3, ResourceIndex.build(sourceDir).size());
+        assertTrue(ResourceIndex.build(Files.createDirectories(tempDir.resolve("empty"))).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test persisted index is reused until resources change")
+    void testLoad(@TempDir Path tempDir) throws IOException {
+        Path project = createProject(tempDir);
+        Path indexFile = tempDir.resolve("out").resolve(ResourceIndex.INDEX_FILE_NAME);
+
+        ResourceIndex built = ResourceIndex.load(project, indexFile);
+        assertTrue(Files.isRegularFile(indexFile));
+        ResourceIndex reused = ResourceIndex.load(project, indexFile);
+
+        assertEquals(built.size(), reused.size());
+        assertTrue(reused.hasResource("media", "icon"));
+        assertTrue(reused.hasRawFile("data/config.json"));
+
+        Path strings = project.resolve("src/main/resources/base/element/string.json");
+        Files.writeString(strings, "{\"string\":[{\"name\":\"app_name\",\"value\":\"a\"},"
+                + "{\"name\":\"subtitle\",\"value\":\"b\"}]}");
+        Files.setLastModifiedTime(strings, FileTime.fromMillis(System.currentTimeMillis() + 1000));
+
+        ResourceIndex rebuilt = ResourceIndex.load(project, indexFile);
+        assertEquals(4, rebuilt.size());
+        assertTrue(rebuilt.hasResource("string", "subtitle"));
+    }
+
+    @Test
+    @DisplayName("Test added resource files are detected by the times of their directories")
+    void testLoadDetectsAddedFiles(@TempDir Path tempDir) throws IOException {
+        Path project = createProject(tempDir);
+        Path indexFile = tempDir.resolve(ResourceIndex.INDEX_FILE_NAME);
+        Path rawfile = project.resolve("src/main/resources/rawfile/data");
+        Path media = project.resolve("src/main/resources/base/media");
+        ResourceIndex.load(project, indexFile);
+
+        Files.writeString(media.resolve("logo.png"), "png");
+        Files.writeString(rawfile.resolve("extra.json"), "{}");
+        long later = System.currentTimeMillis() + 2000;
+        Files.setLastModifiedTime(media, FileTime.fromMillis(later));
+        Files.setLastModifiedTime(rawfile, FileTime.fromMillis(later));
+
+        ResourceIndex rebuilt = ResourceIndex.load(project, indexFile);
+        ResourceIndex mapped = ResourceIndex.load(project, indexFile);
+        assertEquals(rebuilt.size(), mapped.size());
+        assertTrue(mapped.hasResource("media", "logo"));
+        assertTrue(mapped.hasResource("media", "icon"));
+        assertTrue(mapped.hasRawFile("data/extra.json"));
+        assertTrue(mapped.hasRawFile("data/config.json"));
+        assertFalse(mapped.hasRawFile("data/extra"));
+    }
+
+    @Test
+    @DisplayName("Test damaged index file is rebuilt")
+    void testDamagedIndex(@TempDir Path tempDir) throws IOException {
+        Path project = createProject(tempDir);
+        Path indexFile = tempDir.resolve(ResourceIndex.INDEX_FILE_NAME);
+        Files.write(indexFile, new byte[] {1, 2, 3});
+
+        assertEquals(3, ResourceIndex.load(project, indexFile).size());
+        assertTrue(Files.size(indexFile) > 3);
+    }
+
+    @Test
+    @DisplayName("Test build index is kept in the cache directory and failures give an empty index")
+    void testLoadForBuild(@TempDir Path tempDir) throws IOException {
+        Path project = createProject(tempDir);
+        Path cacheDir = tempDir.resolve("cache");
+        String previous = System.getProperty(ResourceIndex.CACHE_DIR_PROPERTY);
+        System.setProperty(ResourceIndex.CACHE_DIR_PROPERTY, cacheDir.toString());
+        try {
+            assertEquals(3, ResourceIndex.loadForBuild(project).size());
+            assertTrue(Files.isRegularFile(ResourceIndex.defaultIndexFile(project)));
+            assertTrue(ResourceIndex.defaultIndexFile(project).startsWith(cacheDir));
+
+            Files.writeString(cacheDir.resolve("blocked"), "");
+            System.setProperty(ResourceIndex.CACHE_DIR_PROPERTY, cacheDir.resolve("blocked").toString());
+            assertEquals(3, ResourceIndex.loadForBuild(project).size());
+        } finally {
+            if (previous != null) {
+                System.setProperty(ResourceIndex.CACHE_DIR_PROPERTY, previous);
+            } else {
+                System.clearProperty(ResourceIndex.CACHE_DIR_PROPERTY);
+            }
+        }
+    }
+
+    private static Path createProject(Path tempDir) throws IOException {
+        Path project = tempDir.resolve("project");
+        Path resources = project.resolve("src/main/resources");
+        Files.createDirectories(resources.resolve("base/element"));
+        Files.createDirectories(resources.resolve("base/media"));
+        Files.createDirectories(resources.resolve("zh_CN/element"));
+        Files.createDirectories(resources.resolve("rawfile/data"));
+        Files.writeString(resources.resolve("base/element/string.json"),
+                "{\"string\":[{\"name\":\"app_name\",\"value\":\"App\"}]}");
+        Files.writeString(resources.resolve("base/element/color.json"),
+                "{\"color\":[{\"name\":\"title\",\"value\":\"#000000\"}]}");
+        Files.writeString(resources.resolve("zh_CN/element/string.json"),
+                "{\"string\":[{\"name\":\"app_name\",\"value\":\"应用\"}]}");
+        Files.writeString(resources.resolve("base/media/icon.png"), "png");
+        Files.writeString(resources.resolve("rawfile/data/config.json"), "{}");
+        Files.createDirectories(project.resolve("node_modules/lib/resources/base/element"));
+        Files.writeString(project.resolve("node_modules/lib/resources/base/element/string.json"),
+                "{\"string\":[{\"name\":\"lib_name\",\"value\":\"lib\"}]}");
+        return project;
+    }
+}
@@ -0,0 +1,109 @@
+#!/usr/bin/env node
+
+/**
+ * SyntaxKind Generator
+ * Generates the Java SyntaxKind enum from the bundled TypeScript declarations
+ * @module tools/generate-syntax-kind
+ *
+ * A build-time tool of the repository: it lives outside the parser script
+ * resources, so it is not packaged into the compiler JAR.
+ *
+ * The parser script sends each node's kind id and the name ts.SyntaxKind
+ * returns for it. TypeScript enums map ids back to the last name declared
+ * for them, so ids with range markers report the marker (FirstStatement for
+ * VariableStatement); the generated enum keeps both names.
+ *
+ * @example
+ *   node tools/generate-syntax-kind.js [output-file]
+ *   npm run generate-syntax-kind     (from the parser script directory)
+ */
+
+const fs = require('fs');
+const path = require('path');
+
+const ROOT = path.join(__dirname, '..');
+const TYPESCRIPT = path.join(ROOT, 'src', 'main', 'resources', 'typescript-parser', 'node_modules', 'typescript');
+const DECLARATIONS = path.join(TYPESCRIPT, 'lib', 'typescript.d.ts');
+const PACKAGE = path.join(TYPESCRIPT, 'package.json');
+const DEFAULT_OUTPUT = path.join(ROOT, 'src', 'main', 'java',
+    'com', 'ets2jsc', 'infrastructure', 'parser', 'SyntaxKind.java');
+const ENUM_PATTERN = /^ {4}enum SyntaxKind \{\r?\n([\s\S]*?)^ {4}\}/m;
+const MEMBER_PATTERN = /^\s*(\w+) = (\d+),?$/;
+const SENTINEL = 'Count';
+
+/**
+ * Read the SyntaxKind members in declaration order.
+ * @param {string} declarations - Contents of typescript.d.ts
+ * @returns {Array<{name: string, id: number}>} Members
+ */
+function readMembers(declarations) {
+    const match = ENUM_PATTERN.exec(declarations);
+    if (!match) {
+        throw new Error('SyntaxKind enum not found in ' + DECLARATIONS);
+    }
+    return match[1].split('\n')
+        .map(line => MEMBER_PATTERN.exec(line))
+        .filter(Boolean)
+        .map(member => ({ name: member[1], id: Number(member[2]) }));
+}
+
+/**
+ * Convert a kind name to a Java constant name.
+ * @param {string} name - Kind name, e.g. JSDocImportTag
+ * @returns {string} Constant name, e.g. JS_DOC_IMPORT_TAG
+ */
+function toConstantName(name) {
+    return name
+        .replace(/([a-z0-9])([A-Z])/g, '$1_$2')
+        .replace(/([A-Z])([A-Z][a-z])/g, '$1_$2')
+        .toUpperCase();
+}
+
+/**
+ * Build the kinds: the first name of each id, with the name ts.SyntaxKind reports.
+ * @param {Array<{name: string, id: number}>} members - Enum members
+ * @returns {Array<{constant: string, id: number, name: string, kindName: string}>} Kinds by id
+ */
+function buildKinds(members) {
+    const kinds = new Map();
+    for (const { name, id } of members) {
+        if (name === SENTINEL) {
+            continue;
+        }
+        const kind = kinds.get(id);
+        if (kind) {
+            kind.kindName = name;
+        } else {
+            kinds.set(id, { constant: toConstantName(name), id, name, kindName: name });
+        }
+    }
+    return [...kinds.values()].sort((a, b) => a.id - b.id);
+}
+
+/**
+ * Render the Java enum.
+ * @param {Array<{constant: string, id: number, name: string, kindName: string}>} kinds - Kinds by id
+ * @param {string} version - TypeScript version
+ * @returns {string} Java source
+ */
+function render(kinds, version) {
+    const constants = kinds
+        .map(kind => kind.kindName === kind.name
+            ? `    ${kind.constant}(${kind.id}, "${kind.name}")`
+            : `    ${kind.constant}(${kind.id}, "${kind.name}", "${kind.kindName}")`)
+        .join(',\n');
+    const template = fs.readFileSync(path.join(__dirname, 'SyntaxKind.java.template'), 'utf8');
+    return template
+        .split('${VERSION}').join(version)
+        .replace('${CONSTANTS}', () => constants);
+}
+
+function main() {
+    const output = process.argv[2] || DEFAULT_OUTPUT;
+    const version = JSON.parse(fs.readFileSync(PACKAGE, 'utf8')).version;
+    const kinds = buildKinds(readMembers(fs.readFileSync(DECLARATIONS, 'utf8')));
+    fs.writeFileSync(output, render(kinds, version));
+    console.log(`Wrote ${kinds.length} kinds of TypeScript ${version} to ${output}`);
+}
+
+main();